@@ -0,0 +1,88 @@
+package com.uq.execution;
+
+import io.quarkus.runtime.StartupEvent;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Arma los componentes de ejecución sin CDI, con la misma configuración por defecto que
+ * {@code application.properties}. Las clases están en el paquete {@code com.uq.execution}
+ * para poder asignar los campos de configuración y medir los pasos internos por separado.
+ */
+final class BenchmarkSupport {
+
+    static final int MAX_OUTPUT_CHARS = 262144;
+
+    private BenchmarkSupport() {
+    }
+
+    // Sin caché: cada ejecución compila, como la primera vez que se ejecuta un programa
+    static CompileCache disabledCompileCache() {
+        CompileCache cache = new CompileCache();
+        cache.enabled = false;
+        return cache;
+    }
+
+    /**
+     * Opciones de las JVM hijas con el perfil indicado. Con {@code cds} el archivo se genera
+     * (o se reutiliza) antes de retornar, para que todas las mediciones lo usen.
+     */
+    static ChildJvmOptions jvmOptions(String profile, boolean cds) throws IOException, InterruptedException {
+        ChildJvmOptions options = new ChildJvmOptions();
+        options.profileName = profile;
+        options.maxHeap = "256m";
+        options.cdsEnabled = cds;
+        options.cdsDir = Optional.empty();
+        if (cds) {
+            options.buildArchive();
+        }
+        return options;
+    }
+
+    static RunnerPool startPool(boolean enabled, ChildJvmOptions jvmOptions) {
+        RunnerPool pool = new RunnerPool();
+        pool.childJvmOptions = jvmOptions;
+        pool.enabled = enabled;
+        pool.minSize = 2;
+        pool.maxSize = 8;
+        pool.maxRunsPerWorker = 1;
+        pool.idleTimeoutSeconds = 300;
+        pool.healthCheckIntervalSeconds = 1;
+        pool.trustedMinSize = 0;
+        pool.trustedMaxSize = 1;
+        pool.trustedMaxRunsPerWorker = 500;
+        pool.onStart(new StartupEvent());
+        return pool;
+    }
+
+    static WorkspaceManager startWorkspaces() {
+        WorkspaceManager workspaces = new WorkspaceManager();
+        workspaces.root = Optional.empty();
+        workspaces.poolSize = 8;
+        workspaces.sweepIntervalSeconds = 60;
+        workspaces.onStart(new StartupEvent());
+        return workspaces;
+    }
+
+    static ProgramExecutor newExecutor(RunnerPool pool, WorkspaceManager workspaces, ChildJvmOptions jvmOptions) {
+        ProgramExecutor executor = new ProgramExecutor();
+        executor.runnerPool = pool;
+        executor.childJvmOptions = jvmOptions;
+        executor.workspaceManager = workspaces;
+        executor.compileCache = disabledCompileCache();
+        executor.maxOutputChars = MAX_OUTPUT_CHARS;
+        executor.maxSourceChars = 100_000;
+        executor.compileThreads = 0;
+        executor.init();
+        return executor;
+    }
+
+    // Espera a que el mantenimiento del pool complete el mínimo de trabajadores
+    static void awaitIdleWorkers(RunnerPool pool, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (pool.getIdleWorkers() < count && System.nanoTime() - deadline < 0) {
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.uq.execution;
+
+import com.uq.dto.ProgramaExecutionResultDTO;
+import com.uq.exception.ProgramExecutionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compilación de cada programa del corpus: en memoria con {@link JavaSourceCompiler} (ruta
+ * normal) y con un proceso {@code javac} (ruta alternativa cuando la JVM no trae el compilador).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompileBenchmark {
+
+    @Param({"HOLA_MUNDO", "CPU", "SALIDA_GRANDE", "ERROR_COMPILACION"})
+    public Corpus programa;
+
+    private final JavaSourceCompiler compiler = new JavaSourceCompiler();
+    private WorkspaceManager workspaces;
+    private ProgramExecutor executor;
+    private String source;
+    private Path dir;
+
+    @Setup
+    public void setup() {
+        workspaces = BenchmarkSupport.startWorkspaces();
+        executor = BenchmarkSupport.newExecutor(null, workspaces, null);
+        source = programa.source();
+    }
+
+    @Setup(Level.Invocation)
+    public void acquireDir() throws IOException {
+        dir = workspaces.acquire();
+    }
+
+    @TearDown(Level.Invocation)
+    public void releaseDir() {
+        workspaces.release(dir);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+        workspaces.shutdown();
+    }
+
+    @Benchmark
+    public CompilationResult inMemory() {
+        return compiler.compile("Main", source);
+    }
+
+    @Benchmark
+    public ProgramaExecutionResultDTO javacProcess() throws IOException, InterruptedException {
+        ProgramaExecutionResultDTO result = new ProgramaExecutionResultDTO();
+        try {
+            executor.compileWithJavacProcess(dir, source, result);
+        } catch (ProgramExecutionException e) {
+            // Error de compilación esperado en ERROR_COMPILACION: el costo es el mismo
+        }
+        return result;
+    }
+}
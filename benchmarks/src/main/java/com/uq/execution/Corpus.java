@@ -0,0 +1,43 @@
+package com.uq.execution;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Programas representativos de los estudiantes usados por los benchmarks
+ * ({@code src/main/resources/corpus}). Todos declaran la clase {@code Main}.
+ */
+public enum Corpus {
+
+    HOLA_MUNDO("hola_mundo"),
+    CPU("cpu"),
+    SALIDA_GRANDE("salida_grande"),
+    ERROR_COMPILACION("error_compilacion");
+
+    private final String resource;
+    private String source;
+
+    Corpus(String resource) {
+        this.resource = resource;
+    }
+
+    public synchronized String source() {
+        if (source == null) {
+            try (InputStream in = Corpus.class.getResourceAsStream("/corpus/" + resource + ".java")) {
+                if (in == null) {
+                    throw new IllegalStateException("No se encontró el programa del corpus: " + resource);
+                }
+                source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return source;
+    }
+
+    public boolean compiles() {
+        return this != ERROR_COMPILACION;
+    }
+}
@@ -0,0 +1,76 @@
+package com.uq.execution;
+
+import com.uq.dto.ProgramaExecutionResultDTO;
+import com.uq.exception.ProgramExecutionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Camino completo de {@code ProgramaService.executeProgram} a partir del código fuente:
+ * compilación (sin caché), ejecución y lectura de la salida, con y sin pool de JVM. Las JVM
+ * hijas usan el perfil {@code inicio-rapido} con archivo CDS, como en la configuración por defecto.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EndToEndBenchmark {
+
+    @Param({"HOLA_MUNDO", "CPU", "SALIDA_GRANDE", "ERROR_COMPILACION"})
+    public Corpus programa;
+
+    @Param({"true", "false"})
+    public boolean pool;
+
+    private RunnerPool runnerPool;
+    private WorkspaceManager workspaces;
+    private ProgramExecutor executor;
+    private String source;
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        // Configuración por defecto de application.properties
+        ChildJvmOptions jvmOptions = BenchmarkSupport.jvmOptions("inicio-rapido", true);
+        runnerPool = BenchmarkSupport.startPool(pool, jvmOptions);
+        workspaces = BenchmarkSupport.startWorkspaces();
+        executor = BenchmarkSupport.newExecutor(runnerPool, workspaces, jvmOptions);
+        source = programa.source();
+        if (pool) {
+            BenchmarkSupport.awaitIdleWorkers(runnerPool, runnerPool.minSize);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+        runnerPool.shutdown();
+        workspaces.shutdown();
+    }
+
+    @Benchmark
+    public ProgramaExecutionResultDTO execute() {
+        try {
+            return executor.execute(source);
+        } catch (ProgramExecutionException e) {
+            if (programa.compiles()) {
+                throw e;
+            }
+            return null; // Error de compilación esperado
+        }
+    }
+}
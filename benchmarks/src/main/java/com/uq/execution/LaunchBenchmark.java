@@ -0,0 +1,82 @@
+package com.uq.execution;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ejecución de un programa ya compilado, incluida la lectura de stdout/stderr: en un proceso
+ * {@code java} nuevo (arranque de la JVM completo) y en una JVM del {@link RunnerPool}, con cada
+ * perfil de opciones de las JVM hijas y con o sin archivo CDS.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LaunchBenchmark {
+
+    @Param({"HOLA_MUNDO", "CPU", "SALIDA_GRANDE"})
+    public Corpus programa;
+
+    // Perfil de execution.jvm.profile
+    @Param({"jdk", "inicio-rapido"})
+    public String perfil;
+
+    @Param({"false", "true"})
+    public boolean cds;
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(ProgramExecutor.EXECUTION_TIMEOUT_SECONDS);
+
+    private RunnerPool pool;
+    private WorkspaceManager workspaces;
+    private ProgramExecutor executor;
+    private Map<String, byte[]> classes;
+    private Path dir;
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+        ChildJvmOptions jvmOptions = BenchmarkSupport.jvmOptions(perfil, cds);
+        pool = BenchmarkSupport.startPool(true, jvmOptions);
+        workspaces = BenchmarkSupport.startWorkspaces();
+        executor = BenchmarkSupport.newExecutor(pool, workspaces, jvmOptions);
+        classes = new JavaSourceCompiler().compile("Main", programa.source()).getClassBytes();
+        dir = workspaces.acquire();
+        executor.writeClassFiles(dir, classes);
+        BenchmarkSupport.awaitIdleWorkers(pool, pool.minSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        workspaces.release(dir);
+        executor.shutdown();
+        pool.shutdown();
+        workspaces.shutdown();
+    }
+
+    @Benchmark
+    public RunResult newProcess() throws IOException, InterruptedException {
+        ExecutionHandle handle = executor.newHandle();
+        return executor.runInNewProcess(dir, handle, new byte[0], handle.getOutput());
+    }
+
+    @Benchmark
+    public RunResult pooledWorker() throws IOException, InterruptedException {
+        return pool.run(classes, "Main", new byte[0], TIMEOUT_MILLIS, executor.newHandle());
+    }
+}
@@ -0,0 +1,61 @@
+package com.uq.execution;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectura de la salida de un programa sin el proceso: {@link BoundedLineReader} sobre los
+ * bytes ya producidos y copia al buffer acotado de {@link ExecutionOutput}, como hacen los
+ * lectores de stdout/stderr del ejecutor y del pool.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputBenchmark {
+
+    // Líneas escritas por el programa; 100000 supera el límite de salida por canal
+    @Param({"10", "1000", "100000"})
+    public int lineas;
+
+    private byte[] stdout;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lineas; i++) {
+            sb.append("Linea ").append(i).append(": el valor acumulado es ").append(i * 31 % 977).append('\n');
+        }
+        stdout = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String gobble() throws IOException {
+        ExecutionOutput output = new ExecutionOutput(BenchmarkSupport.MAX_OUTPUT_CHARS);
+        try (InputStreamReader in = new InputStreamReader(new ByteArrayInputStream(stdout))) {
+            BoundedLineReader reader = new BoundedLineReader(in, BoundedLineReader.MAX_LINE_CHARS);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.append(ExecutionOutput.Channel.STDOUT, line, reader.lastLineTerminated());
+            }
+        }
+        return output.getText(ExecutionOutput.Channel.STDOUT);
+    }
+}
@@ -0,0 +1,89 @@
+package com.uq.execution;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Costo del directorio de trabajo de cada ejecución: un directorio reutilizable del
+ * {@link WorkspaceManager} frente a un directorio temporal nuevo que se borra recorriéndolo,
+ * y la escritura del código fuente (ruta con proceso javac) y de las clases compiladas (ruta sin pool).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkspaceBenchmark {
+
+    private WorkspaceManager workspaces;
+    private ProgramExecutor executor;
+    private Map<String, byte[]> classes;
+    private String source;
+
+    @Setup
+    public void setup() {
+        workspaces = BenchmarkSupport.startWorkspaces();
+        executor = BenchmarkSupport.newExecutor(null, workspaces, null);
+        source = Corpus.HOLA_MUNDO.source();
+        classes = new JavaSourceCompiler().compile("Main", source).getClassBytes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        workspaces.shutdown();
+    }
+
+    // Referencia: lo que se hacía antes de los workspaces, en el directorio temporal del sistema
+    @Benchmark
+    public Path tempDirectory() throws IOException {
+        Path dir = Files.createTempDirectory("java_exec_");
+        Files.write(dir.resolve("Main.class"), classes.get("Main"));
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+        return dir;
+    }
+
+    @Benchmark
+    public Path acquireAndRelease() throws IOException {
+        Path dir = workspaces.acquire();
+        workspaces.release(dir);
+        return dir;
+    }
+
+    @Benchmark
+    public Path writeSource() throws IOException {
+        Path dir = workspaces.acquire();
+        Files.writeString(dir.resolve("Main.java"), source, StandardCharsets.UTF_8);
+        workspaces.release(dir);
+        return dir;
+    }
+
+    @Benchmark
+    public Path writeClasses() throws IOException {
+        Path dir = workspaces.acquire();
+        executor.writeClassFiles(dir, classes);
+        workspaces.release(dir);
+        return dir;
+    }
+}
@@ -0,0 +1,19 @@
+public class Main {
+    public static void main(String[] args) {
+        // Cuenta primos por division: algunos cientos de ms de CPU, como un ejercicio de bucles anidados
+        int count = 0;
+        for (int n = 2; n < 1_000_000; n++) {
+            boolean prime = true;
+            for (int d = 2; (long) d * d <= n; d++) {
+                if (n % d == 0) {
+                    prime = false;
+                    break;
+                }
+            }
+            if (prime) {
+                count++;
+            }
+        }
+        System.out.println("Primos: " + count);
+    }
+}
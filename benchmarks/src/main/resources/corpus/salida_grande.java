@@ -0,0 +1,9 @@
+public class Main {
+    public static void main(String[] args) {
+        // ~3 MB por stdout: supera el limite de salida y ejercita el buffer circular
+        for (int i = 0; i < 100_000; i++) {
+            System.out.println("Linea " + i + ": el valor acumulado es " + (i * 31 % 977));
+        }
+        System.err.println("Fin");
+    }
+}
@@ -0,0 +1,15 @@
+-- Casos de prueba de un programa o de un ejemplo (entrada estándar y salida esperada)
+CREATE TABLE IF NOT EXISTS caso_prueba (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    nombre          VARCHAR(255) NULL,
+    entrada         TEXT         NULL,
+    salida_esperada TEXT         NULL,
+    orden           INT          NOT NULL DEFAULT 0,
+    programa_id     BIGINT       NULL,
+    ejemplo_id      BIGINT       NULL,
+    PRIMARY KEY (id),
+    KEY idx_caso_prueba_programa (programa_id, orden),
+    KEY idx_caso_prueba_ejemplo (ejemplo_id, orden),
+    CONSTRAINT fk_caso_prueba_programa FOREIGN KEY (programa_id) REFERENCES programa (id),
+    CONSTRAINT fk_caso_prueba_ejemplo FOREIGN KEY (ejemplo_id) REFERENCES ejemplo (id)
+);
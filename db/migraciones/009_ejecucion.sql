@@ -0,0 +1,22 @@
+-- Historial de ejecuciones de los programas: resultado y costo de cada una
+CREATE TABLE IF NOT EXISTS ejecucion (
+    id                BIGINT      NOT NULL AUTO_INCREMENT,
+    programa_id       BIGINT      NULL,
+    estudiante_id     BIGINT      NULL,
+    fecha             DATETIME(6) NULL,
+    estado            VARCHAR(32) NULL,
+    exit_code         INT         NULL,
+    queue_millis      BIGINT      NOT NULL DEFAULT 0,
+    compile_millis    BIGINT      NOT NULL DEFAULT 0,
+    run_millis        BIGINT      NOT NULL DEFAULT 0,
+    cpu_user_millis   BIGINT      NOT NULL DEFAULT -1,
+    cpu_system_millis BIGINT      NOT NULL DEFAULT -1,
+    peak_rss_kb       BIGINT      NOT NULL DEFAULT -1,
+    stdout_bytes      BIGINT      NOT NULL DEFAULT 0,
+    stderr_bytes      BIGINT      NOT NULL DEFAULT 0,
+    output_truncated  BIT(1)      NOT NULL DEFAULT b'0',
+    PRIMARY KEY (id),
+    KEY idx_ejecucion_programa (programa_id),
+    -- Sin FK a estudiante: quien ejecutó un programa compartido puede no ser su dueño
+    CONSTRAINT fk_ejecucion_programa FOREIGN KEY (programa_id) REFERENCES programa (id)
+);
@@ -0,0 +1,18 @@
+-- Salidas (stdout o stderr) de las ejecuciones, guardadas una sola vez por contenido
+CREATE TABLE IF NOT EXISTS salida_ejecucion (
+    id             BIGINT      NOT NULL AUTO_INCREMENT,
+    hash           CHAR(64)    NOT NULL,
+    contenido      MEDIUMTEXT  NULL,
+    fecha_creacion DATETIME(6) NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_salida_ejecucion_hash UNIQUE (hash)
+);
+
+-- Cada ejecución guarda el hash del código ejecutado y referencia sus salidas
+ALTER TABLE ejecucion
+    ADD COLUMN codigo_hash        VARCHAR(64) NULL,
+    ADD COLUMN salida_estandar_id BIGINT      NULL,
+    ADD COLUMN salida_error_id    BIGINT      NULL,
+    ADD KEY idx_ejecucion_fecha (fecha),
+    ADD CONSTRAINT fk_ejecucion_salida_estandar FOREIGN KEY (salida_estandar_id) REFERENCES salida_ejecucion (id),
+    ADD CONSTRAINT fk_ejecucion_salida_error FOREIGN KEY (salida_error_id) REFERENCES salida_ejecucion (id);
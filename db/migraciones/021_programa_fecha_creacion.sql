@@ -0,0 +1,5 @@
+-- Fecha de creación de cada programa, para filtrar el informe de progreso por rango de fechas.
+-- Los programas existentes quedan con NULL: no aparecen en los informes filtrados por fecha.
+ALTER TABLE programa
+    ADD COLUMN fecha_creacion DATETIME(6) NULL,
+    ADD KEY idx_programa_fecha_creacion (fecha_creacion);
@@ -8,6 +8,9 @@ import com.uq.security.TokenResponse;
 import com.uq.service.ComentarioService;
 import com.uq.service.EjemploService;
 import com.uq.service.EstudianteService;
+import com.uq.service.EvaluacionService;
+import com.uq.service.ExecutionJobService;
+import com.uq.service.ExecutionStreamService;
 import com.uq.service.ProgramaService;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
@@ -16,6 +19,8 @@ import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SecuritySchemeType;
@@ -67,6 +72,15 @@ public class EstudianteController {
     @Inject
     ComentarioService comentarioService;
 
+    @Inject
+    ExecutionJobService executionJobService;
+
+    @Inject
+    ExecutionStreamService executionStreamService;
+
+    @Inject
+    EvaluacionService evaluacionService;
+
 
 
     // --- Endpoints de Registro, Verificación y Login ---
@@ -643,6 +657,8 @@ public class EstudianteController {
     @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es el dueño)")
     @APIResponse(responseCode = "404", description = "Programa no encontrado")
     @APIResponse(responseCode = "400", description = "Error de ejecución o compilación del código")
+    @APIResponse(responseCode = "429", description = "El estudiante ya tiene demasiadas ejecuciones en espera (ver cabecera Retry-After)")
+    @APIResponse(responseCode = "503", description = "Servidor saturado (ver cabecera Retry-After)")
     @APIResponse(responseCode = "500", description = "Error interno del servidor al intentar ejecutar")
     @Produces(MediaType.APPLICATION_JSON)
     public Response executePrograma(
@@ -675,6 +691,14 @@ public class EstudianteController {
             return Response.status(Response.Status.NOT_FOUND).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
         } catch (UnauthorizedException e) {
             return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ExecutionQuotaExceededException e) {
+            return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                    .header("Retry-After", e.getRetryAfterSeconds())
+                    .entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ExecutionRejectedException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", e.getRetryAfterSeconds())
+                    .entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
         } catch (ProgramExecutionException e) {
             if (e.getMessage().contains("Error de compilación") || e.getMessage().contains("código fuente vacío")) {
                 // Para errores de compilación o código vacío
@@ -696,6 +720,392 @@ public class EstudianteController {
         }
     }
 
+    // Endpoint para obtener los errores de compilación de un programa sin ejecutarlo
+    @POST
+    @Path("/programas/{programaId}/diagnosticos")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Diagnósticos de compilación de un programa", description = "Analiza el código guardado del programa con el compilador, sin ejecutarlo, y retorna los errores y advertencias con su línea y columna. Si el mismo estudiante envía otra solicitud antes de que esta se analice, esta se descarta (descartada = true). Requiere autenticación y ser el dueño.")
+    @APIResponse(responseCode = "200", description = "Análisis completado (incluye los errores de compilación)",
+            content = @Content(schema = @Schema(implementation = DiagnosticosResultDTO.class)))
+    @APIResponse(responseCode = "400", description = "Código fuente vacío o demasiado grande")
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es el dueño)")
+    @APIResponse(responseCode = "404", description = "Programa no encontrado")
+    @APIResponse(responseCode = "503", description = "Demasiados análisis en espera (ver cabecera Retry-After)")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response checkPrograma(
+            @PathParam("programaId") Long programaId
+    ) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> checkPrograma: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedEstudianteId;
+        try {
+            authenticatedEstudianteId = estudianteService.getIdByEmail(authenticatedUserEmail);
+            if (authenticatedEstudianteId == null) {
+                LOGGER.severe("-> checkPrograma: Usuario autenticado con email '" + authenticatedUserEmail + "' no encontrado en DB.");
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno: Usuario autenticado no encontrado.\"}").type(MediaType.APPLICATION_JSON).build();
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> checkPrograma: ERROR inesperado al obtener ID del usuario autenticado.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al obtener información del usuario autenticado.\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            DiagnosticosResultDTO result = programaService.checkProgram(programaId, authenticatedEstudianteId);
+            return Response.ok(result).build();
+
+        } catch (ProgramNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (UnauthorizedException e) {
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ExecutionRejectedException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", e.getRetryAfterSeconds())
+                    .entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ProgramExecutionException e) {
+            if (e.getMessage().contains("código fuente del programa está vacío")) {
+                return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+            }
+            LOGGER.log(Level.SEVERE, "Error inesperado durante el análisis del código.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno al analizar el código: " + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+        catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado en el endpoint de diagnósticos.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al analizar el código.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
+    // Endpoint para obtener los errores de compilación de un código en edición (sin guardarlo ni ejecutarlo)
+    @POST
+    @Path("/diagnosticos")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Diagnósticos de compilación de un borrador", description = "Analiza el código enviado con el compilador, sin guardarlo ni ejecutarlo, y retorna los errores y advertencias con su línea y columna. Pensado para el editor: si el mismo estudiante envía otra solicitud antes de que esta se analice, esta se descarta (descartada = true).")
+    @APIResponse(responseCode = "200", description = "Análisis completado (incluye los errores de compilación)",
+            content = @Content(schema = @Schema(implementation = DiagnosticosResultDTO.class)))
+    @APIResponse(responseCode = "400", description = "Código fuente vacío o demasiado grande")
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "503", description = "Demasiados análisis en espera (ver cabecera Retry-After)")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response checkBorrador(@Valid CodigoFuenteRequestDTO request) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> checkBorrador: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedEstudianteId;
+        try {
+            authenticatedEstudianteId = estudianteService.getIdByEmail(authenticatedUserEmail);
+            if (authenticatedEstudianteId == null) {
+                LOGGER.severe("-> checkBorrador: Usuario autenticado con email '" + authenticatedUserEmail + "' no encontrado en DB.");
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno: Usuario autenticado no encontrado.\"}").type(MediaType.APPLICATION_JSON).build();
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> checkBorrador: ERROR inesperado al obtener ID del usuario autenticado.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al obtener información del usuario autenticado.\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            DiagnosticosResultDTO result = programaService.checkDraft(request.getCodigoFuente(), authenticatedEstudianteId);
+            return Response.ok(result).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ExecutionRejectedException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", e.getRetryAfterSeconds())
+                    .entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ProgramExecutionException e) {
+            if (e.getMessage().contains("código fuente del programa está vacío")) {
+                return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+            }
+            LOGGER.log(Level.SEVERE, "Error inesperado durante el análisis del código.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno al analizar el código: " + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+        catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado en el endpoint de diagnósticos.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al analizar el código.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
+    // Endpoint para evaluar un programa con sus casos de prueba
+    @POST
+    @Path("/programas/{programaId}/evaluar")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Evalúa un programa con casos de prueba", description = "Compila el programa una vez y lo ejecuta con cada caso de prueba del programa (o del ejemplo compartido indicado), retornando un veredicto por caso. Requiere autenticación y ser el dueño.")
+    @APIResponse(responseCode = "200", description = "Evaluación completada (incluye errores de compilación y casos fallidos)",
+            content = @Content(schema = @Schema(implementation = EvaluacionResultDTO.class)))
+    @APIResponse(responseCode = "400", description = "Código fuente vacío o no hay casos de prueba")
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es el dueño)")
+    @APIResponse(responseCode = "404", description = "Programa o ejemplo no encontrado")
+    @APIResponse(responseCode = "429", description = "El estudiante ya tiene demasiadas ejecuciones en espera (ver cabecera Retry-After)")
+    @APIResponse(responseCode = "503", description = "Servidor saturado (ver cabecera Retry-After)")
+    @APIResponse(responseCode = "500", description = "Error interno del servidor al evaluar")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response evaluatePrograma(
+            @PathParam("programaId") Long programaId,
+            @Parameter(description = "ID de un ejemplo compartido cuyos casos de prueba se usarán en lugar de los del programa")
+            @QueryParam("ejemploId") Long ejemploId,
+            @Parameter(description = "Si es true, los casos posteriores al primer fallo no se ejecutan")
+            @QueryParam("detenerEnPrimerFallo") @DefaultValue("false") boolean detenerEnPrimerFallo
+    ) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> evaluatePrograma: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedEstudianteId;
+        try {
+            authenticatedEstudianteId = estudianteService.getIdByEmail(authenticatedUserEmail);
+            if (authenticatedEstudianteId == null) {
+                LOGGER.severe("-> evaluatePrograma: Usuario autenticado con email '" + authenticatedUserEmail + "' no encontrado en DB.");
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno: Usuario autenticado no encontrado.\"}").type(MediaType.APPLICATION_JSON).build();
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> evaluatePrograma: ERROR inesperado al obtener ID del usuario autenticado.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al obtener información del usuario autenticado.\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            EvaluacionResultDTO result = evaluacionService.evaluate(programaId, authenticatedEstudianteId, ejemploId, detenerEnPrimerFallo);
+            return Response.ok(result).build();
+
+        } catch (ProgramNotFoundException | ExampleNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (UnauthorizedException e) {
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ExecutionQuotaExceededException e) {
+            return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                    .header("Retry-After", e.getRetryAfterSeconds())
+                    .entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ExecutionRejectedException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", e.getRetryAfterSeconds())
+                    .entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ProgramExecutionException e) {
+            if (e.getMessage().contains("código fuente del programa está vacío")) {
+                return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+            }
+            LOGGER.log(Level.SEVERE, "Error inesperado durante la evaluación del programa.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno al evaluar el programa: " + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+        catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado en el endpoint de evaluación de programa.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al evaluar programa.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
+    // Endpoint para encolar la ejecución asíncrona de un programa
+    @POST
+    @Path("/programas/{programaId}/ejecuciones")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Encola la ejecución de un programa", description = "Crea un trabajo de ejecución asíncrona y retorna su identificador de inmediato. El estado se consulta en /estudiantes/ejecuciones/{jobId}.")
+    @APIResponse(responseCode = "202", description = "Ejecución encolada",
+            content = @Content(schema = @Schema(implementation = EjecucionJobDTO.class)))
+    @APIResponse(responseCode = "400", description = "Código fuente vacío")
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es el dueño)")
+    @APIResponse(responseCode = "404", description = "Programa no encontrado")
+    @APIResponse(responseCode = "429", description = "El estudiante ya tiene demasiadas ejecuciones pendientes (ver cabecera Retry-After)")
+    @APIResponse(responseCode = "503", description = "Cola de ejecución llena (ver cabecera Retry-After)")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response submitProgramaExecution(
+            @PathParam("programaId") Long programaId
+    ) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> submitProgramaExecution: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedEstudianteId;
+        try {
+            authenticatedEstudianteId = estudianteService.getIdByEmail(authenticatedUserEmail);
+            if (authenticatedEstudianteId == null) {
+                LOGGER.severe("-> submitProgramaExecution: Usuario autenticado con email '" + authenticatedUserEmail + "' no encontrado en DB.");
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno: Usuario autenticado no encontrado.\"}").type(MediaType.APPLICATION_JSON).build();
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> submitProgramaExecution: ERROR inesperado al obtener ID del usuario autenticado.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al obtener información del usuario autenticado.\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            EjecucionJobDTO job = executionJobService.submit(programaId, authenticatedEstudianteId);
+            return Response.status(Response.Status.ACCEPTED)
+                    .entity(job)
+                    .header("Location", "/estudiantes/ejecuciones/" + job.getJobId())
+                    .build();
+        } catch (ProgramNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (UnauthorizedException e) {
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ExecutionQuotaExceededException e) {
+            return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                    .header("Retry-After", e.getRetryAfterSeconds())
+                    .entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ExecutionRejectedException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", e.getRetryAfterSeconds())
+                    .entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ProgramExecutionException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado al encolar la ejecución del programa.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al encolar la ejecución.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
+    // Endpoint para consultar el estado y el resultado de una ejecución asíncrona
+    @GET
+    @Path("/ejecuciones/{jobId}")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Consulta una ejecución asíncrona", description = "Retorna el estado del trabajo de ejecución y, si terminó, su resultado.")
+    @APIResponse(responseCode = "200", description = "Estado del trabajo",
+            content = @Content(schema = @Schema(implementation = EjecucionJobDTO.class)))
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "El trabajo pertenece a otro estudiante")
+    @APIResponse(responseCode = "404", description = "Trabajo no encontrado o vencido")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getProgramaExecution(
+            @PathParam("jobId") String jobId
+    ) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> getProgramaExecution: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedEstudianteId;
+        try {
+            authenticatedEstudianteId = estudianteService.getIdByEmail(authenticatedUserEmail);
+            if (authenticatedEstudianteId == null) {
+                LOGGER.severe("-> getProgramaExecution: Usuario autenticado con email '" + authenticatedUserEmail + "' no encontrado en DB.");
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno: Usuario autenticado no encontrado.\"}").type(MediaType.APPLICATION_JSON).build();
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> getProgramaExecution: ERROR inesperado al obtener ID del usuario autenticado.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al obtener información del usuario autenticado.\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            return Response.ok(executionJobService.getJob(jobId, authenticatedEstudianteId)).build();
+        } catch (ExecutionJobNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (UnauthorizedException e) {
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado al consultar la ejecución.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al consultar la ejecución.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
+    // Endpoint para seguir en vivo la salida de una ejecución asíncrona (Server-Sent Events)
+    @GET
+    @Path("/ejecuciones/{jobId}/salida")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Salida en vivo de una ejecución", description = "Envía por Server-Sent Events cada línea de stdout/stderr a medida que el programa la produce. "
+            + "Eventos: stdout, stderr, aviso (líneas omitidas por cliente lento) y fin (estado final del trabajo). Admite la cabecera Last-Event-ID para reanudar.")
+    @APIResponse(responseCode = "200", description = "Flujo de eventos de la ejecución")
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "El trabajo pertenece a otro estudiante")
+    @APIResponse(responseCode = "404", description = "Trabajo no encontrado o vencido")
+    @APIResponse(responseCode = "503", description = "Demasiadas conexiones de salida en vivo (ver cabecera Retry-After)")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void streamProgramaExecution(
+            @PathParam("jobId") String jobId,
+            @HeaderParam("Last-Event-ID") String lastEventId,
+            @Context SseEventSink eventSink,
+            @Context Sse sse
+    ) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> streamProgramaExecution: Endpoint protegido pero SecurityContext/Principal es null.");
+            throw new WebApplicationException(Response.status(Response.Status.UNAUTHORIZED).build());
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedEstudianteId = estudianteService.getIdByEmail(authenticatedUserEmail);
+        if (authenticatedEstudianteId == null) {
+            LOGGER.severe("-> streamProgramaExecution: Usuario autenticado con email '" + authenticatedUserEmail + "' no encontrado en DB.");
+            throw new WebApplicationException(Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno: Usuario autenticado no encontrado.\"}").type(MediaType.APPLICATION_JSON).build());
+        }
+
+        long afterSequence = 0;
+        if (lastEventId != null) {
+            try {
+                afterSequence = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                // Last-Event-ID inválido: se envía toda la salida retenida
+            }
+        }
+
+        // Los errores se responden con su código HTTP porque aún no se ha enviado ningún evento
+        try {
+            executionStreamService.stream(jobId, authenticatedEstudianteId, afterSequence, eventSink, sse);
+        } catch (ExecutionJobNotFoundException e) {
+            throw new WebApplicationException(Response.status(Response.Status.NOT_FOUND).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build());
+        } catch (UnauthorizedException e) {
+            throw new WebApplicationException(Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build());
+        } catch (ExecutionRejectedException e) {
+            throw new WebApplicationException(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", e.getRetryAfterSeconds())
+                    .entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build());
+        }
+    }
+
+    // Endpoint para cancelar una ejecución asíncrona (en cola o en curso)
+    @DELETE
+    @Path("/ejecuciones/{jobId}")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Cancela una ejecución asíncrona", description = "Retira el trabajo de la cola o detiene el proceso si ya se está ejecutando.")
+    @APIResponse(responseCode = "200", description = "Cancelación solicitada",
+            content = @Content(schema = @Schema(implementation = EjecucionJobDTO.class)))
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "El trabajo pertenece a otro estudiante")
+    @APIResponse(responseCode = "404", description = "Trabajo no encontrado o vencido")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response cancelProgramaExecution(
+            @PathParam("jobId") String jobId
+    ) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> cancelProgramaExecution: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedEstudianteId;
+        try {
+            authenticatedEstudianteId = estudianteService.getIdByEmail(authenticatedUserEmail);
+            if (authenticatedEstudianteId == null) {
+                LOGGER.severe("-> cancelProgramaExecution: Usuario autenticado con email '" + authenticatedUserEmail + "' no encontrado en DB.");
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno: Usuario autenticado no encontrado.\"}").type(MediaType.APPLICATION_JSON).build();
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> cancelProgramaExecution: ERROR inesperado al obtener ID del usuario autenticado.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al obtener información del usuario autenticado.\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            return Response.ok(executionJobService.cancel(jobId, authenticatedEstudianteId)).build();
+        } catch (ExecutionJobNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (UnauthorizedException e) {
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado al cancelar la ejecución.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al cancelar la ejecución.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
     // ******************************************************
     // --- Lógica de Exploración de Ejemplos ---
     // ******************************************************
@@ -760,6 +1170,69 @@ public class EstudianteController {
         }
     }
 
+    // Endpoint para ejecutar un ejemplo COMPARTIDO
+    @POST
+    @Path("/ejemplos/{ejemploId}/ejecutar")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Ejecuta un ejemplo de código", description = "Compila y ejecuta el código de un ejemplo compartido. Requiere autenticación como estudiante.")
+    @APIResponse(responseCode = "200", description = "Ejecución completada",
+            content = @Content(schema = @Schema(implementation = ProgramaExecutionResultDTO.class)))
+    @APIResponse(responseCode = "400", description = "Error de compilación, código vacío o tiempo excedido")
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "404", description = "Ejemplo no encontrado o no compartido")
+    @APIResponse(responseCode = "429", description = "Demasiadas ejecuciones en espera (ver cabecera Retry-After)")
+    @APIResponse(responseCode = "503", description = "Servidor saturado (ver cabecera Retry-After)")
+    @APIResponse(responseCode = "500", description = "Error interno del servidor al intentar ejecutar")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response executeSharedEjemplo(
+            @PathParam("ejemploId") Long ejemploId
+    ) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> executeSharedEjemplo: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedEstudianteId;
+        try {
+            authenticatedEstudianteId = estudianteService.getIdByEmail(authenticatedUserEmail);
+            if (authenticatedEstudianteId == null) {
+                LOGGER.severe("-> executeSharedEjemplo: Usuario autenticado con email '" + authenticatedUserEmail + "' no encontrado en DB.");
+                return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno: Usuario autenticado no encontrado.\"}").type(MediaType.APPLICATION_JSON).build();
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> executeSharedEjemplo: ERROR inesperado al obtener ID del usuario autenticado.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al obtener información del usuario autenticado.\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            ProgramaExecutionResultDTO result = ejemploService.executeSharedExample(ejemploId, authenticatedEstudianteId);
+            return Response.ok(result).build();
+
+        } catch (ExampleNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ExecutionQuotaExceededException e) {
+            return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                    .header("Retry-After", e.getRetryAfterSeconds())
+                    .entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ExecutionRejectedException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", e.getRetryAfterSeconds())
+                    .entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ProgramExecutionException e) {
+            if (e.getMessage().contains("Error de compilación") || e.getMessage().contains("está vacío")
+                    || e.getMessage().contains("Tiempo de ejecución excedido")) {
+                return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+            }
+            LOGGER.log(Level.SEVERE, "Error inesperado durante la ejecución del ejemplo.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno al ejecutar el ejemplo: " + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+        catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado en el endpoint de ejecución de ejemplo compartido.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al ejecutar ejemplo.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
     // ******************************************************
     // --- Lógica de Retroalimentación (Comentarios y Estado Resuelto) ---
     // ******************************************************
@@ -1,6 +1,7 @@
 package com.uq.controller;
 
 import com.uq.dto.*;
+import com.uq.enums.FormatoExportacion;
 import com.uq.exception.*;
 import com.uq.mapper.ProfesorMapper;
 import com.uq.security.JWTUtil;
@@ -13,17 +14,21 @@ import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
 import org.eclipse.microprofile.openapi.annotations.enums.SecuritySchemeType;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.security.SecurityRequirement;
 import org.eclipse.microprofile.openapi.annotations.security.SecurityScheme;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -60,6 +65,21 @@ public class ProfesorController {
     @Inject
     InformeService informeService;
 
+    @Inject
+    ReportJobService reportJobService;
+
+    @Inject
+    InformeExportService informeExportService;
+
+    @Inject
+    ProgressCounters progressCounters;
+
+    @Inject
+    EvaluacionService evaluacionService;
+
+    @Inject
+    EjecucionService ejecucionService;
+
 
     @PUT
     @Path("/{id}")
@@ -535,6 +555,327 @@ public class ProfesorController {
         }
     }
 
+    // Endpoint para que un profesor ejecute uno de sus ejemplos
+    @POST
+    @Path("/ejemplos/{ejemploId}/ejecutar")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Ejecuta un ejemplo de código", description = "Compila y ejecuta el código de un ejemplo propio en el carril rápido de ejecución. Requiere autenticación como profesor y ser el dueño.")
+    @APIResponse(responseCode = "200", description = "Ejecución completada",
+            content = @Content(schema = @Schema(implementation = ProgramaExecutionResultDTO.class)))
+    @APIResponse(responseCode = "400", description = "Error de compilación, código vacío o tiempo excedido")
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es el dueño)")
+    @APIResponse(responseCode = "404", description = "Ejemplo no encontrado")
+    @APIResponse(responseCode = "429", description = "Demasiadas ejecuciones en espera (ver cabecera Retry-After)")
+    @APIResponse(responseCode = "503", description = "Servidor saturado (ver cabecera Retry-After)")
+    @APIResponse(responseCode = "500", description = "Error interno del servidor al intentar ejecutar")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response executeEjemplo(
+            @PathParam("ejemploId") Long ejemploId
+    ) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> executeEjemplo: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedProfesorId;
+        try {
+            authenticatedProfesorId = profesorService.getIdByEmail(authenticatedUserEmail);
+            LOGGER.info("-> executeEjemplo: Acceso autorizado para profesor con ID: " + authenticatedProfesorId);
+        } catch (UserNotFoundException e) {
+            LOGGER.log(Level.WARNING, "-> executeEjemplo: Intento de acceso por usuario autenticado pero no encontrado como Profesor: '" + authenticatedUserEmail + "'", e);
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"Acceso restringido a profesores.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> executeEjemplo: ERROR inesperado al verificar la identidad del profesor.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno al verificar usuario.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            ProgramaExecutionResultDTO result = ejemploService.executeOwnExample(ejemploId, authenticatedProfesorId);
+            return Response.ok(result).build();
+
+        } catch (ExampleNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (UnauthorizedException e) {
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ExecutionQuotaExceededException e) {
+            return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                    .header("Retry-After", e.getRetryAfterSeconds())
+                    .entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ExecutionRejectedException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", e.getRetryAfterSeconds())
+                    .entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ProgramExecutionException e) {
+            if (e.getMessage().contains("Error de compilación") || e.getMessage().contains("está vacío")
+                    || e.getMessage().contains("Tiempo de ejecución excedido")) {
+                return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+            }
+            LOGGER.log(Level.SEVERE, "Error inesperado durante la ejecución del ejemplo.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno al ejecutar el ejemplo: " + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+        catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado en el endpoint de ejecución de ejemplo propio.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al ejecutar ejemplo.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
+    // ******************************************************
+    // --- Lógica de Casos de Prueba ---
+    // ******************************************************
+
+    // Endpoint para que un profesor añada un caso de prueba a un programa de estudiante
+    @POST
+    @Path("/programas/{programaId}/casos")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Añade un caso de prueba a un programa", description = "Registra una entrada y su salida esperada para evaluar el programa del estudiante. Requiere autenticación como profesor.")
+    @APIResponse(responseCode = "201", description = "Caso de prueba creado exitosamente",
+            content = @Content(schema = @Schema(implementation = CasoPruebaDTO.class)))
+    @APIResponse(responseCode = "400", description = "Datos del caso incompletos o máximo de casos alcanzado")
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es un profesor)")
+    @APIResponse(responseCode = "404", description = "Programa no encontrado")
+    @APIResponse(responseCode = "500", description = "Error en el servidor")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response addCasoToPrograma(
+            @PathParam("programaId") Long programaId,
+            @Valid CasoPruebaDTO request
+    ) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> addCasoToPrograma: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedProfesorId;
+        try {
+            authenticatedProfesorId = profesorService.getIdByEmail(authenticatedUserEmail);
+            LOGGER.info("-> addCasoToPrograma: Acceso autorizado para profesor con ID: " + authenticatedProfesorId);
+        } catch (UserNotFoundException e) {
+            LOGGER.log(Level.WARNING, "-> addCasoToPrograma: Intento de acceso por usuario autenticado pero no encontrado como Profesor: '" + authenticatedUserEmail + "'", e);
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"Acceso restringido a profesores.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> addCasoToPrograma: ERROR inesperado al verificar la identidad del profesor.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno al verificar usuario.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            CasoPruebaDTO created = evaluacionService.addCaseToProgram(programaId, request);
+            return Response.status(Response.Status.CREATED).entity(created).build();
+
+        } catch (ProgramNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+        catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado al añadir caso de prueba al programa " + programaId, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al añadir caso de prueba.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
+    // Endpoint para listar los casos de prueba de un programa
+    @GET
+    @Path("/programas/{programaId}/casos")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Lista los casos de prueba de un programa", description = "Retorna los casos de prueba del programa, incluida la salida esperada. Requiere autenticación como profesor.")
+    @APIResponse(responseCode = "200", description = "Lista de casos de prueba",
+            content = @Content(schema = @Schema(type = SchemaType.ARRAY, implementation = CasoPruebaDTO.class)))
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es un profesor)")
+    @APIResponse(responseCode = "404", description = "Programa no encontrado")
+    @APIResponse(responseCode = "500", description = "Error en el servidor")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response listCasosOfPrograma(@PathParam("programaId") Long programaId) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> listCasosOfPrograma: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedProfesorId;
+        try {
+            authenticatedProfesorId = profesorService.getIdByEmail(authenticatedUserEmail);
+            LOGGER.info("-> listCasosOfPrograma: Acceso autorizado para profesor con ID: " + authenticatedProfesorId);
+        } catch (UserNotFoundException e) {
+            LOGGER.log(Level.WARNING, "-> listCasosOfPrograma: Intento de acceso por usuario autenticado pero no encontrado como Profesor: '" + authenticatedUserEmail + "'", e);
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"Acceso restringido a profesores.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> listCasosOfPrograma: ERROR inesperado al verificar la identidad del profesor.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno al verificar usuario.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            List<CasoPruebaDTO> casos = evaluacionService.listCasesForProgram(programaId);
+            return Response.ok(casos).build();
+
+        } catch (ProgramNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+        catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado al listar casos de prueba del programa " + programaId, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al obtener casos de prueba.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
+    // Endpoint para que un profesor añada un caso de prueba a uno de sus ejemplos
+    @POST
+    @Path("/ejemplos/{ejemploId}/casos")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Añade un caso de prueba a un ejemplo", description = "Los estudiantes pueden evaluar sus programas con los casos de un ejemplo compartido. Requiere autenticación como profesor y ser el dueño del ejemplo.")
+    @APIResponse(responseCode = "201", description = "Caso de prueba creado exitosamente",
+            content = @Content(schema = @Schema(implementation = CasoPruebaDTO.class)))
+    @APIResponse(responseCode = "400", description = "Datos del caso incompletos o máximo de casos alcanzado")
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es el dueño)")
+    @APIResponse(responseCode = "404", description = "Ejemplo no encontrado")
+    @APIResponse(responseCode = "500", description = "Error en el servidor")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response addCasoToEjemplo(
+            @PathParam("ejemploId") Long ejemploId,
+            @Valid CasoPruebaDTO request
+    ) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> addCasoToEjemplo: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedProfesorId;
+        try {
+            authenticatedProfesorId = profesorService.getIdByEmail(authenticatedUserEmail);
+            LOGGER.info("-> addCasoToEjemplo: Acceso autorizado para profesor con ID: " + authenticatedProfesorId);
+        } catch (UserNotFoundException e) {
+            LOGGER.log(Level.WARNING, "-> addCasoToEjemplo: Intento de acceso por usuario autenticado pero no encontrado como Profesor: '" + authenticatedUserEmail + "'", e);
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"Acceso restringido a profesores.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> addCasoToEjemplo: ERROR inesperado al verificar la identidad del profesor.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno al verificar usuario.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            CasoPruebaDTO created = evaluacionService.addCaseToExample(ejemploId, authenticatedProfesorId, request);
+            return Response.status(Response.Status.CREATED).entity(created).build();
+
+        } catch (ExampleNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (UnauthorizedException e) {
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+        catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado al añadir caso de prueba al ejemplo " + ejemploId, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al añadir caso de prueba.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
+    // Endpoint para listar los casos de prueba de un ejemplo del profesor
+    @GET
+    @Path("/ejemplos/{ejemploId}/casos")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Lista los casos de prueba de un ejemplo", description = "Retorna los casos de prueba del ejemplo, incluida la salida esperada. Requiere autenticación como profesor y ser el dueño del ejemplo.")
+    @APIResponse(responseCode = "200", description = "Lista de casos de prueba",
+            content = @Content(schema = @Schema(type = SchemaType.ARRAY, implementation = CasoPruebaDTO.class)))
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es el dueño)")
+    @APIResponse(responseCode = "404", description = "Ejemplo no encontrado")
+    @APIResponse(responseCode = "500", description = "Error en el servidor")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response listCasosOfEjemplo(@PathParam("ejemploId") Long ejemploId) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> listCasosOfEjemplo: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedProfesorId;
+        try {
+            authenticatedProfesorId = profesorService.getIdByEmail(authenticatedUserEmail);
+            LOGGER.info("-> listCasosOfEjemplo: Acceso autorizado para profesor con ID: " + authenticatedProfesorId);
+        } catch (UserNotFoundException e) {
+            LOGGER.log(Level.WARNING, "-> listCasosOfEjemplo: Intento de acceso por usuario autenticado pero no encontrado como Profesor: '" + authenticatedUserEmail + "'", e);
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"Acceso restringido a profesores.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> listCasosOfEjemplo: ERROR inesperado al verificar la identidad del profesor.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno al verificar usuario.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            List<CasoPruebaDTO> casos = evaluacionService.listCasesForExample(ejemploId, authenticatedProfesorId);
+            return Response.ok(casos).build();
+
+        } catch (ExampleNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (UnauthorizedException e) {
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+        catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado al listar casos de prueba del ejemplo " + ejemploId, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al obtener casos de prueba.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
+    // Endpoint para eliminar un caso de prueba por su ID
+    @DELETE
+    @Path("/casos/{casoId}")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Elimina un caso de prueba", description = "Elimina un caso de prueba. Los casos de un ejemplo solo los puede eliminar el dueño del ejemplo.")
+    @APIResponse(responseCode = "204", description = "Caso de prueba eliminado exitosamente")
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "No autorizado")
+    @APIResponse(responseCode = "404", description = "Caso de prueba no encontrado")
+    @APIResponse(responseCode = "500", description = "Error en el servidor")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response deleteCaso(@PathParam("casoId") Long casoId) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> deleteCaso: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedProfesorId;
+        try {
+            authenticatedProfesorId = profesorService.getIdByEmail(authenticatedUserEmail);
+            LOGGER.info("-> deleteCaso: Acceso autorizado para profesor con ID: " + authenticatedProfesorId);
+        } catch (UserNotFoundException e) {
+            LOGGER.log(Level.WARNING, "-> deleteCaso: Intento de acceso por usuario autenticado pero no encontrado como Profesor: '" + authenticatedUserEmail + "'", e);
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"Acceso restringido a profesores.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> deleteCaso: ERROR inesperado al verificar la identidad del profesor.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno al verificar usuario.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            evaluacionService.deleteCase(casoId, authenticatedProfesorId);
+            return Response.noContent().build(); // 204 No Content
+
+        } catch (TestCaseNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (UnauthorizedException e) {
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        }
+        catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado al eliminar caso de prueba con ID " + casoId, e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al eliminar caso de prueba.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
     // ******************************************************
     // --- Lógica para Generar Informes ---
     // ******************************************************
@@ -543,16 +884,27 @@ public class ProfesorController {
     @GET
     @Path("/informes")
     @SecurityRequirement(name = "jwtAuth")
-    @Operation(summary = "Genera un informe de progreso de estudiantes (PDF)", description = "Genera un informe en formato PDF con datos sobre los programas y actividades de los estudiantes. Requiere autenticación como profesor.")
+    @Operation(summary = "Genera un informe de progreso de estudiantes (PDF)", description = "Genera un informe en formato PDF con datos sobre los programas y actividades de los estudiantes. "
+            + "Los parámetros opcionales limitan el informe a parte de los programas. Requiere autenticación como profesor.")
     @APIResponse(responseCode = "200", description = "Informe PDF generado exitosamente",
             content = @Content(mediaType = MediaType.APPLICATION_OCTET_STREAM,
                     schema = @Schema(format = "binary", type = SchemaType.STRING)))
+    @APIResponse(responseCode = "400", description = "Parámetros de filtro inválidos")
     @APIResponse(responseCode = "401", description = "No autenticado")
     @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es un profesor)")
     @APIResponse(responseCode = "500", description = "Error en el servidor al generar el informe")
     @Produces(MediaType.APPLICATION_OCTET_STREAM)
     @Consumes(MediaType.APPLICATION_JSON)
     public Response generateInforme(
+            @QueryParam("estudianteId") @Parameter(description = "Solo programas de estos estudiantes (se puede repetir)") List<Long> estudianteIds,
+            @QueryParam("desde") @Parameter(description = "Programas creados desde esta fecha (AAAA-MM-DD)") String desde,
+            @QueryParam("hasta") @Parameter(description = "Programas creados hasta esta fecha (AAAA-MM-DD)") String hasta,
+            @QueryParam("resuelto") @Parameter(description = "true: solo resueltos; false: solo no resueltos") Boolean resuelto,
+            @QueryParam("soloCompartidos") @DefaultValue("false") boolean soloCompartidos,
+            @QueryParam("tema") @Parameter(description = "Texto que debe aparecer en el título del programa") String tema,
+            @QueryParam("maxLineasCodigo") @Parameter(description = "Líneas de código por programa") Integer maxLineasCodigo,
+            @QueryParam("pagina") @Parameter(description = "Página de programas (desde 0), requiere tamanoPagina") Integer pagina,
+            @QueryParam("tamanoPagina") @Parameter(description = "Programas por página") Integer tamanoPagina
     ) {
         if (securityContext == null || securityContext.getUserPrincipal() == null) {
             LOGGER.severe("-> generateInforme: Endpoint protegido pero SecurityContext/Principal es null.");
@@ -575,15 +927,29 @@ public class ProfesorController {
         }
 
         try {
-            // Llamar al servicio para generar el PDF
-            byte[] pdfBytes = informeService.generateStudentProgressReport();
+            InformeFiltroDTO filtro = new InformeFiltroDTO();
+            filtro.setEstudianteIds(estudianteIds);
+            filtro.setDesde(parseFecha("desde", desde));
+            filtro.setHasta(parseFecha("hasta", hasta));
+            filtro.setResuelto(resuelto);
+            filtro.setSoloCompartidos(soloCompartidos);
+            filtro.setTema(tema);
+            filtro.setMaxLineasCodigo(maxLineasCodigo);
+            filtro.setPagina(pagina);
+            filtro.setTamanoPagina(tamanoPagina);
+
+            // Llamar al servicio para preparar el PDF; se escribe directamente en la respuesta
+            StreamingOutput pdf = informeService.streamStudentProgressReport(filtro);
 
             // Configurar la respuesta para devolver el archivo PDF
-            return Response.ok(pdfBytes)
+            return Response.ok(pdf)
                     .header("Content-Disposition", "attachment; filename=\"informe_progreso_estudiantes.pdf\"")
                     .type(MediaType.APPLICATION_OCTET_STREAM)
                     .build();
 
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\": \"" + e.getMessage() + "\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Error de I/O al generar o servir el informe PDF.", e);
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al generar el informe PDF.\"}")
@@ -595,4 +961,337 @@ public class ProfesorController {
         }
     }
 
+    // Endpoint para exportar los datos del informe como CSV o NDJSON
+    @GET
+    @Path("/informes/exportacion")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Exporta el progreso de estudiantes (CSV o NDJSON)", description = "Retorna los datos del informe de progreso, un programa por línea, "
+            + "escritos a medida que se consultan. Acepta los mismos filtros que GET /profesores/informes. "
+            + "Si el cliente envía Accept-Encoding: gzip, la respuesta se comprime.")
+    @APIResponse(responseCode = "200", description = "Exportación (text/csv o application/x-ndjson)")
+    @APIResponse(responseCode = "400", description = "Formato o parámetros de filtro inválidos")
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es un profesor)")
+    @APIResponse(responseCode = "500", description = "Error en el servidor")
+    @Produces({"text/csv", "application/x-ndjson", MediaType.APPLICATION_JSON})
+    public Response exportInforme(
+            @QueryParam("formato") @DefaultValue("csv") @Parameter(description = "csv o ndjson") String formato,
+            @QueryParam("incluirCodigo") @DefaultValue("false") @Parameter(description = "Incluir el código fuente de cada programa") boolean incluirCodigo,
+            @QueryParam("estudianteId") @Parameter(description = "Solo programas de estos estudiantes (se puede repetir)") List<Long> estudianteIds,
+            @QueryParam("desde") @Parameter(description = "Programas creados desde esta fecha (AAAA-MM-DD)") String desde,
+            @QueryParam("hasta") @Parameter(description = "Programas creados hasta esta fecha (AAAA-MM-DD)") String hasta,
+            @QueryParam("resuelto") @Parameter(description = "true: solo resueltos; false: solo no resueltos") Boolean resuelto,
+            @QueryParam("soloCompartidos") @DefaultValue("false") boolean soloCompartidos,
+            @QueryParam("tema") @Parameter(description = "Texto que debe aparecer en el título del programa") String tema,
+            @QueryParam("maxLineasCodigo") @Parameter(description = "Líneas de código por programa (con incluirCodigo)") Integer maxLineasCodigo,
+            @QueryParam("pagina") @Parameter(description = "Página de programas (desde 0), requiere tamanoPagina") Integer pagina,
+            @QueryParam("tamanoPagina") @Parameter(description = "Programas por página") Integer tamanoPagina,
+            @HeaderParam("Accept-Encoding") String acceptEncoding
+    ) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> exportInforme: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedProfesorId;
+        try {
+            authenticatedProfesorId = profesorService.getIdByEmail(authenticatedUserEmail);
+        } catch (UserNotFoundException e) {
+            LOGGER.log(Level.WARNING, "-> exportInforme: Intento de acceso por usuario autenticado pero no encontrado como Profesor: '" + authenticatedUserEmail + "'", e);
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"Acceso restringido a profesores.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> exportInforme: ERROR inesperado al verificar la identidad del profesor.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno al verificar usuario.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            FormatoExportacion formatoExportacion = FormatoExportacion.parse(formato);
+            InformeFiltroDTO filtro = new InformeFiltroDTO();
+            filtro.setEstudianteIds(estudianteIds);
+            filtro.setDesde(parseFecha("desde", desde));
+            filtro.setHasta(parseFecha("hasta", hasta));
+            filtro.setResuelto(resuelto);
+            filtro.setSoloCompartidos(soloCompartidos);
+            filtro.setTema(tema);
+            filtro.setMaxLineasCodigo(maxLineasCodigo);
+            filtro.setPagina(pagina);
+            filtro.setTamanoPagina(tamanoPagina);
+            // Se valida antes de empezar la respuesta; después ya no se puede responder 400
+            InformeService.validateFilter(filtro);
+
+            boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+            LOGGER.log(Level.INFO, "-> exportInforme: Profesor {0} exporta el informe en {1}.", new Object[]{authenticatedProfesorId, formatoExportacion});
+            StreamingOutput export = output -> informeExportService.export(filtro, formatoExportacion, incluirCodigo, gzip, output);
+
+            Response.ResponseBuilder response = Response.ok(export)
+                    .header("Content-Disposition", "attachment; filename=\"informe_progreso_estudiantes." + formatoExportacion.getExtension() + "\"")
+                    .header("Vary", "Accept-Encoding")
+                    .type(formatoExportacion.getMediaType());
+            if (gzip) {
+                response.header("Content-Encoding", "gzip");
+            }
+            return response.build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\": \"" + e.getMessage() + "\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
+    // Convierte un parámetro de fecha AAAA-MM-DD; null si no se indicó
+    private static LocalDate parseFecha(String nombre, String valor) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(valor.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Fecha inválida en '" + nombre + "': use el formato AAAA-MM-DD.");
+        }
+    }
+
+    // Endpoint para encolar la generación asíncrona del informe PDF
+    @POST
+    @Path("/informes/trabajos")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Encola el informe de progreso de estudiantes", description = "Crea un trabajo que genera el informe PDF en segundo plano y retorna su identificador de inmediato. "
+            + "El cuerpo opcional limita el informe (mismos filtros que GET /profesores/informes). "
+            + "Si el mismo informe ya se está generando, retorna ese mismo trabajo. El estado se consulta en /profesores/informes/trabajos/{jobId}.")
+    @APIResponse(responseCode = "202", description = "Informe encolado o en curso",
+            content = @Content(schema = @Schema(implementation = InformeJobDTO.class)))
+    @APIResponse(responseCode = "400", description = "Filtro inválido")
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es un profesor)")
+    @APIResponse(responseCode = "503", description = "Cola de informes llena (ver cabecera Retry-After)")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response submitInforme(InformeFiltroDTO filtro) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> submitInforme: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedProfesorId;
+        try {
+            authenticatedProfesorId = profesorService.getIdByEmail(authenticatedUserEmail);
+        } catch (UserNotFoundException e) {
+            LOGGER.log(Level.WARNING, "-> submitInforme: Intento de acceso por usuario autenticado pero no encontrado como Profesor: '" + authenticatedUserEmail + "'", e);
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"Acceso restringido a profesores.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> submitInforme: ERROR inesperado al verificar la identidad del profesor.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno al verificar usuario.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            InformeJobDTO job = reportJobService.submitProgressReport(authenticatedProfesorId, filtro != null ? filtro : new InformeFiltroDTO());
+            return Response.status(Response.Status.ACCEPTED)
+                    .entity(job)
+                    .header("Location", "/profesores/informes/trabajos/" + job.getJobId())
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (ExecutionRejectedException e) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", e.getRetryAfterSeconds())
+                    .entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado al encolar el informe.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al encolar el informe.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
+    // Endpoint para consultar el avance de un informe asíncrono
+    @GET
+    @Path("/informes/trabajos/{jobId}")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Consulta un trabajo de informe", description = "Retorna el estado y el avance (programas listos sobre el total) del trabajo de informe.")
+    @APIResponse(responseCode = "200", description = "Estado del trabajo",
+            content = @Content(schema = @Schema(implementation = InformeJobDTO.class)))
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es un profesor)")
+    @APIResponse(responseCode = "404", description = "Trabajo no encontrado o vencido")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getInformeJob(
+            @PathParam("jobId") String jobId
+    ) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> getInformeJob: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedProfesorId;
+        try {
+            authenticatedProfesorId = profesorService.getIdByEmail(authenticatedUserEmail);
+        } catch (UserNotFoundException e) {
+            LOGGER.log(Level.WARNING, "-> getInformeJob: Intento de acceso por usuario autenticado pero no encontrado como Profesor: '" + authenticatedUserEmail + "'", e);
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"Acceso restringido a profesores.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> getInformeJob: ERROR inesperado al verificar la identidad del profesor.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno al verificar usuario.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            return Response.ok(reportJobService.getJob(jobId)).build();
+        } catch (ReportJobNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado al consultar el trabajo de informe.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al consultar el informe.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
+    // Endpoint para descargar el PDF de un informe asíncrono terminado
+    @GET
+    @Path("/informes/trabajos/{jobId}/pdf")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Descarga un informe generado", description = "Retorna el PDF de un trabajo de informe terminado. El archivo se conserva durante un tiempo limitado.")
+    @APIResponse(responseCode = "200", description = "Informe PDF",
+            content = @Content(mediaType = MediaType.APPLICATION_OCTET_STREAM,
+                    schema = @Schema(format = "binary", type = SchemaType.STRING)))
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es un profesor)")
+    @APIResponse(responseCode = "404", description = "Trabajo no encontrado o vencido")
+    @APIResponse(responseCode = "409", description = "El informe todavía no está listo o falló")
+    @Produces(MediaType.APPLICATION_OCTET_STREAM)
+    public Response downloadInforme(
+            @PathParam("jobId") String jobId
+    ) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> downloadInforme: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        Long authenticatedProfesorId;
+        try {
+            authenticatedProfesorId = profesorService.getIdByEmail(authenticatedUserEmail);
+        } catch (UserNotFoundException e) {
+            LOGGER.log(Level.WARNING, "-> downloadInforme: Intento de acceso por usuario autenticado pero no encontrado como Profesor: '" + authenticatedUserEmail + "'", e);
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"Acceso restringido a profesores.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "-> downloadInforme: ERROR inesperado al verificar la identidad del profesor.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error interno al verificar usuario.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+
+        try {
+            java.io.File pdf = reportJobService.getReportFile(jobId).toFile();
+            return Response.ok(pdf)
+                    .header("Content-Disposition", "attachment; filename=\"informe_progreso_estudiantes.pdf\"")
+                    .type(MediaType.APPLICATION_OCTET_STREAM)
+                    .build();
+        } catch (ReportJobNotFoundException e) {
+            return Response.status(Response.Status.NOT_FOUND).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (IllegalStateException e) {
+            return Response.status(Response.Status.CONFLICT).entity("{\"error\": \"" + e.getMessage() + "\"}").type(MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado al descargar el informe.", e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).entity("{\"error\": \"Error en el servidor al descargar el informe.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+    }
+
+    // ******************************************************
+    // --- Lógica para Consultar el Progreso de Estudiantes ---
+    // ******************************************************
+
+    // Endpoint para que un profesor vea los totales de progreso de todos los estudiantes
+    @GET
+    @Path("/progreso")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Resumen de progreso de los estudiantes", description = "Retorna, por estudiante, los programas creados, resueltos, compartidos y comentados. "
+            + "Los totales se mantienen al modificar programas y comentarios y se concilian periódicamente con la base de datos. Requiere autenticación como profesor.")
+    @APIResponse(responseCode = "200", description = "Totales por estudiante (solo estudiantes con programas), ordenados por ID",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ProgresoEstudianteDTO.class, type = SchemaType.ARRAY)))
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es un profesor)")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response listProgress() {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> listProgress: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        try {
+            profesorService.getIdByEmail(authenticatedUserEmail);
+        } catch (UserNotFoundException e) {
+            LOGGER.log(Level.WARNING, "-> listProgress: Intento de acceso por usuario autenticado pero no encontrado como Profesor: '" + authenticatedUserEmail + "'", e);
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"Acceso restringido a profesores.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+
+        return Response.ok(progressCounters.listProgress()).build();
+    }
+
+    // Endpoint para que un profesor vea los totales de progreso de un estudiante
+    @GET
+    @Path("/progreso/{estudianteId}")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Resumen de progreso de un estudiante", description = "Retorna los programas creados, resueltos, compartidos y comentados del estudiante "
+            + "(todo en cero si no tiene programas). Requiere autenticación como profesor.")
+    @APIResponse(responseCode = "200", description = "Totales del estudiante",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = ProgresoEstudianteDTO.class)))
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es un profesor)")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getProgress(
+            @PathParam("estudianteId") Long estudianteId
+    ) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> getProgress: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        try {
+            profesorService.getIdByEmail(authenticatedUserEmail);
+        } catch (UserNotFoundException e) {
+            LOGGER.log(Level.WARNING, "-> getProgress: Intento de acceso por usuario autenticado pero no encontrado como Profesor: '" + authenticatedUserEmail + "'", e);
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"Acceso restringido a profesores.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+
+        return Response.ok(progressCounters.getProgress(estudianteId)).build();
+    }
+
+    // ******************************************************
+    // --- Lógica para Consultar el Costo de las Ejecuciones ---
+    // ******************************************************
+
+    // Endpoint para que un profesor vea las ejecuciones que más recursos consumieron
+    @GET
+    @Path("/ejecuciones/costosas")
+    @SecurityRequirement(name = "jwtAuth")
+    @Operation(summary = "Lista las ejecuciones más costosas", description = "Retorna las ejecuciones de programas con más tiempo de CPU, con sus tiempos de espera, compilación y ejecución, pico de memoria y bytes de salida. Requiere autenticación como profesor.")
+    @APIResponse(responseCode = "200", description = "Lista de ejecuciones ordenada por tiempo de CPU",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = EjecucionDTO.class, type = SchemaType.ARRAY)))
+    @APIResponse(responseCode = "401", description = "No autenticado")
+    @APIResponse(responseCode = "403", description = "No autorizado (el usuario autenticado no es un profesor)")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response listExpensiveExecutions(
+            @QueryParam("limite") @DefaultValue("20") @Parameter(description = "Cantidad máxima de ejecuciones (hasta 200)") int limite
+    ) {
+        if (securityContext == null || securityContext.getUserPrincipal() == null) {
+            LOGGER.severe("-> listExpensiveExecutions: Endpoint protegido pero SecurityContext/Principal es null.");
+            return Response.status(Response.Status.UNAUTHORIZED).build();
+        }
+        String authenticatedUserEmail = securityContext.getUserPrincipal().getName();
+        try {
+            profesorService.getIdByEmail(authenticatedUserEmail);
+        } catch (UserNotFoundException e) {
+            LOGGER.log(Level.WARNING, "-> listExpensiveExecutions: Intento de acceso por usuario autenticado pero no encontrado como Profesor: '" + authenticatedUserEmail + "'", e);
+            return Response.status(Response.Status.FORBIDDEN).entity("{\"error\": \"Acceso restringido a profesores.\"}")
+                    .type(MediaType.APPLICATION_JSON).build();
+        }
+
+        List<EjecucionDTO> ejecuciones = ejecucionService.listMostExpensive(limite);
+        return Response.ok(ejecuciones).build();
+    }
+
 }
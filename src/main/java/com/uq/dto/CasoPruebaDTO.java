@@ -0,0 +1,59 @@
+package com.uq.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class CasoPruebaDTO {
+    private Long id;
+    private String nombre;
+    // Entrada estándar del programa (puede estar vacía)
+    private String entrada;
+    @NotNull(message = "La salida esperada es obligatoria")
+    private String salidaEsperada;
+    private int orden;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getEntrada() {
+        return entrada;
+    }
+
+    public void setEntrada(String entrada) {
+        this.entrada = entrada;
+    }
+
+    public String getSalidaEsperada() {
+        return salidaEsperada;
+    }
+
+    public void setSalidaEsperada(String salidaEsperada) {
+        this.salidaEsperada = salidaEsperada;
+    }
+
+    public int getOrden() {
+        return orden;
+    }
+
+    public void setOrden(int orden) {
+        this.orden = orden;
+    }
+}
@@ -0,0 +1,22 @@
+package com.uq.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Setter
+@NoArgsConstructor // Constructor sin argumentos
+public class CodigoFuenteRequestDTO {
+    @NotBlank(message = "El código fuente no puede estar vacío")
+    private String codigoFuente;
+
+    public String getCodigoFuente() {
+        return codigoFuente;
+    }
+
+    public void setCodigoFuente(String codigoFuente) {
+        this.codigoFuente = codigoFuente;
+    }
+}
@@ -0,0 +1,48 @@
+package com.uq.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+
+// Diagnóstico del compilador con su posición en el código fuente (línea y columna empiezan en 1; -1 si no tiene posición)
+@Getter
+@Setter
+@NoArgsConstructor
+public class DiagnosticoDTO {
+    private String severidad; // "error", "warning" o "note"
+    private Long linea;
+    private Long columna;
+    private String mensaje;
+
+    public String getSeveridad() {
+        return severidad;
+    }
+
+    public void setSeveridad(String severidad) {
+        this.severidad = severidad;
+    }
+
+    public Long getLinea() {
+        return linea;
+    }
+
+    public void setLinea(Long linea) {
+        this.linea = linea;
+    }
+
+    public Long getColumna() {
+        return columna;
+    }
+
+    public void setColumna(Long columna) {
+        this.columna = columna;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+}
@@ -0,0 +1,59 @@
+package com.uq.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Resultado de analizar un código sin ejecutarlo. Si descartada es true, llegó una solicitud más reciente y esta no se analizó.
+@Getter
+@Setter
+@NoArgsConstructor
+public class DiagnosticosResultDTO {
+    private boolean compila;
+    private boolean descartada;
+    private boolean enCache;
+    private Long durationMillis;
+    private List<DiagnosticoDTO> diagnosticos;
+
+    public boolean isCompila() {
+        return compila;
+    }
+
+    public void setCompila(boolean compila) {
+        this.compila = compila;
+    }
+
+    public boolean isDescartada() {
+        return descartada;
+    }
+
+    public void setDescartada(boolean descartada) {
+        this.descartada = descartada;
+    }
+
+    public boolean isEnCache() {
+        return enCache;
+    }
+
+    public void setEnCache(boolean enCache) {
+        this.enCache = enCache;
+    }
+
+    public Long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(Long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public List<DiagnosticoDTO> getDiagnosticos() {
+        return diagnosticos;
+    }
+
+    public void setDiagnosticos(List<DiagnosticoDTO> diagnosticos) {
+        this.diagnosticos = diagnosticos;
+    }
+}
@@ -0,0 +1,187 @@
+package com.uq.dto;
+
+import com.uq.enums.EstadoEjecucion;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Ejecución registrada con su costo (tiempos en milisegundos, memoria en KB, -1 si no se pudo medir).
+// stdout, stderr y codigoVigente solo se completan al consultar la última ejecución de un programa.
+@Getter
+@Setter
+@NoArgsConstructor
+public class EjecucionDTO {
+    private Long id;
+    private Long programaId;
+    private String programaTitulo;
+    private Long estudianteId;
+    private LocalDateTime fecha;
+    private EstadoEjecucion estado;
+    private Integer exitCode;
+    private long queueMillis;
+    private long compileMillis;
+    private long runMillis;
+    private long cpuUserMillis;
+    private long cpuSystemMillis;
+    private long peakRssKb;
+    private long stdoutBytes;
+    private long stderrBytes;
+    private boolean outputTruncated;
+    private Boolean codigoVigente; // true si se ejecutó el mismo código que tiene ahora el programa
+    private String stdout;
+    private String stderr;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProgramaId() {
+        return programaId;
+    }
+
+    public void setProgramaId(Long programaId) {
+        this.programaId = programaId;
+    }
+
+    public String getProgramaTitulo() {
+        return programaTitulo;
+    }
+
+    public void setProgramaTitulo(String programaTitulo) {
+        this.programaTitulo = programaTitulo;
+    }
+
+    public Long getEstudianteId() {
+        return estudianteId;
+    }
+
+    public void setEstudianteId(Long estudianteId) {
+        this.estudianteId = estudianteId;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDateTime fecha) {
+        this.fecha = fecha;
+    }
+
+    public EstadoEjecucion getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoEjecucion estado) {
+        this.estado = estado;
+    }
+
+    public Integer getExitCode() {
+        return exitCode;
+    }
+
+    public void setExitCode(Integer exitCode) {
+        this.exitCode = exitCode;
+    }
+
+    public long getQueueMillis() {
+        return queueMillis;
+    }
+
+    public void setQueueMillis(long queueMillis) {
+        this.queueMillis = queueMillis;
+    }
+
+    public long getCompileMillis() {
+        return compileMillis;
+    }
+
+    public void setCompileMillis(long compileMillis) {
+        this.compileMillis = compileMillis;
+    }
+
+    public long getRunMillis() {
+        return runMillis;
+    }
+
+    public void setRunMillis(long runMillis) {
+        this.runMillis = runMillis;
+    }
+
+    public long getCpuUserMillis() {
+        return cpuUserMillis;
+    }
+
+    public void setCpuUserMillis(long cpuUserMillis) {
+        this.cpuUserMillis = cpuUserMillis;
+    }
+
+    public long getCpuSystemMillis() {
+        return cpuSystemMillis;
+    }
+
+    public void setCpuSystemMillis(long cpuSystemMillis) {
+        this.cpuSystemMillis = cpuSystemMillis;
+    }
+
+    public long getPeakRssKb() {
+        return peakRssKb;
+    }
+
+    public void setPeakRssKb(long peakRssKb) {
+        this.peakRssKb = peakRssKb;
+    }
+
+    public long getStdoutBytes() {
+        return stdoutBytes;
+    }
+
+    public void setStdoutBytes(long stdoutBytes) {
+        this.stdoutBytes = stdoutBytes;
+    }
+
+    public long getStderrBytes() {
+        return stderrBytes;
+    }
+
+    public void setStderrBytes(long stderrBytes) {
+        this.stderrBytes = stderrBytes;
+    }
+
+    public boolean isOutputTruncated() {
+        return outputTruncated;
+    }
+
+    public void setOutputTruncated(boolean outputTruncated) {
+        this.outputTruncated = outputTruncated;
+    }
+
+    public Boolean getCodigoVigente() {
+        return codigoVigente;
+    }
+
+    public void setCodigoVigente(Boolean codigoVigente) {
+        this.codigoVigente = codigoVigente;
+    }
+
+    public String getStdout() {
+        return stdout;
+    }
+
+    public void setStdout(String stdout) {
+        this.stdout = stdout;
+    }
+
+    public String getStderr() {
+        return stderr;
+    }
+
+    public void setStderr(String stderr) {
+        this.stderr = stderr;
+    }
+}
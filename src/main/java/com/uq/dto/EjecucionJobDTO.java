@@ -0,0 +1,88 @@
+package com.uq.dto;
+
+import com.uq.enums.JobStatus;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EjecucionJobDTO {
+    private String jobId;
+    private Long programaId;
+    private JobStatus status;
+    private LocalDateTime fechaCreacion;   // Momento en que se encoló el trabajo
+    private LocalDateTime fechaInicio;     // Momento en que un trabajador tomó el trabajo (null si sigue en cola)
+    private LocalDateTime fechaFin;        // Momento en que terminó (null si no ha terminado)
+    private ProgramaExecutionResultDTO resultado; // Resultado de la ejecución (solo si COMPLETED)
+    private String error; // Mensaje de error de la plataforma (si FAILED o CANCELLED)
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public Long getProgramaId() {
+        return programaId;
+    }
+
+    public void setProgramaId(Long programaId) {
+        this.programaId = programaId;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public LocalDateTime getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public void setFechaInicio(LocalDateTime fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+
+    public LocalDateTime getFechaFin() {
+        return fechaFin;
+    }
+
+    public void setFechaFin(LocalDateTime fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+
+    public ProgramaExecutionResultDTO getResultado() {
+        return resultado;
+    }
+
+    public void setResultado(ProgramaExecutionResultDTO resultado) {
+        this.resultado = resultado;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
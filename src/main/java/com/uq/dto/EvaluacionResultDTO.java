@@ -0,0 +1,77 @@
+package com.uq.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class EvaluacionResultDTO {
+    private Long programaId;
+    private int totalCasos;
+    private int aprobados;
+    private String compilationError;
+    private long durationMillis;
+    // true si quedaron casos sin ejecutar por detenerse en el primer fallo
+    private boolean detenidoEnPrimerFallo;
+    private List<ResultadoCasoDTO> casos;
+
+    public Long getProgramaId() {
+        return programaId;
+    }
+
+    public void setProgramaId(Long programaId) {
+        this.programaId = programaId;
+    }
+
+    public int getTotalCasos() {
+        return totalCasos;
+    }
+
+    public void setTotalCasos(int totalCasos) {
+        this.totalCasos = totalCasos;
+    }
+
+    public int getAprobados() {
+        return aprobados;
+    }
+
+    public void setAprobados(int aprobados) {
+        this.aprobados = aprobados;
+    }
+
+    public String getCompilationError() {
+        return compilationError;
+    }
+
+    public void setCompilationError(String compilationError) {
+        this.compilationError = compilationError;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public boolean isDetenidoEnPrimerFallo() {
+        return detenidoEnPrimerFallo;
+    }
+
+    public void setDetenidoEnPrimerFallo(boolean detenidoEnPrimerFallo) {
+        this.detenidoEnPrimerFallo = detenidoEnPrimerFallo;
+    }
+
+    public List<ResultadoCasoDTO> getCasos() {
+        return casos;
+    }
+
+    public void setCasos(List<ResultadoCasoDTO> casos) {
+        this.casos = casos;
+    }
+}
@@ -0,0 +1,105 @@
+package com.uq.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.TreeSet;
+
+// Alcance del informe de progreso. Los campos null no filtran; los filtros se aplican en la consulta.
+@Getter
+@Setter
+@NoArgsConstructor
+public class InformeFiltroDTO {
+    private List<Long> estudianteIds;   // Solo programas de estos estudiantes
+    private LocalDate desde;            // Programas creados desde este día (inclusive)
+    private LocalDate hasta;            // Programas creados hasta este día (inclusive)
+    private Boolean resuelto;           // true: solo resueltos; false: solo no resueltos
+    private boolean soloCompartidos;
+    private String tema;                // Texto que debe aparecer en el título del programa
+    private Integer maxLineasCodigo;    // Líneas de código por programa; el resto se omite
+    private Integer pagina;             // Página de programas (desde 0), ordenados por ID
+    private Integer tamanoPagina;       // Programas por página; sin valor se incluyen todos
+
+    public List<Long> getEstudianteIds() {
+        return estudianteIds;
+    }
+
+    public void setEstudianteIds(List<Long> estudianteIds) {
+        this.estudianteIds = estudianteIds;
+    }
+
+    public LocalDate getDesde() {
+        return desde;
+    }
+
+    public void setDesde(LocalDate desde) {
+        this.desde = desde;
+    }
+
+    public LocalDate getHasta() {
+        return hasta;
+    }
+
+    public void setHasta(LocalDate hasta) {
+        this.hasta = hasta;
+    }
+
+    public Boolean getResuelto() {
+        return resuelto;
+    }
+
+    public void setResuelto(Boolean resuelto) {
+        this.resuelto = resuelto;
+    }
+
+    public boolean isSoloCompartidos() {
+        return soloCompartidos;
+    }
+
+    public void setSoloCompartidos(boolean soloCompartidos) {
+        this.soloCompartidos = soloCompartidos;
+    }
+
+    public String getTema() {
+        return tema;
+    }
+
+    public void setTema(String tema) {
+        this.tema = tema;
+    }
+
+    public Integer getMaxLineasCodigo() {
+        return maxLineasCodigo;
+    }
+
+    public void setMaxLineasCodigo(Integer maxLineasCodigo) {
+        this.maxLineasCodigo = maxLineasCodigo;
+    }
+
+    public Integer getPagina() {
+        return pagina;
+    }
+
+    public void setPagina(Integer pagina) {
+        this.pagina = pagina;
+    }
+
+    public Integer getTamanoPagina() {
+        return tamanoPagina;
+    }
+
+    public void setTamanoPagina(Integer tamanoPagina) {
+        this.tamanoPagina = tamanoPagina;
+    }
+
+    // Identifica el alcance: dos filtros con la misma clave producen el mismo informe
+    public String toKey() {
+        return "estudiantes=" + (estudianteIds == null ? "" : new TreeSet<>(estudianteIds))
+                + ";desde=" + desde + ";hasta=" + hasta + ";resuelto=" + resuelto
+                + ";compartidos=" + soloCompartidos + ";tema=" + (tema == null ? "" : tema.trim().toLowerCase())
+                + ";lineas=" + maxLineasCodigo + ";pagina=" + pagina + ";tamano=" + tamanoPagina;
+    }
+}
@@ -0,0 +1,106 @@
+package com.uq.dto;
+
+import com.uq.enums.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class InformeJobDTO {
+    private String jobId;
+    private JobStatus status;
+    private int paginasListas;               // Programas renderizados hasta ahora (cada uno ocupa una o más páginas)
+    private int paginasTotales;              // Total de programas del informe (0 mientras se consultan los datos)
+    private LocalDateTime fechaCreacion;     // Momento en que se encoló el trabajo
+    private LocalDateTime fechaInicio;       // Momento en que un trabajador tomó el trabajo (null si sigue en cola)
+    private LocalDateTime fechaFin;          // Momento en que terminó (null si no ha terminado)
+    private LocalDateTime fechaExpiracion;   // Hasta cuándo se conserva el trabajo y su PDF (null si no ha terminado)
+    private Long tamanoBytes;                // Tamaño del PDF (solo si COMPLETED)
+    private String error;                    // Mensaje de error (si FAILED)
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    public int getPaginasListas() {
+        return paginasListas;
+    }
+
+    public void setPaginasListas(int paginasListas) {
+        this.paginasListas = paginasListas;
+    }
+
+    public int getPaginasTotales() {
+        return paginasTotales;
+    }
+
+    public void setPaginasTotales(int paginasTotales) {
+        this.paginasTotales = paginasTotales;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public LocalDateTime getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public void setFechaInicio(LocalDateTime fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+
+    public LocalDateTime getFechaFin() {
+        return fechaFin;
+    }
+
+    public void setFechaFin(LocalDateTime fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+
+    public LocalDateTime getFechaExpiracion() {
+        return fechaExpiracion;
+    }
+
+    public void setFechaExpiracion(LocalDateTime fechaExpiracion) {
+        this.fechaExpiracion = fechaExpiracion;
+    }
+
+    public Long getTamanoBytes() {
+        return tamanoBytes;
+    }
+
+    public void setTamanoBytes(Long tamanoBytes) {
+        this.tamanoBytes = tamanoBytes;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,126 @@
+package com.uq.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Programa tal como aparece en el informe de progreso: con los datos de su estudiante y sus comentarios.
+// Se construye directamente desde la consulta del informe (ProgramaRepository.listForReport).
+@Getter
+@Setter
+@NoArgsConstructor
+public class InformeProgramaDTO {
+    private Long id;
+    private String titulo;
+    private String codigoFuente;
+    private boolean isResuelto;
+    private boolean isShared;
+    private Long estudianteId;
+    private String estudianteNombre;
+    private String estudianteEmail;
+    private LocalDateTime fechaCreacion;
+    private List<ComentarioDTO> comentarios = new ArrayList<>();
+
+    public InformeProgramaDTO(Long id, String titulo, String codigoFuente, boolean isResuelto, boolean isShared,
+                              Long estudianteId, String estudianteNombre, String estudianteEmail) {
+        this.id = id;
+        this.titulo = titulo;
+        this.codigoFuente = codigoFuente;
+        this.isResuelto = isResuelto;
+        this.isShared = isShared;
+        this.estudianteId = estudianteId;
+        this.estudianteNombre = estudianteNombre;
+        this.estudianteEmail = estudianteEmail;
+    }
+
+    // Para la exportación (ProgramaRepository.listForExport), que también incluye la fecha de creación
+    public InformeProgramaDTO(Long id, String titulo, String codigoFuente, boolean isResuelto, boolean isShared,
+                              Long estudianteId, String estudianteNombre, String estudianteEmail, LocalDateTime fechaCreacion) {
+        this(id, titulo, codigoFuente, isResuelto, isShared, estudianteId, estudianteNombre, estudianteEmail);
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getCodigoFuente() {
+        return codigoFuente;
+    }
+
+    public void setCodigoFuente(String codigoFuente) {
+        this.codigoFuente = codigoFuente;
+    }
+
+    public boolean isResuelto() {
+        return isResuelto;
+    }
+
+    public void setResuelto(boolean resuelto) {
+        isResuelto = resuelto;
+    }
+
+    public boolean isShared() {
+        return isShared;
+    }
+
+    public void setShared(boolean shared) {
+        isShared = shared;
+    }
+
+    public Long getEstudianteId() {
+        return estudianteId;
+    }
+
+    public void setEstudianteId(Long estudianteId) {
+        this.estudianteId = estudianteId;
+    }
+
+    public String getEstudianteNombre() {
+        return estudianteNombre;
+    }
+
+    public void setEstudianteNombre(String estudianteNombre) {
+        this.estudianteNombre = estudianteNombre;
+    }
+
+    public String getEstudianteEmail() {
+        return estudianteEmail;
+    }
+
+    public void setEstudianteEmail(String estudianteEmail) {
+        this.estudianteEmail = estudianteEmail;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public List<ComentarioDTO> getComentarios() {
+        return comentarios;
+    }
+
+    public void setComentarios(List<ComentarioDTO> comentarios) {
+        this.comentarios = comentarios;
+    }
+}
@@ -17,6 +17,8 @@ public class ProgramaDTO {
 
     private Long estudianteId;
 
+    private EjecucionDTO ultimaEjecucion; // Solo al consultar un programa por ID; null si nunca se ejecutó
+
 
 
     public Long getId() {
@@ -74,4 +76,12 @@ public class ProgramaDTO {
     public void setEstudianteId(Long estudianteId) {
         this.estudianteId = estudianteId;
     }
+
+    public EjecucionDTO getUltimaEjecucion() {
+        return ultimaEjecucion;
+    }
+
+    public void setUltimaEjecucion(EjecucionDTO ultimaEjecucion) {
+        this.ultimaEjecucion = ultimaEjecucion;
+    }
 }
@@ -15,6 +15,16 @@ public class ProgramaExecutionResultDTO {
     private int exitCode;  // Código de salida del proceso (0 = éxito típicamente)
     private String errorMessage; // Mensaje de error de la plataforma (ej: error de compilación, error interno)
     private long durationMillis; // Duración de la ejecución en milisegundos (opcional)
+    private boolean outputTruncated; // true si stdout/stderr superaron el límite y se conservó sólo el final
+    private long queueMillis; // Espera por un cupo de ejecución
+    private long compileMillis; // Tiempo de compilación (casi 0 si vino de la caché)
+    private long runMillis; // Tiempo de ejecución del programa
+    private long cpuUserMillis; // CPU de usuario del proceso (-1 si no se pudo medir)
+    private long cpuSystemMillis; // CPU de sistema del proceso (-1 si no se pudo medir)
+    private long peakRssKb; // Pico de memoria residente en KB (-1 si no se pudo medir)
+    private long stdoutBytes; // Bytes escritos en stdout, incluida la parte truncada
+    private long stderrBytes; // Bytes escritos en stderr, incluida la parte truncada
+    private boolean cached; // true si el resultado viene de la caché de resultados (no se ejecutó de nuevo)
 
     public String getStdout() {
         return stdout;
@@ -55,4 +65,84 @@ public class ProgramaExecutionResultDTO {
     public void setDurationMillis(long durationMillis) {
         this.durationMillis = durationMillis;
     }
-}
\ No newline at end of file
+
+    public boolean isOutputTruncated() {
+        return outputTruncated;
+    }
+
+    public void setOutputTruncated(boolean outputTruncated) {
+        this.outputTruncated = outputTruncated;
+    }
+
+    public long getQueueMillis() {
+        return queueMillis;
+    }
+
+    public void setQueueMillis(long queueMillis) {
+        this.queueMillis = queueMillis;
+    }
+
+    public long getCompileMillis() {
+        return compileMillis;
+    }
+
+    public void setCompileMillis(long compileMillis) {
+        this.compileMillis = compileMillis;
+    }
+
+    public long getRunMillis() {
+        return runMillis;
+    }
+
+    public void setRunMillis(long runMillis) {
+        this.runMillis = runMillis;
+    }
+
+    public long getCpuUserMillis() {
+        return cpuUserMillis;
+    }
+
+    public void setCpuUserMillis(long cpuUserMillis) {
+        this.cpuUserMillis = cpuUserMillis;
+    }
+
+    public long getCpuSystemMillis() {
+        return cpuSystemMillis;
+    }
+
+    public void setCpuSystemMillis(long cpuSystemMillis) {
+        this.cpuSystemMillis = cpuSystemMillis;
+    }
+
+    public long getPeakRssKb() {
+        return peakRssKb;
+    }
+
+    public void setPeakRssKb(long peakRssKb) {
+        this.peakRssKb = peakRssKb;
+    }
+
+    public long getStdoutBytes() {
+        return stdoutBytes;
+    }
+
+    public void setStdoutBytes(long stdoutBytes) {
+        this.stdoutBytes = stdoutBytes;
+    }
+
+    public long getStderrBytes() {
+        return stderrBytes;
+    }
+
+    public void setStderrBytes(long stderrBytes) {
+        this.stderrBytes = stderrBytes;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public void setCached(boolean cached) {
+        this.cached = cached;
+    }
+}
@@ -0,0 +1,68 @@
+package com.uq.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Resumen del progreso de un estudiante: totales de sus programas, sin leer los programas (ver ProgressCounters)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgresoEstudianteDTO {
+    private Long estudianteId;
+    private int programasCreados;
+    private int programasResueltos;
+    private int programasCompartidos;
+    private int programasComentados;   // Programas con al menos un comentario de un profesor
+    private long comentariosRecibidos;
+
+    public Long getEstudianteId() {
+        return estudianteId;
+    }
+
+    public void setEstudianteId(Long estudianteId) {
+        this.estudianteId = estudianteId;
+    }
+
+    public int getProgramasCreados() {
+        return programasCreados;
+    }
+
+    public void setProgramasCreados(int programasCreados) {
+        this.programasCreados = programasCreados;
+    }
+
+    public int getProgramasResueltos() {
+        return programasResueltos;
+    }
+
+    public void setProgramasResueltos(int programasResueltos) {
+        this.programasResueltos = programasResueltos;
+    }
+
+    public int getProgramasCompartidos() {
+        return programasCompartidos;
+    }
+
+    public void setProgramasCompartidos(int programasCompartidos) {
+        this.programasCompartidos = programasCompartidos;
+    }
+
+    public int getProgramasComentados() {
+        return programasComentados;
+    }
+
+    public void setProgramasComentados(int programasComentados) {
+        this.programasComentados = programasComentados;
+    }
+
+    public long getComentariosRecibidos() {
+        return comentariosRecibidos;
+    }
+
+    public void setComentariosRecibidos(long comentariosRecibidos) {
+        this.comentariosRecibidos = comentariosRecibidos;
+    }
+}
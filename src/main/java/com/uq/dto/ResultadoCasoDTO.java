@@ -0,0 +1,76 @@
+package com.uq.dto;
+
+import com.uq.enums.Veredicto;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+
+// Resultado de un caso de prueba. No incluye la salida esperada para no revelarla al estudiante.
+@Getter
+@Setter
+@NoArgsConstructor
+public class ResultadoCasoDTO {
+    private Long casoId;
+    private String nombre;
+    private Veredicto veredicto;
+    private Integer exitCode;
+    private Long durationMillis;
+    private String salidaObtenida;
+    private String stderr;
+
+    public Long getCasoId() {
+        return casoId;
+    }
+
+    public void setCasoId(Long casoId) {
+        this.casoId = casoId;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public Veredicto getVeredicto() {
+        return veredicto;
+    }
+
+    public void setVeredicto(Veredicto veredicto) {
+        this.veredicto = veredicto;
+    }
+
+    public Integer getExitCode() {
+        return exitCode;
+    }
+
+    public void setExitCode(Integer exitCode) {
+        this.exitCode = exitCode;
+    }
+
+    public Long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(Long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public String getSalidaObtenida() {
+        return salidaObtenida;
+    }
+
+    public void setSalidaObtenida(String salidaObtenida) {
+        this.salidaObtenida = salidaObtenida;
+    }
+
+    public String getStderr() {
+        return stderr;
+    }
+
+    public void setStderr(String stderr) {
+        this.stderr = stderr;
+    }
+}
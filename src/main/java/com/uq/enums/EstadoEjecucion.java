@@ -0,0 +1,12 @@
+package com.uq.enums;
+
+/**
+ * Resultado final de una ejecución de programa, tal como se registra en el historial.
+ */
+public enum EstadoEjecucion {
+    COMPLETADA,
+    ERROR_COMPILACION,
+    TIEMPO_EXCEDIDO,
+    CANCELADA,
+    ERROR_INTERNO
+}
@@ -0,0 +1,40 @@
+package com.uq.enums;
+
+/**
+ * Formatos de la exportación del informe de progreso (un programa por línea).
+ */
+public enum FormatoExportacion {
+    CSV("text/csv; charset=UTF-8", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    FormatoExportacion(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @throws IllegalArgumentException Si el formato no es csv ni ndjson.
+     */
+    public static FormatoExportacion parse(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return CSV;
+        }
+        for (FormatoExportacion formato : values()) {
+            if (formato.extension.equalsIgnoreCase(valor.trim())) {
+                return formato;
+            }
+        }
+        throw new IllegalArgumentException("Formato de exportación no soportado: " + valor + ". Use csv o ndjson.");
+    }
+}
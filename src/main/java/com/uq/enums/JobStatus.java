@@ -0,0 +1,12 @@
+package com.uq.enums;
+
+/**
+ * Estados de un trabajo de ejecución asíncrona.
+ */
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
@@ -0,0 +1,12 @@
+package com.uq.enums;
+
+/**
+ * Resultado de evaluar un programa con un caso de prueba.
+ */
+public enum Veredicto {
+    ACEPTADO,
+    RESPUESTA_INCORRECTA,
+    ERROR_EJECUCION,
+    TIEMPO_EXCEDIDO,
+    OMITIDO
+}
@@ -0,0 +1,12 @@
+package com.uq.exception;
+
+/**
+ * Excepción lanzada cuando no se encuentra un trabajo de ejecución asíncrona
+ * basándose en su identificador.
+ */
+public class ExecutionJobNotFoundException extends RuntimeException {
+
+    public ExecutionJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.uq.exception;
+
+/**
+ * Excepción lanzada cuando un estudiante ya tiene demasiadas ejecuciones pendientes.
+ * A diferencia de {@link ExecutionRejectedException} genérica, el límite es por estudiante
+ * y no indica que el servidor esté saturado.
+ */
+public class ExecutionQuotaExceededException extends ExecutionRejectedException {
+
+    public ExecutionQuotaExceededException(String message, int retryAfterSeconds) {
+        super(message, retryAfterSeconds);
+    }
+}
@@ -0,0 +1,19 @@
+package com.uq.exception;
+
+/**
+ * Excepción lanzada cuando una ejecución no se admite porque la cola está llena.
+ * Indica cuántos segundos debería esperar el cliente antes de reintentar.
+ */
+public class ExecutionRejectedException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public ExecutionRejectedException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
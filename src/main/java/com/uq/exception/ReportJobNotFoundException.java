@@ -0,0 +1,12 @@
+package com.uq.exception;
+
+/**
+ * Excepción lanzada cuando no se encuentra un trabajo de informe basándose en su
+ * identificador, o cuando su archivo ya venció.
+ */
+public class ReportJobNotFoundException extends RuntimeException {
+
+    public ReportJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.uq.exception;
+
+/**
+ * Excepción lanzada cuando no se encuentra un caso de prueba
+ * basándose en su identificador (ID).
+ */
+public class TestCaseNotFoundException extends RuntimeException {
+
+    public TestCaseNotFoundException(String message) {
+        super(message);
+    }
+}
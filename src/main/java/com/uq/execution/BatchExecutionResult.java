@@ -0,0 +1,45 @@
+package com.uq.execution;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de ejecutar un mismo programa con varias entradas (casos de prueba).
+ * Si la compilación falla no hay ejecuciones y {@link #getCompilationErrors()} contiene los errores.
+ */
+public class BatchExecutionResult {
+
+    private final boolean compiled;
+    private final String compilationErrors;
+    private final List<RunResult> runs;
+
+    private BatchExecutionResult(boolean compiled, String compilationErrors, List<RunResult> runs) {
+        this.compiled = compiled;
+        this.compilationErrors = compilationErrors;
+        this.runs = runs;
+    }
+
+    static BatchExecutionResult compilationFailed(String compilationErrors) {
+        return new BatchExecutionResult(false, compilationErrors, Collections.emptyList());
+    }
+
+    static BatchExecutionResult completed(List<RunResult> runs) {
+        return new BatchExecutionResult(true, null, Collections.unmodifiableList(runs));
+    }
+
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    public String getCompilationErrors() {
+        return compilationErrors;
+    }
+
+    /**
+     * Una ejecución por entrada, en el mismo orden. Puede tener menos elementos que entradas
+     * si la ejecución se detuvo antes (primer fallo o cancelación).
+     */
+    public List<RunResult> getRuns() {
+        return runs;
+    }
+}
@@ -0,0 +1,102 @@
+package com.uq.execution;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Lector de líneas con longitud máxima. A diferencia de {@link java.io.BufferedReader#readLine()},
+ * una línea sin salto de línea (por ejemplo {@code while (true) System.out.print("x")}) no se
+ * acumula sin límite en memoria: se entrega en fragmentos de como mucho {@code maxLineChars}.
+ * No es thread-safe.
+ */
+class BoundedLineReader {
+
+    // Longitud máxima de línea que se entrega de una vez
+    static final int MAX_LINE_CHARS = 8192;
+
+    private final Reader in;
+    private final int maxLineChars;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private boolean skipLineFeed; // El último carácter leído fue '\r'
+    private boolean lastTerminated = true;
+    private boolean atLineStart = true;
+
+    BoundedLineReader(Reader in, int maxLineChars) {
+        this.in = in;
+        this.maxLineChars = maxLineChars;
+    }
+
+    /**
+     * Lee la siguiente línea (sin el salto de línea) o el siguiente fragmento de una línea larga.
+     *
+     * @return La línea, o {@code null} al final del stream.
+     */
+    String readLine() throws IOException {
+        atLineStart = lastTerminated;
+        StringBuilder pending = null;
+        while (true) {
+            if (position >= limit) {
+                int read = in.read(buffer, 0, buffer.length);
+                if (read <= 0) {
+                    lastTerminated = false;
+                    return pending == null || pending.length() == 0 ? null : pending.toString();
+                }
+                position = 0;
+                limit = read;
+            }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            int start = position;
+            int alreadyRead = pending == null ? 0 : pending.length();
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == '\n' || c == '\r') {
+                    String line = concat(pending, start, position);
+                    position++;
+                    skipLineFeed = c == '\r';
+                    lastTerminated = true;
+                    return line;
+                }
+                position++;
+                if (alreadyRead + (position - start) >= maxLineChars) {
+                    lastTerminated = false;
+                    return concat(pending, start, position);
+                }
+            }
+            if (pending == null) {
+                pending = new StringBuilder();
+            }
+            pending.append(buffer, start, position - start);
+        }
+    }
+
+    /**
+     * Indica si la última línea leída terminó con un salto de línea
+     * ({@code false} si fue un fragmento de una línea más larga o el final del stream).
+     */
+    boolean lastLineTerminated() {
+        return lastTerminated;
+    }
+
+    /**
+     * Indica si la última línea leída empezó al comienzo de una línea
+     * (y no es la continuación de un fragmento anterior).
+     */
+    boolean lastLineAtStart() {
+        return atLineStart;
+    }
+
+    private String concat(StringBuilder pending, int start, int end) {
+        if (pending == null) {
+            return new String(buffer, start, end - start);
+        }
+        return pending.append(buffer, start, end - start).toString();
+    }
+}
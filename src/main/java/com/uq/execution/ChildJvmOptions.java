@@ -0,0 +1,346 @@
+package com.uq.execution;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Opciones de arranque de las JVM hijas: las que ejecutan programas en un proceso nuevo y las
+ * trabajadoras del {@link RunnerPool}.
+ * <p>
+ * El perfil ({@code execution.jvm.profile}) elige las opciones; se puede cambiar por perfil de
+ * Quarkus, por ejemplo {@code %dev.execution.jvm.profile=jdk}:
+ * <ul>
+ *     <li>{@code inicio-rapido}: GC serial, heap acotado y solo el compilador C1. Es lo que mejor
+ *     funciona para programas cortos como los de los estudiantes.</li>
+ *     <li>{@code calculo}: GC serial y heap acotado, pero con el JIT completo para programas de cálculo largos.</li>
+ *     <li>{@code jdk}: las opciones por defecto de la JVM.</li>
+ * </ul>
+ * Además, al arrancar se genera en segundo plano un archivo CDS (class data sharing) con las
+ * clases del JDK que usa un programa típico, para que las JVM hijas las mapeen ya procesadas en
+ * lugar de cargarlas. El nombre del archivo incluye la versión del JDK y las opciones que le
+ * afectan, así que se regenera solo cuando cambian. Mientras no esté listo, o si la JVM no lo
+ * acepta, las JVM hijas arrancan sin él.
+ */
+@ApplicationScoped
+public class ChildJvmOptions {
+
+    private static final Logger LOGGER = Logger.getLogger(ChildJvmOptions.class.getName());
+
+    private static final String ARCHIVE_PREFIX = "jdk-";
+    private static final String ARCHIVE_SUFFIX = ".jsa";
+    private static final long TRAINING_TIMEOUT_SECONDS = 60;
+    private static final long DUMP_TIMEOUT_SECONDS = 120;
+    // Prefijos de las clases del JDK; las del programa de entrenamiento no van al archivo
+    private static final List<String> JDK_PACKAGES = List.of("java/", "javax/", "jdk/", "sun/", "com/sun/");
+
+    // Programa que usa las clases habituales en los ejercicios: E/S, colecciones, cadenas, lambdas y excepciones
+    private static final String TRAINING_SOURCE = """
+            import java.io.BufferedReader;
+            import java.io.InputStreamReader;
+            import java.util.*;
+            import java.util.stream.Collectors;
+
+            public class Main {
+                record Punto(int x, int y) {}
+
+                public static void main(String[] args) throws Exception {
+                    Scanner scanner = new Scanner(System.in);
+                    while (scanner.hasNextLine()) {
+                        scanner.nextLine();
+                    }
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+                    reader.readLine();
+
+                    List<Integer> numeros = new ArrayList<>();
+                    Random random = new Random(42);
+                    for (int i = 0; i < 100; i++) {
+                        numeros.add(random.nextInt(1000));
+                    }
+                    Collections.sort(numeros);
+                    int[] arreglo = numeros.stream().mapToInt(Integer::intValue).toArray();
+                    Arrays.sort(arreglo);
+                    Map<Integer, Long> conteo = numeros.stream().collect(Collectors.groupingBy(n -> n % 10, TreeMap::new, Collectors.counting()));
+                    Set<String> palabras = new HashSet<>(Arrays.asList("hola", "mundo", "java"));
+                    Deque<Punto> pila = new ArrayDeque<>();
+                    pila.push(new Punto(1, 2));
+                    LinkedList<String> lista = new LinkedList<>(palabras);
+                    StringBuilder sb = new StringBuilder();
+                    sb.append(String.format("%d %.2f %s%n", arreglo.length, Math.sqrt(arreglo[0]), conteo));
+                    sb.append(String.join(",", lista)).append(pila.peek());
+                    try {
+                        Object o = null;
+                        o.toString();
+                    } catch (NullPointerException e) {
+                        sb.append(e.getClass().getSimpleName());
+                    }
+                    try {
+                        Integer.parseInt("x");
+                    } catch (NumberFormatException e) {
+                        System.err.println(e.getMessage());
+                    }
+                    System.out.println(sb);
+                    System.out.printf("%s %d%n", Optional.of("fin").orElse(""), Objects.hash(1, 2));
+                }
+            }
+            """;
+
+    enum Profile {
+        INICIO_RAPIDO("inicio-rapido", List.of("-XX:+UseSerialGC", "-XX:TieredStopAtLevel=1", "-XX:-UsePerfData")),
+        CALCULO("calculo", List.of("-XX:+UseSerialGC", "-XX:-UsePerfData")),
+        JDK("jdk", List.of());
+
+        final String configName;
+        final List<String> flags;
+
+        Profile(String configName, List<String> flags) {
+            this.configName = configName;
+            this.flags = flags;
+        }
+
+        static Optional<Profile> fromConfig(String name) {
+            for (Profile profile : values()) {
+                if (profile.configName.equalsIgnoreCase(name.trim())) {
+                    return Optional.of(profile);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    @ConfigProperty(name = "execution.jvm.profile", defaultValue = "inicio-rapido")
+    String profileName;
+
+    // Heap máximo de cada JVM hija en los perfiles que lo limitan (formato de -Xmx)
+    @ConfigProperty(name = "execution.jvm.max-heap", defaultValue = "256m")
+    String maxHeap;
+
+    @ConfigProperty(name = "execution.jvm.cds.enabled", defaultValue = "true")
+    boolean cdsEnabled;
+
+    // Vacío = directorio temporal del sistema
+    @ConfigProperty(name = "execution.jvm.cds.dir")
+    Optional<String> cdsDir;
+
+    private volatile Profile profile;
+    private volatile Path archive;
+
+    void onStart(@Observes StartupEvent event) {
+        LOGGER.log(Level.INFO, "Perfil de las JVM hijas: {0} {1}", new Object[]{getProfile().configName, profileFlags()});
+        if (!cdsEnabled) {
+            return;
+        }
+        Thread builder = new Thread(() -> {
+            try {
+                buildArchive();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "No se pudo generar el archivo CDS; las JVM hijas arrancarán sin él.", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "cds-archive-builder");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Comando base para lanzar una JVM hija: el ejecutable {@code java} y las opciones del perfil
+     * (y del archivo CDS si ya está listo). El llamador agrega el classpath y la clase principal.
+     */
+    public List<String> javaCommand() {
+        List<String> command = new ArrayList<>();
+        command.add(JvmLauncher.javaExecutable());
+        command.addAll(profileFlags());
+        Path currentArchive = archive;
+        if (currentArchive != null) {
+            // auto: si la JVM no puede mapear el archivo arranca sin él, sin imprimir nada
+            command.add("-XX:SharedArchiveFile=" + currentArchive);
+            command.add("-Xshare:auto");
+        }
+        return command;
+    }
+
+    Profile getProfile() {
+        Profile current = profile;
+        if (current == null) {
+            current = Profile.fromConfig(profileName).orElseGet(() -> {
+                LOGGER.log(Level.WARNING, "Perfil de JVM desconocido: {0}. Se usa inicio-rapido.", profileName);
+                return Profile.INICIO_RAPIDO;
+            });
+            profile = current;
+        }
+        return current;
+    }
+
+    private List<String> profileFlags() {
+        Profile current = getProfile();
+        List<String> flags = new ArrayList<>(current.flags);
+        if (current != Profile.JDK) {
+            flags.add("-Xmx" + maxHeap);
+        }
+        return flags;
+    }
+
+    /**
+     * Genera (o reutiliza, si ya existe para este JDK y estas opciones) el archivo CDS y lo activa.
+     * Pasos: ejecutar el programa de entrenamiento registrando las clases cargadas, quedarse con
+     * las del JDK y volcarlas con {@code -Xshare:dump}. Sin classpath en el volcado, el archivo
+     * sirve para cualquier classpath de las JVM hijas.
+     */
+    Path buildArchive() throws IOException, InterruptedException {
+        Path dir = Files.createDirectories(cdsDir.filter(d -> !d.isBlank()).map(Paths::get)
+                .orElse(Paths.get(System.getProperty("java.io.tmpdir"), "pfapis_cds")));
+        // El GC forma parte del nombre: los objetos del heap archivados dependen de él
+        List<String> gcFlags = getProfile().flags.stream().filter(f -> f.endsWith("GC")).toList();
+        Path target = dir.resolve(ARCHIVE_PREFIX + archiveKey(gcFlags) + ARCHIVE_SUFFIX);
+        if (Files.isRegularFile(target) && Files.size(target) > 0) {
+            archive = target;
+            LOGGER.log(Level.INFO, "Archivo CDS reutilizado: {0}", target);
+            return target;
+        }
+
+        long start = System.nanoTime();
+        Path work = Files.createTempDirectory(dir, "entrenamiento_");
+        try {
+            CompilationResult training = new JavaSourceCompiler().compile("Main", TRAINING_SOURCE);
+            if (!training.isSuccess()) {
+                throw new IOException("No compiló el programa de entrenamiento: " + training.getStderr());
+            }
+            for (Map.Entry<String, byte[]> entry : training.getClassBytes().entrySet()) {
+                Files.write(work.resolve(entry.getKey() + ".class"), entry.getValue());
+            }
+
+            Path classList = work.resolve("clases.lst");
+            List<String> trainingCommand = new ArrayList<>();
+            trainingCommand.add(JvmLauncher.javaExecutable());
+            trainingCommand.addAll(gcFlags);
+            trainingCommand.addAll(List.of("-Xshare:off", "-XX:DumpLoadedClassList=" + classList, "-cp", work.toString(), "Main"));
+            runQuietly(trainingCommand, TRAINING_TIMEOUT_SECONDS);
+
+            Path jdkClassList = work.resolve("clases-jdk.lst");
+            Files.write(jdkClassList, Files.readAllLines(classList, StandardCharsets.UTF_8).stream()
+                    .filter(ChildJvmOptions::isJdkEntry)
+                    .toList(), StandardCharsets.UTF_8);
+
+            Path tmpArchive = work.resolve("archivo" + ARCHIVE_SUFFIX);
+            List<String> dumpCommand = new ArrayList<>();
+            dumpCommand.add(JvmLauncher.javaExecutable());
+            dumpCommand.addAll(gcFlags);
+            dumpCommand.addAll(List.of("-Xshare:dump", "-XX:SharedClassListFile=" + jdkClassList, "-XX:SharedArchiveFile=" + tmpArchive));
+            runQuietly(dumpCommand, DUMP_TIMEOUT_SECONDS);
+
+            // Comprobación: con -Xshare:on la JVM falla si no puede usar el archivo
+            List<String> checkCommand = new ArrayList<>();
+            checkCommand.add(JvmLauncher.javaExecutable());
+            checkCommand.addAll(gcFlags);
+            checkCommand.addAll(List.of("-Xshare:on", "-XX:SharedArchiveFile=" + tmpArchive, "-cp", work.toString(), "Main"));
+            runQuietly(checkCommand, TRAINING_TIMEOUT_SECONDS);
+
+            // Otra instancia puede estar generando el mismo archivo: el último reemplazo gana y ambos son válidos
+            Files.move(tmpArchive, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            deleteTree(work);
+        }
+        deleteOtherArchives(dir, target);
+        archive = target;
+        LOGGER.log(Level.INFO, "Archivo CDS generado en {0} ms: {1}",
+                new Object[]{TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), target});
+        return target;
+    }
+
+    private static boolean isJdkEntry(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        if (tokens.length == 0 || tokens[0].isEmpty() || tokens[0].startsWith("#")) {
+            return false;
+        }
+        if (tokens[0].equals("@lambda-form-invoker")) {
+            return true;
+        }
+        String className = tokens[0].equals("@lambda-proxy") && tokens.length > 1 ? tokens[1] : tokens[0];
+        return JDK_PACKAGES.stream().anyMatch(className::startsWith);
+    }
+
+    // Versión del JDK y opciones que afectan al archivo: si cambian, el archivo anterior ya no sirve
+    private static String archiveKey(List<String> gcFlags) {
+        String version = Runtime.version().toString().replaceAll("[^A-Za-z0-9.+_-]", "_");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((JvmLauncher.javaExecutable() + "|" + System.getProperty("java.vendor", "") + "|" + gcFlags)
+                    .getBytes(StandardCharsets.UTF_8));
+            return version + "-" + HexFormat.of().formatHex(digest.digest()).substring(0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static void runQuietly(List<String> command, long timeoutSeconds) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        process.getOutputStream().close();
+        if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            throw new IOException("Tiempo excedido ejecutando: " + String.join(" ", command));
+        }
+        if (process.exitValue() != 0) {
+            throw new IOException("Código de salida " + process.exitValue() + " ejecutando: " + String.join(" ", command));
+        }
+    }
+
+    // Archivos de versiones anteriores del JDK u otras opciones
+    private static void deleteOtherArchives(Path dir, Path keep) {
+        try (DirectoryStream<Path> archives = Files.newDirectoryStream(dir, ARCHIVE_PREFIX + "*" + ARCHIVE_SUFFIX)) {
+            for (Path old : archives) {
+                if (!old.equals(keep)) {
+                    Files.deleteIfExists(old);
+                    LOGGER.log(Level.INFO, "Archivo CDS anterior eliminado: {0}", old);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "No se pudieron eliminar archivos CDS anteriores.", e);
+        }
+    }
+
+    private static void deleteTree(Path dir) {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            for (Path entry : entries) {
+                Files.deleteIfExists(entry);
+            }
+            Files.deleteIfExists(dir);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "No se pudo eliminar el directorio " + dir, e);
+        }
+    }
+
+    public String getProfileName() {
+        return getProfile().configName;
+    }
+
+    /**
+     * Ruta del archivo CDS en uso, o null si todavía no está listo o está deshabilitado.
+     */
+    public String getArchive() {
+        Path current = archive;
+        return current == null ? null : current.toString();
+    }
+}
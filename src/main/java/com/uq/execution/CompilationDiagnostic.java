@@ -0,0 +1,40 @@
+package com.uq.execution;
+
+/**
+ * Diagnóstico individual producido por el compilador (error, advertencia o nota)
+ * con la posición dentro del código fuente compilado.
+ */
+public class CompilationDiagnostic {
+
+    private final String severity; // "error", "warning" o "note", igual que javac
+    private final long line;       // Línea (1-based), o -1 si el diagnóstico no tiene posición
+    private final long column;     // Columna (1-based), o -1 si el diagnóstico no tiene posición
+    private final String message;
+
+    public CompilationDiagnostic(String severity, long line, long column, String message) {
+        this.severity = severity;
+        this.line = line;
+        this.column = column;
+        this.message = message;
+    }
+
+    public String getSeverity() {
+        return severity;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public long getColumn() {
+        return column;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isError() {
+        return "error".equals(severity);
+    }
+}
@@ -0,0 +1,41 @@
+package com.uq.execution;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de compilar un código fuente en memoria: los bytes de cada clase generada
+ * (si la compilación fue exitosa) y los diagnósticos del compilador.
+ */
+public class CompilationResult {
+
+    private final boolean success;
+    private final Map<String, byte[]> classBytes; // Nombre binario de la clase -> bytecode
+    private final List<CompilationDiagnostic> diagnostics;
+    private final String stderr; // Diagnósticos formateados como los imprime javac
+
+    public CompilationResult(boolean success, Map<String, byte[]> classBytes,
+                             List<CompilationDiagnostic> diagnostics, String stderr) {
+        this.success = success;
+        this.classBytes = Collections.unmodifiableMap(classBytes);
+        this.diagnostics = Collections.unmodifiableList(diagnostics);
+        this.stderr = stderr;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public Map<String, byte[]> getClassBytes() {
+        return classBytes;
+    }
+
+    public List<CompilationDiagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    public String getStderr() {
+        return stderr;
+    }
+}
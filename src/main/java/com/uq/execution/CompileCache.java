@@ -0,0 +1,302 @@
+package com.uq.execution;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Caché de compilaciones direccionada por contenido.
+ * <p>
+ * La clave es el SHA-256 del código fuente normalizado más la versión del compilador, así que
+ * dos códigos idénticos (aunque pertenezcan a programas distintos) comparten la misma entrada.
+ * Se guarda tanto el bytecode de las compilaciones exitosas como los diagnósticos de las fallidas.
+ * La capa en memoria es LRU y está limitada por número de entradas y por bytes; opcionalmente
+ * las entradas también se escriben en disco ({@code execution.compile-cache.disk-dir}).
+ */
+@ApplicationScoped
+public class CompileCache {
+
+    private static final Logger LOGGER = Logger.getLogger(CompileCache.class.getName());
+
+    private static final int DISK_FORMAT_MAGIC = 0x50464331; // "PFC1"
+    private static final String DISK_SUFFIX = ".bin";
+    private static final int DISK_PRUNE_EVERY_PUTS = 100;
+    private static final String COMPILER_VERSION = Runtime.version() + "/" + System.getProperty("java.vendor", "");
+
+    @ConfigProperty(name = "execution.compile-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "execution.compile-cache.max-entries", defaultValue = "2000")
+    int maxEntries;
+
+    @ConfigProperty(name = "execution.compile-cache.max-memory-bytes", defaultValue = "67108864")
+    long maxMemoryBytes;
+
+    // Vacío = sin capa en disco
+    @ConfigProperty(name = "execution.compile-cache.disk-dir")
+    Optional<String> diskDir;
+
+    @ConfigProperty(name = "execution.compile-cache.max-disk-entries", defaultValue = "20000")
+    int maxDiskEntries;
+
+    private final LinkedHashMap<String, CompilationResult> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private long memoryBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong diskPuts = new AtomicLong();
+
+    /**
+     * Calcula la clave de caché de un código fuente.
+     */
+    public String keyFor(String className, String source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(COMPILER_VERSION.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(className.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalize(source).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible.", e);
+        }
+    }
+
+    /**
+     * Normaliza saltos de línea y elimina espacios al final de cada línea,
+     * cambios que no alteran el resultado de la compilación.
+     */
+    static String normalize(String source) {
+        String[] lines = source.split("\r\n|\r|\n", -1);
+        StringBuilder sb = new StringBuilder(source.length());
+        for (int i = 0; i < lines.length; i++) {
+            if (i > 0) sb.append('\n');
+            sb.append(lines[i].stripTrailing());
+        }
+        return sb.toString();
+    }
+
+    public Optional<CompilationResult> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        synchronized (memory) {
+            CompilationResult cached = memory.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return Optional.of(cached);
+            }
+        }
+        CompilationResult fromDisk = readFromDisk(key);
+        if (fromDisk != null) {
+            diskHits.incrementAndGet();
+            putInMemory(key, fromDisk);
+            return Optional.of(fromDisk);
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    public void put(String key, CompilationResult result) {
+        if (!enabled) {
+            return;
+        }
+        putInMemory(key, result);
+        writeToDisk(key, result);
+    }
+
+    private void putInMemory(String key, CompilationResult result) {
+        long weight = weightOf(result);
+        if (weight > maxMemoryBytes) {
+            return; // Una entrada más grande que toda la caché no se guarda en memoria
+        }
+        synchronized (memory) {
+            CompilationResult previous = memory.put(key, result);
+            if (previous != null) {
+                memoryBytes -= weightOf(previous);
+            }
+            memoryBytes += weight;
+            Iterator<Map.Entry<String, CompilationResult>> it = memory.entrySet().iterator();
+            while ((memory.size() > maxEntries || memoryBytes > maxMemoryBytes) && it.hasNext()) {
+                Map.Entry<String, CompilationResult> eldest = it.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                memoryBytes -= weightOf(eldest.getValue());
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    // Tamaño aproximado en memoria de una entrada
+    private static long weightOf(CompilationResult result) {
+        long weight = 128 + 2L * result.getStderr().length();
+        for (Map.Entry<String, byte[]> entry : result.getClassBytes().entrySet()) {
+            weight += 64 + 2L * entry.getKey().length() + entry.getValue().length;
+        }
+        for (CompilationDiagnostic d : result.getDiagnostics()) {
+            weight += 64 + 2L * d.getMessage().length();
+        }
+        return weight;
+    }
+
+    private Path diskPath(String key) {
+        return diskDir.filter(dir -> !dir.isBlank())
+                .map(dir -> Paths.get(dir, key + DISK_SUFFIX))
+                .orElse(null);
+    }
+
+    private CompilationResult readFromDisk(String key) {
+        Path file = diskPath(key);
+        if (file == null) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != DISK_FORMAT_MAGIC) {
+                return null;
+            }
+            boolean success = in.readBoolean();
+            String stderr = new String(readBytes(in), StandardCharsets.UTF_8);
+            int diagnosticCount = in.readInt();
+            List<CompilationDiagnostic> diagnostics = new ArrayList<>(diagnosticCount);
+            for (int i = 0; i < diagnosticCount; i++) {
+                String severity = in.readUTF();
+                long line = in.readLong();
+                long column = in.readLong();
+                String message = new String(readBytes(in), StandardCharsets.UTF_8);
+                diagnostics.add(new CompilationDiagnostic(severity, line, column, message));
+            }
+            int classCount = in.readInt();
+            Map<String, byte[]> classes = new LinkedHashMap<>();
+            for (int i = 0; i < classCount; i++) {
+                String name = in.readUTF();
+                classes.put(name, readBytes(in));
+            }
+            return new CompilationResult(success, classes, diagnostics, stderr);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Entrada de caché de compilación ilegible en disco: " + file, e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, CompilationResult result) {
+        Path file = diskPath(key);
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(DISK_FORMAT_MAGIC);
+                out.writeBoolean(result.isSuccess());
+                writeBytes(out, result.getStderr().getBytes(StandardCharsets.UTF_8));
+                out.writeInt(result.getDiagnostics().size());
+                for (CompilationDiagnostic d : result.getDiagnostics()) {
+                    out.writeUTF(d.getSeverity());
+                    out.writeLong(d.getLine());
+                    out.writeLong(d.getColumn());
+                    writeBytes(out, d.getMessage().getBytes(StandardCharsets.UTF_8));
+                }
+                out.writeInt(result.getClassBytes().size());
+                for (Map.Entry<String, byte[]> entry : result.getClassBytes().entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    writeBytes(out, entry.getValue());
+                }
+            }
+            // Escritura atómica: nunca se lee un archivo a medio escribir
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (diskPuts.incrementAndGet() % DISK_PRUNE_EVERY_PUTS == 0) {
+                pruneDisk(file.getParent());
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "No se pudo escribir la entrada de caché de compilación en disco.", e);
+        }
+    }
+
+    // Elimina las entradas más antiguas cuando el directorio supera el máximo configurado
+    private void pruneDisk(Path dir) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(p -> p.getFileName().toString().endsWith(DISK_SUFFIX)).toList();
+        }
+        int excess = files.size() - maxDiskEntries;
+        if (excess <= 0) {
+            return;
+        }
+        files.stream()
+                .sorted(Comparator.comparingLong(p -> p.toFile().lastModified()))
+                .limit(excess + maxDiskEntries / 10)
+                .forEach(p -> p.toFile().delete());
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] data = new byte[in.readInt()];
+        in.readFully(data);
+        return data;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] data) throws IOException {
+        out.writeInt(data.length);
+        out.write(data);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public int getSize() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    public long getMemoryBytes() {
+        synchronized (memory) {
+            return memoryBytes;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.uq.execution;
+
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MemberReferenceTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.util.TreeScanner;
+
+import java.util.Set;
+
+/**
+ * Análisis estático conservador que decide si la salida de un programa depende solo de su código.
+ * <p>
+ * Recorre el árbol sintáctico (los comentarios y los textos entre comillas no cuentan) y rechaza el
+ * programa si nombra algo que introduce no determinismo: entrada ({@code System.in}, {@code Scanner}),
+ * números aleatorios, fecha y hora, hilos, archivos, red, variables de entorno o reflexión. Trabaja
+ * con nombres simples, sin resolver tipos, así que prefiere rechazar de más: una variable llamada
+ * {@code random} también descarta el programa.
+ */
+final class DeterminismScanner {
+
+    private static final Set<String> NONDETERMINISTIC_NAMES = Set.of(
+            // Entrada
+            "in", "Scanner", "Console", "console", "InputStreamReader", "BufferedReader",
+            // Aleatoriedad
+            "Random", "random", "ThreadLocalRandom", "SecureRandom", "SplittableRandom", "RandomGenerator", "UUID",
+            // Fecha y hora
+            "currentTimeMillis", "nanoTime", "now", "Clock", "Instant", "Date", "Calendar", "GregorianCalendar",
+            // Hilos y concurrencia
+            "Thread", "Runnable", "Executors", "ExecutorService", "CompletableFuture", "ForkJoinPool",
+            "parallelStream", "parallel", "Timer", "sleep",
+            // Entorno, archivos, red y procesos
+            "getenv", "getProperty", "getProperties", "File", "Files", "Paths", "Path", "FileReader",
+            "FileInputStream", "RandomAccessFile", "Socket", "ServerSocket", "URL", "HttpClient", "InetAddress",
+            "Runtime", "getRuntime", "ProcessBuilder", "ProcessHandle",
+            // Identidad de objetos, memoria y reflexión
+            "identityHashCode", "WeakReference", "SoftReference", "Cleaner", "gc",
+            "forName", "getMethod", "getDeclaredMethod", "getDeclaredField", "invoke", "newInstance", "MethodHandles"
+    );
+
+    private DeterminismScanner() {
+    }
+
+    /**
+     * @return El nombre que hace que el programa no sea determinista, o null si no se encontró ninguno.
+     * Un código con errores de sintaxis se considera no determinista ("sintaxis").
+     */
+    static String findNondeterminism(JavaSourceCompiler compiler, String className, String source) {
+        CompilationUnitTree unit = compiler.parse(className, source);
+        if (unit == null) {
+            return "sintaxis";
+        }
+        return new TreeScanner<String, Void>() {
+            @Override
+            public String visitIdentifier(IdentifierTree node, Void unused) {
+                return check(node.getName().toString());
+            }
+
+            @Override
+            public String visitMemberSelect(MemberSelectTree node, Void unused) {
+                String found = check(node.getIdentifier().toString());
+                return found != null ? found : super.visitMemberSelect(node, unused);
+            }
+
+            @Override
+            public String visitMemberReference(MemberReferenceTree node, Void unused) {
+                String found = check(node.getName().toString());
+                return found != null ? found : super.visitMemberReference(node, unused);
+            }
+
+            // Se detiene en el primer nombre encontrado
+            @Override
+            public String reduce(String r1, String r2) {
+                return r1 != null ? r1 : r2;
+            }
+
+            private String check(String name) {
+                return NONDETERMINISTIC_NAMES.contains(name) ? name : null;
+            }
+        }.scan(unit, null);
+    }
+}
@@ -0,0 +1,73 @@
+package com.uq.execution;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Permite cancelar una ejecución en curso desde otro hilo y seguir su salida en vivo.
+ * El ejecutor registra cómo detener el proceso actual (destruir el proceso o la JVM del pool)
+ * y {@link #cancel()} lo invoca. Se obtiene con {@link ProgramExecutor#newHandle()}.
+ */
+public class ExecutionHandle {
+
+    private final ExecutionOutput output;
+    private final ExecutionMetrics metrics = new ExecutionMetrics();
+    private boolean cancelled;
+    private Runnable canceller;
+    // Trabajo que sigue en curso aunque la ejecución ya terminó (una compilación que excedió el tiempo)
+    private CompletableFuture<?> pendingWork;
+
+    ExecutionHandle(ExecutionOutput output) {
+        this.output = output;
+    }
+
+    public ExecutionOutput getOutput() {
+        return output;
+    }
+
+    public ExecutionMetrics getMetrics() {
+        return metrics;
+    }
+
+    public synchronized void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        if (canceller != null) {
+            canceller.run();
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Registra la acción que detiene el proceso actual. Si la ejecución ya fue cancelada
+     * la acción se ejecuta de inmediato.
+     */
+    synchronized void onCancel(Runnable action) {
+        this.canceller = action;
+        if (cancelled) {
+            action.run();
+        }
+    }
+
+    synchronized void clearCancel() {
+        this.canceller = null;
+    }
+
+    /**
+     * Indica que {@code work} sigue ocupando el servidor después de que la ejecución termine:
+     * el cupo del {@link ExecutionScheduler} se libera cuando {@code work} se complete.
+     */
+    synchronized void holdPermitUntil(CompletableFuture<?> work) {
+        this.pendingWork = work;
+    }
+
+    synchronized CompletableFuture<?> takePendingWork() {
+        CompletableFuture<?> work = pendingWork;
+        pendingWork = null;
+        return work;
+    }
+}
@@ -0,0 +1,89 @@
+package com.uq.execution;
+
+import com.uq.enums.EstadoEjecucion;
+
+/**
+ * Costo de una ejecución: espera de cupo, compilación, ejecución, CPU y memoria. Lo completan el
+ * {@link ExecutionScheduler} (espera) y el {@link ProgramExecutor} (el resto), también cuando la
+ * ejecución termina con error, para poder registrarla. Lo escribe y lo lee el hilo de la ejecución.
+ */
+public class ExecutionMetrics {
+
+    private long queueMillis;
+    private long compileMillis;
+    private long runMillis;
+    // -1 = no medido (fuera de Linux o el proceso terminó antes de poder leer /proc)
+    private long cpuUserMillis = -1;
+    private long cpuSystemMillis = -1;
+    private long peakRssKb = -1;
+    private Integer exitCode;
+    private EstadoEjecucion estado;
+
+    /**
+     * Suma tiempo de espera: la del planificador y, en los trabajos asíncronos, la de su cola.
+     */
+    public void addQueueMillis(long millis) {
+        queueMillis += millis;
+    }
+
+    void setCompileMillis(long compileMillis) {
+        this.compileMillis = compileMillis;
+    }
+
+    void recordRun(RunResult run) {
+        runMillis = run.getDurationMillis();
+        cpuUserMillis = run.getCpuUserMillis();
+        cpuSystemMillis = run.getCpuSystemMillis();
+        peakRssKb = run.getPeakRssKb();
+        exitCode = run.isTimedOut() ? null : run.getExitCode();
+    }
+
+    // Resultado servido por la ResultCache: no se lanzó ningún proceso
+    void recordCached(int exitCode) {
+        runMillis = 0;
+        cpuUserMillis = 0;
+        cpuSystemMillis = 0;
+        peakRssKb = 0;
+        this.exitCode = exitCode;
+        estado = EstadoEjecucion.COMPLETADA;
+    }
+
+    void setEstado(EstadoEjecucion estado) {
+        this.estado = estado;
+    }
+
+    public long getQueueMillis() {
+        return queueMillis;
+    }
+
+    public long getCompileMillis() {
+        return compileMillis;
+    }
+
+    public long getRunMillis() {
+        return runMillis;
+    }
+
+    public long getCpuUserMillis() {
+        return cpuUserMillis;
+    }
+
+    public long getCpuSystemMillis() {
+        return cpuSystemMillis;
+    }
+
+    public long getPeakRssKb() {
+        return peakRssKb;
+    }
+
+    public Integer getExitCode() {
+        return exitCode;
+    }
+
+    /**
+     * Resultado de la ejecución, o null si no llegó a ejecutarse (por ejemplo, rechazada por el planificador).
+     */
+    public EstadoEjecucion getEstado() {
+        return estado;
+    }
+}
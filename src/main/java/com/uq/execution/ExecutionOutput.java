@@ -0,0 +1,218 @@
+package com.uq.execution;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Salida (stdout y stderr) de una ejecución, disponible mientras el programa se ejecuta.
+ * <p>
+ * Cada stream se guarda en un búfer circular de líneas limitado a {@code maxCharsPerChannel}
+ * caracteres: si el programa escribe más, se descartan las líneas más antiguas y el texto final
+ * comienza con un aviso de truncado. Así un {@code while (true) System.out.println(...)} no puede
+ * hacer crecer la memoria antes de que venza el tiempo límite.
+ * Los {@link Listener} suscritos reciben cada línea en cuanto se produce.
+ */
+public class ExecutionOutput {
+
+    public enum Channel {
+        STDOUT,
+        STDERR
+    }
+
+    /**
+     * Recibe la salida en vivo. Los métodos se invocan mientras se sostiene el lock de la salida,
+     * por lo que no deben bloquear (por ejemplo, sólo encolar la línea).
+     */
+    public interface Listener {
+        void onLine(long sequence, Channel channel, String line);
+
+        void onClose();
+    }
+
+    private final ChannelBuffer stdout;
+    private final ChannelBuffer stderr;
+    private final List<Listener> listeners = new ArrayList<>();
+    private long nextSequence = 1;
+    private boolean closed;
+
+    public ExecutionOutput(int maxCharsPerChannel) {
+        this.stdout = new ChannelBuffer(maxCharsPerChannel);
+        this.stderr = new ChannelBuffer(maxCharsPerChannel);
+    }
+
+    /**
+     * Agrega una línea (o un fragmento de una línea larga si {@code terminated} es false).
+     */
+    public synchronized void append(Channel channel, String line, boolean terminated) {
+        long sequence = nextSequence++;
+        buffer(channel).add(new Line(sequence, line, terminated));
+        for (Listener listener : listeners) {
+            listener.onLine(sequence, channel, line);
+        }
+    }
+
+    /**
+     * Marca la última línea del stream como no terminada (el salto de línea no era del programa).
+     */
+    synchronized void unterminateLast(Channel channel) {
+        buffer(channel).unterminateLast();
+    }
+
+    /**
+     * Agrega un texto completo, línea por línea (por ejemplo los errores de compilación).
+     */
+    public void appendText(Channel channel, String text) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        for (String line : text.split("\r\n|\r|\n")) {
+            append(channel, line, true);
+        }
+    }
+
+    /**
+     * Suscribe un listener. Primero se le reenvían, en orden, las líneas retenidas con secuencia
+     * mayor que {@code afterSequence}; si la ejecución ya terminó también recibe {@code onClose}.
+     */
+    public synchronized void subscribe(Listener listener, long afterSequence) {
+        Iterator<Line> out = stdout.lines.iterator();
+        Iterator<Line> err = stderr.lines.iterator();
+        Line nextOut = out.hasNext() ? out.next() : null;
+        Line nextErr = err.hasNext() ? err.next() : null;
+        while (nextOut != null || nextErr != null) {
+            boolean takeOut = nextErr == null || (nextOut != null && nextOut.sequence < nextErr.sequence);
+            Line line = takeOut ? nextOut : nextErr;
+            if (line.sequence > afterSequence) {
+                listener.onLine(line.sequence, takeOut ? Channel.STDOUT : Channel.STDERR, line.text);
+            }
+            if (takeOut) {
+                nextOut = out.hasNext() ? out.next() : null;
+            } else {
+                nextErr = err.hasNext() ? err.next() : null;
+            }
+        }
+        if (closed) {
+            listener.onClose();
+        } else {
+            listeners.add(listener);
+        }
+    }
+
+    public synchronized void unsubscribe(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Marca la salida como terminada y avisa a los listeners. Las llamadas repetidas no tienen efecto.
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Listener listener : listeners) {
+            listener.onClose();
+        }
+        listeners.clear();
+    }
+
+    public synchronized String getText(Channel channel) {
+        return buffer(channel).text();
+    }
+
+    /**
+     * Bytes (UTF-8, incluidos los saltos de línea) que el programa escribió en el stream,
+     * contando también las líneas descartadas por el límite.
+     */
+    public synchronized long getBytes(Channel channel) {
+        return buffer(channel).totalBytes;
+    }
+
+    public synchronized boolean isTruncated() {
+        return stdout.droppedLines > 0 || stderr.droppedLines > 0;
+    }
+
+    private ChannelBuffer buffer(Channel channel) {
+        return channel == Channel.STDOUT ? stdout : stderr;
+    }
+
+    private static class Line {
+        final long sequence;
+        final String text;
+        boolean terminated;
+
+        Line(long sequence, String text, boolean terminated) {
+            this.sequence = sequence;
+            this.text = text;
+            this.terminated = terminated;
+        }
+    }
+
+    // Búfer circular de líneas limitado por número total de caracteres
+    private static class ChannelBuffer {
+        final int maxChars;
+        final Deque<Line> lines = new ArrayDeque<>();
+        long chars;
+        long droppedLines;
+        long totalBytes;
+
+        ChannelBuffer(int maxChars) {
+            this.maxChars = maxChars;
+        }
+
+        void add(Line line) {
+            lines.addLast(line);
+            chars += line.text.length() + 1;
+            totalBytes += utf8Length(line.text) + (line.terminated ? 1 : 0);
+            while (chars > maxChars && lines.size() > 1) {
+                Line dropped = lines.removeFirst();
+                chars -= dropped.text.length() + 1;
+                droppedLines++;
+            }
+        }
+
+        void unterminateLast() {
+            Line last = lines.peekLast();
+            if (last != null && last.terminated) {
+                last.terminated = false;
+                totalBytes--;
+            }
+        }
+
+        private static long utf8Length(String text) {
+            long bytes = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c < 0x80) {
+                    bytes++;
+                } else if (c < 0x800) {
+                    bytes += 2;
+                } else if (Character.isHighSurrogate(c)) {
+                    bytes += 4;
+                    i++;
+                } else {
+                    bytes += 3;
+                }
+            }
+            return bytes;
+        }
+
+        String text() {
+            StringBuilder sb = new StringBuilder((int) Math.min(Integer.MAX_VALUE, chars + 80));
+            if (droppedLines > 0) {
+                sb.append("[... salida truncada: se omitieron ").append(droppedLines)
+                        .append(" líneas anteriores ...]").append(System.lineSeparator());
+            }
+            for (Line line : lines) {
+                sb.append(line.text);
+                if (line.terminated) {
+                    sb.append(System.lineSeparator());
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
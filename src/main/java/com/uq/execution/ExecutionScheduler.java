@@ -0,0 +1,330 @@
+package com.uq.execution;
+
+import com.uq.exception.ExecutionQuotaExceededException;
+import com.uq.exception.ExecutionRejectedException;
+import com.uq.exception.ProgramExecutionException;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Control de admisión de ejecuciones de programas.
+ * <p>
+ * Como mucho {@code execution.scheduler.max-concurrent} ejecuciones (por defecto, el número de
+ * núcleos) compilan o ejecutan a la vez. Las demás esperan en una cola por estudiante y los
+ * cupos que se liberan se reparten por turnos (round-robin) entre los estudiantes con ejecuciones
+ * en espera, de modo que uno solo no puede acaparar el servidor. Si la cola del estudiante o la
+ * cola global están llenas la ejecución se rechaza de inmediato.
+ */
+@ApplicationScoped
+public class ExecutionScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger(ExecutionScheduler.class.getName());
+
+    // 0 = número de núcleos disponibles
+    @ConfigProperty(name = "execution.scheduler.max-concurrent", defaultValue = "0")
+    int maxConcurrent;
+
+    @ConfigProperty(name = "execution.scheduler.max-queued-per-student", defaultValue = "3")
+    int maxQueuedPerStudent;
+
+    @ConfigProperty(name = "execution.scheduler.max-queued", defaultValue = "200")
+    int maxQueued;
+
+    @ConfigProperty(name = "execution.scheduler.max-wait-seconds", defaultValue = "60")
+    int maxWaitSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Object, Deque<Waiter>> queues = new HashMap<>();
+    private final Deque<Object> turns = new ArrayDeque<>(); // Dueños con ejecuciones en espera, en orden de turno
+    private int inFlight;
+    private int queued;
+
+    private final AtomicLong granted = new AtomicLong();
+    private final AtomicLong rejectedPerStudent = new AtomicLong();
+    private final AtomicLong rejectedGlobal = new AtomicLong();
+    private final AtomicLong waitTimeouts = new AtomicLong();
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+    private final AtomicLong maxWaitMillis = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong totalHoldMillis = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        if (maxConcurrent <= 0) {
+            maxConcurrent = Runtime.getRuntime().availableProcessors();
+        }
+        LOGGER.log(Level.INFO, "Planificador de ejecuciones: {0} ejecuciones simultáneas como máximo.", maxConcurrent);
+    }
+
+    /**
+     * Espera un cupo de ejecución para el estudiante.
+     *
+     * @param estudianteId Dueño de la ejecución (unidad de reparto justo).
+     * @param handle       Si se cancela mientras espera, la espera termina con {@link ProgramExecutionException}.
+     * @return El permiso, que debe cerrarse al terminar la ejecución.
+     * @throws ExecutionQuotaExceededException Si el estudiante ya tiene demasiadas ejecuciones en espera.
+     * @throws ExecutionRejectedException      Si la cola global está llena o se agotó el tiempo de espera.
+     */
+    public Permit acquire(Long estudianteId, ExecutionHandle handle)
+            throws ExecutionRejectedException, ProgramExecutionException {
+        return acquireFor(estudianteId, handle);
+    }
+
+    /**
+     * Como {@link #acquire(Long, ExecutionHandle)} para ejecuciones de un profesor, que tienen su
+     * propia cola (los ids de profesores y estudiantes no se mezclan).
+     */
+    public Permit acquireForProfesor(Long profesorId, ExecutionHandle handle)
+            throws ExecutionRejectedException, ProgramExecutionException {
+        return acquireFor("profesor-" + profesorId, handle);
+    }
+
+    private Permit acquireFor(Object owner, ExecutionHandle handle)
+            throws ExecutionRejectedException, ProgramExecutionException {
+        long start = System.nanoTime();
+        Waiter waiter;
+        lock.lock();
+        try {
+            if (inFlight < maxConcurrent && queued == 0) {
+                inFlight++;
+                return grantedPermit(start, handle);
+            }
+            Deque<Waiter> queue = queues.get(owner);
+            if (queue != null && queue.size() >= maxQueuedPerStudent) {
+                rejectedPerStudent.incrementAndGet();
+                LOGGER.log(Level.WARNING, "Ejecución rechazada: {0} ya tiene {1} ejecuciones en espera.",
+                        new Object[]{owner, queue.size()});
+                throw new ExecutionQuotaExceededException("Ya tienes " + queue.size()
+                        + " ejecuciones en espera. Espera a que terminen antes de ejecutar de nuevo.", retryAfterSeconds(queue.size()));
+            }
+            if (queued >= maxQueued) {
+                rejectedGlobal.incrementAndGet();
+                LOGGER.log(Level.WARNING, "Ejecución rechazada: cola global llena ({0} en espera).", queued);
+                throw new ExecutionRejectedException("El servidor está ocupado ejecutando otros programas. Intenta de nuevo más tarde.",
+                        retryAfterSeconds(queued));
+            }
+            waiter = new Waiter(lock.newCondition());
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                queues.put(owner, queue);
+                turns.addLast(owner);
+            }
+            queue.addLast(waiter);
+            queued++;
+        } finally {
+            lock.unlock();
+        }
+
+        handle.onCancel(() -> cancelWaiter(waiter));
+        try {
+            return awaitTurn(owner, waiter, start, handle);
+        } finally {
+            handle.clearCancel();
+        }
+    }
+
+    private Permit awaitTurn(Object owner, Waiter waiter, long start, ExecutionHandle handle) {
+        long remaining = TimeUnit.SECONDS.toNanos(maxWaitSeconds);
+        lock.lock();
+        try {
+            while (!waiter.granted) {
+                if (waiter.cancelled) {
+                    removeWaiter(owner, waiter);
+                    throw new ProgramExecutionException("Ejecución cancelada.");
+                }
+                if (remaining <= 0) {
+                    removeWaiter(owner, waiter);
+                    waitTimeouts.incrementAndGet();
+                    throw new ExecutionRejectedException("Tiempo de espera en cola excedido. Intenta de nuevo más tarde.",
+                            retryAfterSeconds(queued));
+                }
+                try {
+                    remaining = waiter.condition.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    removeWaiter(owner, waiter);
+                    Thread.currentThread().interrupt();
+                    throw new ProgramExecutionException("La ejecución del programa fue interrumpida.", e);
+                }
+            }
+            return grantedPermit(start, handle);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Se marca en el waiter (y no se consulta el handle) para no tomar el monitor del handle bajo el lock
+    private void cancelWaiter(Waiter waiter) {
+        lock.lock();
+        try {
+            waiter.cancelled = true;
+            waiter.condition.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Retira un waiter que abandona la cola; si el cupo ya se le había asignado, se devuelve
+    private void removeWaiter(Object owner, Waiter waiter) {
+        if (waiter.granted) {
+            inFlight--;
+            dispatch();
+            return;
+        }
+        Deque<Waiter> queue = queues.get(owner);
+        if (queue != null && queue.remove(waiter)) {
+            queued--;
+            if (queue.isEmpty()) {
+                queues.remove(owner);
+                turns.remove(owner);
+            }
+        }
+    }
+
+    private Permit grantedPermit(long start, ExecutionHandle handle) {
+        long waitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        handle.getMetrics().addQueueMillis(waitMillis);
+        granted.incrementAndGet();
+        totalWaitMillis.addAndGet(waitMillis);
+        maxWaitMillis.accumulateAndGet(waitMillis, Math::max);
+        return new Permit(handle);
+    }
+
+    private void release(long holdMillis) {
+        released.incrementAndGet();
+        totalHoldMillis.addAndGet(holdMillis);
+        lock.lock();
+        try {
+            inFlight--;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Asigna los cupos libres por turnos: el primer estudiante de la fila recibe uno y pasa al final
+    private void dispatch() {
+        while (inFlight < maxConcurrent && !turns.isEmpty()) {
+            Object owner = turns.pollFirst();
+            Deque<Waiter> queue = queues.get(owner);
+            Waiter next = queue.pollFirst();
+            queued--;
+            if (queue.isEmpty()) {
+                queues.remove(owner);
+            } else {
+                turns.addLast(owner);
+            }
+            next.granted = true;
+            inFlight++;
+            next.condition.signal();
+        }
+    }
+
+    // Estimación del tiempo hasta que haya cupo, según la duración media de las ejecuciones
+    private int retryAfterSeconds(int ahead) {
+        long releases = released.get();
+        long averageMillis = releases == 0
+                ? TimeUnit.SECONDS.toMillis(ProgramExecutor.EXECUTION_TIMEOUT_SECONDS)
+                : totalHoldMillis.get() / releases;
+        long millis = averageMillis * (ahead + 1) / Math.max(1, maxConcurrent);
+        return (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(millis));
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getGranted() {
+        return granted.get();
+    }
+
+    public long getRejectedPerStudent() {
+        return rejectedPerStudent.get();
+    }
+
+    public long getRejectedGlobal() {
+        return rejectedGlobal.get();
+    }
+
+    public long getWaitTimeouts() {
+        return waitTimeouts.get();
+    }
+
+    public long getAverageWaitMillis() {
+        long count = granted.get();
+        return count == 0 ? 0 : totalWaitMillis.get() / count;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis.get();
+    }
+
+    private static class Waiter {
+        final Condition condition;
+        boolean granted;
+        boolean cancelled;
+
+        Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+
+    /**
+     * Cupo de ejecución concedido. Se libera una sola vez al cerrarlo o, si la ejecución dejó
+     * trabajo en curso (ver {@link ExecutionHandle#holdPermitUntil}), cuando ese trabajo termine.
+     */
+    public class Permit implements AutoCloseable {
+        private final long grantedAt = System.nanoTime();
+        private final ExecutionHandle handle;
+        private boolean closed;
+
+        private Permit(ExecutionHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            CompletableFuture<?> pending = handle.takePendingWork();
+            if (pending != null && !pending.isDone()) {
+                LOGGER.log(Level.FINE, "El cupo de ejecución se liberará cuando termine el trabajo en curso.");
+                pending.whenComplete((result, error) -> release(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - grantedAt)));
+                return;
+            }
+            release(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - grantedAt));
+        }
+    }
+}
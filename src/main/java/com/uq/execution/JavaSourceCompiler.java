@@ -0,0 +1,300 @@
+package com.uq.execution;
+
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.util.JavacTask;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Compila código fuente Java dentro de la JVM de la aplicación usando la API
+ * {@link javax.tools.JavaCompiler}. El código se lee desde un String y el bytecode
+ * se escribe en memoria, sin tocar el disco ni lanzar un proceso {@code javac}.
+ * <p>
+ * Los {@link StandardJavaFileManager} se reutilizan entre compilaciones: guardan el índice de la
+ * biblioteca estándar, que es lo más costoso de preparar en cada compilación. No son thread-safe,
+ * así que cada compilación en curso toma uno propio y lo devuelve al terminar.
+ */
+public class JavaSourceCompiler {
+
+    // Sin procesadores de anotaciones (el classpath de la aplicación trae Lombok y MapStruct)
+    private static final List<String> COMPILER_OPTIONS = List.of("-proc:none", "-encoding", "UTF-8");
+
+    private final JavaCompiler compiler;
+    private final ConcurrentLinkedQueue<StandardJavaFileManager> fileManagers = new ConcurrentLinkedQueue<>();
+
+    public JavaSourceCompiler() {
+        // Es null cuando la aplicación corre sobre un JRE sin el módulo jdk.compiler
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+    }
+
+    public boolean isAvailable() {
+        return compiler != null;
+    }
+
+    /**
+     * Compila {@code source} como la unidad de compilación {@code className}.java.
+     *
+     * @param className Nombre de la clase pública del archivo (ej: "Main").
+     * @param source    Código fuente completo.
+     * @return Resultado con los bytes de las clases generadas o los diagnósticos de error.
+     */
+    public CompilationResult compile(String className, String source) {
+        if (compiler == null) {
+            throw new IllegalStateException("El compilador de Java no está disponible en esta JVM.");
+        }
+
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        StandardJavaFileManager standardManager = borrowFileManager();
+        boolean reusable = false;
+        try {
+            InMemoryFileManager fileManager = new InMemoryFileManager(standardManager);
+            SourceFile sourceFile = new SourceFile(className, source);
+            JavaCompiler.CompilationTask task = compiler.getTask(
+                    null, fileManager, collector, COMPILER_OPTIONS, null, List.of(sourceFile));
+            boolean success = task.call();
+            reusable = true;
+
+            List<CompilationDiagnostic> diagnostics = toDiagnostics(collector);
+            Map<String, byte[]> classBytes = success ? fileManager.getClassBytes() : Collections.emptyMap();
+            return new CompilationResult(success, classBytes, diagnostics, formatAsJavac(className, source, diagnostics));
+        } finally {
+            returnFileManager(standardManager, reusable);
+        }
+    }
+
+    /**
+     * Analiza {@code source} (sintaxis, tipos y flujo) igual que {@link #compile} pero sin generar
+     * bytecode. Es lo que necesita el editor para marcar errores mientras el estudiante escribe.
+     *
+     * @return Los diagnósticos del compilador; ninguno es de tipo error si el código compila.
+     */
+    public List<CompilationDiagnostic> check(String className, String source) {
+        if (compiler == null) {
+            throw new IllegalStateException("El compilador de Java no está disponible en esta JVM.");
+        }
+
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        StandardJavaFileManager standardManager = borrowFileManager();
+        boolean reusable = false;
+        try {
+            JavacTask task = (JavacTask) compiler.getTask(
+                    null, standardManager, collector, COMPILER_OPTIONS, null, List.of(new SourceFile(className, source)));
+            task.analyze();
+            reusable = true;
+            return toDiagnostics(collector);
+        } catch (IOException e) {
+            throw new IllegalStateException("Error al analizar el código fuente.", e);
+        } finally {
+            returnFileManager(standardManager, reusable);
+        }
+    }
+
+    /**
+     * Solo analiza la sintaxis de {@code source}, sin resolver tipos ni generar bytecode.
+     *
+     * @return El árbol sintáctico, o null si el código tiene errores de sintaxis.
+     */
+    CompilationUnitTree parse(String className, String source) {
+        if (compiler == null) {
+            throw new IllegalStateException("El compilador de Java no está disponible en esta JVM.");
+        }
+
+        DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+        StandardJavaFileManager standardManager = borrowFileManager();
+        boolean reusable = false;
+        try {
+            JavacTask task = (JavacTask) compiler.getTask(
+                    null, standardManager, collector, COMPILER_OPTIONS, null, List.of(new SourceFile(className, source)));
+            Iterator<? extends CompilationUnitTree> units = task.parse().iterator();
+            reusable = true;
+            boolean hasErrors = collector.getDiagnostics().stream().anyMatch(d -> d.getKind() == Diagnostic.Kind.ERROR);
+            return hasErrors || !units.hasNext() ? null : units.next();
+        } catch (IOException e) {
+            throw new IllegalStateException("Error al analizar el código fuente.", e);
+        } finally {
+            returnFileManager(standardManager, reusable);
+        }
+    }
+
+    private StandardJavaFileManager borrowFileManager() {
+        StandardJavaFileManager manager = fileManagers.poll();
+        if (manager != null) {
+            return manager;
+        }
+        manager = compiler.getStandardFileManager(null, Locale.getDefault(), StandardCharsets.UTF_8);
+        try {
+            // El código del estudiante solo puede ver la biblioteca estándar, no las clases de la aplicación
+            manager.setLocation(StandardLocation.CLASS_PATH, Collections.emptyList());
+        } catch (IOException e) {
+            throw new IllegalStateException("Error al preparar el gestor de archivos del compilador.", e);
+        }
+        return manager;
+    }
+
+    // Si la compilación falló de forma inesperada el file manager puede quedar a medias: se descarta
+    private void returnFileManager(StandardJavaFileManager manager, boolean reusable) {
+        if (reusable) {
+            fileManagers.offer(manager);
+            return;
+        }
+        try {
+            manager.close();
+        } catch (IOException ignored) {
+            // No hay nada más que liberar
+        }
+    }
+
+    private static List<CompilationDiagnostic> toDiagnostics(DiagnosticCollector<JavaFileObject> collector) {
+        List<CompilationDiagnostic> diagnostics = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> d : collector.getDiagnostics()) {
+            diagnostics.add(new CompilationDiagnostic(
+                    severityOf(d.getKind()),
+                    d.getLineNumber() == Diagnostic.NOPOS ? -1 : d.getLineNumber(),
+                    d.getColumnNumber() == Diagnostic.NOPOS ? -1 : d.getColumnNumber(),
+                    d.getMessage(Locale.getDefault())));
+        }
+        return diagnostics;
+    }
+
+    private static String severityOf(Diagnostic.Kind kind) {
+        switch (kind) {
+            case ERROR:
+                return "error";
+            case WARNING:
+            case MANDATORY_WARNING:
+                return "warning";
+            default:
+                return "note";
+        }
+    }
+
+    /**
+     * Formatea los diagnósticos con el mismo aspecto que la salida de {@code javac}
+     * (archivo:línea: tipo: mensaje, línea de código, marcador ^ y resumen final).
+     */
+    static String formatAsJavac(String className, String source, List<CompilationDiagnostic> diagnostics) {
+        if (diagnostics.isEmpty()) {
+            return "";
+        }
+        String[] sourceLines = source.split("\\R", -1);
+        String nl = System.lineSeparator();
+        StringBuilder sb = new StringBuilder();
+        int errors = 0;
+        int warnings = 0;
+
+        for (CompilationDiagnostic d : diagnostics) {
+            if (d.isError()) errors++;
+            if ("warning".equals(d.getSeverity())) warnings++;
+
+            if (d.getLine() > 0) {
+                sb.append(className).append(".java:").append(d.getLine()).append(": ");
+            }
+            sb.append(d.getSeverity()).append(": ").append(d.getMessage()).append(nl);
+
+            if (d.getLine() > 0 && d.getLine() <= sourceLines.length) {
+                String codeLine = sourceLines[(int) d.getLine() - 1];
+                sb.append(codeLine).append(nl);
+                if (d.getColumn() > 0) {
+                    StringBuilder caret = new StringBuilder();
+                    for (int i = 0; i < d.getColumn() - 1 && i < codeLine.length(); i++) {
+                        caret.append(codeLine.charAt(i) == '\t' ? '\t' : ' ');
+                    }
+                    sb.append(caret).append('^').append(nl);
+                }
+            }
+        }
+        if (errors > 0) sb.append(errors).append(errors == 1 ? " error" : " errors").append(nl);
+        if (warnings > 0) sb.append(warnings).append(warnings == 1 ? " warning" : " warnings").append(nl);
+        return sb.toString();
+    }
+
+    /**
+     * Código fuente almacenado en un String.
+     */
+    private static class SourceFile extends SimpleJavaFileObject {
+        private final String source;
+
+        SourceFile(String className, String source) {
+            super(URI.create("string:///" + className + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    /**
+     * Archivo .class cuyo contenido se escribe en un buffer en memoria.
+     */
+    private static class ClassFile extends SimpleJavaFileObject {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        ClassFile(String className) {
+            super(URI.create("mem:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return bytes;
+        }
+
+        byte[] getBytes() {
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * File manager que redirige la salida del compilador a objetos {@link ClassFile} en memoria.
+     * No cierra el file manager estándar al que delega, que se reutiliza en otras compilaciones.
+     */
+    private static class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, ClassFile> outputs = new LinkedHashMap<>();
+
+        InMemoryFileManager(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) {
+            ClassFile classFile = new ClassFile(className);
+            outputs.put(className, classFile);
+            return classFile;
+        }
+
+        @Override
+        public void close() {
+            // El file manager estándar vuelve al pool en lugar de cerrarse
+        }
+
+        Map<String, byte[]> getClassBytes() {
+            Map<String, byte[]> result = new LinkedHashMap<>();
+            outputs.forEach((name, file) -> result.put(name, file.getBytes()));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.uq.execution;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Utilidades para lanzar JVM hijas.
+ */
+public final class JvmLauncher {
+
+    private JvmLauncher() {
+    }
+
+    /**
+     * Ejecutable {@code java} de la misma instalación que ejecuta la aplicación.
+     * Así el bytecode generado por el compilador en memoria siempre es compatible
+     * con la JVM que lo ejecuta. Si no se encuentra, se usa {@code java} del PATH.
+     */
+    public static String javaExecutable() {
+        Path java = Paths.get(System.getProperty("java.home"), "bin", isWindows() ? "java.exe" : "java");
+        return Files.isExecutable(java) ? java.toString() : "java";
+    }
+
+    private static boolean isWindows() {
+        return System.getProperty("os.name", "").toLowerCase().startsWith("windows");
+    }
+}
@@ -0,0 +1,236 @@
+package com.uq.execution;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Una JVM trabajadora ({@link RunnerWorker}) ya arrancada y lista para recibir clases compiladas.
+ * No es thread-safe: el {@link RunnerPool} garantiza que un trabajador atiende una ejecución a la vez.
+ */
+class PooledWorker {
+
+    // Margen sobre el límite del watchdog antes de que el proceso padre destruya el trabajador
+    static final long WATCHDOG_GRACE_MILLIS = 2000;
+
+    private final Process process;
+    private final DataOutputStream commands;
+    private final BoundedLineReader stdout;
+    private final BoundedLineReader stderr;
+    private final long createdAt = System.currentTimeMillis();
+    private volatile long lastUsedAt = createdAt;
+    private int runs;
+    private boolean reusable = true;
+
+    private PooledWorker(Process process) {
+        this.process = process;
+        this.commands = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        this.stdout = new BoundedLineReader(new InputStreamReader(process.getInputStream()), BoundedLineReader.MAX_LINE_CHARS);
+        this.stderr = new BoundedLineReader(new InputStreamReader(process.getErrorStream()), BoundedLineReader.MAX_LINE_CHARS);
+    }
+
+    static PooledWorker start(List<String> command) throws IOException {
+        return new PooledWorker(new ProcessBuilder(command).start());
+    }
+
+    /**
+     * Verifica que el proceso sigue vivo y responde a la orden PING dentro del tiempo indicado.
+     */
+    boolean ping(ExecutorService readers, long timeoutMillis) {
+        if (!process.isAlive()) {
+            return false;
+        }
+        String token = UUID.randomUUID().toString();
+        try {
+            commands.writeByte(RunnerWorker.OP_PING);
+            commands.writeUTF(token);
+            commands.flush();
+            Future<String> answer = readers.submit(stdout::readLine);
+            String line = answer.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return (token + " " + RunnerWorker.PONG).equals(line);
+        } catch (IOException | ExecutionException | TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Envía las clases al trabajador, ejecuta {@code mainClass} y espera el delimitador de fin.
+     * La salida se va agregando a {@code output} a medida que se produce.
+     * Si se supera {@code timeoutMillis} el proceso se destruye. Con {@code watchdog} el propio
+     * trabajador interrumpe el programa al superar {@code timeoutMillis} de CPU o de tiempo real,
+     * conserva la salida producida y, si el programa se detiene, puede seguir usándose.
+     */
+    RunResult run(ExecutorService readers, Map<String, byte[]> classes, String mainClass, byte[] stdin,
+                  long timeoutMillis, boolean watchdog, ExecutionOutput output) throws IOException, InterruptedException {
+        runs++;
+        lastUsedAt = System.currentTimeMillis();
+        String token = UUID.randomUUID().toString();
+
+        commands.writeByte(RunnerWorker.OP_RUN);
+        commands.writeUTF(token);
+        commands.writeUTF(mainClass);
+        writeBytes(stdin);
+        writeLimits(timeoutMillis, watchdog);
+        writeClasses(classes);
+        commands.flush();
+
+        return awaitResult(readers, token, watchdog ? timeoutMillis + WATCHDOG_GRACE_MILLIS : timeoutMillis, output);
+    }
+
+    /**
+     * Envía las clases una sola vez; las ejecuciones siguientes con {@link #exec} las reutilizan.
+     * Cuenta como un uso del trabajador.
+     */
+    void load(Map<String, byte[]> classes) throws IOException {
+        runs++;
+        commands.writeByte(RunnerWorker.OP_LOAD);
+        commands.writeUTF(UUID.randomUUID().toString());
+        writeClasses(classes);
+        commands.flush();
+    }
+
+    /**
+     * Ejecuta {@code mainClass} con las últimas clases enviadas con {@link #load} y la entrada indicada.
+     * Cada ejecución usa un class loader nuevo, así que los campos estáticos no se comparten entre casos.
+     */
+    RunResult exec(ExecutorService readers, String mainClass, byte[] stdin, long timeoutMillis,
+                   ExecutionOutput output) throws IOException, InterruptedException {
+        lastUsedAt = System.currentTimeMillis();
+        String token = UUID.randomUUID().toString();
+
+        commands.writeByte(RunnerWorker.OP_EXEC);
+        commands.writeUTF(token);
+        commands.writeUTF(mainClass);
+        writeBytes(stdin);
+        writeLimits(timeoutMillis, false);
+        commands.flush();
+
+        return awaitResult(readers, token, timeoutMillis, output);
+    }
+
+    private void writeBytes(byte[] data) throws IOException {
+        commands.writeInt(data.length);
+        commands.write(data);
+    }
+
+    private void writeLimits(long timeoutMillis, boolean watchdog) throws IOException {
+        commands.writeLong(watchdog ? timeoutMillis : 0); // CPU
+        commands.writeLong(watchdog ? timeoutMillis : 0); // Tiempo real
+    }
+
+    private void writeClasses(Map<String, byte[]> classes) throws IOException {
+        commands.writeInt(classes.size());
+        for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+            commands.writeUTF(entry.getKey());
+            writeBytes(entry.getValue());
+        }
+    }
+
+    // Lee stdout/stderr hasta el delimitador de la ejecución identificada por token
+    private RunResult awaitResult(ExecutorService readers, String token, long timeoutMillis, ExecutionOutput output)
+            throws InterruptedException, IOException {
+        long started = System.nanoTime();
+        Future<String> out = readers.submit(() -> readUntil(stdout, token, output, ExecutionOutput.Channel.STDOUT));
+        Future<String> err = readers.submit(() -> readUntil(stderr, token, output, ExecutionOutput.Channel.STDERR));
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        try {
+            String outBoundary = out.get(remaining(deadline), TimeUnit.NANOSECONDS);
+            err.get(remaining(deadline), TimeUnit.NANOSECONDS);
+            lastUsedAt = System.currentTimeMillis();
+            String stdoutText = output.getText(ExecutionOutput.Channel.STDOUT);
+            String stderrText = output.getText(ExecutionOutput.Channel.STDERR);
+
+            if (outBoundary == null) {
+                // El programa terminó la JVM (System.exit o fallo): el código de salida es el del proceso
+                reusable = false;
+                boolean exited = process.waitFor(remaining(deadline), TimeUnit.NANOSECONDS);
+                int exitCode = exited ? process.exitValue() : -1;
+                return new RunResult(exitCode, stdoutText, stderrText, false).withDurationMillis(elapsedMillis(started));
+            }
+
+            // Delimitador: "<token> <exitCode> <reutilizable> <límiteExcedido> <cpuUsuario> <cpuSistema> <picoRssKb> <saltoAgregado>"
+            String[] parts = outBoundary.split(" ");
+            reusable = parts.length == 8 && "1".equals(parts[2]);
+            boolean limitExceeded = parts.length == 8 && "1".equals(parts[3]);
+            RunResult result = new RunResult(limitExceeded ? -1 : Integer.parseInt(parts[1]), stdoutText, stderrText, limitExceeded)
+                    .withDurationMillis(elapsedMillis(started));
+            if (parts.length == 8) {
+                result = result.withUsage(Long.parseLong(parts[4]), Long.parseLong(parts[5]), Long.parseLong(parts[6]));
+            }
+            return result;
+        } catch (TimeoutException e) {
+            reusable = false;
+            // Consumo acumulado del proceso: en el carril estándar es prácticamente el de esta ejecución
+            ProcStats stats = ProcStats.of(process.pid());
+            destroy();
+            RunResult result = new RunResult(-1, "", "", true).withDurationMillis(elapsedMillis(started));
+            return stats == null ? result : result.withUsage(stats.userMillis, stats.systemMillis, stats.peakRssKb);
+        } catch (ExecutionException e) {
+            reusable = false;
+            destroy();
+            throw new IOException("Error leyendo la salida del trabajador.", e.getCause());
+        }
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    // Copia las líneas a la salida hasta el delimitador; retorna el delimitador o null si el stream terminó
+    private static String readUntil(BoundedLineReader reader, String token, ExecutionOutput output,
+                                    ExecutionOutput.Channel channel) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (reader.lastLineAtStart() && line.startsWith(token)) {
+                // El salto de línea que agregó el trabajador no es del programa: queda igual que con "java Main"
+                if (line.endsWith(" 1")) {
+                    output.unterminateLast(channel);
+                }
+                return line;
+            }
+            output.append(channel, line, reader.lastLineTerminated());
+        }
+        return null;
+    }
+
+    boolean isAlive() {
+        return process.isAlive();
+    }
+
+    boolean isReusable() {
+        return reusable && process.isAlive();
+    }
+
+    int getRuns() {
+        return runs;
+    }
+
+    long getLastUsedAt() {
+        return lastUsedAt;
+    }
+
+    long pid() {
+        return process.pid();
+    }
+
+    void destroy() {
+        process.destroyForcibly();
+    }
+}
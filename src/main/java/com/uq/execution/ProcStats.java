@@ -0,0 +1,67 @@
+package com.uq.execution;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Consumo de un proceso leído de {@code /proc} (solo Linux): tiempo de CPU de usuario y de sistema
+ * y pico de memoria residente (VmHWM). También la usa {@link RunnerWorker}, por eso solo depende del JDK.
+ */
+final class ProcStats {
+
+    // USER_HZ: unidad de utime/stime en /proc/[pid]/stat. Es 100 en prácticamente todos los kernels
+    private static final long CLOCK_TICKS_PER_SECOND = 100;
+
+    final long userMillis;
+    final long systemMillis;
+    final long peakRssKb;
+
+    private ProcStats(long userMillis, long systemMillis, long peakRssKb) {
+        this.userMillis = userMillis;
+        this.systemMillis = systemMillis;
+        this.peakRssKb = peakRssKb;
+    }
+
+    static ProcStats self() {
+        return read("self");
+    }
+
+    static ProcStats of(long pid) {
+        return read(String.valueOf(pid));
+    }
+
+    /**
+     * @return Las estadísticas, o null si no se pueden leer (otro sistema operativo o proceso terminado).
+     */
+    private static ProcStats read(String pid) {
+        Path dir = Paths.get("/proc", pid);
+        try {
+            String stat = new String(Files.readAllBytes(dir.resolve("stat")), StandardCharsets.US_ASCII);
+            // El nombre del proceso va entre paréntesis y puede contener espacios: se parte después de ')'
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            long utime = Long.parseLong(fields[11]); // Campo 14 de stat
+            long stime = Long.parseLong(fields[12]); // Campo 15 de stat
+
+            long peakRssKb = -1;
+            for (String line : Files.readAllLines(dir.resolve("status"), StandardCharsets.US_ASCII)) {
+                if (line.startsWith("VmHWM:")) {
+                    peakRssKb = Long.parseLong(line.substring(6).replace("kB", "").trim());
+                    break;
+                }
+            }
+            if (peakRssKb < 0) {
+                return null; // Proceso terminando: ya liberó su memoria y los datos no son fiables
+            }
+            return new ProcStats(ticksToMillis(utime), ticksToMillis(stime), peakRssKb);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static long ticksToMillis(long ticks) {
+        return ticks * 1000 / CLOCK_TICKS_PER_SECOND;
+    }
+}
@@ -0,0 +1,561 @@
+package com.uq.execution;
+
+import com.uq.dto.ProgramaExecutionResultDTO;
+import com.uq.enums.EstadoEjecucion;
+import com.uq.exception.ExecutionRejectedException;
+import com.uq.exception.ProgramExecutionException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compila y ejecuta el código fuente de un programa de estudiante.
+ * La compilación se hace en memoria con {@link JavaSourceCompiler}; el programa
+ * compilado se ejecuta en una JVM del {@link RunnerPool} o, si el pool está
+ * deshabilitado, en un proceso {@code java} nuevo dentro de un directorio del
+ * {@link WorkspaceManager}.
+ * <p>
+ * javac no atiende interrupciones, así que una compilación en memoria que excede el tiempo límite
+ * sigue ocupando su hilo hasta terminar. Por eso los hilos de compilación son pocos
+ * ({@code execution.compile.threads}) y, si están todos ocupados, la ejecución se rechaza; el cupo
+ * del {@link ExecutionScheduler} no se libera hasta que termine la compilación; y ese mismo código
+ * se compila en adelante con un proceso {@code javac}, que sí se puede destruir al vencer el tiempo.
+ */
+@ApplicationScoped
+public class ProgramExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(ProgramExecutor.class.getName());
+
+    public static final int EXECUTION_TIMEOUT_SECONDS = 10;
+    private static final String MAIN_CLASS = "Main";
+    // Espera máxima para que los lectores terminen de copiar la salida tras el fin del proceso
+    private static final long OUTPUT_DRAIN_MILLIS = 2000;
+    // Intervalo de muestreo de /proc mientras se espera a un proceso propio (sin pool)
+    private static final long USAGE_SAMPLE_MILLIS = 50;
+    // Códigos cuya compilación en memoria excedió el tiempo límite que se recuerdan
+    private static final int MAX_SLOW_SOURCES = 1000;
+
+    private final JavaSourceCompiler compiler = new JavaSourceCompiler();
+
+    @Inject
+    RunnerPool runnerPool;
+
+    @Inject
+    CompileCache compileCache;
+
+    @Inject
+    WorkspaceManager workspaceManager;
+
+    @Inject
+    ChildJvmOptions childJvmOptions;
+
+    // Caracteres que se conservan de cada stream (stdout/stderr) por ejecución
+    @ConfigProperty(name = "execution.output.max-chars", defaultValue = "262144")
+    int maxOutputChars;
+
+    // Mismo límite que los diagnósticos del editor
+    @ConfigProperty(name = "execution.diagnostics.max-source-chars", defaultValue = "100000")
+    int maxSourceChars;
+
+    // 0 = número de núcleos disponibles
+    @ConfigProperty(name = "execution.compile.threads", defaultValue = "0")
+    int compileThreads;
+
+    // Hilos para la compilación en memoria (permite aplicar el límite de tiempo); sin cola: si
+    // todos están ocupados la compilación se rechaza
+    private ThreadPoolExecutor compileExecutor;
+
+    // Claves de compilación (ver CompileCache) de los códigos que excedieron el tiempo en memoria;
+    // LRU protegido por su propio monitor
+    private final Map<String, Boolean> slowSources = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_SLOW_SOURCES;
+        }
+    };
+
+    private final AtomicLong compileRejections = new AtomicLong();
+    private final AtomicLong compileTimeouts = new AtomicLong();
+
+    // Lectores de stdout/stderr de los procesos hijos; el planificador acota cuántos hay a la vez
+    private final ExecutorService outputReaders = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "program-output");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PostConstruct
+    void init() {
+        int threads = compileThreads > 0 ? compileThreads : Runtime.getRuntime().availableProcessors();
+        compileExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>(), r -> {
+            Thread t = new Thread(r, "java-compiler");
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        compileExecutor.shutdownNow();
+        outputReaders.shutdownNow();
+    }
+
+    /**
+     * Crea el handle de una ejecución, con una salida acotada según {@code execution.output.max-chars}.
+     */
+    public ExecutionHandle newHandle() {
+        return new ExecutionHandle(new ExecutionOutput(maxOutputChars));
+    }
+
+    public ProgramaExecutionResultDTO execute(String codigoFuente) throws ProgramExecutionException {
+        return execute(codigoFuente, newHandle());
+    }
+
+    /**
+     * Compila y ejecuta el código. {@code handle} permite cancelar la ejecución desde otro hilo
+     * (el proceso se destruye y se lanza {@link ProgramExecutionException}) y recibe la salida en vivo.
+     */
+    public ProgramaExecutionResultDTO execute(String codigoFuente, ExecutionHandle handle) throws ProgramExecutionException {
+        return execute(codigoFuente, handle, false);
+    }
+
+    /**
+     * Como {@link #execute(String, ExecutionHandle)} pero para código de confianza (ejemplos de
+     * profesores): se ejecuta en el carril rápido del pool, en una JVM de larga duración que solo
+     * crea un class loader nuevo por ejecución.
+     */
+    public ProgramaExecutionResultDTO executeTrusted(String codigoFuente, ExecutionHandle handle) throws ProgramExecutionException {
+        return execute(codigoFuente, handle, true);
+    }
+
+    private ProgramaExecutionResultDTO execute(String codigoFuente, ExecutionHandle handle, boolean trusted)
+            throws ProgramExecutionException {
+        Path tempDir = null;
+        ProgramaExecutionResultDTO result = new ProgramaExecutionResultDTO();
+        ExecutionMetrics metrics = handle.getMetrics();
+        long startTime = System.currentTimeMillis();
+
+        try {
+            checkSourceSize(codigoFuente, metrics);
+            RunResult run;
+            long compileStart = System.nanoTime();
+            if (compiler.isAvailable() && !isSlowSource(codigoFuente)) {
+                CompilationResult compilation = compileInMemory(codigoFuente, handle);
+                metrics.setCompileMillis(elapsedMillis(compileStart));
+                if (!compilation.isSuccess()) {
+                    metrics.setEstado(EstadoEjecucion.ERROR_COMPILACION);
+                    handle.getOutput().appendText(ExecutionOutput.Channel.STDERR, compilation.getStderr());
+                    result.setExitCode(1);
+                    result.setStderr(compilation.getStderr());
+                    result.setErrorMessage("Error de compilación.");
+                    throw new ProgramExecutionException("Error de compilación.", compilation.getStderr());
+                }
+
+                if (runnerPool.isEnabled() && trusted) {
+                    run = runnerPool.runTrusted(compilation.getClassBytes(), MAIN_CLASS, new byte[0],
+                            TimeUnit.SECONDS.toMillis(EXECUTION_TIMEOUT_SECONDS), handle);
+                } else if (runnerPool.isEnabled()) {
+                    // Las clases viajan en memoria a una JVM ya arrancada: sin directorio temporal
+                    run = runnerPool.run(compilation.getClassBytes(), MAIN_CLASS, new byte[0],
+                            TimeUnit.SECONDS.toMillis(EXECUTION_TIMEOUT_SECONDS), handle);
+                } else {
+                    tempDir = workspaceManager.acquire();
+                    writeClassFiles(tempDir, compilation.getClassBytes());
+                    run = runInNewProcess(tempDir, handle, new byte[0], handle.getOutput());
+                }
+            } else {
+                if (!compiler.isAvailable()) {
+                    LOGGER.warning("Compilador en memoria no disponible (¿JRE sin jdk.compiler?). Usando proceso javac.");
+                }
+                tempDir = workspaceManager.acquire();
+                try {
+                    compileWithJavacProcess(tempDir, codigoFuente, result);
+                } catch (ProgramExecutionException e) {
+                    metrics.setEstado(result.getErrorMessage() != null ? EstadoEjecucion.ERROR_COMPILACION : EstadoEjecucion.ERROR_INTERNO);
+                    throw e;
+                } finally {
+                    metrics.setCompileMillis(elapsedMillis(compileStart));
+                }
+                run = runInNewProcess(tempDir, handle, new byte[0], handle.getOutput());
+            }
+            metrics.recordRun(run);
+
+            if (handle.isCancelled()) {
+                metrics.setEstado(EstadoEjecucion.CANCELADA);
+                throw new ProgramExecutionException("Ejecución cancelada.");
+            }
+
+            if (run.isTimedOut()) {
+                metrics.setEstado(EstadoEjecucion.TIEMPO_EXCEDIDO);
+                result.setStderr("La ejecución excedió el tiempo límite de " + EXECUTION_TIMEOUT_SECONDS + " segundos.");
+                result.setExitCode(-1);
+                result.setErrorMessage("Tiempo de ejecución excedido.");
+                throw new ProgramExecutionException("Tiempo de ejecución excedido.");
+            }
+
+            LOGGER.log(Level.INFO, "Ejecución finalizada con código de salida: {0}", run.getExitCode());
+
+            result.setStdout(run.getStdout());
+            result.setStderr(run.getStderr());
+            result.setExitCode(run.getExitCode());
+            result.setErrorMessage(null);
+            result.setOutputTruncated(handle.getOutput().isTruncated());
+            metrics.setEstado(EstadoEjecucion.COMPLETADA);
+
+        } catch (IOException e) {
+            metrics.setEstado(EstadoEjecucion.ERROR_INTERNO);
+            LOGGER.log(Level.SEVERE, "Error de I/O durante la ejecución del programa.", e);
+            throw new ProgramExecutionException("Error interno al ejecutar el programa: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            metrics.setEstado(EstadoEjecucion.ERROR_INTERNO);
+            LOGGER.log(Level.SEVERE, "Hilo interrumpido durante la espera del proceso.", e);
+            Thread.currentThread().interrupt();
+            throw new ProgramExecutionException("La ejecución del programa fue interrumpida.", e);
+        } finally {
+            workspaceManager.release(tempDir);
+        }
+
+        long endTime = System.currentTimeMillis();
+        result.setDurationMillis(endTime - startTime);
+        result.setQueueMillis(metrics.getQueueMillis());
+        result.setCompileMillis(metrics.getCompileMillis());
+        result.setRunMillis(metrics.getRunMillis());
+        result.setCpuUserMillis(metrics.getCpuUserMillis());
+        result.setCpuSystemMillis(metrics.getCpuSystemMillis());
+        result.setPeakRssKb(metrics.getPeakRssKb());
+        result.setStdoutBytes(handle.getOutput().getBytes(ExecutionOutput.Channel.STDOUT));
+        result.setStderrBytes(handle.getOutput().getBytes(ExecutionOutput.Channel.STDERR));
+
+        return result;
+    }
+
+    /**
+     * Compila el código una vez y lo ejecuta con cada entrada, en orden. Con el pool habilitado todas
+     * las ejecuciones ocurren en la misma JVM trabajadora (las clases se envían una sola vez).
+     *
+     * @param inputs          Entrada estándar de cada ejecución.
+     * @param shouldContinue  Recibe el índice y el resultado de cada ejecución; si retorna false no se
+     *                        ejecutan las entradas restantes.
+     */
+    public BatchExecutionResult executeBatch(String codigoFuente, List<String> inputs, ExecutionHandle handle,
+                                             BiPredicate<Integer, RunResult> shouldContinue) throws ProgramExecutionException {
+        Path tempDir = null;
+        List<RunResult> runs = new ArrayList<>();
+        long timeoutMillis = TimeUnit.SECONDS.toMillis(EXECUTION_TIMEOUT_SECONDS);
+
+        try {
+            checkSourceSize(codigoFuente, handle.getMetrics());
+            Map<String, byte[]> classes = null;
+            if (compiler.isAvailable() && !isSlowSource(codigoFuente)) {
+                CompilationResult compilation = compileInMemory(codigoFuente, handle);
+                if (!compilation.isSuccess()) {
+                    return BatchExecutionResult.compilationFailed(compilation.getStderr());
+                }
+                classes = compilation.getClassBytes();
+            } else {
+                tempDir = workspaceManager.acquire();
+                ProgramaExecutionResultDTO compileResult = new ProgramaExecutionResultDTO();
+                try {
+                    compileWithJavacProcess(tempDir, codigoFuente, compileResult);
+                } catch (ProgramExecutionException e) {
+                    if (compileResult.getErrorMessage() != null) {
+                        return BatchExecutionResult.compilationFailed(compileResult.getStderr());
+                    }
+                    throw e;
+                }
+            }
+
+            if (classes != null && runnerPool.isEnabled()) {
+                try (RunnerPool.Session session = runnerPool.openSession(classes, handle)) {
+                    for (int i = 0; i < inputs.size() && !handle.isCancelled(); i++) {
+                        RunResult run = session.run(MAIN_CLASS, inputs.get(i).getBytes(StandardCharsets.UTF_8),
+                                timeoutMillis, new ExecutionOutput(maxOutputChars));
+                        runs.add(run);
+                        if (!shouldContinue.test(i, run)) {
+                            break;
+                        }
+                    }
+                }
+            } else {
+                if (tempDir == null) {
+                    tempDir = workspaceManager.acquire();
+                    writeClassFiles(tempDir, classes);
+                }
+                for (int i = 0; i < inputs.size() && !handle.isCancelled(); i++) {
+                    RunResult run = runInNewProcess(tempDir, handle, inputs.get(i).getBytes(StandardCharsets.UTF_8),
+                            new ExecutionOutput(maxOutputChars));
+                    runs.add(run);
+                    if (!shouldContinue.test(i, run)) {
+                        break;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error de I/O durante la ejecución de los casos de prueba.", e);
+            throw new ProgramExecutionException("Error interno al ejecutar el programa: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            LOGGER.log(Level.SEVERE, "Hilo interrumpido durante la ejecución de los casos de prueba.", e);
+            Thread.currentThread().interrupt();
+            throw new ProgramExecutionException("La ejecución del programa fue interrumpida.", e);
+        } finally {
+            workspaceManager.release(tempDir);
+        }
+
+        if (handle.isCancelled()) {
+            throw new ProgramExecutionException("Ejecución cancelada.");
+        }
+        LOGGER.log(Level.INFO, "Ejecutadas {0} de {1} entradas con una sola compilación.", new Object[]{runs.size(), inputs.size()});
+        return BatchExecutionResult.completed(runs);
+    }
+
+    // Ejecuta "java Main" en un proceso nuevo dentro del directorio con las clases compiladas
+    RunResult runInNewProcess(Path dir, ExecutionHandle handle, byte[] stdin, ExecutionOutput output)
+            throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        List<String> command = childJvmOptions.javaCommand();
+        command.add(MAIN_CLASS);
+        ProcessBuilder runPb = new ProcessBuilder(command);
+        runPb.directory(dir.toFile());
+        Process runProcess = runPb.start();
+        handle.onCancel(runProcess::destroyForcibly);
+
+        // Se escribe en otro hilo: una entrada grande no debe bloquear si el programa no la lee
+        outputReaders.submit(() -> writeStdin(runProcess, stdin));
+        Future<?> stdoutGobbler = outputReaders.submit(new StreamGobbler(runProcess.getInputStream(), output, ExecutionOutput.Channel.STDOUT));
+        Future<?> stderrGobbler = outputReaders.submit(new StreamGobbler(runProcess.getErrorStream(), output, ExecutionOutput.Channel.STDERR));
+
+        try {
+            // /proc/[pid] desaparece cuando el proceso termina: el consumo se muestrea mientras se espera
+            long deadline = started + TimeUnit.SECONDS.toNanos(EXECUTION_TIMEOUT_SECONDS);
+            ProcStats usage = ProcStats.of(runProcess.pid());
+            boolean executionCompleted = false;
+            while (!executionCompleted && System.nanoTime() - deadline < 0) {
+                executionCompleted = runProcess.waitFor(
+                        Math.min(USAGE_SAMPLE_MILLIS, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) + 1),
+                        TimeUnit.MILLISECONDS);
+                ProcStats sample = executionCompleted ? null : ProcStats.of(runProcess.pid());
+                if (sample != null) {
+                    usage = sample;
+                }
+            }
+
+            RunResult result;
+            if (!executionCompleted) {
+                runProcess.destroyForcibly();
+                result = new RunResult(-1, "", "", true);
+            } else {
+                // El proceso terminó, pero los lectores pueden tener aún salida pendiente en el pipe
+                awaitDrain(stdoutGobbler);
+                awaitDrain(stderrGobbler);
+                result = new RunResult(runProcess.exitValue(), output.getText(ExecutionOutput.Channel.STDOUT),
+                        output.getText(ExecutionOutput.Channel.STDERR), false);
+            }
+            result = result.withDurationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return usage == null ? result : result.withUsage(usage.userMillis, usage.systemMillis, usage.peakRssKb);
+        } finally {
+            handle.clearCancel();
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private static void writeStdin(Process process, byte[] stdin) {
+        try (OutputStream in = process.getOutputStream()) {
+            in.write(stdin);
+        } catch (IOException e) {
+            // El programa terminó sin leer toda su entrada
+            LOGGER.log(Level.FINE, "No se pudo escribir la entrada estándar del programa.", e);
+        }
+    }
+
+    private static void awaitDrain(Future<?> gobbler) throws InterruptedException {
+        try {
+            gobbler.get(OUTPUT_DRAIN_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            // Un proceso nieto puede mantener el pipe abierto: se usa la salida leída hasta ahora
+            LOGGER.log(Level.FINE, "La salida del proceso no terminó de leerse a tiempo.", e);
+        }
+    }
+
+    // Los códigos más largos que los admitidos por el editor se rechazan antes de compilar
+    private void checkSourceSize(String codigoFuente, ExecutionMetrics metrics) {
+        if (codigoFuente != null && codigoFuente.length() > maxSourceChars) {
+            metrics.setEstado(EstadoEjecucion.ERROR_COMPILACION);
+            throw new ProgramExecutionException("Error de compilación: el código fuente supera el tamaño máximo permitido ("
+                    + maxSourceChars + " caracteres).");
+        }
+    }
+
+    // Si el código ya excedió el tiempo al compilarse en memoria, se compila con un proceso javac
+    private boolean isSlowSource(String codigoFuente) {
+        String cacheKey = compileCache.keyFor(MAIN_CLASS, codigoFuente);
+        synchronized (slowSources) {
+            return slowSources.containsKey(cacheKey);
+        }
+    }
+
+    /**
+     * Compila en memoria respetando el mismo límite de tiempo que tenía el proceso javac.
+     * Si se excede, el hilo de compilación no se puede detener: el cupo del planificador de
+     * {@code handle} se conserva hasta que termine.
+     *
+     * @throws ExecutionRejectedException Si todos los hilos de compilación están ocupados.
+     */
+    private CompilationResult compileInMemory(String codigoFuente, ExecutionHandle handle) throws InterruptedException {
+        String cacheKey = compileCache.keyFor(MAIN_CLASS, codigoFuente);
+        Optional<CompilationResult> cached = compileCache.get(cacheKey);
+        if (cached.isPresent()) {
+            LOGGER.log(Level.FINE, "Compilación obtenida de la caché ({0}).", cacheKey);
+            return cached.get();
+        }
+
+        CompletableFuture<CompilationResult> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> compiler.compile(MAIN_CLASS, codigoFuente), compileExecutor);
+        } catch (RejectedExecutionException e) {
+            compileRejections.incrementAndGet();
+            LOGGER.log(Level.WARNING, "Compilación rechazada: los {0} hilos de compilación están ocupados.", compileExecutor.getMaximumPoolSize());
+            throw new ExecutionRejectedException("El servidor está ocupado compilando otros programas. Intenta de nuevo más tarde.",
+                    EXECUTION_TIMEOUT_SECONDS);
+        }
+        try {
+            CompilationResult compilation = future.get(EXECUTION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            LOGGER.log(Level.INFO, "Compilación en memoria finalizada. Éxito: {0}", compilation.isSuccess());
+            compileCache.put(cacheKey, compilation);
+            return compilation;
+        } catch (TimeoutException e) {
+            compileTimeouts.incrementAndGet();
+            synchronized (slowSources) {
+                slowSources.put(cacheKey, Boolean.TRUE);
+            }
+            handle.holdPermitUntil(future);
+            LOGGER.log(Level.WARNING, "La compilación en memoria excedió el tiempo límite ({0}); ese código se compilará con un proceso javac.", cacheKey);
+            throw new ProgramExecutionException("La compilación excedió el tiempo límite de " + EXECUTION_TIMEOUT_SECONDS + " segundos.");
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado del compilador en memoria.", e.getCause());
+            throw new ProgramExecutionException("Error interno al compilar el programa: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Hilos de compilación ocupados, incluidos los que siguen con una compilación que excedió el tiempo
+    public int getCompileThreadsBusy() {
+        return compileExecutor.getActiveCount();
+    }
+
+    public long getCompileRejections() {
+        return compileRejections.get();
+    }
+
+    public long getCompileTimeouts() {
+        return compileTimeouts.get();
+    }
+
+    // Escribe cada clase generada (Main, clases auxiliares, clases internas) en el directorio de ejecución
+    void writeClassFiles(Path dir, Map<String, byte[]> classBytes) throws IOException {
+        for (Map.Entry<String, byte[]> entry : classBytes.entrySet()) {
+            Path classFile = dir.resolve(entry.getKey().replace('.', File.separatorChar) + ".class");
+            Files.createDirectories(classFile.getParent());
+            Files.write(classFile, entry.getValue());
+        }
+    }
+
+    // Ruta alternativa cuando la JVM no incluye el compilador: proceso javac como antes
+    void compileWithJavacProcess(Path tempDir, String codigoFuente, ProgramaExecutionResultDTO result)
+            throws IOException, InterruptedException {
+        Path sourceFile = Files.writeString(tempDir.resolve(MAIN_CLASS + ".java"), codigoFuente, StandardCharsets.UTF_8);
+
+        ProcessBuilder compilePb = new ProcessBuilder("javac", "-encoding", "UTF-8", sourceFile.getFileName().toString());
+        compilePb.directory(tempDir.toFile());
+        Process compileProcess = compilePb.start();
+
+        String compileStderr = readProcessStream(compileProcess.getErrorStream());
+        LOGGER.log(Level.FINE, "Compilación STDERR:\n{0}", compileStderr);
+
+        boolean compilationCompleted = compileProcess.waitFor(EXECUTION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        if (!compilationCompleted) {
+            compileProcess.destroyForcibly();
+            throw new ProgramExecutionException("La compilación excedió el tiempo límite de " + EXECUTION_TIMEOUT_SECONDS + " segundos.");
+        }
+
+        int compileExitCode = compileProcess.exitValue();
+        LOGGER.log(Level.INFO, "Compilación finalizada con código de salida: {0}", compileExitCode);
+
+        if (compileExitCode != 0) {
+            result.setExitCode(compileExitCode);
+            result.setStderr(compileStderr);
+            result.setErrorMessage("Error de compilación."); // Mensaje genérico para el usuario
+            throw new ProgramExecutionException("Error de compilación.", compileStderr);
+        }
+    }
+
+    // Copia un stream del proceso a la salida acotada de la ejecución
+    private static class StreamGobbler implements Runnable {
+        private final InputStream is;
+        private final ExecutionOutput output;
+        private final ExecutionOutput.Channel channel;
+
+        StreamGobbler(InputStream is, ExecutionOutput output, ExecutionOutput.Channel channel) {
+            this.is = is;
+            this.output = output;
+            this.channel = channel;
+        }
+
+        @Override
+        public void run() {
+            try (InputStreamReader in = new InputStreamReader(is)) {
+                BoundedLineReader reader = new BoundedLineReader(in, BoundedLineReader.MAX_LINE_CHARS);
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.append(channel, line, reader.lastLineTerminated());
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "Error leyendo stream de proceso.", e);
+            }
+        }
+    }
+
+    private String readProcessStream(InputStream is) throws IOException {
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.append(line).append(System.lineSeparator());
+            }
+        }
+        return output.toString();
+    }
+}
@@ -0,0 +1,300 @@
+package com.uq.execution;
+
+import com.uq.dto.ProgramaExecutionResultDTO;
+import com.uq.enums.EstadoEjecucion;
+import com.uq.exception.ProgramExecutionException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caché de resultados de ejecución para programas deterministas (opcional,
+ * {@code execution.result-cache.enabled}).
+ * <p>
+ * Un programa se puede cachear si {@link DeterminismScanner} no encuentra nada que haga variar su
+ * salida (entrada, azar, hora, hilos...). La clave es el hash del código fuente más el perfil de
+ * las JVM hijas y la versión del JDK, así que un código modificado nunca usa un resultado anterior.
+ * <ul>
+ *   <li>Un resultado solo se sirve después de {@code execution.result-cache.confirm-runs} ejecuciones
+ *       con la misma salida; si dos ejecuciones difieren, el código deja de cachearse hasta que
+ *       venza la entrada. Así se cubre lo que el análisis no detecta (por ejemplo, imprimir un
+ *       objeto sin toString, que incluye su hash de identidad).</li>
+ *   <li>Las solicitudes simultáneas del mismo código esperan a la ejecución en curso en lugar de
+ *       lanzar una JVM cada una.</li>
+ *   <li>Las entradas vencen a los {@code execution.result-cache.ttl-seconds} segundos y se
+ *       invalidan al modificar o eliminar el programa o ejemplo.</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class ResultCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ResultCache.class.getName());
+
+    private static final String MAIN_CLASS = "Main";
+    // Lo que espera una solicitud a la ejecución en curso del mismo código antes de ejecutarlo por su cuenta
+    private static final long MAX_WAIT_SECONDS = 2L * ProgramExecutor.EXECUTION_TIMEOUT_SECONDS;
+
+    @Inject
+    ChildJvmOptions childJvmOptions;
+
+    @ConfigProperty(name = "execution.result-cache.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "execution.result-cache.ttl-seconds", defaultValue = "600")
+    int ttlSeconds;
+
+    @ConfigProperty(name = "execution.result-cache.max-entries", defaultValue = "1000")
+    int maxEntries;
+
+    @ConfigProperty(name = "execution.result-cache.confirm-runs", defaultValue = "2")
+    int confirmRuns;
+
+    private final JavaSourceCompiler compiler = new JavaSourceCompiler();
+    // LRU por orden de acceso; protegido por su propio monitor
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bypassed = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Retorna el resultado en caché de {@code codigoFuente} o lo ejecuta con {@code run}.
+     * Con la caché desactivada o un código no determinista solo llama a {@code run}.
+     * Un resultado en caché también se registra en {@code handle} (salida y métricas), como si
+     * se hubiera ejecutado, para que el historial y la salida en vivo lo vean.
+     */
+    public ProgramaExecutionResultDTO execute(String codigoFuente, ExecutionHandle handle,
+                                              Supplier<ProgramaExecutionResultDTO> run) {
+        if (!enabled || !compiler.isAvailable()) {
+            return run.get();
+        }
+        long started = System.nanoTime();
+        String key = keyFor(codigoFuente);
+        long deadline = started + TimeUnit.SECONDS.toNanos(MAX_WAIT_SECONDS);
+
+        while (true) {
+            Entry entry = entryFor(key, codigoFuente);
+            if (!entry.isUsable()) {
+                bypassed.incrementAndGet();
+                return run.get();
+            }
+            ProgramaExecutionResultDTO cached = entry.confirmedResult(confirmRuns);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return serve(cached, handle, started);
+            }
+
+            CompletableFuture<Void> mine = new CompletableFuture<>();
+            CompletableFuture<Void> leader = inFlight.putIfAbsent(key, mine);
+            if (leader == null) {
+                misses.incrementAndGet();
+                try {
+                    ProgramaExecutionResultDTO result = run.get();
+                    if (handle.getMetrics().getEstado() == EstadoEjecucion.COMPLETADA && !handle.isCancelled()) {
+                        entry.record(result);
+                    }
+                    return result;
+                } catch (ProgramExecutionException e) {
+                    // Un error de compilación o un tiempo excedido se repetirían: las demás solicitudes ejecutan
+                    // por su cuenta. Una cancelación, una interrupción o un error interno no dicen nada del código
+                    if (isRepeatableFailure(handle.getMetrics().getEstado()) && !handle.isCancelled()) {
+                        entry.markUnusable();
+                    }
+                    throw e;
+                } finally {
+                    inFlight.remove(key, mine);
+                    mine.complete(null);
+                }
+            }
+
+            // Otra solicitud está ejecutando el mismo código: se espera su resultado
+            try {
+                leader.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                bypassed.incrementAndGet();
+                return run.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProgramExecutionException("La ejecución del programa fue interrumpida.", e);
+            } catch (ExecutionException e) {
+                // No ocurre: el futuro solo se completa normalmente
+            }
+        }
+    }
+
+    private static boolean isRepeatableFailure(EstadoEjecucion estado) {
+        return estado == EstadoEjecucion.ERROR_COMPILACION || estado == EstadoEjecucion.TIEMPO_EXCEDIDO;
+    }
+
+    // Invalida el resultado en caché de un código (al modificar o eliminar el programa o ejemplo)
+    public void invalidate(String codigoFuente) {
+        if (!enabled || codigoFuente == null) {
+            return;
+        }
+        synchronized (entries) {
+            if (entries.remove(keyFor(codigoFuente)) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    private Entry entryFor(String key, String codigoFuente) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt > now) {
+                return entry;
+            }
+        }
+        // El análisis se hace fuera del monitor; si dos hilos lo hacen a la vez gana el primero en guardar
+        String reason;
+        try {
+            reason = DeterminismScanner.findNondeterminism(compiler, MAIN_CLASS, codigoFuente);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "No se pudo analizar el código para la caché de resultados.", e);
+            reason = "error de análisis";
+        }
+        if (reason != null) {
+            LOGGER.log(Level.FINE, "Código no cacheable (usa {0}).", reason);
+        }
+        Entry created = new Entry(reason == null, now + TimeUnit.SECONDS.toMillis(ttlSeconds));
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt > now) {
+                return entry;
+            }
+            entries.put(key, created);
+            while (entries.size() > maxEntries) {
+                entries.remove(entries.keySet().iterator().next());
+            }
+            return created;
+        }
+    }
+
+    private static ProgramaExecutionResultDTO serve(ProgramaExecutionResultDTO cached, ExecutionHandle handle, long startedNanos) {
+        handle.getMetrics().recordCached(cached.getExitCode());
+        ExecutionOutput output = handle.getOutput();
+        output.appendText(ExecutionOutput.Channel.STDOUT, cached.getStdout() == null ? "" : cached.getStdout());
+        output.appendText(ExecutionOutput.Channel.STDERR, cached.getStderr() == null ? "" : cached.getStderr());
+
+        ProgramaExecutionResultDTO result = new ProgramaExecutionResultDTO();
+        result.setStdout(cached.getStdout());
+        result.setStderr(cached.getStderr());
+        result.setExitCode(cached.getExitCode());
+        result.setErrorMessage(cached.getErrorMessage());
+        result.setOutputTruncated(cached.isOutputTruncated());
+        result.setStdoutBytes(cached.getStdoutBytes());
+        result.setStderrBytes(cached.getStderrBytes());
+        result.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos));
+        result.setCached(true);
+        return result;
+    }
+
+    private String keyFor(String codigoFuente) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((childJvmOptions.getProfileName() + "\n" + Runtime.version() + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(codigoFuente.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible.", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getBypassed() {
+        return bypassed.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Estado de un código: si se puede cachear y el último resultado con cuántas ejecuciones lo
+     * confirmaron. Se accede sincronizando sobre la instancia.
+     */
+    private static final class Entry {
+        private final long expiresAt;
+        private boolean usable;
+        private ProgramaExecutionResultDTO result;
+        private int confirmations;
+
+        Entry(boolean usable, long expiresAt) {
+            this.usable = usable;
+            this.expiresAt = expiresAt;
+        }
+
+        synchronized boolean isUsable() {
+            return usable;
+        }
+
+        synchronized void markUnusable() {
+            usable = false;
+            result = null;
+        }
+
+        synchronized ProgramaExecutionResultDTO confirmedResult(int confirmRuns) {
+            return usable && confirmations >= confirmRuns ? result : null;
+        }
+
+        synchronized void record(ProgramaExecutionResultDTO run) {
+            if (!usable) {
+                return;
+            }
+            if (result == null) {
+                result = run;
+                confirmations = 1;
+            } else if (sameOutput(result, run)) {
+                confirmations++;
+            } else {
+                // La salida cambió entre ejecuciones: el análisis estático no detectó algo
+                LOGGER.log(Level.INFO, "Código marcado como no determinista: dos ejecuciones produjeron salidas distintas.");
+                markUnusable();
+            }
+        }
+
+        private static boolean sameOutput(ProgramaExecutionResultDTO a, ProgramaExecutionResultDTO b) {
+            return a.getExitCode() == b.getExitCode()
+                    && a.isOutputTruncated() == b.isOutputTruncated()
+                    && Objects.equals(a.getStdout(), b.getStdout())
+                    && Objects.equals(a.getStderr(), b.getStderr());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.uq.execution;
+
+/**
+ * Resultado de ejecutar un programa ya compilado (en un proceso propio o en una JVM del pool).
+ */
+public class RunResult {
+
+    private final int exitCode;
+    private final String stdout;
+    private final String stderr;
+    private final boolean timedOut;
+    private final long durationMillis;
+    // Consumo de la ejecución; -1 si no se pudo medir (por ejemplo fuera de Linux)
+    private final long cpuUserMillis;
+    private final long cpuSystemMillis;
+    private final long peakRssKb;
+
+    public RunResult(int exitCode, String stdout, String stderr, boolean timedOut) {
+        this(exitCode, stdout, stderr, timedOut, 0, -1, -1, -1);
+    }
+
+    private RunResult(int exitCode, String stdout, String stderr, boolean timedOut, long durationMillis,
+                      long cpuUserMillis, long cpuSystemMillis, long peakRssKb) {
+        this.exitCode = exitCode;
+        this.stdout = stdout;
+        this.stderr = stderr;
+        this.timedOut = timedOut;
+        this.durationMillis = durationMillis;
+        this.cpuUserMillis = cpuUserMillis;
+        this.cpuSystemMillis = cpuSystemMillis;
+        this.peakRssKb = peakRssKb;
+    }
+
+    /**
+     * Copia con el tiempo de pared de la ejecución (sin compilación ni espera de cupo).
+     */
+    public RunResult withDurationMillis(long durationMillis) {
+        return new RunResult(exitCode, stdout, stderr, timedOut, durationMillis, cpuUserMillis, cpuSystemMillis, peakRssKb);
+    }
+
+    /**
+     * Copia con el tiempo de CPU y el pico de memoria residente del proceso que ejecutó el programa.
+     */
+    public RunResult withUsage(long cpuUserMillis, long cpuSystemMillis, long peakRssKb) {
+        return new RunResult(exitCode, stdout, stderr, timedOut, durationMillis, cpuUserMillis, cpuSystemMillis, peakRssKb);
+    }
+
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    public String getStdout() {
+        return stdout;
+    }
+
+    public String getStderr() {
+        return stderr;
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public long getCpuUserMillis() {
+        return cpuUserMillis;
+    }
+
+    public long getCpuSystemMillis() {
+        return cpuSystemMillis;
+    }
+
+    public long getPeakRssKb() {
+        return peakRssKb;
+    }
+}
@@ -0,0 +1,463 @@
+package com.uq.execution;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool de JVM trabajadoras pre-arrancadas para ejecutar programas de estudiantes.
+ * <p>
+ * Cada trabajador es un proceso {@code java} aislado que ejecuta {@link RunnerWorker} con un
+ * classpath propio. Las clases compiladas se envían por su entrada estándar, de modo que cada
+ * ejecución se ahorra el arranque de la JVM. Los trabajadores se reciclan después de
+ * {@code execution.pool.max-runs-per-worker} ejecuciones (1 por defecto: un proceso nuevo por
+ * ejecución, arrancado de antemano), se reemplazan si mueren y se eliminan tras estar inactivos.
+ * <p>
+ * El código de confianza (ejemplos de profesores) usa un carril aparte de trabajadores de larga
+ * duración que se reutilizan hasta {@code execution.pool.trusted.max-runs-per-worker} veces. Allí cada
+ * ejecución solo cuesta un class loader nuevo, y los límites los aplica el watchdog de tiempo de CPU
+ * del propio trabajador. Los dos carriles nunca comparten procesos.
+ */
+@ApplicationScoped
+public class RunnerPool {
+
+    private static final Logger LOGGER = Logger.getLogger(RunnerPool.class.getName());
+
+    private static final String WORKER_CLASS = RunnerWorker.class.getName();
+    // Clases que necesita la JVM trabajadora (RunnerWorker, sus clases anidadas y ProcStats)
+    private static final List<String> WORKER_CLASS_FILES = List.of(
+            "RunnerWorker", "RunnerWorker$MemoryClassLoader", "RunnerWorker$TrackingOutputStream", "ProcStats");
+    private static final long PING_TIMEOUT_MILLIS = 2000;
+
+    @Inject
+    ChildJvmOptions childJvmOptions;
+
+    @ConfigProperty(name = "execution.pool.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "execution.pool.min-size", defaultValue = "2")
+    int minSize;
+
+    @ConfigProperty(name = "execution.pool.max-size", defaultValue = "8")
+    int maxSize;
+
+    @ConfigProperty(name = "execution.pool.max-runs-per-worker", defaultValue = "1")
+    int maxRunsPerWorker;
+
+    @ConfigProperty(name = "execution.pool.idle-timeout-seconds", defaultValue = "300")
+    int idleTimeoutSeconds;
+
+    @ConfigProperty(name = "execution.pool.health-check-interval-seconds", defaultValue = "30")
+    int healthCheckIntervalSeconds;
+
+    @ConfigProperty(name = "execution.pool.trusted.min-size", defaultValue = "1")
+    int trustedMinSize;
+
+    @ConfigProperty(name = "execution.pool.trusted.max-size", defaultValue = "2")
+    int trustedMaxSize;
+
+    @ConfigProperty(name = "execution.pool.trusted.max-runs-per-worker", defaultValue = "500")
+    int trustedMaxRunsPerWorker;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workerAvailable = lock.newCondition();
+    private final Lane standard = new Lane("estándar");
+    private final Lane trusted = new Lane("confiable");
+    private volatile boolean shutdown;
+
+    private Path workerClasspath;
+    private ExecutorService streamReaders;
+    private ScheduledExecutorService maintenance;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            LOGGER.info("Pool de JVM trabajadoras deshabilitado (execution.pool.enabled=false).");
+            return;
+        }
+        try {
+            workerClasspath = extractWorkerClasses();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "No se pudieron preparar las clases del trabajador. Pool deshabilitado.", e);
+            enabled = false;
+            return;
+        }
+        standard.configure(minSize, maxSize, maxRunsPerWorker);
+        trusted.configure(trustedMinSize, trustedMaxSize, trustedMaxRunsPerWorker);
+        streamReaders = Executors.newCachedThreadPool(daemonThreads("runner-pool-io"));
+        maintenance = Executors.newSingleThreadScheduledExecutor(daemonThreads("runner-pool-maintenance"));
+        maintenance.scheduleWithFixedDelay(this::maintain, 0, healthCheckIntervalSeconds, TimeUnit.SECONDS);
+        LOGGER.log(Level.INFO, "Pool de JVM trabajadoras iniciado (min={0}, max={1}, ejecuciones por trabajador={2}; confiable: min={3}, max={4}, ejecuciones por trabajador={5}).",
+                new Object[]{minSize, maxSize, maxRunsPerWorker, trustedMinSize, trustedMaxSize, trustedMaxRunsPerWorker});
+    }
+
+    @PreDestroy
+    void shutdown() {
+        shutdown = true;
+        if (maintenance != null) maintenance.shutdownNow();
+        lock.lock();
+        try {
+            for (Lane lane : List.of(standard, trusted)) {
+                lane.idle.forEach(PooledWorker::destroy);
+                lane.idle.clear();
+            }
+            workerAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (streamReaders != null) streamReaders.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled && !shutdown;
+    }
+
+    public int getTotalWorkers() {
+        lock.lock();
+        try {
+            return standard.total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getIdleWorkers() {
+        lock.lock();
+        try {
+            return standard.idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getTrustedWorkers() {
+        lock.lock();
+        try {
+            return trusted.total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ejecuta el programa compilado en una JVM del pool.
+     *
+     * @param classes        Clases compiladas (nombre binario -> bytecode).
+     * @param mainClass      Clase con el metodo main.
+     * @param stdin          Entrada estándar para el programa.
+     * @param timeoutMillis  Tiempo máximo de ejecución (también se usa como espera máxima por un trabajador libre).
+     * @param handle         Recibe la salida en vivo y permite cancelar la ejecución destruyendo la JVM trabajadora.
+     */
+    public RunResult run(Map<String, byte[]> classes, String mainClass, byte[] stdin, long timeoutMillis,
+                         ExecutionHandle handle) throws IOException, InterruptedException {
+        PooledWorker worker = acquire(standard, timeoutMillis);
+        handle.onCancel(worker::destroy);
+        try {
+            return worker.run(streamReaders, classes, mainClass, stdin, timeoutMillis, false, handle.getOutput());
+        } finally {
+            handle.clearCancel();
+            release(standard, worker);
+        }
+    }
+
+    /**
+     * Ejecuta código de confianza en el carril de trabajadores reutilizables. {@code timeoutMillis} es
+     * el límite de tiempo de CPU (y de tiempo real) que aplica el watchdog del trabajador; si el
+     * programa no se detiene al interrumpirlo, el trabajador se descarta como en el carril estándar.
+     */
+    public RunResult runTrusted(Map<String, byte[]> classes, String mainClass, byte[] stdin, long timeoutMillis,
+                                ExecutionHandle handle) throws IOException, InterruptedException {
+        PooledWorker worker = acquire(trusted, timeoutMillis);
+        handle.onCancel(worker::destroy);
+        try {
+            return worker.run(streamReaders, classes, mainClass, stdin, timeoutMillis, true, handle.getOutput());
+        } finally {
+            handle.clearCancel();
+            release(trusted, worker);
+        }
+    }
+
+    /**
+     * Abre una sesión para ejecutar el mismo programa varias veces (por ejemplo, un caso de prueba por
+     * ejecución) enviando el bytecode una sola vez. Si el trabajador deja de ser reutilizable a mitad
+     * de la sesión (System.exit, hilos vivos, tiempo excedido), la sesión continúa con otro trabajador.
+     */
+    public Session openSession(Map<String, byte[]> classes, ExecutionHandle handle) {
+        return new Session(classes, handle);
+    }
+
+    public class Session implements AutoCloseable {
+        private final Map<String, byte[]> classes;
+        private final ExecutionHandle handle;
+        private PooledWorker worker;
+
+        private Session(Map<String, byte[]> classes, ExecutionHandle handle) {
+            this.classes = classes;
+            this.handle = handle;
+        }
+
+        public RunResult run(String mainClass, byte[] stdin, long timeoutMillis, ExecutionOutput output)
+                throws IOException, InterruptedException {
+            if (worker != null && !worker.isReusable()) {
+                releaseWorker();
+            }
+            if (worker == null) {
+                worker = acquire(standard, timeoutMillis);
+                handle.onCancel(worker::destroy);
+                worker.load(classes);
+            }
+            return worker.exec(streamReaders, mainClass, stdin, timeoutMillis, output);
+        }
+
+        private void releaseWorker() {
+            handle.clearCancel();
+            release(standard, worker);
+            worker = null;
+        }
+
+        @Override
+        public void close() {
+            if (worker != null) {
+                releaseWorker();
+            }
+        }
+    }
+
+    private PooledWorker acquire(Lane lane, long timeoutMillis) throws IOException, InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            while (true) {
+                if (shutdown) {
+                    throw new IOException("El pool de ejecución se está cerrando.");
+                }
+                PooledWorker worker;
+                while ((worker = lane.idle.pollFirst()) != null) {
+                    if (worker.isAlive()) {
+                        return worker;
+                    }
+                    discard(lane, worker);
+                }
+                if (lane.total < lane.maxSize) {
+                    lane.total++;
+                    break; // Arrancar uno nuevo fuera del lock
+                }
+                if (remaining <= 0) {
+                    throw new IOException("No hay JVM trabajadoras disponibles (máximo " + lane.maxSize + ").");
+                }
+                remaining = workerAvailable.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return spawnReserved(lane);
+    }
+
+    private void release(Lane lane, PooledWorker worker) {
+        boolean keep = worker.isReusable() && worker.getRuns() < lane.maxRuns && !shutdown;
+        lock.lock();
+        try {
+            if (keep) {
+                lane.idle.addFirst(worker); // LIFO: se reutilizan primero los trabajadores más recientes
+            } else {
+                worker.destroy();
+                lane.total--;
+            }
+            workerAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (!keep && maintenance != null && !shutdown) {
+            // Reponer el trabajador reciclado sin hacer esperar a la siguiente ejecución
+            maintenance.execute(() -> topUp(lane));
+        }
+    }
+
+    // Arranca un trabajador para un cupo ya reservado en "total" del carril
+    private PooledWorker spawnReserved(Lane lane) throws IOException {
+        try {
+            return PooledWorker.start(workerCommand());
+        } catch (IOException | RuntimeException e) {
+            lock.lock();
+            try {
+                lane.total--;
+                workerAvailable.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private List<String> workerCommand() {
+        List<String> command = childJvmOptions.javaCommand();
+        command.add("-cp");
+        command.add(workerClasspath.toString());
+        command.add(WORKER_CLASS);
+        return command;
+    }
+
+    private void discard(Lane lane, PooledWorker worker) {
+        worker.destroy();
+        lane.total--;
+    }
+
+    /**
+     * Tarea periódica: elimina trabajadores muertos o que no responden, recoge los
+     * inactivos por encima del mínimo y vuelve a completar el mínimo configurado.
+     */
+    private void maintain() {
+        maintain(standard);
+        maintain(trusted);
+    }
+
+    private void maintain(Lane lane) {
+        try {
+            List<PooledWorker> toCheck;
+            lock.lock();
+            try {
+                toCheck = new ArrayList<>(lane.idle);
+                lane.idle.clear();
+            } finally {
+                lock.unlock();
+            }
+
+            long now = System.currentTimeMillis();
+            List<PooledWorker> healthy = new ArrayList<>();
+            int reaped = 0;
+            for (PooledWorker worker : toCheck) {
+                if (!worker.ping(streamReaders, PING_TIMEOUT_MILLIS)) {
+                    LOGGER.log(Level.WARNING, "JVM trabajadora {0} no responde. Se reemplaza.", worker.pid());
+                    lock.lock();
+                    try {
+                        discard(lane, worker);
+                    } finally {
+                        lock.unlock();
+                    }
+                } else {
+                    healthy.add(worker);
+                }
+            }
+
+            lock.lock();
+            try {
+                // Se devuelven primero los usados más recientemente (orden LIFO)
+                healthy.sort((a, b) -> Long.compare(b.getLastUsedAt(), a.getLastUsedAt()));
+                Iterator<PooledWorker> it = healthy.iterator();
+                while (it.hasNext()) {
+                    PooledWorker worker = it.next();
+                    boolean idleTooLong = now - worker.getLastUsedAt() > TimeUnit.SECONDS.toMillis(idleTimeoutSeconds);
+                    if (idleTooLong && lane.total > lane.minSize) {
+                        discard(lane, worker);
+                        reaped++;
+                    } else {
+                        lane.idle.addLast(worker);
+                    }
+                }
+                workerAvailable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (reaped > 0) {
+                LOGGER.log(Level.INFO, "Se cerraron {0} JVM trabajadoras inactivas del carril {1}.", new Object[]{reaped, lane.name});
+            }
+            topUp(lane);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Error en el mantenimiento del pool de JVM trabajadoras.", e);
+        }
+    }
+
+    // Arranca trabajadores hasta alcanzar el mínimo configurado del carril
+    private void topUp(Lane lane) {
+        while (!shutdown) {
+            lock.lock();
+            try {
+                if (lane.total >= lane.minSize) {
+                    return;
+                }
+                lane.total++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                PooledWorker worker = spawnReserved(lane);
+                lock.lock();
+                try {
+                    lane.idle.addLast(worker);
+                    workerAvailable.signal();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "No se pudo arrancar una JVM trabajadora.", e);
+                return;
+            }
+        }
+    }
+
+    // Copia RunnerWorker a un directorio propio para que el classpath del trabajador no incluya la aplicación
+    private Path extractWorkerClasses() throws IOException {
+        Path dir = Files.createTempDirectory("java_runner_");
+        String packagePath = RunnerWorker.class.getPackageName().replace('.', '/');
+        Path packageDir = Files.createDirectories(dir.resolve(packagePath));
+        for (String name : WORKER_CLASS_FILES) {
+            try (InputStream in = RunnerWorker.class.getResourceAsStream("/" + packagePath + "/" + name + ".class")) {
+                if (in == null) {
+                    throw new IOException("No se encontró la clase " + name + " en el classpath.");
+                }
+                Files.copy(in, packageDir.resolve(name + ".class"));
+            }
+        }
+        return dir;
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    // Grupo de trabajadores con sus propios límites. Los campos se protegen con el lock del pool.
+    private static final class Lane {
+        final String name;
+        final Deque<PooledWorker> idle = new ArrayDeque<>();
+        int total; // Trabajadores vivos: inactivos + en uso + arrancando
+        int minSize;
+        int maxSize;
+        int maxRuns;
+
+        Lane(String name) {
+            this.name = name;
+        }
+
+        void configure(int minSize, int maxSize, int maxRuns) {
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+            this.maxRuns = maxRuns;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.uq.execution;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Punto de entrada de las JVM trabajadoras del {@link RunnerPool}.
+ * <p>
+ * Esta clase se ejecuta en un proceso aparte con un classpath que solo contiene
+ * sus propias clases, por eso únicamente puede depender del JDK. Recibe órdenes por
+ * su entrada estándar y la salida del programa del estudiante va directamente a su
+ * stdout/stderr; al terminar cada ejecución escribe una línea delimitadora con un
+ * token aleatorio que el proceso padre usa para separar ejecuciones.
+ * <p>
+ * Protocolo (entrada estándar, {@link java.io.DataOutputStream}):
+ * <ul>
+ *     <li>{@code 'P'} token: responde {@code token PONG} por stdout (chequeo de salud).</li>
+ *     <li>{@code 'R'} token, clase principal, stdin (int + bytes), límite de CPU y límite de tiempo real
+ *     (long, milisegundos, 0 = sin límite), clases (int + [nombre, int + bytes]): ejecuta {@code main} y
+ *     termina con {@code token exitCode reutilizable límiteExcedido cpuUsuario cpuSistema picoRssKb saltoAgregado}
+ *     en stdout y {@code token saltoAgregado} en stderr. El consumo se lee de {@code /proc/self} (-1 si no está
+ *     disponible): la CPU es la del proceso durante la ejecución y el pico de memoria el del proceso completo.
+ *     {@code saltoAgregado} es 1 si la salida no terminaba en salto de línea y se agregó uno antes del
+ *     delimitador; el proceso padre lo quita de la última línea.</li>
+ *     <li>{@code 'L'} token, clases: guarda las clases para las órdenes {@code 'E'} siguientes (sin respuesta).</li>
+ *     <li>{@code 'E'} token, clase principal, stdin, límites: como {@code 'R'} pero con las últimas clases cargadas.
+ *     Permite ejecutar varios casos de prueba enviando el bytecode una sola vez.</li>
+ *     <li>{@code 'Q'} o fin de la entrada: termina el proceso.</li>
+ * </ul>
+ * Como el lanzador {@code java}, la ejecución termina cuando terminan el hilo principal y todos los
+ * hilos no daemon que haya creado el programa. Con límites, un watchdog suma el tiempo de CPU de los
+ * hilos del programa y los interrumpe al superarlo. Si el programa responde a la interrupción el trabajador sigue siendo reutilizable;
+ * si no (por ejemplo un bucle sin bloqueos) el proceso termina tras escribir el delimitador.
+ */
+public final class RunnerWorker {
+
+    static final int OP_PING = 'P';
+    static final int OP_RUN = 'R';
+    static final int OP_LOAD = 'L';
+    static final int OP_EXEC = 'E';
+    static final int OP_QUIT = 'Q';
+    static final String PONG = "PONG";
+
+    private static final long WATCHDOG_INTERVAL_MILLIS = 10;
+    // Tiempo que se espera a que el programa termine después de interrumpirlo
+    private static final long STOP_GRACE_MILLIS = 200;
+
+    private RunnerWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        DataInputStream commands = new DataInputStream(new BufferedInputStream(System.in));
+        TrackingOutputStream out = new TrackingOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        TrackingOutputStream err = new TrackingOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.err)));
+        PrintStream outStream = new PrintStream(out, true);
+        PrintStream errStream = new PrintStream(err, true);
+        // El programa del estudiante nunca debe leer el canal de órdenes
+        System.setIn(new ByteArrayInputStream(new byte[0]));
+        Map<String, byte[]> loaded = new HashMap<>();
+
+        while (true) {
+            int op = commands.read();
+            if (op == -1 || op == OP_QUIT) {
+                return;
+            }
+            String token = commands.readUTF();
+
+            if (op == OP_PING) {
+                outStream.println(token + " " + PONG);
+                outStream.flush();
+                continue;
+            }
+            if (op == OP_LOAD) {
+                loaded = readClasses(commands);
+                continue;
+            }
+            if (op != OP_RUN && op != OP_EXEC) {
+                errStream.println("Orden desconocida: " + op);
+                return;
+            }
+
+            String mainClass = commands.readUTF();
+            byte[] stdin = readBytes(commands);
+            long cpuLimitMillis = commands.readLong();
+            long wallLimitMillis = commands.readLong();
+            Map<String, byte[]> classes = op == OP_RUN ? readClasses(commands) : loaded;
+
+            System.setOut(outStream);
+            System.setErr(errStream);
+            System.setIn(new ByteArrayInputStream(stdin));
+
+            ProcStats before = ProcStats.self();
+            ThreadGroup group = new ThreadGroup("programa");
+            int[] exitCode = {0};
+            Thread mainThread = startMain(group, new MemoryClassLoader(classes), mainClass, errStream, exitCode);
+            boolean limitExceeded = watch(mainThread, group, cpuLimitMillis, wallLimitMillis);
+            boolean reusable = group.activeCount() == 0;
+            ProcStats after = ProcStats.self();
+            String usage = before == null || after == null
+                    ? "-1 -1 -1"
+                    : (after.userMillis - before.userMillis) + " " + (after.systemMillis - before.systemMillis) + " " + after.peakRssKb;
+
+            // Restaurar los streams por si el programa los reemplazó
+            System.setOut(outStream);
+            System.setErr(errStream);
+            System.setIn(new ByteArrayInputStream(new byte[0]));
+
+            writeBoundary(outStream, out, token + " " + exitCode[0] + " " + (reusable ? 1 : 0) + " " + (limitExceeded ? 1 : 0) + " " + usage + " ");
+            writeBoundary(errStream, err, token + " ");
+
+            if (!reusable) {
+                // Quedan hilos del programa vivos: este proceso no se puede reutilizar
+                Runtime.getRuntime().halt(0);
+            }
+        }
+    }
+
+    private static Thread startMain(ThreadGroup group, ClassLoader loader, String mainClass, PrintStream err,
+                                    int[] exitCode) {
+        Thread mainThread = new Thread(group, () -> {
+            try {
+                Class<?> clazz = Class.forName(mainClass, true, loader);
+                Method main = clazz.getMethod("main", String[].class);
+                if (!Modifier.isStatic(main.getModifiers())) {
+                    throw new NoSuchMethodException();
+                }
+                main.setAccessible(true);
+                main.invoke(null, (Object) new String[0]);
+            } catch (InvocationTargetException e) {
+                // Mismo formato que el lanzador "java" para excepciones no capturadas
+                err.print("Exception in thread \"main\" ");
+                e.getCause().printStackTrace(err);
+                exitCode[0] = 1;
+            } catch (NoSuchMethodException e) {
+                err.println("Error: Main method not found in class " + mainClass + ", please define the main method as:");
+                err.println("   public static void main(String[] args)");
+                exitCode[0] = 1;
+            } catch (ClassNotFoundException | LinkageError e) {
+                err.println("Error: Could not find or load main class " + mainClass);
+                err.println("Caused by: " + e);
+                exitCode[0] = 1;
+            } catch (IllegalAccessException e) {
+                err.println("Error: " + e);
+                exitCode[0] = 1;
+            }
+        }, "main");
+        mainThread.setContextClassLoader(loader);
+        mainThread.start();
+        return mainThread;
+    }
+
+    /**
+     * Espera a que terminen el hilo principal y los hilos no daemon del programa. Sin límites solo
+     * espera (el proceso padre destruye el trabajador si se vence el tiempo); con límites interrumpe
+     * los hilos del programa cuando su tiempo de CPU acumulado o el tiempo real superan el máximo.
+     *
+     * @return true si se interrumpió el programa por exceder un límite.
+     */
+    private static boolean watch(Thread mainThread, ThreadGroup group, long cpuLimitMillis, long wallLimitMillis) {
+        try {
+            Thread running;
+            if (cpuLimitMillis <= 0 && wallLimitMillis <= 0) {
+                while ((running = running(mainThread, group)) != null) {
+                    running.join();
+                }
+                return false;
+            }
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            boolean measureCpu = cpuLimitMillis > 0 && threads.isThreadCpuTimeSupported();
+            if (measureCpu && !threads.isThreadCpuTimeEnabled()) {
+                threads.setThreadCpuTimeEnabled(true);
+            }
+            long cpuLimitNanos = TimeUnit.MILLISECONDS.toNanos(cpuLimitMillis);
+            long deadline = wallLimitMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(wallLimitMillis) : Long.MAX_VALUE;
+            // Último tiempo de CPU visto por hilo: así cuenta también el de los hilos que ya terminaron
+            Map<Long, Long> cpuByThread = new HashMap<>();
+
+            while ((running = running(mainThread, group)) != null) {
+                running.join(WATCHDOG_INTERVAL_MILLIS);
+                boolean exceeded = System.nanoTime() - deadline > 0;
+                if (!exceeded && measureCpu) {
+                    Thread[] active = new Thread[group.activeCount() + 4];
+                    int count = group.enumerate(active);
+                    long total = 0;
+                    for (int i = 0; i < count; i++) {
+                        long cpu = threads.getThreadCpuTime(active[i].getId());
+                        if (cpu > 0) {
+                            cpuByThread.put(active[i].getId(), cpu);
+                        }
+                    }
+                    for (long cpu : cpuByThread.values()) {
+                        total += cpu;
+                    }
+                    exceeded = total > cpuLimitNanos;
+                }
+                if (exceeded && running(mainThread, group) != null) {
+                    group.interrupt();
+                    long graceDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STOP_GRACE_MILLIS);
+                    while ((running = running(mainThread, group)) != null && graceDeadline - System.nanoTime() > 0) {
+                        running.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(graceDeadline - System.nanoTime())));
+                    }
+                    return true;
+                }
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Hilo del programa que todavía hay que esperar: el principal o uno no daemon, o null si no queda ninguno
+    private static Thread running(Thread mainThread, ThreadGroup group) {
+        if (mainThread.isAlive()) {
+            return mainThread;
+        }
+        Thread[] active = new Thread[group.activeCount() + 4];
+        int count = group.enumerate(active);
+        for (int i = 0; i < count; i++) {
+            if (active[i].isAlive() && !active[i].isDaemon()) {
+                return active[i];
+            }
+        }
+        return null;
+    }
+
+    // line termina en espacio: se completa con saltoAgregado
+    private static void writeBoundary(PrintStream stream, TrackingOutputStream tracker, String line) {
+        stream.flush();
+        boolean newLineAdded = tracker.needsNewLine();
+        if (newLineAdded) {
+            stream.println();
+        }
+        stream.println(line + (newLineAdded ? 1 : 0));
+        stream.flush();
+    }
+
+    private static Map<String, byte[]> readClasses(DataInputStream in) throws IOException {
+        int classCount = in.readInt();
+        Map<String, byte[]> classes = new HashMap<>();
+        for (int i = 0; i < classCount; i++) {
+            String name = in.readUTF();
+            classes.put(name, readBytes(in));
+        }
+        return classes;
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new EOFException("Longitud inválida: " + length);
+        }
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return data;
+    }
+
+    /**
+     * ClassLoader desechable que define las clases compiladas del programa.
+     * Su padre es el class loader de plataforma, así el programa no ve las clases del trabajador.
+     */
+    static final class MemoryClassLoader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+
+        MemoryClassLoader(Map<String, byte[]> classes) {
+            super("programa", ClassLoader.getPlatformClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+            if (name.endsWith(".class")) {
+                byte[] bytes = classes.get(name.substring(0, name.length() - 6).replace('/', '.'));
+                if (bytes != null) {
+                    return new ByteArrayInputStream(bytes);
+                }
+            }
+            return super.getResourceAsStream(name);
+        }
+    }
+
+    /**
+     * Recuerda el último byte escrito para saber si hace falta un salto de línea antes del delimitador.
+     */
+    static final class TrackingOutputStream extends FilterOutputStream {
+        private volatile int lastByte = '\n';
+
+        TrackingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            lastByte = b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (len > 0) {
+                lastByte = b[off + len - 1];
+            }
+        }
+
+        // Un '\r' final ya termina la línea para el lector del proceso padre
+        boolean needsNewLine() {
+            return lastByte != '\n' && lastByte != '\r';
+        }
+    }
+}
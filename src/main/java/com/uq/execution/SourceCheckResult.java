@@ -0,0 +1,47 @@
+package com.uq.execution;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de analizar un código fuente con {@link SourceChecker}.
+ */
+public class SourceCheckResult {
+
+    private final List<CompilationDiagnostic> diagnostics;
+    private final boolean superseded; // Descartada porque llegó una solicitud más reciente del mismo estudiante
+    private final boolean cached;     // El mismo código ya se había analizado
+    private final long durationMillis;
+
+    SourceCheckResult(List<CompilationDiagnostic> diagnostics, boolean superseded, boolean cached, long durationMillis) {
+        this.diagnostics = diagnostics;
+        this.superseded = superseded;
+        this.cached = cached;
+        this.durationMillis = durationMillis;
+    }
+
+    static SourceCheckResult superseded(long durationMillis) {
+        return new SourceCheckResult(Collections.emptyList(), true, false, durationMillis);
+    }
+
+    public List<CompilationDiagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    // Una solicitud descartada no dice nada sobre el código: el cliente debe usar la respuesta más reciente
+    public boolean isSuccess() {
+        return !superseded && diagnostics.stream().noneMatch(CompilationDiagnostic::isError);
+    }
+
+    public boolean isSuperseded() {
+        return superseded;
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+}
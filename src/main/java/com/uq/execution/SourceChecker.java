@@ -0,0 +1,390 @@
+package com.uq.execution;
+
+import com.uq.exception.ExecutionRejectedException;
+import com.uq.exception.ProgramExecutionException;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Diagnósticos del compilador sin ejecutar el programa, para marcar errores mientras el estudiante
+ * edita. Es mucho más barato que una ejecución: no genera bytecode, no arranca procesos y no pasa
+ * por el {@link ExecutionScheduler}.
+ * <ul>
+ *   <li>Usa un {@link JavaSourceCompiler} propio que se calienta al arrancar, en un pool de hilos
+ *       acotado ({@code execution.diagnostics.threads}).</li>
+ *   <li>Las solicitudes seguidas de un mismo estudiante se agrupan: un temporizador da el turno
+ *       cuando pasan {@code execution.diagnostics.min-interval-millis} desde el último análisis y,
+ *       si mientras tanto llegó otra solicitud, la anterior se descarta de inmediato sin analizar
+ *       (gana la más reciente).</li>
+ *   <li>Un mismo código fuente se analiza una sola vez: los resultados recientes se guardan en
+ *       memoria y las solicitudes simultáneas con el mismo código comparten el análisis en curso.</li>
+ *   <li>El análisis no se puede interrumpir. Si excede el tiempo límite, las solicitudes que lo
+ *       esperan terminan con error, ese código se rechaza en adelante sin volver a analizarlo y,
+ *       mientras todos los hilos sigan ocupados con análisis así, los códigos nuevos se rechazan en
+ *       lugar de quedar en cola detrás de ellos.</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class SourceChecker {
+
+    private static final Logger LOGGER = Logger.getLogger(SourceChecker.class.getName());
+
+    private static final String MAIN_CLASS = "Main";
+    private static final String WARMUP_SOURCE =
+            "public class Main { public static void main(String[] args) { System.out.println(args.length); } }";
+    // Con más estudiantes que esto se olvidan los que llevan un rato sin editar
+    private static final int MAX_TRACKED_STUDENTS = 1000;
+    private static final long STUDENT_IDLE_MILLIS = 60_000;
+    private static final int RETRY_AFTER_SECONDS = 1;
+    private static final int MAX_SLOW_SOURCES = 1000;
+
+    @ConfigProperty(name = "execution.diagnostics.threads", defaultValue = "2")
+    int threads;
+
+    @ConfigProperty(name = "execution.diagnostics.max-queued", defaultValue = "50")
+    int maxQueued;
+
+    @ConfigProperty(name = "execution.diagnostics.min-interval-millis", defaultValue = "300")
+    long minIntervalMillis;
+
+    @ConfigProperty(name = "execution.diagnostics.cache-entries", defaultValue = "500")
+    int cacheEntries;
+
+    @ConfigProperty(name = "execution.diagnostics.max-source-chars", defaultValue = "100000")
+    int maxSourceChars;
+
+    private final JavaSourceCompiler compiler = new JavaSourceCompiler();
+    private final Map<Long, StudentSlot> slots = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<List<CompilationDiagnostic>>> inFlight = new ConcurrentHashMap<>();
+    // LRU por orden de acceso; protegido por su propio monitor
+    private final LinkedHashMap<String, List<CompilationDiagnostic>> cache = new LinkedHashMap<>(64, 0.75f, true);
+    // Claves de los códigos cuyo análisis excedió el tiempo límite; LRU protegido por su propio monitor
+    private final Map<String, Boolean> slowSources = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_SLOW_SOURCES;
+        }
+    };
+    // Análisis que excedieron el tiempo límite y todavía ocupan un hilo
+    private final AtomicInteger stuck = new AtomicInteger();
+
+    private final AtomicLong analyzed = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+    private final AtomicLong superseded = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    private volatile ThreadPoolExecutor executor;
+    // Temporizadores del turno de cada estudiante y del límite de tiempo de cada análisis
+    private volatile ScheduledExecutorService timer;
+
+    void onStart(@Observes StartupEvent event) {
+        executor();
+        if (!compiler.isAvailable()) {
+            LOGGER.warning("El compilador de Java no está disponible: los diagnósticos de código no funcionarán.");
+            return;
+        }
+        // La primera compilación carga las clases de javac y el índice de la biblioteca estándar
+        executor.execute(() -> {
+            long started = System.nanoTime();
+            compiler.check(MAIN_CLASS, WARMUP_SOURCE);
+            LOGGER.log(Level.INFO, "Compilador de diagnósticos listo en {0} ms.",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (timer != null) timer.shutdownNow();
+        if (executor != null) executor.shutdownNow();
+    }
+
+    private ThreadPoolExecutor executor() {
+        if (executor == null) {
+            synchronized (this) {
+                if (executor == null) {
+                    timer = Executors.newSingleThreadScheduledExecutor(r -> {
+                        Thread t = new Thread(r, "source-checker-timer");
+                        t.setDaemon(true);
+                        return t;
+                    });
+                    AtomicInteger counter = new AtomicInteger();
+                    executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                            new ArrayBlockingQueue<>(maxQueued), r -> {
+                                Thread t = new Thread(r, "source-checker-" + counter.incrementAndGet());
+                                t.setDaemon(true);
+                                return t;
+                            });
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Analiza {@code source} para el estudiante indicado.
+     *
+     * @return Los diagnósticos, o un resultado descartado si el mismo estudiante envió otra
+     * solicitud mientras esta esperaba su turno.
+     * @throws IllegalArgumentException   Si el código supera el tamaño máximo.
+     * @throws ExecutionRejectedException Si hay demasiados análisis en espera o todos los hilos siguen
+     *                                    ocupados con análisis que excedieron el tiempo límite.
+     * @throws ProgramExecutionException  Si el análisis falla o supera el tiempo límite, ahora o antes.
+     */
+    public SourceCheckResult check(Long estudianteId, String source) {
+        if (source.length() > maxSourceChars) {
+            throw new IllegalArgumentException("El código fuente supera el tamaño máximo permitido (" + maxSourceChars + " caracteres).");
+        }
+        long started = System.nanoTime();
+
+        if (!awaitTurn(estudianteId)) {
+            superseded.incrementAndGet();
+            return SourceCheckResult.superseded(elapsedMillis(started));
+        }
+
+        String key = keyFor(source);
+        List<CompilationDiagnostic> diagnostics;
+        synchronized (cache) {
+            diagnostics = cache.get(key);
+        }
+        if (diagnostics != null) {
+            cacheHits.incrementAndGet();
+            return new SourceCheckResult(diagnostics, false, true, elapsedMillis(started));
+        }
+
+        boolean slow;
+        synchronized (slowSources) {
+            slow = slowSources.containsKey(key);
+        }
+        if (slow) {
+            throw timeoutException();
+        }
+
+        diagnostics = await(analysisFor(key, source));
+        return new SourceCheckResult(diagnostics, false, false, elapsedMillis(started));
+    }
+
+    /**
+     * Espera el turno del estudiante: de inmediato si ya pasaron {@code minIntervalMillis} desde su
+     * último análisis, o cuando el temporizador del estudiante se cumpla.
+     *
+     * @return false si durante la espera llegó una solicitud más reciente del mismo estudiante.
+     */
+    private boolean awaitTurn(Long estudianteId) {
+        executor();
+        if (slots.size() > MAX_TRACKED_STUDENTS) {
+            long idleBefore = System.currentTimeMillis() - STUDENT_IDLE_MILLIS;
+            slots.values().removeIf(slot -> slot.isIdleSince(idleBefore));
+        }
+        StudentSlot slot = slots.computeIfAbsent(estudianteId, id -> new StudentSlot());
+
+        CompletableFuture<Boolean> turn = new CompletableFuture<>();
+        synchronized (slot) {
+            long now = System.currentTimeMillis();
+            long waitMillis = slot.lastStartedAt + minIntervalMillis - now;
+            if (slot.waiting != null) {
+                // La solicitud anterior cede su turno a esta y su hilo queda libre de inmediato
+                slot.waiting.complete(false);
+            } else if (waitMillis <= 0) {
+                slot.lastStartedAt = now;
+                return true;
+            }
+            slot.waiting = turn;
+            if (slot.release == null) {
+                slot.release = timer.schedule(() -> slot.release(), Math.max(waitMillis, 0), TimeUnit.MILLISECONDS);
+            }
+        }
+        try {
+            return turn.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            synchronized (slot) {
+                if (slot.waiting == turn) slot.waiting = null;
+            }
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    // Retorna el análisis en curso para el mismo código o inicia uno nuevo
+    private CompletableFuture<List<CompilationDiagnostic>> analysisFor(String key, String source) {
+        CompletableFuture<List<CompilationDiagnostic>> created = new CompletableFuture<>();
+        CompletableFuture<List<CompilationDiagnostic>> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            shared.incrementAndGet();
+            return existing;
+        }
+        if (stuck.get() >= threads) {
+            // Un análisis nuevo quedaría en cola detrás de análisis que no se sabe cuándo terminan
+            rejected.incrementAndGet();
+            LOGGER.log(Level.WARNING, "Análisis rechazado: los {0} hilos de diagnósticos siguen ocupados con análisis que excedieron el tiempo límite.", threads);
+            ExecutionRejectedException rejection = new ExecutionRejectedException(
+                    "El servidor está ocupado analizando otros programas. Intenta de nuevo más tarde.",
+                    ProgramExecutor.EXECUTION_TIMEOUT_SECONDS);
+            inFlight.remove(key, created);
+            created.completeExceptionally(rejection);
+            throw rejection;
+        }
+        try {
+            executor().execute(() -> analyze(key, source, created));
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            ExecutionRejectedException rejection = new ExecutionRejectedException(
+                    "Hay demasiados análisis de código en espera. Intenta de nuevo en unos segundos.", RETRY_AFTER_SECONDS);
+            inFlight.remove(key, created);
+            created.completeExceptionally(rejection);
+            throw rejection;
+        }
+        return created;
+    }
+
+    private void analyze(String key, String source, CompletableFuture<List<CompilationDiagnostic>> future) {
+        // 0 = en curso, 1 = excedió el tiempo límite, 2 = terminado
+        AtomicInteger state = new AtomicInteger();
+        ScheduledFuture<?> watchdog = timer.schedule(() -> {
+            if (state.compareAndSet(0, 1)) {
+                stuck.incrementAndGet();
+                timeouts.incrementAndGet();
+                synchronized (slowSources) {
+                    slowSources.put(key, Boolean.TRUE);
+                }
+                LOGGER.log(Level.WARNING, "El análisis de un código excedió el tiempo límite ({0}); ese código se rechazará en adelante.", key);
+                future.completeExceptionally(timeoutException());
+            }
+        }, ProgramExecutor.EXECUTION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        try {
+            List<CompilationDiagnostic> diagnostics = List.copyOf(compiler.check(MAIN_CLASS, source));
+            analyzed.incrementAndGet();
+            synchronized (cache) {
+                cache.put(key, diagnostics);
+                while (cache.size() > cacheEntries) {
+                    cache.remove(cache.keySet().iterator().next());
+                }
+            }
+            future.complete(diagnostics);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            watchdog.cancel(false);
+            if (state.getAndSet(2) == 1) {
+                stuck.decrementAndGet();
+            }
+            inFlight.remove(key, future);
+        }
+    }
+
+    private static ProgramExecutionException timeoutException() {
+        return new ProgramExecutionException("Tiempo de análisis excedido (" + ProgramExecutor.EXECUTION_TIMEOUT_SECONDS + " segundos).");
+    }
+
+    private static List<CompilationDiagnostic> await(CompletableFuture<List<CompilationDiagnostic>> future) {
+        try {
+            return future.get(ProgramExecutor.EXECUTION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            // Esperó en cola detrás de otros análisis; el límite del análisis lo aplica analyze
+            throw timeoutException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProgramExecutionException("Análisis del código interrumpido.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ExecutionRejectedException) {
+                throw (ExecutionRejectedException) e.getCause();
+            }
+            if (e.getCause() instanceof ProgramExecutionException) {
+                throw (ProgramExecutionException) e.getCause();
+            }
+            LOGGER.log(Level.SEVERE, "Error inesperado al analizar código fuente.", e.getCause());
+            throw new ProgramExecutionException("Error al analizar el código fuente: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static String keyFor(String source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible.", e);
+        }
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+
+    public long getAnalyzed() {
+        return analyzed.get();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getShared() {
+        return shared.get();
+    }
+
+    public long getSuperseded() {
+        return superseded.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    public int getStuck() {
+        return stuck.get();
+    }
+
+    // Estado de las solicitudes de un estudiante; se accede sincronizando sobre la instancia
+    private static final class StudentSlot {
+        private long lastStartedAt;
+        // Solicitud más reciente que espera su turno y temporizador que se lo dará
+        private CompletableFuture<Boolean> waiting;
+        private ScheduledFuture<?> release;
+
+        synchronized void release() {
+            release = null;
+            if (waiting != null) {
+                lastStartedAt = System.currentTimeMillis();
+                waiting.complete(true);
+                waiting = null;
+            }
+        }
+
+        synchronized boolean isIdleSince(long millis) {
+            return waiting == null && lastStartedAt < millis;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.uq.execution;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Directorios de trabajo de las ejecuciones que necesitan archivos (sin pool de JVM o con el
+ * proceso javac).
+ * <p>
+ * Los directorios se crean de antemano en un montaje en memoria ({@code execution.workspace.root},
+ * por defecto {@code /dev/shm} si existe) y se reutilizan. Al devolver uno solo se borran sus
+ * archivos de primer nivel; los subdirectorios que haya creado el programa se mueven a una papelera
+ * que vacía una tarea en segundo plano, igual que los directorios que dejaron instancias anteriores
+ * del servidor que terminaron sin limpiar. Si el montaje no se puede usar se vuelve a los
+ * directorios temporales del sistema, uno por ejecución.
+ */
+@ApplicationScoped
+public class WorkspaceManager {
+
+    private static final Logger LOGGER = Logger.getLogger(WorkspaceManager.class.getName());
+
+    private static final String BASE_DIR_NAME = "pfapis_workspaces";
+    private static final String TRASH_DIR_NAME = "papelera";
+    private static final String WORKSPACE_PREFIX = "ws_";
+    private static final String TEMP_DIR_PREFIX = "java_exec_";
+    private static final Path DEFAULT_ROOT = Paths.get("/dev/shm");
+    // Una instancia se considera terminada si su directorio no se actualizó en este número de barridos
+    private static final int ORPHAN_AFTER_SWEEPS = 3;
+
+    // Vacío = /dev/shm si existe, si no el directorio temporal del sistema
+    @ConfigProperty(name = "execution.workspace.root")
+    Optional<String> root;
+
+    @ConfigProperty(name = "execution.workspace.pool-size", defaultValue = "8")
+    int poolSize;
+
+    @ConfigProperty(name = "execution.workspace.sweep-interval-seconds", defaultValue = "60")
+    int sweepIntervalSeconds;
+
+    // LIFO: el directorio devuelto más recientemente es el primero en reutilizarse
+    private final ConcurrentLinkedDeque<Path> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+
+    private Path baseDir;
+    private Path instanceDir;
+    private Path trashDir;
+    private ScheduledExecutorService sweeper;
+    private volatile boolean started;
+
+    void onStart(@Observes StartupEvent event) {
+        try {
+            baseDir = Files.createDirectories(resolveRoot().resolve(BASE_DIR_NAME));
+            instanceDir = baseDir.resolve(String.valueOf(ProcessHandle.current().pid()));
+            // Restos de una instancia anterior con el mismo PID (por ejemplo, en un contenedor reiniciado)
+            deleteRecursively(instanceDir);
+            Files.createDirectories(instanceDir);
+            trashDir = Files.createDirectory(instanceDir.resolve(TRASH_DIR_NAME));
+            for (int i = 0; i < poolSize; i++) {
+                idle.offer(createWorkspace());
+                idleCount.incrementAndGet();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "No se pudieron preparar los workspaces de ejecución. Se usarán directorios temporales.", e);
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "workspace-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, 0, sweepIntervalSeconds, TimeUnit.SECONDS);
+        started = true;
+        LOGGER.log(Level.INFO, "Workspaces de ejecución en {0} ({1} preparados).", new Object[]{instanceDir, poolSize});
+    }
+
+    @PreDestroy
+    void shutdown() {
+        started = false;
+        if (sweeper != null) sweeper.shutdownNow();
+        if (instanceDir != null) deleteRecursively(instanceDir);
+    }
+
+    /**
+     * Entrega un directorio vacío para una ejecución. Debe devolverse con {@link #release(Path)}.
+     */
+    public Path acquire() throws IOException {
+        if (!started) {
+            return Files.createTempDirectory(TEMP_DIR_PREFIX);
+        }
+        Path dir = idle.pollFirst();
+        if (dir != null) {
+            idleCount.decrementAndGet();
+            reused.incrementAndGet();
+            return dir;
+        }
+        return createWorkspace();
+    }
+
+    /**
+     * Vacía el directorio y lo deja disponible para otra ejecución. Acepta null.
+     */
+    public void release(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        if (!started || !dir.startsWith(instanceDir)) {
+            deleteRecursively(dir);
+            return;
+        }
+        if (!reset(dir)) {
+            retire(dir);
+            return;
+        }
+        if (idleCount.incrementAndGet() <= poolSize) {
+            idle.offerFirst(dir);
+            return;
+        }
+        // Pool lleno (se crearon directorios extra en un pico de carga)
+        idleCount.decrementAndGet();
+        retire(dir);
+    }
+
+    private Path createWorkspace() throws IOException {
+        created.incrementAndGet();
+        return Files.createDirectory(instanceDir.resolve(WORKSPACE_PREFIX + sequence.incrementAndGet()));
+    }
+
+    // Borra los archivos de primer nivel y mueve los subdirectorios a la papelera (un rename cada uno)
+    private boolean reset(Path dir) {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            for (Path entry : entries) {
+                if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                    Files.move(entry, trashDir.resolve(String.valueOf(sequence.incrementAndGet())));
+                } else {
+                    Files.delete(entry);
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            // Por ejemplo, el programa cambió los permisos del directorio: se descarta completo
+            LOGGER.log(Level.FINE, "No se pudo vaciar el workspace " + dir, e);
+            return false;
+        }
+    }
+
+    // Saca el directorio del pool moviéndolo a la papelera; el barrido lo borra
+    private void retire(Path dir) {
+        try {
+            Files.move(dir, trashDir.resolve(String.valueOf(sequence.incrementAndGet())));
+        } catch (IOException e) {
+            deleteRecursively(dir);
+        }
+    }
+
+    /**
+     * Tarea periódica: vacía la papelera, marca esta instancia como viva y elimina los directorios
+     * de instancias cuyo proceso ya no existe y que llevan varios barridos sin actualizarse.
+     */
+    void sweep() {
+        try {
+            Files.setLastModifiedTime(instanceDir, FileTime.fromMillis(System.currentTimeMillis()));
+            try (DirectoryStream<Path> trash = Files.newDirectoryStream(trashDir)) {
+                for (Path entry : trash) {
+                    deleteRecursively(entry);
+                }
+            }
+
+            long orphanBefore = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis((long) sweepIntervalSeconds * ORPHAN_AFTER_SWEEPS);
+            try (DirectoryStream<Path> instances = Files.newDirectoryStream(baseDir)) {
+                for (Path instance : instances) {
+                    if (instance.equals(instanceDir) || !isOrphan(instance, orphanBefore)) {
+                        continue;
+                    }
+                    LOGGER.log(Level.INFO, "Eliminando workspaces huérfanos de una instancia terminada: {0}", instance);
+                    deleteRecursively(instance);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Error en el barrido de workspaces.", e);
+        }
+    }
+
+    private static boolean isOrphan(Path instance, long orphanBefore) throws IOException {
+        long pid;
+        try {
+            pid = Long.parseLong(instance.getFileName().toString());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        // Con el PID solo no basta: otro contenedor puede compartir el directorio con otro espacio de PIDs
+        boolean alive = ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false);
+        return !alive && Files.getLastModifiedTime(instance).toMillis() < orphanBefore;
+    }
+
+    // Borra un árbol aunque el programa le haya quitado permisos de escritura a sus directorios
+    private static void deleteRecursively(Path dir) {
+        if (!Files.exists(dir, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        try {
+            Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path d, BasicFileAttributes attrs) {
+                    d.toFile().setReadable(true, true);
+                    d.toFile().setWritable(true, true);
+                    d.toFile().setExecutable(true, true);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path d, IOException e) throws IOException {
+                    Files.delete(d);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "No se pudo eliminar el directorio " + dir, e);
+        }
+    }
+
+    private Path resolveRoot() {
+        if (root.isPresent() && !root.get().isBlank()) {
+            return Paths.get(root.get());
+        }
+        if (Files.isDirectory(DEFAULT_ROOT) && Files.isWritable(DEFAULT_ROOT)) {
+            return DEFAULT_ROOT;
+        }
+        return Paths.get(System.getProperty("java.io.tmpdir"));
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    public String getRoot() {
+        return instanceDir == null ? null : instanceDir.toString();
+    }
+
+    public int getIdleWorkspaces() {
+        return idleCount.get();
+    }
+
+    public long getReused() {
+        return reused.get();
+    }
+
+    public long getCreated() {
+        return created.get();
+    }
+}
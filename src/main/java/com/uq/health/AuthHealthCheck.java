@@ -0,0 +1,32 @@
+package com.uq.health;
+
+import com.uq.security.JWTUtil;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
+import org.eclipse.microprofile.health.Readiness;
+
+/**
+ * Estado de la autenticación con JWT, publicado en /health/ready.
+ * Incluye los contadores de la caché de tokens ya verificados.
+ */
+@Readiness
+@ApplicationScoped
+public class AuthHealthCheck implements HealthCheck {
+
+    @Override
+    public HealthCheckResponse call() {
+        HealthCheckResponseBuilder builder = HealthCheckResponse.named("autenticacion").up();
+
+        long hits = JWTUtil.getCacheHits();
+        long lookups = hits + JWTUtil.getCacheMisses();
+        builder.withData("jwtCache.hits", hits);
+        builder.withData("jwtCache.misses", JWTUtil.getCacheMisses());
+        builder.withData("jwtCache.evictions", JWTUtil.getCacheEvictions());
+        builder.withData("jwtCache.entries", JWTUtil.getCacheSize());
+        builder.withData("jwtCache.hitRatePercent", lookups == 0 ? 0 : hits * 100 / lookups);
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.uq.health;
+
+import com.uq.execution.ChildJvmOptions;
+import com.uq.execution.CompileCache;
+import com.uq.execution.ExecutionScheduler;
+import com.uq.execution.ProgramExecutor;
+import com.uq.execution.ResultCache;
+import com.uq.execution.RunnerPool;
+import com.uq.execution.SourceChecker;
+import com.uq.execution.WorkspaceManager;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
+import org.eclipse.microprofile.health.Readiness;
+
+/**
+ * Estado del motor de ejecución de programas, publicado en /health/ready.
+ * Además del estado incluye los contadores del planificador, del pool de JVM, de los workspaces, de las cachés de compilación y de resultados y de los diagnósticos.
+ */
+@Readiness
+@ApplicationScoped
+public class ExecutionHealthCheck implements HealthCheck {
+
+    @Inject
+    RunnerPool runnerPool;
+
+    @Inject
+    ProgramExecutor programExecutor;
+
+    @Inject
+    CompileCache compileCache;
+
+    @Inject
+    ExecutionScheduler executionScheduler;
+
+    @Inject
+    WorkspaceManager workspaceManager;
+
+    @Inject
+    ChildJvmOptions childJvmOptions;
+
+    @Inject
+    SourceChecker sourceChecker;
+
+    @Inject
+    ResultCache resultCache;
+
+    @Override
+    public HealthCheckResponse call() {
+        HealthCheckResponseBuilder builder = HealthCheckResponse.named("ejecucion-programas").up();
+
+        builder.withData("scheduler.maxConcurrent", executionScheduler.getMaxConcurrent());
+        builder.withData("scheduler.inFlight", executionScheduler.getInFlight());
+        builder.withData("scheduler.queued", executionScheduler.getQueued());
+        builder.withData("scheduler.granted", executionScheduler.getGranted());
+        builder.withData("scheduler.avgWaitMillis", executionScheduler.getAverageWaitMillis());
+        builder.withData("scheduler.maxWaitMillis", executionScheduler.getMaxWaitMillis());
+        builder.withData("scheduler.rejectedPerStudent", executionScheduler.getRejectedPerStudent());
+        builder.withData("scheduler.rejectedGlobal", executionScheduler.getRejectedGlobal());
+        builder.withData("scheduler.waitTimeouts", executionScheduler.getWaitTimeouts());
+
+        builder.withData("compile.threadsBusy", programExecutor.getCompileThreadsBusy());
+        builder.withData("compile.rejections", programExecutor.getCompileRejections());
+        builder.withData("compile.timeouts", programExecutor.getCompileTimeouts());
+
+        builder.withData("pool.enabled", runnerPool.isEnabled());
+        builder.withData("pool.workers", runnerPool.getTotalWorkers());
+        builder.withData("pool.idleWorkers", runnerPool.getIdleWorkers());
+        builder.withData("pool.trustedWorkers", runnerPool.getTrustedWorkers());
+
+        builder.withData("jvm.profile", childJvmOptions.getProfileName());
+        builder.withData("jvm.cdsArchive", String.valueOf(childJvmOptions.getArchive()));
+
+        builder.withData("workspaces.root", String.valueOf(workspaceManager.getRoot()));
+        builder.withData("workspaces.idle", workspaceManager.getIdleWorkspaces());
+        builder.withData("workspaces.reused", workspaceManager.getReused());
+        builder.withData("workspaces.created", workspaceManager.getCreated());
+
+        long hits = compileCache.getHits() + compileCache.getDiskHits();
+        long lookups = hits + compileCache.getMisses();
+        builder.withData("compileCache.hits", compileCache.getHits());
+        builder.withData("compileCache.diskHits", compileCache.getDiskHits());
+        builder.withData("compileCache.misses", compileCache.getMisses());
+        builder.withData("compileCache.evictions", compileCache.getEvictions());
+        builder.withData("compileCache.entries", compileCache.getSize());
+        builder.withData("compileCache.memoryBytes", compileCache.getMemoryBytes());
+        builder.withData("compileCache.hitRatePercent", lookups == 0 ? 0 : hits * 100 / lookups);
+
+        builder.withData("resultCache.enabled", resultCache.isEnabled());
+        builder.withData("resultCache.hits", resultCache.getHits());
+        builder.withData("resultCache.misses", resultCache.getMisses());
+        builder.withData("resultCache.bypassed", resultCache.getBypassed());
+        builder.withData("resultCache.invalidations", resultCache.getInvalidations());
+        builder.withData("resultCache.entries", resultCache.getSize());
+
+        builder.withData("diagnostics.analyzed", sourceChecker.getAnalyzed());
+        builder.withData("diagnostics.cacheHits", sourceChecker.getCacheHits());
+        builder.withData("diagnostics.shared", sourceChecker.getShared());
+        builder.withData("diagnostics.superseded", sourceChecker.getSuperseded());
+        builder.withData("diagnostics.rejected", sourceChecker.getRejected());
+        builder.withData("diagnostics.timeouts", sourceChecker.getTimeouts());
+        builder.withData("diagnostics.stuck", sourceChecker.getStuck());
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.uq.mapper;
+
+import com.uq.dto.CasoPruebaDTO;
+import com.uq.model.CasoPrueba;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+@Mapper(componentModel = "jakarta",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface CasoPruebaMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "programa", ignore = true)
+    @Mapping(target = "ejemplo", ignore = true)
+    CasoPrueba toEntity(CasoPruebaDTO casoPruebaDTO);
+
+    CasoPruebaDTO toDTO(CasoPrueba casoPrueba);
+
+    List<CasoPruebaDTO> toDTOList(List<CasoPrueba> casos);
+}
@@ -0,0 +1,22 @@
+package com.uq.mapper;
+
+import com.uq.dto.EjecucionDTO;
+import com.uq.model.Ejecucion;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+@Mapper(componentModel = "jakarta",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface EjecucionMapper {
+
+    @Mapping(source = "programa.id", target = "programaId")
+    @Mapping(source = "programa.titulo", target = "programaTitulo")
+    @Mapping(source = "estudiante.id", target = "estudianteId")
+    EjecucionDTO toDTO(Ejecucion ejecucion);
+
+    List<EjecucionDTO> toDTOList(List<Ejecucion> ejecuciones);
+}
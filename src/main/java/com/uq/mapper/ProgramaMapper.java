@@ -18,6 +18,7 @@ public interface ProgramaMapper {
     @Mapping(target = "estudiante", ignore = true)
     @Mapping(target = "feedbacks", ignore = true)
     @Mapping(target = "reporte", ignore = true)
+    @Mapping(target = "fechaCreacion", ignore = true)
     Programa toEntity(ProgramaDTO programaDTO);
 
     @Mapping(source = "id", target = "id") // Mapea el ID de la Entidad (source) al ID del DTO (target)
@@ -32,6 +33,7 @@ public interface ProgramaMapper {
     @Mapping(target = "estudiante", ignore = true) // No cambiar el estudiante propietario al actualizar
     @Mapping(target = "feedbacks", ignore = true)
     @Mapping(target = "reporte", ignore = true)
+    @Mapping(target = "fechaCreacion", ignore = true)
     void updateEntityFromDto(ProgramaDTO programaDTO, @MappingTarget Programa programa);
 
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.uq.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@NoArgsConstructor
+public class CasoPrueba {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String nombre;
+
+    @Column(columnDefinition = "TEXT")
+    private String entrada; // Entrada estándar del programa
+
+    @Column(columnDefinition = "TEXT")
+    private String salidaEsperada;
+
+    private int orden;
+
+    @ManyToOne
+    @JoinColumn(name = "programa_id") // Columna FK en la tabla "caso_prueba" (null si el caso es de un ejemplo)
+    private Programa programa;
+
+    @ManyToOne
+    @JoinColumn(name = "ejemplo_id") // Columna FK en la tabla "caso_prueba" (null si el caso es de un programa)
+    private Ejemplo ejemplo;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getEntrada() {
+        return entrada;
+    }
+
+    public void setEntrada(String entrada) {
+        this.entrada = entrada;
+    }
+
+    public String getSalidaEsperada() {
+        return salidaEsperada;
+    }
+
+    public void setSalidaEsperada(String salidaEsperada) {
+        this.salidaEsperada = salidaEsperada;
+    }
+
+    public int getOrden() {
+        return orden;
+    }
+
+    public void setOrden(int orden) {
+        this.orden = orden;
+    }
+
+    public Programa getPrograma() {
+        return programa;
+    }
+
+    public void setPrograma(Programa programa) {
+        this.programa = programa;
+    }
+
+    public Ejemplo getEjemplo() {
+        return ejemplo;
+    }
+
+    public void setEjemplo(Ejemplo ejemplo) {
+        this.ejemplo = ejemplo;
+    }
+}
@@ -0,0 +1,198 @@
+package com.uq.model;
+
+import com.uq.enums.EstadoEjecucion;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Historial de ejecuciones de un programa: resultado, salida y costo (para encontrar los que más recursos consumen)
+@Entity
+@Data
+@NoArgsConstructor
+public class Ejecucion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "programa_id") // Columna FK en la tabla "ejecucion"
+    private Programa programa;
+
+    @ManyToOne
+    @JoinColumn(name = "estudiante_id") // Estudiante que ejecutó el programa
+    private Estudiante estudiante;
+
+    private LocalDateTime fecha;
+
+    @Column(length = 64)
+    private String codigoHash; // SHA-256 del código fuente ejecutado
+
+    @Enumerated(EnumType.STRING)
+    private EstadoEjecucion estado;
+
+    private Integer exitCode; // null si no terminó por sí mismo (tiempo excedido o cancelado)
+
+    private long queueMillis;
+    private long compileMillis;
+    private long runMillis;
+    private long cpuUserMillis; // -1 si no se pudo medir
+    private long cpuSystemMillis; // -1 si no se pudo medir
+    private long peakRssKb; // -1 si no se pudo medir
+    private long stdoutBytes;
+    private long stderrBytes;
+    private boolean outputTruncated;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "salida_estandar_id") // null si el programa no escribió nada
+    private SalidaEjecucion salidaEstandar;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "salida_error_id")
+    private SalidaEjecucion salidaError;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Programa getPrograma() {
+        return programa;
+    }
+
+    public void setPrograma(Programa programa) {
+        this.programa = programa;
+    }
+
+    public Estudiante getEstudiante() {
+        return estudiante;
+    }
+
+    public void setEstudiante(Estudiante estudiante) {
+        this.estudiante = estudiante;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDateTime fecha) {
+        this.fecha = fecha;
+    }
+
+    public String getCodigoHash() {
+        return codigoHash;
+    }
+
+    public void setCodigoHash(String codigoHash) {
+        this.codigoHash = codigoHash;
+    }
+
+    public EstadoEjecucion getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoEjecucion estado) {
+        this.estado = estado;
+    }
+
+    public Integer getExitCode() {
+        return exitCode;
+    }
+
+    public void setExitCode(Integer exitCode) {
+        this.exitCode = exitCode;
+    }
+
+    public long getQueueMillis() {
+        return queueMillis;
+    }
+
+    public void setQueueMillis(long queueMillis) {
+        this.queueMillis = queueMillis;
+    }
+
+    public long getCompileMillis() {
+        return compileMillis;
+    }
+
+    public void setCompileMillis(long compileMillis) {
+        this.compileMillis = compileMillis;
+    }
+
+    public long getRunMillis() {
+        return runMillis;
+    }
+
+    public void setRunMillis(long runMillis) {
+        this.runMillis = runMillis;
+    }
+
+    public long getCpuUserMillis() {
+        return cpuUserMillis;
+    }
+
+    public void setCpuUserMillis(long cpuUserMillis) {
+        this.cpuUserMillis = cpuUserMillis;
+    }
+
+    public long getCpuSystemMillis() {
+        return cpuSystemMillis;
+    }
+
+    public void setCpuSystemMillis(long cpuSystemMillis) {
+        this.cpuSystemMillis = cpuSystemMillis;
+    }
+
+    public long getPeakRssKb() {
+        return peakRssKb;
+    }
+
+    public void setPeakRssKb(long peakRssKb) {
+        this.peakRssKb = peakRssKb;
+    }
+
+    public long getStdoutBytes() {
+        return stdoutBytes;
+    }
+
+    public void setStdoutBytes(long stdoutBytes) {
+        this.stdoutBytes = stdoutBytes;
+    }
+
+    public long getStderrBytes() {
+        return stderrBytes;
+    }
+
+    public void setStderrBytes(long stderrBytes) {
+        this.stderrBytes = stderrBytes;
+    }
+
+    public boolean isOutputTruncated() {
+        return outputTruncated;
+    }
+
+    public void setOutputTruncated(boolean outputTruncated) {
+        this.outputTruncated = outputTruncated;
+    }
+
+    public SalidaEjecucion getSalidaEstandar() {
+        return salidaEstandar;
+    }
+
+    public void setSalidaEstandar(SalidaEjecucion salidaEstandar) {
+        this.salidaEstandar = salidaEstandar;
+    }
+
+    public SalidaEjecucion getSalidaError() {
+        return salidaError;
+    }
+
+    public void setSalidaError(SalidaEjecucion salidaError) {
+        this.salidaError = salidaError;
+    }
+}
@@ -3,6 +3,7 @@ package com.uq.model;
 import jakarta.persistence.*;
 import lombok.Data;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
@@ -18,6 +19,9 @@ public class Programa {
 
     private boolean isShared;
 
+    @Column(name = "fecha_creacion")
+    private LocalDateTime fechaCreacion; // null en programas creados antes de existir la columna
+
     @ManyToOne
     @JoinColumn(name = "estudiante_id")
     private Estudiante estudiante;
@@ -77,6 +81,14 @@ public class Programa {
         isShared = shared;
     }
 
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
     public Estudiante getEstudiante() {
         return estudiante;
     }
@@ -0,0 +1,57 @@
+package com.uq.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Contenido de una salida (stdout o stderr) de ejecución. Se guarda una sola vez por hash aunque muchas ejecuciones produzcan la misma
+@Entity
+@Data
+@NoArgsConstructor
+public class SalidaEjecucion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false, length = 64)
+    private String hash; // SHA-256 del contenido en hexadecimal
+
+    @Column(length = 1048576) // Hasta execution.output.max-chars (256K caracteres) en UTF-8
+    private String contenido;
+
+    private LocalDateTime fechaCreacion;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public String getContenido() {
+        return contenido;
+    }
+
+    public void setContenido(String contenido) {
+        this.contenido = contenido;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(LocalDateTime fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+}
@@ -0,0 +1,31 @@
+package com.uq.repository;
+
+import com.uq.model.CasoPrueba;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+
+@ApplicationScoped
+public class CasoPruebaRepository implements PanacheRepository<CasoPrueba> {
+
+    // Metodo para listar los casos de prueba de un Programa, en el orden en que se evalúan
+    public List<CasoPrueba> listByProgramaId(Long programaId) {
+        return list("programa.id = ?1 order by orden asc, id asc", programaId);
+    }
+
+    // Metodo para listar los casos de prueba de un Ejemplo, en el orden en que se evalúan
+    public List<CasoPrueba> listByEjemploId(Long ejemploId) {
+        return list("ejemplo.id = ?1 order by orden asc, id asc", ejemploId);
+    }
+
+    // Metodo para eliminar los casos de prueba de un Programa (antes de eliminar el Programa)
+    public long deleteByProgramaId(Long programaId) {
+        return delete("programa.id", programaId);
+    }
+
+    // Metodo para eliminar los casos de prueba de un Ejemplo (antes de eliminar el Ejemplo)
+    public long deleteByEjemploId(Long ejemploId) {
+        return delete("ejemplo.id", ejemploId);
+    }
+}
@@ -1,10 +1,16 @@
 package com.uq.repository;
 
+import com.uq.dto.ComentarioDTO;
 import com.uq.model.Comentario;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @ApplicationScoped
 public class ComentarioRepository implements PanacheRepository<Comentario> {
@@ -14,4 +20,55 @@ public class ComentarioRepository implements PanacheRepository<Comentario> {
         // Ordenar por fecha para que los comentarios más antiguos aparezcan primero
         return list("programa.id = ?1 order by fecha asc", programaId);
     }
-}
\ No newline at end of file
+
+    // Metodo para listar los comentarios de varios Programas a la vez (informe), agrupados por programa y ordenados por fecha
+    public Map<Long, List<ComentarioDTO>> listForReportByProgramaIds(Collection<Long> programaIds) {
+        Map<Long, List<ComentarioDTO>> porPrograma = new HashMap<>();
+        List<Object[]> rows = getEntityManager()
+                .createQuery("select c.programa.id, c.id, c.texto, c.fecha, pr.nombre from Comentario c"
+                        + " left join c.profesor pr where c.programa.id in ?1"
+                        + " order by c.programa.id, c.fecha asc, c.id", Object[].class)
+                .setParameter(1, programaIds)
+                .getResultList();
+        for (Object[] row : rows) {
+            ComentarioDTO comentario = new ComentarioDTO();
+            comentario.setId((Long) row[1]);
+            comentario.setTexto((String) row[2]);
+            comentario.setFecha((LocalDateTime) row[3]);
+            comentario.setProfesorNombre((String) row[4]);
+            porPrograma.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(comentario);
+        }
+        return porPrograma;
+    }
+
+    // Metodo para contar los comentarios de un Programa
+    public long countByProgramaId(Long programaId) {
+        return count("programa.id", programaId);
+    }
+
+    // Metodo para contar los comentarios de varios Programas a la vez (exportación); los programas sin comentarios no aparecen
+    public Map<Long, Long> countByProgramaIds(Collection<Long> programaIds) {
+        Map<Long, Long> porPrograma = new HashMap<>();
+        List<Object[]> rows = getEntityManager()
+                .createQuery("select c.programa.id, count(c) from Comentario c where c.programa.id in ?1"
+                        + " group by c.programa.id", Object[].class)
+                .setParameter(1, programaIds)
+                .getResultList();
+        for (Object[] row : rows) {
+            porPrograma.put((Long) row[0], (Long) row[1]);
+        }
+        return porPrograma;
+    }
+
+    // Metodo para contar los comentarios de todos los Programas (totales de progreso); los programas sin comentarios no aparecen
+    public Map<Long, Long> countAllByPrograma() {
+        Map<Long, Long> porPrograma = new HashMap<>();
+        List<Object[]> rows = getEntityManager()
+                .createQuery("select c.programa.id, count(c) from Comentario c group by c.programa.id", Object[].class)
+                .getResultList();
+        for (Object[] row : rows) {
+            porPrograma.put((Long) row[0], (Long) row[1]);
+        }
+        return porPrograma;
+    }
+}
@@ -0,0 +1,63 @@
+package com.uq.repository;
+
+import com.uq.model.Ejecucion;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@ApplicationScoped
+public class EjecucionRepository implements PanacheRepository<Ejecucion> {
+
+    // Metodo para listar las ejecuciones con más tiempo de CPU (las no medidas, con -1, quedan al final)
+    public List<Ejecucion> listMostExpensive(int limit) {
+        return find("order by (cpuUserMillis + cpuSystemMillis) desc, runMillis desc").page(0, limit).list();
+    }
+
+    // Metodo para obtener la última ejecución registrada de un Programa
+    public Ejecucion findLatestByProgramaId(Long programaId) {
+        return find("programa.id = ?1 order by id desc", programaId).firstResult();
+    }
+
+    // Metodo para listar los IDs de ejecuciones de un Programa
+    public List<Long> listIdsByProgramaId(Long programaId) {
+        return getEntityManager()
+                .createQuery("select e.id from Ejecucion e where e.programa.id = ?1", Long.class)
+                .setParameter(1, programaId)
+                .getResultList();
+    }
+
+    // Metodo para listar un lote de ejecuciones anteriores a la fecha, conservando siempre la última de cada Programa
+    public List<Long> listPrunableIds(LocalDateTime before, int limit) {
+        return getEntityManager()
+                .createQuery("select e.id from Ejecucion e where e.fecha < ?1"
+                        + " and e.id < (select max(e2.id) from Ejecucion e2 where e2.programa = e.programa)"
+                        + " order by e.id", Long.class)
+                .setParameter(1, before)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Metodo para obtener los IDs de las salidas que usan las ejecuciones indicadas
+    public Set<Long> findSalidaIds(Collection<Long> ids) {
+        Set<Long> salidaIds = new HashSet<>();
+        List<Object[]> rows = getEntityManager()
+                .createQuery("select e.salidaEstandar.id, e.salidaError.id from Ejecucion e where e.id in ?1", Object[].class)
+                .setParameter(1, ids)
+                .getResultList();
+        for (Object[] row : rows) {
+            if (row[0] != null) salidaIds.add((Long) row[0]);
+            if (row[1] != null) salidaIds.add((Long) row[1]);
+        }
+        return salidaIds;
+    }
+
+    // Metodo para eliminar las ejecuciones indicadas
+    public long deleteByIds(Collection<Long> ids) {
+        return delete("id in ?1", ids);
+    }
+}
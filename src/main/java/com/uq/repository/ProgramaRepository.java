@@ -1,10 +1,15 @@
 package com.uq.repository;
 
+import com.uq.dto.InformeFiltroDTO;
+import com.uq.dto.InformeProgramaDTO;
 import com.uq.model.Programa;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.TypedQuery;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @ApplicationScoped
 public class ProgramaRepository implements PanacheRepository<Programa> {
@@ -13,4 +18,82 @@ public class ProgramaRepository implements PanacheRepository<Programa> {
     public List<Programa> findByEstudianteId(Long estudianteId) {
         return list("estudiante.id", estudianteId);
     }
-}
\ No newline at end of file
+
+    // Metodo para listar los programas con los datos de su estudiante para el informe de progreso (una sola consulta).
+    // Los filtros van en la consulta para no leer ni renderizar programas fuera del alcance pedido.
+    public List<InformeProgramaDTO> listForReport(InformeFiltroDTO filtro) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder jpql = new StringBuilder("select new com.uq.dto.InformeProgramaDTO(p.id, p.titulo, p.codigoFuente, p.isResuelto, p.isShared,"
+                + " e.id, e.nombre, e.email)"
+                + " from Programa p left join p.estudiante e where 1 = 1");
+        appendReportFilter(jpql, params, filtro);
+        jpql.append(" order by p.id");
+
+        TypedQuery<InformeProgramaDTO> query = getEntityManager().createQuery(jpql.toString(), InformeProgramaDTO.class);
+        params.forEach(query::setParameter);
+        if (filtro.getTamanoPagina() != null) {
+            int pagina = filtro.getPagina() == null ? 0 : filtro.getPagina();
+            query.setFirstResult(pagina * filtro.getTamanoPagina());
+            query.setMaxResults(filtro.getTamanoPagina());
+        }
+        return query.getResultList();
+    }
+
+    // Metodo para recorrer los programas del informe por lotes (exportación): los de ID mayor a afterId, en orden de ID.
+    // Cada lote empieza donde terminó el anterior, así que no se saltan filas ya leídas como con un offset.
+    // firstResult solo se usa en el primer lote, para empezar en la página pedida del filtro.
+    public List<InformeProgramaDTO> listForExport(InformeFiltroDTO filtro, boolean incluirCodigo, Long afterId,
+                                                  int firstResult, int maxResults) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder jpql = new StringBuilder("select new com.uq.dto.InformeProgramaDTO(p.id, p.titulo, "
+                + (incluirCodigo ? "p.codigoFuente" : "cast(null as String)") + ", p.isResuelto, p.isShared,"
+                + " e.id, e.nombre, e.email, p.fechaCreacion)"
+                + " from Programa p left join p.estudiante e where 1 = 1");
+        appendReportFilter(jpql, params, filtro);
+        if (afterId != null) {
+            jpql.append(" and p.id > :afterId");
+            params.put("afterId", afterId);
+        }
+        jpql.append(" order by p.id");
+
+        TypedQuery<InformeProgramaDTO> query = getEntityManager().createQuery(jpql.toString(), InformeProgramaDTO.class);
+        params.forEach(query::setParameter);
+        return query.setFirstResult(firstResult).setMaxResults(maxResults).getResultList();
+    }
+
+    // Metodo para listar el estado de todos los programas para los totales de progreso: id, id del estudiante, resuelto, compartido
+    public List<Object[]> listProgressRows() {
+        return getEntityManager()
+                .createQuery("select p.id, e.id, p.isResuelto, p.isShared from Programa p left join p.estudiante e", Object[].class)
+                .getResultList();
+    }
+
+    private static void appendReportFilter(StringBuilder jpql, Map<String, Object> params, InformeFiltroDTO filtro) {
+        if (filtro.getEstudianteIds() != null && !filtro.getEstudianteIds().isEmpty()) {
+            jpql.append(" and e.id in :estudianteIds");
+            params.put("estudianteIds", filtro.getEstudianteIds());
+        }
+        if (filtro.getDesde() != null) {
+            jpql.append(" and p.fechaCreacion >= :desde");
+            params.put("desde", filtro.getDesde().atStartOfDay());
+        }
+        if (filtro.getHasta() != null) {
+            jpql.append(" and p.fechaCreacion < :hasta");
+            params.put("hasta", filtro.getHasta().plusDays(1).atStartOfDay());
+        }
+        if (filtro.getResuelto() != null) {
+            jpql.append(" and p.isResuelto = :resuelto");
+            params.put("resuelto", filtro.getResuelto());
+        }
+        if (filtro.isSoloCompartidos()) {
+            jpql.append(" and p.isShared = true");
+        }
+        if (filtro.getTema() != null && !filtro.getTema().isBlank()) {
+            // '!' como escape: la barra invertida se interpreta distinto según la base de datos
+            jpql.append(" and lower(p.titulo) like :tema escape '!'");
+            String tema = filtro.getTema().trim().toLowerCase()
+                    .replace("!", "!!").replace("%", "!%").replace("_", "!_");
+            params.put("tema", "%" + tema + "%");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.uq.repository;
+
+import com.uq.model.SalidaEjecucion;
+import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Collection;
+
+@ApplicationScoped
+public class SalidaEjecucionRepository implements PanacheRepository<SalidaEjecucion> {
+
+    // Metodo para buscar una salida por el hash de su contenido
+    public SalidaEjecucion findByHash(String hash) {
+        return find("hash", hash).firstResult();
+    }
+
+    // Metodo para eliminar, de entre las salidas indicadas, las que ya no usa ninguna ejecución
+    public long deleteUnreferenced(Collection<Long> ids) {
+        return delete("id in ?1"
+                + " and id not in (select e.salidaEstandar.id from Ejecucion e where e.salidaEstandar.id in ?1)"
+                + " and id not in (select e.salidaError.id from Ejecucion e where e.salidaError.id in ?1)", ids);
+    }
+}
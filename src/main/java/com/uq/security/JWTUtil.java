@@ -1,6 +1,7 @@
 package com.uq.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -17,6 +18,13 @@ public class JWTUtil {
     // Convertir la clave secreta en un SecretKey
     private static final SecretKey KEY = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
 
+    // El parser es inmutable y seguro entre hilos: se construye una sola vez
+    private static final JwtParser PARSER = Jwts.parserBuilder().setSigningKey(KEY).build();
+
+    // Tokens ya verificados, hasta que vencen (ver VerifiedTokenCache)
+    private static final int MAX_VERIFIED_TOKENS = 10000;
+    private static final VerifiedTokenCache VERIFIED = new VerifiedTokenCache(PARSER, MAX_VERIFIED_TOKENS);
+
     /**
      * Genera un token JWT con el email y el rol del usuario.
      *
@@ -34,15 +42,30 @@ public class JWTUtil {
 
     /**
      * Valida un token JWT y devuelve las reclamaciones (claims).
+     * Un token que ya se verificó se toma de la caché hasta su expiración, sin volver a decodificarlo
+     * ni a comprobar la firma. Los tokens inválidos no se guardan. Las claims retornadas se comparten
+     * entre solicitudes: no se deben modificar.
      *
      * @param token El token JWT a validar.
      * @return Las reclamaciones (claims) del token.
      */
     public static Claims validateToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(KEY) // Clave secreta para validar la firma
-                .build()
-                .parseClaimsJws(token) // Validar y parsear el token
-                .getBody(); // Obtener las reclamaciones (claims)
+        return VERIFIED.validate(token);
+    }
+
+    public static long getCacheHits() {
+        return VERIFIED.getHits();
+    }
+
+    public static long getCacheMisses() {
+        return VERIFIED.getMisses();
+    }
+
+    public static long getCacheEvictions() {
+        return VERIFIED.getEvictions();
+    }
+
+    public static int getCacheSize() {
+        return VERIFIED.size();
     }
 }
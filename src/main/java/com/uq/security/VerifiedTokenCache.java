@@ -0,0 +1,99 @@
+package com.uq.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tokens ya verificados con sus claims, hasta que vencen. La clave es el SHA-256 del token, así que
+ * un token alterado no coincide con ninguna entrada y se verifica completo con el parser. Los tokens
+ * inválidos no se guardan.
+ */
+class VerifiedTokenCache {
+
+    private final JwtParser parser;
+    private final int maxEntries;
+    // LRU por orden de acceso; protegido por su propio monitor
+    private final LinkedHashMap<String, VerifiedToken> verified = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    VerifiedTokenCache(JwtParser parser, int maxEntries) {
+        this.parser = parser;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Retorna las claims de un token verificado antes y todavía vigente, o verifica el token con el
+     * parser y lo guarda. Las claims retornadas se comparten entre solicitudes: no se deben modificar.
+     */
+    Claims validate(String token) {
+        String key = digest(token);
+        long now = System.currentTimeMillis();
+        synchronized (verified) {
+            VerifiedToken cached = verified.get(key);
+            if (cached != null) {
+                if (cached.expiresAt > now) {
+                    hits.incrementAndGet();
+                    return cached.claims;
+                }
+                verified.remove(key); // Vencido: el parser lanza la excepción de token expirado
+            }
+        }
+        misses.incrementAndGet();
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+
+        // Sin expiración no se sabe hasta cuándo guardarlo
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            synchronized (verified) {
+                verified.put(key, new VerifiedToken(claims, expiration.getTime()));
+                while (verified.size() > maxEntries) {
+                    verified.remove(verified.keySet().iterator().next());
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+        return claims;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible.", e);
+        }
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    long getEvictions() {
+        return evictions.get();
+    }
+
+    int size() {
+        synchronized (verified) {
+            return verified.size();
+        }
+    }
+
+    private record VerifiedToken(Claims claims, long expiresAt) {
+    }
+}
@@ -41,6 +41,12 @@ public class ComentarioService {
     @Inject
     EmailService emailService;
 
+    @Inject
+    ReportFragmentCache reportFragmentCache;
+
+    @Inject
+    ProgressCounters progressCounters;
+
 
     // Metodo para obtener todos los comentarios de un programa específico
     // Verifica que el estudiante autenticado es el dueño del programa.
@@ -98,6 +104,8 @@ public class ComentarioService {
 
         // 4. Persistir el comentario
         comentarioRepository.persist(comentario);
+        reportFragmentCache.invalidate(programaId);
+        progressCounters.commentAdded(programa);
         LOGGER.log(Level.INFO, "Comentario creado por profesor {0} en programa {1}", new Object[]{profesorId, programaId});
 
 
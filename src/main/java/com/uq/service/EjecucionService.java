@@ -0,0 +1,297 @@
+package com.uq.service;
+
+import com.uq.dto.EjecucionDTO;
+import com.uq.execution.ExecutionHandle;
+import com.uq.execution.ExecutionMetrics;
+import com.uq.execution.ExecutionOutput;
+import com.uq.mapper.EjecucionMapper;
+import com.uq.model.Ejecucion;
+import com.uq.model.Programa;
+import com.uq.model.SalidaEjecucion;
+import com.uq.repository.EjecucionRepository;
+import com.uq.repository.ProgramaRepository;
+import com.uq.repository.SalidaEjecucionRepository;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Historial de ejecuciones de programas: resultado, salida y costo de cada una (espera,
+ * compilación, ejecución, CPU, memoria y bytes de salida).
+ * <p>
+ * La salida se guarda en {@link SalidaEjecucion} una sola vez por contenido: las ejecuciones que
+ * imprimen lo mismo (lo normal al volver a ejecutar un programa sin cambios) comparten el registro.
+ * Una tarea periódica elimina por lotes las ejecuciones con más de {@code execution.history.retention-days}
+ * días, salvo la última de cada programa, y las salidas que dejan de usarse.
+ */
+@ApplicationScoped
+public class EjecucionService {
+
+    private static final Logger LOGGER = Logger.getLogger(EjecucionService.class.getName());
+
+    public static final int MAX_LIMIT = 200;
+
+    // Intentos de guardar una ejecución cuando la limpieza elimina a la vez una de sus salidas
+    private static final int RECORD_ATTEMPTS = 3;
+
+    @Inject
+    EjecucionRepository ejecucionRepository;
+
+    @Inject
+    SalidaEjecucionRepository salidaEjecucionRepository;
+
+    @Inject
+    ProgramaRepository programaRepository;
+
+    @Inject
+    EjecucionMapper ejecucionMapper;
+
+    @ConfigProperty(name = "execution.history.retention-days", defaultValue = "90")
+    int retentionDays;
+
+    @ConfigProperty(name = "execution.history.prune-batch-size", defaultValue = "500")
+    int pruneBatchSize;
+
+    @ConfigProperty(name = "execution.history.prune-interval-minutes", defaultValue = "60")
+    int pruneIntervalMinutes;
+
+    private ScheduledExecutorService pruner;
+
+    void onStart(@Observes StartupEvent event) {
+        pruner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "execution-history-pruner");
+            t.setDaemon(true);
+            return t;
+        });
+        pruner.scheduleWithFixedDelay(this::prune, pruneIntervalMinutes, pruneIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pruner != null) pruner.shutdownNow();
+    }
+
+    /**
+     * Guarda la ejecución con su salida y sus métricas. No hace nada si la ejecución no llegó a
+     * empezar (por ejemplo, si el planificador la rechazó) o si el programa ya no existe.
+     */
+    public void record(Long programaId, String codigoFuente, ExecutionHandle handle) {
+        ExecutionMetrics metrics = handle.getMetrics();
+        if (metrics.getEstado() == null) {
+            return;
+        }
+        // Cada salida en su propia transacción, antes de la ejecución: así una inserción simultánea
+        // del mismo contenido no anula el registro completo. Una salida ya guardada puede eliminarse
+        // antes de que la ejecución la referencie (la limpieza la ve sin usar); en ese caso se vuelve a
+        // guardar la salida y se reintenta
+        ExecutionOutput output = handle.getOutput();
+        String codigoHash = hash(codigoFuente);
+        for (int attempt = 1; ; attempt++) {
+            Long salidaEstandarId = salidaIdFor(output.getText(ExecutionOutput.Channel.STDOUT));
+            Long salidaErrorId = salidaIdFor(output.getText(ExecutionOutput.Channel.STDERR));
+            try {
+                if (persist(programaId, codigoHash, handle, salidaEstandarId, salidaErrorId)) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                // La salida se eliminó después de leerla: la clave foránea rechaza la ejecución
+                if (attempt >= RECORD_ATTEMPTS) {
+                    throw e;
+                }
+                continue;
+            }
+            if (attempt >= RECORD_ATTEMPTS) {
+                throw new IllegalStateException("Las salidas de la ejecución del programa " + programaId
+                        + " se eliminaron antes de poder registrarla.");
+            }
+        }
+    }
+
+    /**
+     * Igual que {@link #record}, pero un fallo al guardar solo se registra en el log:
+     * la ejecución ya terminó y su resultado no debe perderse por esto.
+     */
+    public void recordQuietly(Long programaId, String codigoFuente, ExecutionHandle handle) {
+        try {
+            record(programaId, codigoFuente, handle);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "No se pudo registrar la ejecución del programa " + programaId, e);
+        }
+    }
+
+    /**
+     * Guarda la ejecución con las salidas indicadas, que se leen en la misma transacción.
+     *
+     * @return false si alguna de las salidas ya no existe (no se guarda nada); true en otro caso,
+     * también si el programa ya no existe.
+     */
+    @Transactional
+    boolean persist(Long programaId, String codigoHash, ExecutionHandle handle, Long salidaEstandarId, Long salidaErrorId) {
+        Programa programa = programaRepository.findById(programaId);
+        if (programa == null) {
+            return true;
+        }
+        SalidaEjecucion salidaEstandar = salidaEstandarId == null ? null : salidaEjecucionRepository.findById(salidaEstandarId);
+        SalidaEjecucion salidaError = salidaErrorId == null ? null : salidaEjecucionRepository.findById(salidaErrorId);
+        if ((salidaEstandarId != null && salidaEstandar == null) || (salidaErrorId != null && salidaError == null)) {
+            return false;
+        }
+
+        ExecutionMetrics metrics = handle.getMetrics();
+        ExecutionOutput output = handle.getOutput();
+        Ejecucion ejecucion = new Ejecucion();
+        ejecucion.setPrograma(programa);
+        ejecucion.setEstudiante(programa.getEstudiante());
+        ejecucion.setFecha(LocalDateTime.now());
+        ejecucion.setCodigoHash(codigoHash);
+        ejecucion.setEstado(metrics.getEstado());
+        ejecucion.setExitCode(metrics.getExitCode());
+        ejecucion.setQueueMillis(metrics.getQueueMillis());
+        ejecucion.setCompileMillis(metrics.getCompileMillis());
+        ejecucion.setRunMillis(metrics.getRunMillis());
+        ejecucion.setCpuUserMillis(metrics.getCpuUserMillis());
+        ejecucion.setCpuSystemMillis(metrics.getCpuSystemMillis());
+        ejecucion.setPeakRssKb(metrics.getPeakRssKb());
+        ejecucion.setStdoutBytes(output.getBytes(ExecutionOutput.Channel.STDOUT));
+        ejecucion.setStderrBytes(output.getBytes(ExecutionOutput.Channel.STDERR));
+        ejecucion.setOutputTruncated(output.isTruncated());
+        ejecucion.setSalidaEstandar(salidaEstandar);
+        ejecucion.setSalidaError(salidaError);
+        ejecucionRepository.persist(ejecucion);
+        // Si la limpieza eliminó una salida después de leerla, la clave foránea falla aquí y no al confirmar
+        ejecucionRepository.flush();
+
+        LOGGER.log(Level.FINE, "Ejecución del programa {0} registrada: {1}, cpu {2}+{3} ms, rss {4} KB",
+                new Object[]{programaId, metrics.getEstado(), metrics.getCpuUserMillis(), metrics.getCpuSystemMillis(), metrics.getPeakRssKb()});
+        return true;
+    }
+
+    // Retorna el ID de la salida con ese contenido, guardándola si es la primera vez que aparece
+    private Long salidaIdFor(String contenido) {
+        if (contenido == null || contenido.isEmpty()) {
+            return null;
+        }
+        String hash = hash(contenido);
+        try {
+            return findOrCreateSalida(hash, contenido);
+        } catch (RuntimeException e) {
+            // Otra ejecución guardó la misma salida al mismo tiempo (el hash es único): se usa esa
+            return findOrCreateSalida(hash, contenido);
+        }
+    }
+
+    @Transactional
+    Long findOrCreateSalida(String hash, String contenido) {
+        SalidaEjecucion salida = salidaEjecucionRepository.findByHash(hash);
+        if (salida == null) {
+            salida = new SalidaEjecucion();
+            salida.setHash(hash);
+            salida.setContenido(contenido);
+            salida.setFechaCreacion(LocalDateTime.now());
+            salidaEjecucionRepository.persist(salida);
+        }
+        return salida.getId();
+    }
+
+    /**
+     * Retorna la última ejecución del programa con su salida, o null si nunca se ejecutó.
+     * {@code codigoVigente} indica si se ejecutó el mismo código que tiene ahora el programa.
+     * También retorna null si el historial no se puede leer (por ejemplo, si a la base de datos
+     * aún no se le aplicaron los scripts de db/migraciones): el programa se muestra igual, sin ella.
+     */
+    public EjecucionDTO findLatest(Long programaId, String codigoFuenteActual) {
+        try {
+            Ejecucion ejecucion = ejecucionRepository.findLatestByProgramaId(programaId);
+            if (ejecucion == null) {
+                return null;
+            }
+            EjecucionDTO dto = ejecucionMapper.toDTO(ejecucion);
+            dto.setCodigoVigente(codigoFuenteActual != null && hash(codigoFuenteActual).equals(ejecucion.getCodigoHash()));
+            dto.setStdout(ejecucion.getSalidaEstandar() == null ? "" : ejecucion.getSalidaEstandar().getContenido());
+            dto.setStderr(ejecucion.getSalidaError() == null ? "" : ejecucion.getSalidaError().getContenido());
+            return dto;
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "No se pudo obtener la última ejecución del programa " + programaId, e);
+            return null;
+        }
+    }
+
+    // Metodo para eliminar el historial de un Programa (y las salidas que solo usaba él)
+    @Transactional
+    public void deleteByProgramaId(Long programaId) {
+        deleteEjecuciones(ejecucionRepository.listIdsByProgramaId(programaId));
+    }
+
+    /**
+     * Elimina un lote de ejecuciones antiguas en su propia transacción.
+     *
+     * @return Cuántas ejecuciones se eliminaron; menos que el tamaño del lote si ya no quedan más.
+     */
+    @Transactional
+    int pruneBatch(LocalDateTime before, int batchSize) {
+        List<Long> ids = ejecucionRepository.listPrunableIds(before, batchSize);
+        deleteEjecuciones(ids);
+        return ids.size();
+    }
+
+    private void deleteEjecuciones(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<Long> salidaIds = ejecucionRepository.findSalidaIds(ids);
+        ejecucionRepository.deleteByIds(ids);
+        if (!salidaIds.isEmpty()) {
+            salidaEjecucionRepository.deleteUnreferenced(salidaIds);
+        }
+    }
+
+    // Tarea periódica: elimina por lotes, cada uno en una transacción corta, para no bloquear las tablas
+    private void prune() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        long removed = 0;
+        try {
+            int batch;
+            do {
+                batch = pruneBatch(before, pruneBatchSize);
+                removed += batch;
+            } while (batch == pruneBatchSize);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Error al eliminar ejecuciones antiguas del historial.", e);
+        }
+        if (removed > 0) {
+            LOGGER.log(Level.INFO, "Eliminadas {0} ejecuciones anteriores a {1} del historial.", new Object[]{removed, before});
+        }
+    }
+
+    private static String hash(String contenido) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(contenido.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible.", e);
+        }
+    }
+
+    // Metodo para listar las ejecuciones que más CPU consumieron (vista de profesor)
+    public List<EjecucionDTO> listMostExpensive(int limite) {
+        int limit = Math.max(1, Math.min(limite, MAX_LIMIT));
+        return ejecucionMapper.toDTOList(ejecucionRepository.listMostExpensive(limit));
+    }
+}
@@ -1,12 +1,20 @@
 package com.uq.service;
 
 import com.uq.dto.EjemploDTO;
+import com.uq.dto.ProgramaExecutionResultDTO;
 import com.uq.exception.ExampleNotFoundException;
+import com.uq.exception.ExecutionRejectedException;
+import com.uq.exception.ProgramExecutionException;
 import com.uq.exception.UnauthorizedException;
 import com.uq.exception.UserNotFoundException;
+import com.uq.execution.ExecutionHandle;
+import com.uq.execution.ExecutionScheduler;
+import com.uq.execution.ProgramExecutor;
+import com.uq.execution.ResultCache;
 import com.uq.mapper.EjemploMapper;
 import com.uq.model.Ejemplo;
 import com.uq.model.Profesor;
+import com.uq.repository.CasoPruebaRepository;
 import com.uq.repository.EjemploRepository;
 import com.uq.repository.ProfesorRepository;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -32,6 +40,18 @@ public class EjemploService {
     @Inject
     ProfesorRepository profesorRepository;
 
+    @Inject
+    CasoPruebaRepository casoPruebaRepository;
+
+    @Inject
+    ProgramExecutor programExecutor;
+
+    @Inject
+    ExecutionScheduler executionScheduler;
+
+    @Inject
+    ResultCache resultCache;
+
     // Metodo para obtener todos los ejemplos que están marcados como compartidos
     public List<EjemploDTO> listAllSharedExamples() {
         List<Ejemplo> sharedExamples = ejemploRepository.listShared();
@@ -125,7 +145,9 @@ public class EjemploService {
 
 
         // 4. Usar el mapper para actualizar la entidad existente desde el DTO completo
+        String codigoAnterior = existingEjemplo.getCodigoFuente();
         ejemploMapper.updateEntityFromDto(updatedEjemploDTO, existingEjemplo);
+        invalidateResultIfChanged(codigoAnterior, existingEjemplo.getCodigoFuente());
 
         LOGGER.log(Level.INFO, "Ejemplo actualizado (completo) con ID {0} por profesor {1}", new Object[]{ejemploId, authenticatedProfesorId});
         return ejemploMapper.toDTO(existingEjemplo); // Mapear la entidad actualizada de vuelta a DTO
@@ -157,7 +179,10 @@ public class EjemploService {
         // PATCH requiere lógica explícita para actualizar solo los campos proporcionados.
         if (partialEjemploDTO.getTitulo() != null) existingEjemplo.setTitulo(partialEjemploDTO.getTitulo());
         if (partialEjemploDTO.getDescripcion() != null) existingEjemplo.setDescripcion(partialEjemploDTO.getDescripcion());
-        if (partialEjemploDTO.getCodigoFuente() != null) existingEjemplo.setCodigoFuente(partialEjemploDTO.getCodigoFuente());
+        if (partialEjemploDTO.getCodigoFuente() != null) {
+            invalidateResultIfChanged(existingEjemplo.getCodigoFuente(), partialEjemploDTO.getCodigoFuente());
+            existingEjemplo.setCodigoFuente(partialEjemploDTO.getCodigoFuente());
+        }
         if (partialEjemploDTO.getTema() != null) existingEjemplo.setTema(partialEjemploDTO.getTema());
         if (partialEjemploDTO.getTags() != null) {
             existingEjemplo.setTags(partialEjemploDTO.getTags());
@@ -194,8 +219,68 @@ public class EjemploService {
         LOGGER.log(Level.INFO, "Eliminación autorizada del ejemplo {0} por profesor {1}", new Object[]{ejemploId, authenticatedProfesorId});
 
 
-        // 4. Eliminar el ejemplo
+        // 4. Eliminar sus casos de prueba y luego el ejemplo
+        casoPruebaRepository.deleteByEjemploId(ejemploId);
         ejemploRepository.delete(existingEjemplo);
+        resultCache.invalidate(existingEjemplo.getCodigoFuente());
     }
 
-}
\ No newline at end of file
+
+    // Metodo para ejecutar un ejemplo compartido. El código de los ejemplos es de confianza
+    // (lo escriben los profesores), así que usa el carril rápido de ejecución. Si es determinista,
+    // las ejecuciones repetidas (un curso completo abriendo el mismo ejemplo) salen de la caché de resultados.
+    public ProgramaExecutionResultDTO executeSharedExample(Long ejemploId, Long authenticatedEstudianteId)
+            throws ExampleNotFoundException, ProgramExecutionException, ExecutionRejectedException {
+
+        Ejemplo ejemplo = ejemploRepository.findById(ejemploId);
+        if (ejemplo == null || !ejemplo.isShared()) {
+            LOGGER.log(Level.WARNING, "Intento de ejecución de ejemplo no compartido o inexistente con ID: {0}", ejemploId);
+            throw new ExampleNotFoundException("Ejemplo no encontrado o no compartido.");
+        }
+        String codigoFuente = getExecutableSource(ejemplo);
+
+        ExecutionHandle handle = programExecutor.newHandle();
+        return resultCache.execute(codigoFuente, handle, () -> {
+            try (ExecutionScheduler.Permit permit = executionScheduler.acquire(authenticatedEstudianteId, handle)) {
+                return programExecutor.executeTrusted(codigoFuente, handle);
+            }
+        });
+    }
+
+    // Metodo para que un profesor ejecute uno de sus ejemplos (compartido o no)
+    public ProgramaExecutionResultDTO executeOwnExample(Long ejemploId, Long authenticatedProfesorId)
+            throws ExampleNotFoundException, UnauthorizedException, ProgramExecutionException, ExecutionRejectedException {
+
+        Ejemplo ejemplo = ejemploRepository.findById(ejemploId);
+        if (ejemplo == null) {
+            throw new ExampleNotFoundException("Ejemplo no encontrado con ID: " + ejemploId);
+        }
+        if (ejemplo.getProfesor() == null || !ejemplo.getProfesor().getId().equals(authenticatedProfesorId)) {
+            LOGGER.log(Level.WARNING, "Intento de ejecución no autorizada del ejemplo {0} por profesor {1}", new Object[]{ejemploId, authenticatedProfesorId});
+            throw new UnauthorizedException("No tienes permiso para ejecutar este ejemplo.");
+        }
+        String codigoFuente = getExecutableSource(ejemplo);
+
+        ExecutionHandle handle = programExecutor.newHandle();
+        return resultCache.execute(codigoFuente, handle, () -> {
+            try (ExecutionScheduler.Permit permit = executionScheduler.acquireForProfesor(authenticatedProfesorId, handle)) {
+                return programExecutor.executeTrusted(codigoFuente, handle);
+            }
+        });
+    }
+
+    // El resultado en caché del código anterior ya no corresponde al ejemplo actualizado
+    private void invalidateResultIfChanged(String codigoAnterior, String codigoNuevo) {
+        if (codigoAnterior != null && !codigoAnterior.equals(codigoNuevo)) {
+            resultCache.invalidate(codigoAnterior);
+        }
+    }
+
+    private String getExecutableSource(Ejemplo ejemplo) throws ProgramExecutionException {
+        String codigoFuente = ejemplo.getCodigoFuente();
+        if (codigoFuente == null || codigoFuente.trim().isEmpty()) {
+            throw new ProgramExecutionException("El código fuente del ejemplo está vacío.");
+        }
+        return codigoFuente;
+    }
+}
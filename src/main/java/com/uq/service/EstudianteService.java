@@ -36,6 +36,12 @@ public class EstudianteService {
     @Inject
     EmailService emailService;
 
+    @Inject
+    ReportFragmentCache reportFragmentCache;
+
+    @Inject
+    ProgressCounters progressCounters;
+
     private static final int VERIFICATION_CODE_VALIDITY_MINUTES = 15;
 
     @Transactional
@@ -148,6 +154,7 @@ public class EstudianteService {
         if (estudiante.getContrasena() != null && !estudiante.getContrasena().isEmpty()) {
             existingUser.setContrasena(hashPassword(estudiante.getContrasena()));
         }
+        reportFragmentCache.invalidateAll(); // El nombre y el email aparecen en las páginas del informe
 
         return estudianteMapper.toResponse(existingUser);
     }
@@ -164,6 +171,7 @@ public class EstudianteService {
         if (estudiante.getContrasena() != null && !estudiante.getContrasena().isEmpty()) {
             existingUser.setContrasena(hashPassword(estudiante.getContrasena()));
         }
+        reportFragmentCache.invalidateAll(); // El nombre y el email aparecen en las páginas del informe
 
         return estudianteMapper.toResponse(existingUser);
     }
@@ -174,6 +182,8 @@ public class EstudianteService {
         if (existingUser == null) {
             throw new UserNotFoundException("Usuario no encontrado.");
         }
+        reportFragmentCache.invalidateAll();
+        progressCounters.studentDeleted(id);
         return estudianteRepository.deleteById(id);
     }
 
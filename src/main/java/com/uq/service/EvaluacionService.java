@@ -0,0 +1,268 @@
+package com.uq.service;
+
+import com.uq.dto.CasoPruebaDTO;
+import com.uq.dto.EvaluacionResultDTO;
+import com.uq.dto.ResultadoCasoDTO;
+import com.uq.enums.Veredicto;
+import com.uq.exception.ExampleNotFoundException;
+import com.uq.exception.ExecutionRejectedException;
+import com.uq.exception.ProgramExecutionException;
+import com.uq.exception.ProgramNotFoundException;
+import com.uq.exception.TestCaseNotFoundException;
+import com.uq.exception.UnauthorizedException;
+import com.uq.execution.BatchExecutionResult;
+import com.uq.execution.ExecutionHandle;
+import com.uq.execution.ExecutionScheduler;
+import com.uq.execution.ProgramExecutor;
+import com.uq.execution.RunResult;
+import com.uq.mapper.CasoPruebaMapper;
+import com.uq.model.CasoPrueba;
+import com.uq.model.Ejemplo;
+import com.uq.model.Programa;
+import com.uq.repository.CasoPruebaRepository;
+import com.uq.repository.EjemploRepository;
+import com.uq.repository.ProgramaRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Casos de prueba (entrada y salida esperada) de programas y ejemplos, y evaluación de los
+ * programas de los estudiantes contra ellos. El programa se compila una sola vez y todos los
+ * casos se ejecutan en la misma sesión de ejecución.
+ */
+@ApplicationScoped
+public class EvaluacionService {
+
+    private static final Logger LOGGER = Logger.getLogger(EvaluacionService.class.getName());
+
+    @Inject
+    CasoPruebaRepository casoPruebaRepository;
+
+    @Inject
+    ProgramaRepository programaRepository;
+
+    @Inject
+    EjemploRepository ejemploRepository;
+
+    @Inject
+    CasoPruebaMapper casoPruebaMapper;
+
+    @Inject
+    ProgramaService programaService;
+
+    @Inject
+    ProgramExecutor programExecutor;
+
+    @Inject
+    ExecutionScheduler executionScheduler;
+
+    @ConfigProperty(name = "execution.grading.max-cases", defaultValue = "50")
+    int maxCases;
+
+    // Metodo para añadir un caso de prueba a un programa de estudiante (cualquier profesor puede hacerlo)
+    @Transactional
+    public CasoPruebaDTO addCaseToProgram(Long programaId, CasoPruebaDTO casoDTO)
+            throws ProgramNotFoundException, IllegalArgumentException {
+
+        Programa programa = programaRepository.findById(programaId);
+        if (programa == null) {
+            throw new ProgramNotFoundException("Programa no encontrado con ID: " + programaId);
+        }
+        if (casoPruebaRepository.count("programa.id", programaId) >= maxCases) {
+            throw new IllegalArgumentException("El programa ya tiene el máximo de " + maxCases + " casos de prueba.");
+        }
+
+        CasoPrueba caso = casoPruebaMapper.toEntity(casoDTO);
+        caso.setPrograma(programa);
+        casoPruebaRepository.persist(caso);
+        LOGGER.log(Level.INFO, "Caso de prueba {0} añadido al programa {1}", new Object[]{caso.getId(), programaId});
+        return casoPruebaMapper.toDTO(caso);
+    }
+
+    // Metodo para añadir un caso de prueba a un ejemplo (solo el profesor dueño del ejemplo)
+    @Transactional
+    public CasoPruebaDTO addCaseToExample(Long ejemploId, Long profesorId, CasoPruebaDTO casoDTO)
+            throws ExampleNotFoundException, UnauthorizedException, IllegalArgumentException {
+
+        Ejemplo ejemplo = findOwnedExample(ejemploId, profesorId);
+        if (casoPruebaRepository.count("ejemplo.id", ejemploId) >= maxCases) {
+            throw new IllegalArgumentException("El ejemplo ya tiene el máximo de " + maxCases + " casos de prueba.");
+        }
+
+        CasoPrueba caso = casoPruebaMapper.toEntity(casoDTO);
+        caso.setEjemplo(ejemplo);
+        casoPruebaRepository.persist(caso);
+        LOGGER.log(Level.INFO, "Caso de prueba {0} añadido al ejemplo {1}", new Object[]{caso.getId(), ejemploId});
+        return casoPruebaMapper.toDTO(caso);
+    }
+
+    // Metodo para listar los casos de prueba de un programa (vista de profesor, incluye la salida esperada)
+    public List<CasoPruebaDTO> listCasesForProgram(Long programaId) throws ProgramNotFoundException {
+        if (programaRepository.findById(programaId) == null) {
+            throw new ProgramNotFoundException("Programa no encontrado con ID: " + programaId);
+        }
+        return casoPruebaMapper.toDTOList(casoPruebaRepository.listByProgramaId(programaId));
+    }
+
+    // Metodo para listar los casos de prueba de un ejemplo del profesor
+    public List<CasoPruebaDTO> listCasesForExample(Long ejemploId, Long profesorId)
+            throws ExampleNotFoundException, UnauthorizedException {
+        findOwnedExample(ejemploId, profesorId);
+        return casoPruebaMapper.toDTOList(casoPruebaRepository.listByEjemploId(ejemploId));
+    }
+
+    // Metodo para eliminar un caso de prueba. Los casos de un ejemplo solo los elimina su dueño.
+    @Transactional
+    public void deleteCase(Long casoId, Long profesorId) throws TestCaseNotFoundException, UnauthorizedException {
+        CasoPrueba caso = casoPruebaRepository.findById(casoId);
+        if (caso == null) {
+            throw new TestCaseNotFoundException("Caso de prueba no encontrado con ID: " + casoId);
+        }
+        Ejemplo ejemplo = caso.getEjemplo();
+        if (ejemplo != null && (ejemplo.getProfesor() == null || !ejemplo.getProfesor().getId().equals(profesorId))) {
+            LOGGER.log(Level.WARNING, "Intento de eliminación no autorizada del caso {0} por profesor {1}", new Object[]{casoId, profesorId});
+            throw new UnauthorizedException("No tienes permiso para eliminar este caso de prueba.");
+        }
+        casoPruebaRepository.delete(caso);
+        LOGGER.log(Level.INFO, "Caso de prueba {0} eliminado por profesor {1}", new Object[]{casoId, profesorId});
+    }
+
+    /**
+     * Evalúa el programa del estudiante con los casos de prueba del programa o, si se indica
+     * {@code ejemploId}, con los de ese ejemplo compartido.
+     *
+     * @param detenerEnPrimerFallo Si es true, los casos posteriores al primer fallo no se ejecutan
+     *                             y se reportan como {@link Veredicto#OMITIDO}.
+     */
+    public EvaluacionResultDTO evaluate(Long programaId, Long authenticatedEstudianteId, Long ejemploId,
+                                        boolean detenerEnPrimerFallo)
+            throws ProgramNotFoundException, UnauthorizedException, ExampleNotFoundException,
+            ProgramExecutionException, ExecutionRejectedException, IllegalArgumentException {
+
+        String codigoFuente = programaService.getExecutableSource(programaId, authenticatedEstudianteId);
+
+        List<CasoPrueba> casos;
+        if (ejemploId != null) {
+            Ejemplo ejemplo = ejemploRepository.findById(ejemploId);
+            if (ejemplo == null || !ejemplo.isShared()) {
+                throw new ExampleNotFoundException("Ejemplo no encontrado o no compartido.");
+            }
+            casos = casoPruebaRepository.listByEjemploId(ejemploId);
+        } else {
+            casos = casoPruebaRepository.listByProgramaId(programaId);
+        }
+        if (casos.isEmpty()) {
+            throw new IllegalArgumentException("No hay casos de prueba para evaluar.");
+        }
+        if (casos.size() > maxCases) {
+            LOGGER.log(Level.WARNING, "Se evaluarán solo los primeros {0} de {1} casos del programa {2}",
+                    new Object[]{maxCases, casos.size(), programaId});
+            casos = casos.subList(0, maxCases);
+        }
+
+        List<String> inputs = new ArrayList<>(casos.size());
+        for (CasoPrueba caso : casos) {
+            inputs.add(caso.getEntrada() == null ? "" : caso.getEntrada());
+        }
+        List<CasoPrueba> casosEvaluados = casos;
+
+        long startTime = System.currentTimeMillis();
+        ExecutionHandle handle = programExecutor.newHandle();
+        BatchExecutionResult batch;
+        try (ExecutionScheduler.Permit permit = executionScheduler.acquire(authenticatedEstudianteId, handle)) {
+            batch = programExecutor.executeBatch(codigoFuente, inputs, handle,
+                    (index, run) -> !detenerEnPrimerFallo
+                            || veredicto(casosEvaluados.get(index), run) == Veredicto.ACEPTADO);
+        }
+
+        EvaluacionResultDTO result = new EvaluacionResultDTO();
+        result.setProgramaId(programaId);
+        result.setTotalCasos(casos.size());
+        result.setDurationMillis(System.currentTimeMillis() - startTime);
+        if (!batch.isCompiled()) {
+            result.setCompilationError(batch.getCompilationErrors());
+        }
+
+        List<RunResult> runs = batch.getRuns();
+        List<ResultadoCasoDTO> resultados = new ArrayList<>(casos.size());
+        int aprobados = 0;
+        for (int i = 0; i < casos.size(); i++) {
+            CasoPrueba caso = casos.get(i);
+            ResultadoCasoDTO resultado = new ResultadoCasoDTO();
+            resultado.setCasoId(caso.getId());
+            resultado.setNombre(caso.getNombre());
+            if (i < runs.size()) {
+                RunResult run = runs.get(i);
+                resultado.setVeredicto(veredicto(caso, run));
+                resultado.setExitCode(run.isTimedOut() ? null : run.getExitCode());
+                resultado.setDurationMillis(run.getDurationMillis());
+                resultado.setSalidaObtenida(run.getStdout());
+                resultado.setStderr(run.getStderr());
+                if (resultado.getVeredicto() == Veredicto.ACEPTADO) {
+                    aprobados++;
+                }
+            } else {
+                resultado.setVeredicto(Veredicto.OMITIDO);
+            }
+            resultados.add(resultado);
+        }
+        result.setAprobados(aprobados);
+        result.setDetenidoEnPrimerFallo(batch.isCompiled() && runs.size() < casos.size());
+        result.setCasos(resultados);
+
+        LOGGER.log(Level.INFO, "Programa {0} evaluado: {1}/{2} casos aprobados ({3} ejecutados) en {4} ms",
+                new Object[]{programaId, aprobados, casos.size(), runs.size(), result.getDurationMillis()});
+        return result;
+    }
+
+    private Ejemplo findOwnedExample(Long ejemploId, Long profesorId) throws ExampleNotFoundException, UnauthorizedException {
+        Ejemplo ejemplo = ejemploRepository.findById(ejemploId);
+        if (ejemplo == null) {
+            throw new ExampleNotFoundException("Ejemplo no encontrado con ID: " + ejemploId);
+        }
+        if (ejemplo.getProfesor() == null || !ejemplo.getProfesor().getId().equals(profesorId)) {
+            LOGGER.log(Level.WARNING, "Intento de acceso no autorizado a los casos del ejemplo {0} por profesor {1}", new Object[]{ejemploId, profesorId});
+            throw new UnauthorizedException("No tienes permiso para modificar los casos de prueba de este ejemplo.");
+        }
+        return ejemplo;
+    }
+
+    private static Veredicto veredicto(CasoPrueba caso, RunResult run) {
+        if (run.isTimedOut()) {
+            return Veredicto.TIEMPO_EXCEDIDO;
+        }
+        if (run.getExitCode() != 0) {
+            return Veredicto.ERROR_EJECUCION;
+        }
+        return normalize(run.getStdout()).equals(normalize(caso.getSalidaEsperada()))
+                ? Veredicto.ACEPTADO
+                : Veredicto.RESPUESTA_INCORRECTA;
+    }
+
+    // Compara ignorando los saltos de línea de Windows, los espacios al final de cada línea y las líneas vacías finales
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String[] lines = text.split("\r\n|\r|\n");
+        int end = lines.length;
+        while (end > 0 && lines[end - 1].isBlank()) {
+            end--;
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < end; i++) {
+            if (i > 0) {
+                sb.append('\n');
+            }
+            sb.append(lines[i].stripTrailing());
+        }
+        return sb.toString();
+    }
+}
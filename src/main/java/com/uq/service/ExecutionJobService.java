@@ -0,0 +1,317 @@
+package com.uq.service;
+
+import com.uq.dto.EjecucionJobDTO;
+import com.uq.dto.ProgramaExecutionResultDTO;
+import com.uq.enums.JobStatus;
+import com.uq.exception.ExecutionJobNotFoundException;
+import com.uq.exception.ExecutionQuotaExceededException;
+import com.uq.exception.ExecutionRejectedException;
+import com.uq.exception.ProgramExecutionException;
+import com.uq.exception.ProgramNotFoundException;
+import com.uq.exception.UnauthorizedException;
+import com.uq.execution.ExecutionHandle;
+import com.uq.execution.ExecutionOutput;
+import com.uq.execution.ExecutionScheduler;
+import com.uq.execution.ProgramExecutor;
+import com.uq.execution.ResultCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Ejecución asíncrona de programas.
+ * <p>
+ * Cada solicitud se convierte en un trabajo con identificador propio que se encola en una cola
+ * acotada ({@code execution.jobs.queue-capacity}) atendida por un número fijo de hilos
+ * ({@code execution.jobs.workers}). El cliente consulta el estado con el identificador y puede
+ * cancelar el trabajo; si ya está en ejecución se destruye el proceso que lo ejecuta.
+ * Los trabajos terminados se conservan {@code execution.jobs.retention-minutes} minutos.
+ */
+@ApplicationScoped
+public class ExecutionJobService {
+
+    private static final Logger LOGGER = Logger.getLogger(ExecutionJobService.class.getName());
+
+    @Inject
+    ProgramaService programaService;
+
+    @Inject
+    ProgramExecutor programExecutor;
+
+    @Inject
+    ExecutionScheduler executionScheduler;
+
+    @Inject
+    EjecucionService ejecucionService;
+
+    @Inject
+    ResultCache resultCache;
+
+    @ConfigProperty(name = "execution.jobs.workers", defaultValue = "4")
+    int workers;
+
+    @ConfigProperty(name = "execution.jobs.queue-capacity", defaultValue = "100")
+    int queueCapacity;
+
+    @ConfigProperty(name = "execution.jobs.retention-minutes", defaultValue = "30")
+    int retentionMinutes;
+
+    // Trabajos en cola o en ejecución que puede tener un mismo estudiante
+    @ConfigProperty(name = "execution.jobs.max-pending-per-student", defaultValue = "5")
+    int maxPendingPerStudent;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong completedRuns = new AtomicLong();
+    private final AtomicLong completedRunsMillis = new AtomicLong();
+
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService cleaner;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "execution-job-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "execution-job-cleaner");
+            t.setDaemon(true);
+            return t;
+        });
+        cleaner.scheduleWithFixedDelay(this::removeExpiredJobs, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        cleaner.shutdownNow();
+        executor.shutdownNow();
+        jobs.values().forEach(job -> {
+            job.handle.cancel();
+            job.handle.getOutput().close();
+        });
+    }
+
+    /**
+     * Verifica el acceso al programa y encola su ejecución.
+     *
+     * @return El trabajo recién creado, en estado QUEUED.
+     * @throws ExecutionQuotaExceededException Si el estudiante ya tiene demasiados trabajos pendientes.
+     * @throws ExecutionRejectedException      Si la cola de ejecución está llena.
+     */
+    public EjecucionJobDTO submit(Long programaId, Long authenticatedEstudianteId)
+            throws ProgramNotFoundException, UnauthorizedException, ProgramExecutionException, ExecutionRejectedException {
+
+        String codigoFuente = programaService.getExecutableSource(programaId, authenticatedEstudianteId);
+
+        long pending = jobs.values().stream()
+                .filter(j -> j.estudianteId.equals(authenticatedEstudianteId) && !j.isFinished())
+                .count();
+        if (pending >= maxPendingPerStudent) {
+            LOGGER.log(Level.WARNING, "Estudiante {0} con {1} trabajos pendientes. Se rechaza la ejecución.", new Object[]{authenticatedEstudianteId, pending});
+            throw new ExecutionQuotaExceededException("Ya tienes " + pending + " ejecuciones pendientes. Espera a que terminen o cancélalas.",
+                    estimateRetryAfterSeconds());
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), programaId, authenticatedEstudianteId, programExecutor.newHandle());
+        jobs.put(job.id, job);
+        try {
+            job.future = executor.submit(() -> runJob(job, codigoFuente));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            LOGGER.log(Level.WARNING, "Cola de ejecución llena. Se rechaza la ejecución del programa {0}", programaId);
+            throw new ExecutionRejectedException("La cola de ejecución está llena. Intenta de nuevo más tarde.", estimateRetryAfterSeconds());
+        }
+        LOGGER.log(Level.INFO, "Trabajo de ejecución {0} encolado para el programa {1}", new Object[]{job.id, programaId});
+        return job.toDTO();
+    }
+
+    public EjecucionJobDTO getJob(String jobId, Long authenticatedEstudianteId)
+            throws ExecutionJobNotFoundException, UnauthorizedException {
+        return findOwnedJob(jobId, authenticatedEstudianteId).toDTO();
+    }
+
+    /**
+     * Cancela un trabajo. Si está en cola se retira de la cola; si está en ejecución se destruye
+     * el proceso. Cancelar un trabajo ya terminado no tiene efecto.
+     */
+    public EjecucionJobDTO cancel(String jobId, Long authenticatedEstudianteId)
+            throws ExecutionJobNotFoundException, UnauthorizedException {
+        Job job = findOwnedJob(jobId, authenticatedEstudianteId);
+        synchronized (job) {
+            if (job.status == JobStatus.QUEUED) {
+                if (job.future != null) {
+                    job.future.cancel(false);
+                    executor.purge(); // Libera el cupo de la cola de inmediato
+                }
+                job.handle.cancel(); // Por si el trabajo ya espera un cupo en el planificador
+                job.finish(JobStatus.CANCELLED, null, "Ejecución cancelada.");
+                job.handle.getOutput().close();
+            } else if (job.status == JobStatus.RUNNING) {
+                // El hilo del trabajo marca el estado CANCELLED cuando el proceso termina
+                job.handle.cancel();
+            }
+        }
+        LOGGER.log(Level.INFO, "Cancelación solicitada para el trabajo de ejecución {0}", jobId);
+        return job.toDTO();
+    }
+
+    /**
+     * Suscribe un listener a la salida en vivo del trabajo. Primero recibe la salida retenida
+     * con secuencia mayor que {@code afterSequence}; {@code onClose} llega cuando el trabajo termina.
+     */
+    public void subscribe(String jobId, Long authenticatedEstudianteId, ExecutionOutput.Listener listener, long afterSequence)
+            throws ExecutionJobNotFoundException, UnauthorizedException {
+        findOwnedJob(jobId, authenticatedEstudianteId).handle.getOutput().subscribe(listener, afterSequence);
+    }
+
+    public void unsubscribe(String jobId, ExecutionOutput.Listener listener) {
+        Job job = jobs.get(jobId);
+        if (job != null) {
+            job.handle.getOutput().unsubscribe(listener);
+        }
+    }
+
+    private Job findOwnedJob(String jobId, Long authenticatedEstudianteId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new ExecutionJobNotFoundException("Trabajo de ejecución no encontrado con ID: " + jobId);
+        }
+        if (!job.estudianteId.equals(authenticatedEstudianteId)) {
+            LOGGER.log(Level.WARNING, "Intento de acceso no autorizado al trabajo de ejecución {0} por estudiante {1}", new Object[]{jobId, authenticatedEstudianteId});
+            throw new UnauthorizedException("No tienes permiso para ver este trabajo de ejecución.");
+        }
+        return job;
+    }
+
+    private void runJob(Job job, String codigoFuente) {
+        long start = System.currentTimeMillis();
+        job.handle.getMetrics().addQueueMillis(Duration.between(job.fechaCreacion, LocalDateTime.now()).toMillis());
+        try {
+            ProgramaExecutionResultDTO result = resultCache.execute(codigoFuente, job.handle, () -> runWithPermit(job, codigoFuente));
+            if (result != null) {
+                job.finish(JobStatus.COMPLETED, result, null);
+            }
+        } catch (ProgramExecutionException e) {
+            job.finish(job.handle.isCancelled() ? JobStatus.CANCELLED : JobStatus.FAILED, null, e.getMessage());
+        } catch (ExecutionRejectedException e) {
+            job.finish(JobStatus.FAILED, null, e.getMessage());
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Error inesperado en el trabajo de ejecución " + job.id, e);
+            job.finish(JobStatus.FAILED, null, "Error interno al ejecutar el programa: " + e.getMessage());
+        } finally {
+            completedRuns.incrementAndGet();
+            completedRunsMillis.addAndGet(System.currentTimeMillis() - start);
+            ejecucionService.recordQuietly(job.programaId, codigoFuente, job.handle);
+            // Después de finish(): quien reciba onClose ya ve el estado final del trabajo
+            job.handle.getOutput().close();
+        }
+    }
+
+    // Ejecuta el trabajo con un cupo del planificador; retorna null si se canceló mientras esperaba en la cola
+    private ProgramaExecutionResultDTO runWithPermit(Job job, String codigoFuente) {
+        try (ExecutionScheduler.Permit permit = executionScheduler.acquire(job.estudianteId, job.handle)) {
+            synchronized (job) {
+                if (job.status != JobStatus.QUEUED) {
+                    return null;
+                }
+                job.status = JobStatus.RUNNING;
+                job.fechaInicio = LocalDateTime.now();
+            }
+            return programExecutor.execute(codigoFuente, job.handle);
+        }
+    }
+
+    // Tiempo aproximado hasta que se libere espacio en la cola, según la duración media observada
+    private int estimateRetryAfterSeconds() {
+        long runs = completedRuns.get();
+        long averageMillis = runs == 0
+                ? TimeUnit.SECONDS.toMillis(ProgramExecutor.EXECUTION_TIMEOUT_SECONDS)
+                : completedRunsMillis.get() / runs;
+        long pending = executor.getQueue().size() + executor.getActiveCount();
+        long millis = averageMillis * pending / Math.max(1, workers);
+        return (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(millis));
+    }
+
+    private void removeExpiredJobs() {
+        LocalDateTime limit = LocalDateTime.now().minusMinutes(retentionMinutes);
+        int before = jobs.size();
+        jobs.values().removeIf(job -> job.isFinishedBefore(limit));
+        int removed = before - jobs.size();
+        if (removed > 0) {
+            LOGGER.log(Level.FINE, "Se eliminaron {0} trabajos de ejecución vencidos.", removed);
+        }
+    }
+
+    public int getQueuedJobs() {
+        return executor.getQueue().size();
+    }
+
+    public int getRunningJobs() {
+        return executor.getActiveCount();
+    }
+
+    private static class Job {
+        final String id;
+        final Long programaId;
+        final Long estudianteId;
+        final ExecutionHandle handle;
+        final LocalDateTime fechaCreacion = LocalDateTime.now();
+        volatile Future<?> future;
+        JobStatus status = JobStatus.QUEUED;
+        LocalDateTime fechaInicio;
+        LocalDateTime fechaFin;
+        ProgramaExecutionResultDTO resultado;
+        String error;
+
+        Job(String id, Long programaId, Long estudianteId, ExecutionHandle handle) {
+            this.id = id;
+            this.programaId = programaId;
+            this.estudianteId = estudianteId;
+            this.handle = handle;
+        }
+
+        synchronized void finish(JobStatus status, ProgramaExecutionResultDTO resultado, String error) {
+            if (fechaFin != null) {
+                return; // Ya terminó (por ejemplo, cancelado mientras esperaba)
+            }
+            this.status = status;
+            this.resultado = resultado;
+            this.error = error;
+            this.fechaFin = LocalDateTime.now();
+        }
+
+        synchronized boolean isFinished() {
+            return fechaFin != null;
+        }
+
+        synchronized boolean isFinishedBefore(LocalDateTime limit) {
+            return fechaFin != null && fechaFin.isBefore(limit);
+        }
+
+        synchronized EjecucionJobDTO toDTO() {
+            return new EjecucionJobDTO(id, programaId, status, fechaCreacion, fechaInicio, fechaFin, resultado, error);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.uq.service;
+
+import com.uq.dto.EjecucionJobDTO;
+import com.uq.exception.ExecutionJobNotFoundException;
+import com.uq.exception.ExecutionRejectedException;
+import com.uq.exception.UnauthorizedException;
+import com.uq.execution.ExecutionOutput;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Envía por Server-Sent Events la salida de un trabajo de ejecución mientras se produce.
+ * <p>
+ * Eventos: {@code stdout} y {@code stderr} (una línea cada uno, con la secuencia como id),
+ * {@code aviso} si se descartaron líneas porque el cliente no lee a tiempo y {@code fin} con el
+ * {@link EjecucionJobDTO} final. Cada suscriptor tiene una cola acotada
+ * ({@code execution.stream.buffer-lines}); un cliente lento pierde líneas pero nunca frena la
+ * ejecución ni hace crecer la memoria.
+ */
+@ApplicationScoped
+public class ExecutionStreamService {
+
+    private static final Logger LOGGER = Logger.getLogger(ExecutionStreamService.class.getName());
+
+    private static final long KEEP_ALIVE_SECONDS = 15;
+    private static final long SEND_TIMEOUT_SECONDS = 30;
+
+    @Inject
+    ExecutionJobService executionJobService;
+
+    @ConfigProperty(name = "execution.stream.buffer-lines", defaultValue = "1000")
+    int bufferLines;
+
+    @ConfigProperty(name = "execution.stream.max-subscribers", defaultValue = "200")
+    int maxSubscribers;
+
+    private final AtomicInteger activeSubscribers = new AtomicInteger();
+    private ExecutorService senders;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        senders = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "execution-stream-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+    }
+
+    /**
+     * Comienza a enviar la salida del trabajo al cliente. Retorna de inmediato; el envío
+     * continúa en otro hilo hasta que el trabajo termina o el cliente se desconecta.
+     *
+     * @param afterSequence Última secuencia que el cliente ya recibió (cabecera Last-Event-ID), o 0.
+     * @throws ExecutionRejectedException Si ya hay demasiadas conexiones abiertas.
+     */
+    public void stream(String jobId, Long authenticatedEstudianteId, long afterSequence, SseEventSink sink, Sse sse)
+            throws ExecutionJobNotFoundException, UnauthorizedException, ExecutionRejectedException {
+
+        if (activeSubscribers.incrementAndGet() > maxSubscribers) {
+            activeSubscribers.decrementAndGet();
+            throw new ExecutionRejectedException("Demasiadas conexiones de salida en vivo. Intenta de nuevo más tarde.", 5);
+        }
+        Subscription subscription = new Subscription(jobId, authenticatedEstudianteId, sink, sse);
+        try {
+            executionJobService.subscribe(jobId, authenticatedEstudianteId, subscription, afterSequence);
+            senders.execute(subscription::pump);
+        } catch (RuntimeException e) {
+            activeSubscribers.decrementAndGet();
+            executionJobService.unsubscribe(jobId, subscription);
+            throw e;
+        }
+    }
+
+    public int getActiveSubscribers() {
+        return activeSubscribers.get();
+    }
+
+    private class Subscription implements ExecutionOutput.Listener {
+        private final String jobId;
+        private final Long estudianteId;
+        private final SseEventSink sink;
+        private final Sse sse;
+        // Sin límite propio: el límite se aplica en onLine, así el aviso de cierre siempre cabe
+        private final LinkedBlockingQueue<OutboundSseEvent> queue = new LinkedBlockingQueue<>();
+        private final AtomicLong droppedLines = new AtomicLong();
+        private volatile boolean closed;
+
+        Subscription(String jobId, Long estudianteId, SseEventSink sink, Sse sse) {
+            this.jobId = jobId;
+            this.estudianteId = estudianteId;
+            this.sink = sink;
+            this.sse = sse;
+        }
+
+        @Override
+        public void onLine(long sequence, ExecutionOutput.Channel channel, String line) {
+            if (queue.size() >= bufferLines) {
+                droppedLines.incrementAndGet();
+                return;
+            }
+            queue.offer(sse.newEventBuilder()
+                    .id(String.valueOf(sequence))
+                    .name(channel == ExecutionOutput.Channel.STDOUT ? "stdout" : "stderr")
+                    .data(String.class, line)
+                    .build());
+        }
+
+        @Override
+        public void onClose() {
+            closed = true;
+            queue.offer(sse.newEventBuilder().comment("fin").build()); // Despierta al hilo de envío
+        }
+
+        void pump() {
+            try {
+                while (!sink.isClosed()) {
+                    long dropped = droppedLines.getAndSet(0);
+                    if (dropped > 0) {
+                        send(sse.newEventBuilder()
+                                .name("aviso")
+                                .data(String.class, "Se omitieron " + dropped + " líneas de salida porque el cliente no las leyó a tiempo.")
+                                .build());
+                    }
+                    OutboundSseEvent event = queue.poll(KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+                    if (event == null) {
+                        // Comentario de keep-alive: también detecta clientes desconectados
+                        send(sse.newEventBuilder().comment("ping").build());
+                    } else if (event.getName() != null) {
+                        send(event);
+                    } else if (closed && queue.isEmpty()) {
+                        EjecucionJobDTO job = executionJobService.getJob(jobId, estudianteId);
+                        send(sse.newEventBuilder()
+                                .name("fin")
+                                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                                .data(EjecucionJobDTO.class, job)
+                                .build());
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                LOGGER.log(Level.FINE, "Cliente de salida en vivo desconectado del trabajo {0}", jobId);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error enviando la salida en vivo del trabajo " + jobId, e);
+            } finally {
+                executionJobService.unsubscribe(jobId, this);
+                sink.close();
+                activeSubscribers.decrementAndGet();
+            }
+        }
+
+        // Espera a que el evento se escriba: un cliente lento frena este hilo, no la ejecución
+        private void send(OutboundSseEvent event) throws InterruptedException, ExecutionException, TimeoutException {
+            sink.send(event).toCompletableFuture().get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+}
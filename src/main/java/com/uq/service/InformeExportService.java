@@ -0,0 +1,290 @@
+package com.uq.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uq.dto.ComentarioDTO;
+import com.uq.dto.InformeFiltroDTO;
+import com.uq.dto.InformeProgramaDTO;
+import com.uq.enums.FormatoExportacion;
+import com.uq.repository.ComentarioRepository;
+import com.uq.repository.ProgramaRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportación de los datos del informe de progreso en CSV o NDJSON, un programa por línea.
+ * <p>
+ * Los programas se recorren por lotes de {@code report.export.batch-size} en orden de ID, y cada
+ * lote se pide a partir del último ID del anterior, así que la memoria no depende del total de
+ * programas y ninguna consulta tiene que saltarse las filas ya leídas. Cada lote se escribe y se
+ * envía al cliente antes de consultar el siguiente. Se aplican los mismos filtros que al PDF.
+ */
+@ApplicationScoped
+public class InformeExportService {
+
+    private static final Logger LOGGER = Logger.getLogger(InformeExportService.class.getName());
+
+    private static final String[] CSV_COLUMNS = {"programaId", "titulo", "resuelto", "compartido", "fechaCreacion",
+            "estudianteId", "estudianteNombre", "estudianteEmail", "comentarios"};
+
+    @Inject
+    ProgramaRepository programaRepository;
+
+    @Inject
+    ComentarioRepository comentarioRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "report.export.batch-size", defaultValue = "500")
+    int batchSize;
+
+    /**
+     * Metodo para escribir la exportación en el stream indicado.
+     * Se llama al escribir la respuesta, así que activa su propio contexto para las consultas.
+     *
+     * @param incluirCodigo Si se incluye el código fuente (recortado a maxLineasCodigo si se indicó).
+     * @param comprimir     Si la salida se comprime con gzip.
+     */
+    @ActivateRequestContext
+    public void export(InformeFiltroDTO filtro, FormatoExportacion formato, boolean incluirCodigo, boolean comprimir,
+                       OutputStream output) throws IOException {
+        long start = System.currentTimeMillis();
+        // syncFlush: cada lote llega al cliente aunque el bloque comprimido no esté completo
+        OutputStream target = comprimir ? new GZIPOutputStream(output, 8192, true) : output;
+        RowWriter writer = formato == FormatoExportacion.CSV
+                ? new CsvRowWriter(target, incluirCodigo)
+                : new NdjsonRowWriter(objectMapper.getFactory().createGenerator(target), incluirCodigo);
+
+        int maxLineas = filtro.getMaxLineasCodigo() == null ? 0 : filtro.getMaxLineasCodigo();
+        int offset = filtro.getTamanoPagina() == null ? 0 : (filtro.getPagina() == null ? 0 : filtro.getPagina()) * filtro.getTamanoPagina();
+        int restantes = filtro.getTamanoPagina() == null ? Integer.MAX_VALUE : filtro.getTamanoPagina();
+        Long afterId = null;
+        long total = 0;
+
+        try {
+            writer.begin();
+            while (restantes > 0) {
+                int limit = Math.min(batchSize, restantes);
+                List<InformeProgramaDTO> lote = programaRepository.listForExport(filtro, incluirCodigo, afterId, offset, limit);
+                if (lote.isEmpty()) {
+                    break;
+                }
+                offset = 0;
+                List<Long> ids = new ArrayList<>(lote.size());
+                for (InformeProgramaDTO programa : lote) {
+                    ids.add(programa.getId());
+                }
+                if (formato == FormatoExportacion.CSV) {
+                    Map<Long, Long> conteos = comentarioRepository.countByProgramaIds(ids);
+                    for (InformeProgramaDTO programa : lote) {
+                        writer.write(programa, maxLineas, conteos.getOrDefault(programa.getId(), 0L), Collections.emptyList());
+                    }
+                } else {
+                    Map<Long, List<ComentarioDTO>> comentarios = comentarioRepository.listForReportByProgramaIds(ids);
+                    for (InformeProgramaDTO programa : lote) {
+                        List<ComentarioDTO> delPrograma = comentarios.getOrDefault(programa.getId(), Collections.emptyList());
+                        writer.write(programa, maxLineas, delPrograma.size(), delPrograma);
+                    }
+                }
+                writer.flush();
+
+                total += lote.size();
+                restantes -= lote.size();
+                afterId = lote.get(lote.size() - 1).getId();
+                if (lote.size() < limit) {
+                    break;
+                }
+            }
+            writer.finish();
+            if (target != output) {
+                ((GZIPOutputStream) target).finish();
+            }
+            target.flush();
+        } catch (IOException | RuntimeException e) {
+            // La respuesta ya empezó: el cliente recibe el archivo incompleto
+            LOGGER.log(Level.SEVERE, "Error durante la exportación del informe después de " + total + " programas.", e);
+            throw e;
+        }
+        LOGGER.log(Level.INFO, "Exportación {0} del informe: {1} programas en {2} ms.",
+                new Object[]{formato, total, System.currentTimeMillis() - start});
+    }
+
+    private static String codigoFuente(InformeProgramaDTO programa, int maxLineas) {
+        String codigo = programa.getCodigoFuente();
+        return maxLineas > 0 ? InformeService.limitLines(codigo, maxLineas) : codigo;
+    }
+
+    interface RowWriter {
+        void begin() throws IOException;
+
+        void write(InformeProgramaDTO programa, int maxLineas, long numComentarios, List<ComentarioDTO> comentarios) throws IOException;
+
+        // Envía al cliente lo escrito hasta ahora
+        void flush() throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    // RFC 4180: campos con coma, comillas o saltos de línea van entre comillas; las filas terminan en CRLF.
+    // Los campos que empiezan como una fórmula (=, +, -, @) llevan una comilla simple delante.
+    static final class CsvRowWriter implements RowWriter {
+        private final Writer out;
+        private final boolean incluirCodigo;
+
+        CsvRowWriter(OutputStream output, boolean incluirCodigo) {
+            this.out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            this.incluirCodigo = incluirCodigo;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            for (int i = 0; i < CSV_COLUMNS.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(CSV_COLUMNS[i]);
+            }
+            if (incluirCodigo) {
+                out.write(",codigoFuente");
+            }
+            out.write("\r\n");
+        }
+
+        @Override
+        public void write(InformeProgramaDTO programa, int maxLineas, long numComentarios, List<ComentarioDTO> comentarios) throws IOException {
+            field(programa.getId());
+            out.write(',');
+            field(programa.getTitulo());
+            out.write(',');
+            field(programa.isResuelto());
+            out.write(',');
+            field(programa.isShared());
+            out.write(',');
+            field(programa.getFechaCreacion());
+            out.write(',');
+            field(programa.getEstudianteId());
+            out.write(',');
+            field(programa.getEstudianteNombre());
+            out.write(',');
+            field(programa.getEstudianteEmail());
+            out.write(',');
+            field(numComentarios);
+            if (incluirCodigo) {
+                out.write(',');
+                field(codigoFuente(programa, maxLineas));
+            }
+            out.write("\r\n");
+        }
+
+        private void field(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (startsLikeFormula(text)) {
+                // Una hoja de cálculo evaluaría el texto como fórmula; con la comilla se muestra tal cual
+                text = "'" + text;
+            }
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                out.write(text);
+                return;
+            }
+            out.write('"');
+            out.write(text.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        // Los textos que escriben los estudiantes (título, nombre, código) pueden empezar como una fórmula
+        private static boolean startsLikeFormula(String text) {
+            if (text.isEmpty()) {
+                return false;
+            }
+            char first = text.charAt(0);
+            return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.flush();
+        }
+    }
+
+    // Un objeto JSON por línea, con sus comentarios; las fechas van en formato ISO-8601
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator json;
+        private final boolean incluirCodigo;
+
+        NdjsonRowWriter(JsonGenerator json, boolean incluirCodigo) {
+            this.json = json;
+            this.incluirCodigo = incluirCodigo;
+            // El stream es de la respuesta: lo cierra el servidor
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Sin el espacio que Jackson pone entre valores de nivel superior; cada uno termina en '\n'
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void write(InformeProgramaDTO programa, int maxLineas, long numComentarios, List<ComentarioDTO> comentarios) throws IOException {
+            json.writeStartObject();
+            json.writeObjectField("programaId", programa.getId());
+            json.writeStringField("titulo", programa.getTitulo());
+            json.writeBooleanField("resuelto", programa.isResuelto());
+            json.writeBooleanField("compartido", programa.isShared());
+            json.writeStringField("fechaCreacion", programa.getFechaCreacion() == null ? null : programa.getFechaCreacion().toString());
+            json.writeObjectField("estudianteId", programa.getEstudianteId());
+            json.writeStringField("estudianteNombre", programa.getEstudianteNombre());
+            json.writeStringField("estudianteEmail", programa.getEstudianteEmail());
+            if (incluirCodigo) {
+                json.writeStringField("codigoFuente", codigoFuente(programa, maxLineas));
+            }
+            json.writeArrayFieldStart("comentarios");
+            for (ComentarioDTO comentario : comentarios) {
+                json.writeStartObject();
+                json.writeObjectField("id", comentario.getId());
+                json.writeStringField("fecha", comentario.getFecha() == null ? null : comentario.getFecha().toString());
+                json.writeStringField("profesorNombre", comentario.getProfesorNombre());
+                json.writeStringField("texto", comentario.getTexto());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            json.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.close();
+        }
+    }
+}
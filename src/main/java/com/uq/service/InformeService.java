@@ -1,25 +1,52 @@
 package com.uq.service;
 
 // Imports necesarios para PDFBox
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDStream;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts.FontName;
 
 
-import com.uq.dto.ProgramaDTO;
+import com.uq.dto.InformeFiltroDTO;
+import com.uq.dto.InformeProgramaDTO;
 import com.uq.dto.ComentarioDTO;
-import com.uq.model.Estudiante;
-import com.uq.repository.EstudianteRepository;
+import com.uq.repository.ComentarioRepository;
+import com.uq.repository.ProgramaRepository;
 
 
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -32,15 +59,39 @@ public class InformeService {
     private static final float LINE_HEIGHT_NORMAL = 14.5f;
     private static final float LINE_HEIGHT_CODE = 10f;
 
+    // Programas por consulta de comentarios (tamaño de la lista IN)
+    private static final int REPORT_BATCH_SIZE = 500;
+    // Programas por documento parcial al renderizar en paralelo
+    private static final int PAGES_PER_PART = 25;
+    private static final int MAX_PAGE_SIZE = 5000;
+
+    private static final ReportProgress NO_PROGRESS = (listas, total) -> { };
+
     private static float CONTENT_WIDTH = 0;
 
 
     @Inject
-    ProgramaService programaService;
+    ProgramaRepository programaRepository;
+
+    @Inject ComentarioRepository comentarioRepository;
+
+    @Inject ReportFragmentCache fragmentCache;
+
+    @ConfigProperty(name = "report.pdf.max-main-memory-mb", defaultValue = "16")
+    long maxMainMemoryMb;
 
-    @Inject ComentarioService comentarioService;
+    @ConfigProperty(name = "report.pdf.temp-dir")
+    Optional<String> tempDir;
 
-    @Inject EstudianteRepository estudianteRepository;
+    // 0 = un hilo por procesador
+    @ConfigProperty(name = "report.pdf.render-threads", defaultValue = "0")
+    int renderThreads;
+
+    // Con menos programas se renderiza en el hilo de la solicitud
+    @ConfigProperty(name = "report.pdf.parallel-min-programs", defaultValue = "100")
+    int parallelMinPrograms;
+
+    private volatile ExecutorService renderExecutor;
 
     // Fuentes de PDFBox (cargadas una vez)
     private PDType1Font fontBold;
@@ -57,8 +108,42 @@ public class InformeService {
     }
 
 
-    // Metodo para generar el informe PDF con más detalles
+    // Metodo para generar el informe PDF con más detalles (en memoria; para informes grandes usar streamStudentProgressReport)
     public byte[] generateStudentProgressReport() throws IOException {
+        ReportData data = loadReportPages(new InformeFiltroDTO());
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeReport(data, baos, NO_PROGRESS);
+        return baos.toByteArray();
+    }
+
+    // Metodo para generar el informe PDF en el stream indicado, avisando el avance por página (trabajos de informe)
+    public void writeStudentProgressReport(InformeFiltroDTO filtro, OutputStream output, ReportProgress progress) throws IOException {
+        ReportData data = loadReportPages(filtro);
+        progress.update(0, data.programas().size());
+        writeReport(data, output, progress);
+    }
+
+    /**
+     * Metodo para generar el informe PDF escribiéndolo directamente en la respuesta.
+     * Los datos se consultan aquí, dentro de la solicitud, para que un error todavía se pueda
+     * responder con un código de error; el PDF se arma cuando se escribe la respuesta. Las páginas
+     * se guardan en memoria hasta {@code report.pdf.max-main-memory-mb} y el resto en archivos
+     * temporales, así que el tamaño del informe ya no depende del heap.
+     *
+     * @throws IllegalArgumentException Si el filtro no es válido.
+     */
+    public StreamingOutput streamStudentProgressReport(InformeFiltroDTO filtro) throws IOException {
+        ReportData data = loadReportPages(filtro);
+        return output -> writeReport(data, output, NO_PROGRESS);
+    }
+
+    /**
+     * Metodo para obtener los programas con su estudiante y comentarios.
+     * Son 1 + ceil(programas / REPORT_BATCH_SIZE) consultas en total, sin importar cuántos programas haya:
+     * una para los programas con su estudiante y una por cada lote de comentarios.
+     */
+    private ReportData loadReportPages(InformeFiltroDTO filtro) throws IOException {
+        validateFilter(filtro);
 
         // Verificar que las fuentes se cargaron correctamente
         if (fontBold == null || fontRegular == null || fontItalic == null || fontCode == null) {
@@ -68,9 +153,11 @@ public class InformeService {
 
         LOGGER.info("Generando informe de progreso de estudiantes detallado...");
 
-        List<ProgramaDTO> programas;
+        // Antes de consultar: las páginas renderizadas con estos datos solo se guardan si nada cambió después
+        long cacheVersion = fragmentCache.snapshot();
+        List<InformeProgramaDTO> programas;
         try {
-            programas = programaService.listAllPrograms();
+            programas = programaRepository.listForReport(filtro);
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error al obtener programas para el informe.", e);
             throw new IOException("Error al obtener datos de programas para el informe.", e);
@@ -78,57 +165,97 @@ public class InformeService {
 
         LOGGER.log(Level.INFO, "Obtenidos {0} programas para incluir en el informe.", programas.size());
 
-        try (PDDocument document = new PDDocument()) {
+        // Obtener los comentarios por lotes de programas
+        Set<Long> sinComentarios = new HashSet<>();
+        for (int from = 0; from < programas.size(); from += REPORT_BATCH_SIZE) {
+            List<InformeProgramaDTO> lote = programas.subList(from, Math.min(from + REPORT_BATCH_SIZE, programas.size()));
+            List<Long> ids = new ArrayList<>(lote.size());
+            for (InformeProgramaDTO programa : lote) {
+                ids.add(programa.getId());
+            }
+            try {
+                Map<Long, List<ComentarioDTO>> comentarios = comentarioRepository.listForReportByProgramaIds(ids);
+                for (InformeProgramaDTO programa : lote) {
+                    programa.setComentarios(comentarios.getOrDefault(programa.getId(), Collections.emptyList()));
+                }
+            } catch (Exception e) { // Captura cualquier error al obtener comentarios
+                LOGGER.log(Level.WARNING, "Error al obtener comentarios para los programas {0} a {1}", new Object[]{ids.get(0), ids.get(ids.size() - 1)});
+                // Sus páginas se generan sin comentarios y no se guardan en la caché
+                sinComentarios.addAll(ids);
+            }
+        }
+        int maxLineas = filtro.getMaxLineasCodigo() == null ? 0 : filtro.getMaxLineasCodigo();
+        if (maxLineas > 0) {
+            for (InformeProgramaDTO programa : programas) {
+                programa.setCodigoFuente(limitLines(programa.getCodigoFuente(), maxLineas));
+            }
+        }
+        return new ReportData(programas, cacheVersion, maxLineas, sinComentarios);
+    }
 
-            // Crear la primera página o una página de "no hay datos"
-            if (programas.isEmpty()) {
-                addEmptyReportPage(document, fontBold, fontRegular);
-            } else {
-                // Iterar sobre los programas y añadir una página por cada uno
-                for (ProgramaDTO programa : programas) {
-                    // Obtener información adicional del estudiante
-                    Estudiante estudianteEntity = null; // Usar la entidad Estudiante
-                    String studentName = "Desconocido";
-                    String studentEmail = "N/A";
-
-                    if (programa.getEstudianteId() != null) {
-                        try {
-                            // Usar el repositorio para encontrar la entidad Estudiante
-                            estudianteEntity = estudianteRepository.findById(programa.getEstudianteId());
-
-                            if (estudianteEntity != null) {
-                                studentName = estudianteEntity.getNombre();
-                                studentEmail = estudianteEntity.getEmail();
-                            } else {
-                                LOGGER.log(Level.WARNING, "Estudiante con ID {0} no encontrado para el programa {1}.", new Object[]{programa.getEstudianteId(), programa.getId()});
-                            }
-                        } catch (Exception e) {
-                            LOGGER.log(Level.SEVERE, "Error al obtener datos de estudiante para programa " + programa.getId(), e);
-                            studentName = "Error";
-                            studentEmail = "Error";
-                        }
-                    }
+    /**
+     * Metodo para validar el alcance del informe.
+     *
+     * @throws IllegalArgumentException Si algún valor está fuera de rango.
+     */
+    public static void validateFilter(InformeFiltroDTO filtro) {
+        if (filtro.getDesde() != null && filtro.getHasta() != null && filtro.getDesde().isAfter(filtro.getHasta())) {
+            throw new IllegalArgumentException("La fecha 'desde' no puede ser posterior a 'hasta'.");
+        }
+        if (filtro.getMaxLineasCodigo() != null && filtro.getMaxLineasCodigo() < 1) {
+            throw new IllegalArgumentException("maxLineasCodigo debe ser al menos 1.");
+        }
+        if (filtro.getTamanoPagina() != null && (filtro.getTamanoPagina() < 1 || filtro.getTamanoPagina() > MAX_PAGE_SIZE)) {
+            throw new IllegalArgumentException("tamanoPagina debe estar entre 1 y " + MAX_PAGE_SIZE + ".");
+        }
+        if (filtro.getPagina() != null && (filtro.getPagina() < 0 || filtro.getTamanoPagina() == null)) {
+            throw new IllegalArgumentException("pagina debe ser 0 o mayor y requiere tamanoPagina.");
+        }
+        if (filtro.getEstudianteIds() != null && filtro.getEstudianteIds().size() > REPORT_BATCH_SIZE) {
+            throw new IllegalArgumentException("Se pueden indicar hasta " + REPORT_BATCH_SIZE + " estudiantes.");
+        }
+    }
 
-                    // Obtener comentarios del programa
-                    List<ComentarioDTO> comentarios;
-                    try {
-                        comentarios = comentarioService.listCommentsForProgramNoAuth(programa.getId());
-                    } catch (Exception e) { // Captura cualquier error al obtener comentarios
-                        LOGGER.log(Level.WARNING, "Error al obtener comentarios para el programa {0}", programa.getId());
-                        comentarios = java.util.Collections.emptyList(); // Retornar lista vacía en caso de error
-                    }
+    // Conserva las primeras maxLineas líneas del código e indica cuántas se omitieron
+    static String limitLines(String codigo, int maxLineas) {
+        if (codigo == null) {
+            return null;
+        }
+        int end = -1;
+        for (int i = 0; i < maxLineas; i++) {
+            end = codigo.indexOf('\n', end + 1);
+            if (end < 0) {
+                return codigo;
+            }
+        }
+        long omitidas = codigo.substring(end + 1).lines().count();
+        return omitidas == 0 ? codigo : codigo.substring(0, end) + "\n// ... (" + omitidas + " líneas omitidas)";
+    }
 
-                    // Añadir una nueva página para este programa
-                    addProgramPage(document, programa, studentName, studentEmail, comentarios, fontBold, fontRegular, fontItalic, fontCode);
+    // Metodo para armar el PDF y escribirlo en el stream indicado
+    private void writeReport(ReportData data, OutputStream output, ReportProgress progress) throws IOException {
+        List<InformeProgramaDTO> pages = data.programas();
+        long cachedBefore = fragmentCache.getHits();
+        try (PDDocument document = new PDDocument(memoryUsageSetting(maxMainMemoryMb * 1024L * 1024L).streamCache)) {
+
+            // Crear la primera página o una página de "no hay datos"
+            if (pages.isEmpty()) {
+                addEmptyReportPage(document, fontBold, fontRegular);
+            } else if (pages.size() < parallelMinPrograms || renderThreads() < 2) {
+                // Añadir las páginas de cada programa
+                for (int i = 0; i < pages.size(); i++) {
+                    addProgramPage(document, pages.get(i), data, fontBold, fontRegular, fontItalic, fontCode);
+                    progress.update(i + 1, pages.size());
                 }
+            } else {
+                addProgramPagesInParallel(document, data, progress);
             }
 
-            // 3. Guardar el documento en un ByteArrayOutputStream
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            document.save(baos);
+            // Guardar el documento directamente en el stream de salida
+            document.save(output);
 
-            LOGGER.info("Informe PDF generado exitosamente.");
-            return baos.toByteArray();
+            LOGGER.log(Level.INFO, "Informe PDF generado exitosamente ({0} páginas, aprox. {1} reutilizadas).",
+                    new Object[]{document.getNumberOfPages(), fragmentCache.getHits() - cachedBefore});
 
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, "Error de I/O al generar el informe PDF.", e);
@@ -140,6 +267,117 @@ public class InformeService {
         }
     }
 
+    /**
+     * Metodo para renderizar las páginas en paralelo.
+     * Cada parte de PAGES_PER_PART programas se renderiza en un documento propio en el pool de
+     * report.pdf.render-threads hilos, y las partes se añaden al documento final en orden, así que
+     * el resultado es el mismo que renderizando una por una. Solo hay 2 partes por hilo pendientes
+     * de añadir a la vez, para no tener todo el informe abierto en documentos parciales.
+     */
+    private void addProgramPagesInParallel(PDDocument document, ReportData data, ReportProgress progress) throws IOException {
+        List<InformeProgramaDTO> pages = data.programas();
+        int threads = renderThreads();
+        int window = 2 * threads;
+        long partMemoryBytes = Math.max(1024L * 1024L, maxMainMemoryMb * 1024L * 1024L / window);
+        PDFMergerUtility merger = new PDFMergerUtility();
+        ArrayDeque<Future<PDDocument>> pending = new ArrayDeque<>();
+        int nextPart = 0;
+        int listos = 0;
+
+        try {
+            while (nextPart < pages.size() || !pending.isEmpty()) {
+                while (nextPart < pages.size() && pending.size() < window) {
+                    List<InformeProgramaDTO> part = pages.subList(nextPart, Math.min(nextPart + PAGES_PER_PART, pages.size()));
+                    pending.add(renderExecutor().submit(() -> renderPart(part, data, partMemoryBytes)));
+                    nextPart += part.size();
+                }
+                try (PDDocument partDocument = awaitPart(pending.poll())) {
+                    // El contenido se copia al documento final, así que la parte se puede cerrar enseguida
+                    merger.appendDocument(document, partDocument);
+                }
+                // Las partes son consecutivas y de PAGES_PER_PART programas, salvo la última
+                listos = Math.min(listos + PAGES_PER_PART, pages.size());
+                progress.update(listos, pages.size());
+            }
+        } finally {
+            // Si algo falló, se descartan las partes que quedaron pendientes
+            for (Future<PDDocument> future : pending) {
+                if (!future.cancel(true)) {
+                    try {
+                        future.get().close();
+                    } catch (Exception ignored) {
+                        // La parte falló o ya se cerró
+                    }
+                }
+            }
+        }
+    }
+
+    // Metodo para renderizar una parte del informe en su propio documento (con sus propias fuentes: PDFBox no es seguro entre hilos)
+    private PDDocument renderPart(List<InformeProgramaDTO> part, ReportData data, long memoryBytes) throws IOException {
+        PDType1Font partBold = new PDType1Font(FontName.HELVETICA_BOLD);
+        PDType1Font partRegular = new PDType1Font(FontName.HELVETICA);
+        PDType1Font partItalic = new PDType1Font(FontName.HELVETICA_OBLIQUE);
+        PDType1Font partCode = new PDType1Font(FontName.COURIER);
+
+        PDDocument partDocument = new PDDocument(memoryUsageSetting(memoryBytes).streamCache);
+        try {
+            for (InformeProgramaDTO programa : part) {
+                addProgramPage(partDocument, programa, data, partBold, partRegular, partItalic, partCode);
+            }
+            return partDocument;
+        } catch (IOException | RuntimeException e) {
+            partDocument.close();
+            throw e;
+        }
+    }
+
+    private static PDDocument awaitPart(Future<PDDocument> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Generación del informe interrumpida.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Error al renderizar páginas del informe: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private int renderThreads() {
+        return renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    private ExecutorService renderExecutor() {
+        if (renderExecutor == null) {
+            synchronized (this) {
+                if (renderExecutor == null) {
+                    AtomicInteger counter = new AtomicInteger();
+                    renderExecutor = Executors.newFixedThreadPool(renderThreads(), r -> {
+                        Thread t = new Thread(r, "report-render-" + counter.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+                }
+            }
+        }
+        return renderExecutor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (renderExecutor != null) renderExecutor.shutdownNow();
+    }
+
+    // Memoria principal acotada; lo que no cabe va a archivos temporales que se borran al cerrar el documento
+    private MemoryUsageSetting memoryUsageSetting(long maxMainMemoryBytes) {
+        MemoryUsageSetting setting = MemoryUsageSetting.setupMixed(maxMainMemoryBytes);
+        tempDir.filter(dir -> !dir.isBlank()).ifPresent(dir -> setting.setTempDir(new File(dir)));
+        return setting;
+    }
+
     /**
      * Añade una página al documento indicando que no hay programas disponibles
      */
@@ -166,198 +404,308 @@ public class InformeService {
     }
 
     /**
-     * Añade una página al documento con la información detallada de un programa
+     * Añade las páginas de un programa, reutilizando las ya renderizadas si el programa no cambió
      */
-    private void addProgramPage(PDDocument document, ProgramaDTO programa, String studentName, String studentEmail,
-                                List<ComentarioDTO> comentarios, PDType1Font fontBold, PDType1Font fontRegular,
-                                PDType1Font fontItalic, PDType1Font fontCode) throws IOException {
+    private void addProgramPage(PDDocument document, InformeProgramaDTO programa, ReportData data, PDType1Font fontBold,
+                                PDType1Font fontRegular, PDType1Font fontItalic, PDType1Font fontCode) throws IOException {
+        // Con un límite de líneas las páginas son distintas, así que se guardan aparte
+        List<ReportFragmentCache.Fragment> fragments = fragmentCache.get(programa.getId(), data.maxLineas());
+        if (fragments != null) {
+            for (ReportFragmentCache.Fragment fragment : fragments) {
+                addPageFromFragment(document, fragment, fontBold, fontRegular, fontItalic, fontCode);
+            }
+            return;
+        }
+        boolean comentariosFallidos = data.sinComentarios().contains(programa.getId());
+        List<PDPage> pages = renderProgramPages(document, programa, comentariosFallidos, fontBold, fontRegular, fontItalic, fontCode);
+        if (comentariosFallidos) {
+            return;
+        }
+        fragmentCache.put(programa.getId(), data.maxLineas(), data.cacheVersion(), toFragments(pages));
+    }
+
+    // Metodo para guardar el contenido de las páginas de un programa (null si alguna no se puede reutilizar)
+    private static List<ReportFragmentCache.Fragment> toFragments(List<PDPage> pages) throws IOException {
+        List<ReportFragmentCache.Fragment> fragments = new ArrayList<>(pages.size());
+        for (PDPage page : pages) {
+            ReportFragmentCache.Fragment fragment = toFragment(page);
+            if (fragment == null) {
+                return null;
+            }
+            fragments.add(fragment);
+        }
+        return fragments;
+    }
+
+    // Metodo para guardar el contenido de una página ya renderizada (null si no se puede reutilizar)
+    private static ReportFragmentCache.Fragment toFragment(PDPage page) throws IOException {
+        COSBase contents = page.getCOSObject().getDictionaryObject(COSName.CONTENTS);
+        if (!(contents instanceof COSStream stream)) {
+            return null;
+        }
+        COSBase filter = stream.getDictionaryObject(COSName.FILTER);
+        if (filter != null && !COSName.FLATE_DECODE.equals(filter)) {
+            return null;
+        }
+        byte[] content;
+        try (InputStream input = stream.createRawInputStream()) {
+            content = input.readAllBytes();
+        }
+        Map<String, String> fonts = new HashMap<>();
+        PDResources resources = page.getResources();
+        for (COSName name : resources.getFontNames()) {
+            fonts.put(name.getName(), resources.getFont(name).getName());
+        }
+        return new ReportFragmentCache.Fragment(content, filter != null, fonts);
+    }
 
+    // Metodo para añadir una página con el contenido ya renderizado, sin volver a calcular el texto
+    private static void addPageFromFragment(PDDocument document, ReportFragmentCache.Fragment fragment,
+                                            PDType1Font... availableFonts) throws IOException {
         PDPage page = new PDPage();
+        PDResources resources = new PDResources();
+        for (Map.Entry<String, String> font : fragment.getFonts().entrySet()) {
+            resources.put(COSName.getPDFName(font.getKey()), fontNamed(font.getValue(), availableFonts));
+        }
+        page.setResources(resources);
+
+        COSStream stream = document.getDocument().createCOSStream();
+        try (OutputStream output = stream.createRawOutputStream()) {
+            output.write(fragment.getContent());
+        }
+        if (fragment.isCompressed()) {
+            stream.setItem(COSName.FILTER, COSName.FLATE_DECODE);
+        }
+        page.setContents(new PDStream(stream));
         document.addPage(page);
-        float pageHeight = page.getMediaBox().getHeight();
-        float pageActualWidth = page.getMediaBox().getWidth();
-        CONTENT_WIDTH = pageActualWidth - 2 * MARGIN;
+    }
 
-        float yPosition = pageHeight - MARGIN;
+    private static PDType1Font fontNamed(String name, PDType1Font... fonts) throws IOException {
+        for (PDType1Font font : fonts) {
+            if (font.getName().equals(name)) {
+                return font;
+            }
+        }
+        throw new IOException("Fuente desconocida en una página guardada del informe: " + name);
+    }
 
+    /**
+     * Renderiza en páginas nuevas la información detallada de un programa.
+     * El texto continúa en otra página cuando la actual se llena.
+     */
+    private List<PDPage> renderProgramPages(PDDocument document, InformeProgramaDTO programa, boolean comentariosFallidos, PDType1Font fontBold, PDType1Font fontRegular,
+                                            PDType1Font fontItalic, PDType1Font fontCode) throws IOException {
 
-        try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
-            contentStream.beginText();
-            contentStream.setLeading(LINE_HEIGHT_NORMAL);
+        String studentName = programa.getEstudianteNombre() != null ? programa.getEstudianteNombre() : "Desconocido";
+        String studentEmail = programa.getEstudianteEmail() != null ? programa.getEstudianteEmail() : "N/A";
+        List<ComentarioDTO> comentarios = programa.getComentarios();
 
-            contentStream.setFont(fontBold, 8);
-            contentStream.newLineAtOffset(MARGIN, yPosition);
-            contentStream.showText("Informe de Progreso de Estudiantes - Programa ID: " + programa.getId());
-            yPosition -= LINE_HEIGHT_NORMAL;
-            contentStream.newLine();
+        try (PageWriter writer = new PageWriter(document, fontBold, "Informe de Progreso de Estudiantes - Programa ID: " + programa.getId() + " (continuación)")) {
+            CONTENT_WIDTH = writer.getContentWidth();
+            writer.setLeading(LINE_HEIGHT_NORMAL);
+
+            writer.setFont(fontBold, 8);
+            writer.showText("Informe de Progreso de Estudiantes - Programa ID: " + programa.getId());
+            writer.newLine();
 
 
             // Información del programa
-            contentStream.setFont(fontBold, 11);
-            yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine(); contentStream.showText("Información del Programa");
-            contentStream.setFont(fontRegular, 10);
-            yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine(); contentStream.showText("ID: " + programa.getId());
-            yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine(); contentStream.showText("Título: " + programa.getTitulo());
-            yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine(); contentStream.showText("Estado: " + (programa.isResuelto() ? "Resuelto" : "No resuelto"));
-            yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine(); contentStream.showText("Compartido: " + (programa.isShared() ? "Sí" : "No"));
-            yPosition -= LINE_HEIGHT_NORMAL * 2; contentStream.newLine(); contentStream.newLine();
+            writer.setFont(fontBold, 11);
+            writer.newLine(); writer.showText("Información del Programa");
+            writer.setFont(fontRegular, 10);
+            writer.newLine(); writer.showText("ID: " + programa.getId());
+            writer.newLine(); writer.showText("Título: " + programa.getTitulo());
+            writer.newLine(); writer.showText("Estado: " + (programa.isResuelto() ? "Resuelto" : "No resuelto"));
+            writer.newLine(); writer.showText("Compartido: " + (programa.isShared() ? "Sí" : "No"));
+            writer.newLine(); writer.newLine();
 
 
             // Información del estudiante
-            contentStream.setFont(fontBold, 11);
-            yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine(); contentStream.showText("Información del Estudiante");
-            contentStream.setFont(fontRegular, 10);
-            yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine(); contentStream.showText("ID: " + programa.getEstudianteId());
-            yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine(); contentStream.showText("Nombre: " + studentName);
-            yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine(); contentStream.showText("Email: " + studentEmail);
-            yPosition -= LINE_HEIGHT_NORMAL * 2; contentStream.newLine(); contentStream.newLine();
+            writer.setFont(fontBold, 11);
+            writer.newLine(); writer.showText("Información del Estudiante");
+            writer.setFont(fontRegular, 10);
+            writer.newLine(); writer.showText("ID: " + programa.getEstudianteId());
+            writer.newLine(); writer.showText("Nombre: " + studentName);
+            writer.newLine(); writer.showText("Email: " + studentEmail);
+            writer.newLine(); writer.newLine();
 
             // Código del programa
-            contentStream.setFont(fontBold, 11);
-            yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine(); contentStream.showText("Código del Programa");
-            contentStream.setFont(fontCode, 9);
-            contentStream.setLeading(LINE_HEIGHT_CODE);
-            yPosition -= LINE_HEIGHT_CODE; contentStream.newLine();
+            writer.setFont(fontBold, 11);
+            writer.newLine(); writer.showText("Código del Programa");
+            writer.setFont(fontCode, 9);
+            writer.setLeading(LINE_HEIGHT_CODE);
+            writer.newLine();
 
             String codigoFuente = programa.getCodigoFuente();
             if (codigoFuente != null && !codigoFuente.isEmpty()) {
-                yPosition = wrapAndShowText(contentStream, codigoFuente, yPosition, pageHeight, pageActualWidth, MARGIN, LINE_HEIGHT_CODE, fontCode);
+                // El código conserva sus líneas y sangría
+                writer.showLines(TextLayout.of(fontCode).wrapPreformatted(codigoFuente, 9, writer.getContentWidth()));
             } else {
-                contentStream.showText("No hay código disponible.");
-                yPosition -= LINE_HEIGHT_CODE; contentStream.newLine();
+                writer.showText("No hay código disponible.");
+                writer.newLine();
             }
-            yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine();
-            contentStream.setFont(fontRegular, 10);
-            contentStream.setLeading(LINE_HEIGHT_NORMAL);
+            writer.newLine();
+            writer.setFont(fontRegular, 10);
+            writer.setLeading(LINE_HEIGHT_NORMAL);
 
 
             // Comentarios
-            contentStream.setFont(fontBold, 11);
-            yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine(); contentStream.showText("Comentarios");
-
-            if (comentarios.isEmpty()) {
-                contentStream.setFont(fontItalic, 10);
-                yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine(); contentStream.showText("No hay comentarios para este programa.");
+            writer.setFont(fontBold, 11);
+            writer.newLine(); writer.showText("Comentarios");
+
+            if (comentariosFallidos) {
+                writer.setFont(fontItalic, 10);
+                writer.newLine(); writer.showText("No se pudieron obtener los comentarios de este programa.");
+            } else if (comentarios.isEmpty()) {
+                writer.setFont(fontItalic, 10);
+                writer.newLine(); writer.showText("No hay comentarios para este programa.");
             } else {
-                contentStream.setFont(fontRegular, 10);
-                yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine();
+                writer.setFont(fontRegular, 10);
+                writer.newLine();
 
                 for (int i = 0; i < comentarios.size(); i++) {
                     ComentarioDTO comentario = comentarios.get(i);
 
-                    contentStream.setFont(fontBold, 10);
-                    yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine(); contentStream.showText("Comentario #" + (i+1) + " por " + comentario.getProfesorNombre());
+                    writer.setFont(fontBold, 10);
+                    writer.newLine(); writer.showText("Comentario #" + (i+1) + " por " + comentario.getProfesorNombre());
 
-                    contentStream.setFont(fontRegular, 10);
-                    yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine(); contentStream.showText("Fecha: " + comentario.getFecha()); // Puedes formatear la fecha
+                    writer.setFont(fontRegular, 10);
+                    writer.newLine(); writer.showText("Fecha: " + comentario.getFecha()); // Puedes formatear la fecha
 
-                    contentStream.setFont(fontItalic, 10);
-                    yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine(); contentStream.showText("Comentario:");
-                    yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine();
+                    writer.setFont(fontItalic, 10);
+                    writer.newLine(); writer.showText("Comentario:");
+                    writer.newLine();
 
 
                     if (comentario.getTexto() != null && !comentario.getTexto().isEmpty()) {
-                        // Usamos el método mejorado para mostrar el texto del comentario como párrafo continuo
-                        yPosition = wrapAndShowTextAsFlowingParagraph(contentStream, comentario.getTexto(), yPosition, pageHeight, pageActualWidth, MARGIN + 10, LINE_HEIGHT_NORMAL, fontItalic);
+                        // El texto del comentario se muestra como párrafo continuo
+                        writer.showLines(TextLayout.of(fontItalic).wrapParagraph(comentario.getTexto(), 10, writer.getContentWidth() - 2 * 10));
                     } else {
-                        contentStream.showText("(Comentario vacío)");
-                        yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine();
+                        writer.showText("(Comentario vacío)");
+                        writer.newLine();
                     }
-                    yPosition -= LINE_HEIGHT_NORMAL; contentStream.newLine();
+                    writer.newLine();
                 }
             }
-
-            contentStream.endText();
-
+            return writer.getPages();
         }
     }
 
     /**
-     * Método original para mostrar texto (utilizado para código fuente)
+     * Escribe las líneas de una sección del informe y abre otra página cuando la actual se llena.
+     * Guarda la fuente y el interlineado actuales para retomarlos en la página nueva, que empieza con
+     * un encabezado. La página siguiente solo se abre al escribir, así que no quedan páginas vacías.
      */
-    private float wrapAndShowText(PDPageContentStream contentStream, String text, float startY, float pageHeight, float pageWidth, float margin, float leading, PDType1Font font) throws IOException {
-        float currentY = startY;
-        int fontSize = (int) font.getFontDescriptor().getFontBoundingBox().getHeight() / 1000;
-        float contentWidth = pageWidth - 2 * margin;
-
-        List<String> lines = new java.util.ArrayList<>();
-        String remainingText = text;
-
-        String[] words = remainingText.split("\\s+");
-        StringBuilder currentLine = new StringBuilder();
-
-        for (String word : words) {
-            if (!currentLine.toString().isEmpty()) {
-                float size = font.getStringWidth(currentLine.toString() + " " + word) / 1000 * font.getFontDescriptor().getCapHeight();
-                if (size > contentWidth) {
-                    lines.add(currentLine.toString());
-                    currentLine = new StringBuilder(word);
-                } else {
-                    currentLine.append(" ").append(word);
-                }
-            } else {
-                currentLine.append(word);
+    private static final class PageWriter implements AutoCloseable {
+        private static final float HEADER_FONT_SIZE = 8;
+
+        private final PDDocument document;
+        private final PDType1Font headerFont;
+        private final String continuationHeader;
+        private final List<PDPage> pages = new ArrayList<>();
+        private PDPageContentStream contentStream;
+        private float contentWidth;
+        private float yPosition;
+        private PDType1Font font;
+        private float fontSize;
+        private TextLayout layout;
+        private float leading;
+
+        PageWriter(PDDocument document, PDType1Font headerFont, String continuationHeader) throws IOException {
+            this.document = document;
+            this.headerFont = headerFont;
+            this.continuationHeader = continuationHeader;
+            openPage();
+        }
+
+        private void openPage() throws IOException {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            pages.add(page);
+            contentWidth = page.getMediaBox().getWidth() - 2 * MARGIN;
+            yPosition = page.getMediaBox().getHeight() - MARGIN;
+
+            contentStream = new PDPageContentStream(document, page);
+            contentStream.beginText();
+            contentStream.newLineAtOffset(MARGIN, yPosition);
+            if (font != null) {
+                contentStream.setLeading(LINE_HEIGHT_NORMAL);
+                contentStream.setFont(headerFont, HEADER_FONT_SIZE);
+                contentStream.showText(TextLayout.of(headerFont).sanitize(continuationHeader));
+                contentStream.newLine();
+                contentStream.newLine();
+                yPosition -= 2 * LINE_HEIGHT_NORMAL;
+                contentStream.setFont(font, fontSize);
             }
+            contentStream.setLeading(leading);
         }
-        if (currentLine.length() > 0) {
-            lines.add(currentLine.toString());
+
+        void setFont(PDType1Font font, float fontSize) throws IOException {
+            this.font = font;
+            this.fontSize = fontSize;
+            this.layout = TextLayout.of(font);
+            contentStream.setFont(font, fontSize);
         }
 
+        void setLeading(float leading) throws IOException {
+            this.leading = leading;
+            contentStream.setLeading(leading);
+        }
 
-        for (String line : lines) {
-            contentStream.showText(line);
-            currentY -= leading;
-            contentStream.newLine();
+        // Baja una línea; si ya no hay espacio, la página siguiente se abre con el próximo texto
+        void newLine() throws IOException {
+            yPosition -= leading;
+            if (yPosition >= MARGIN) {
+                contentStream.newLine();
+            }
         }
 
-        return currentY;
-    }
+        void showText(String text) throws IOException {
+            if (yPosition < MARGIN) {
+                closePage();
+                openPage();
+            }
+            contentStream.showText(layout.sanitize(text));
+        }
 
-    /**
-     * Metodo para mostrar texto como párrafo continuo (utilizado para comentarios)
-     */
-    private float wrapAndShowTextAsFlowingParagraph(PDPageContentStream contentStream, String text, float startY, float pageHeight, float pageWidth, float margin, float leading, PDType1Font font) throws IOException {
-        float currentY = startY;
-        float contentWidth = pageWidth - 2 * margin;
-
-        // Primero procesamos el texto para reemplazar múltiples saltos de línea con espacios
-        // y preservar solo los saltos de línea necesarios para párrafos
-        String processedText = text.replaceAll("\\s*\\n\\s*", " ").trim();
-
-        // Dividimos las palabras para procesamiento
-        String[] words = processedText.split("\\s+");
-        StringBuilder currentLine = new StringBuilder();
-
-        for (String word : words) {
-            // Si la línea actual está vacía, comenzamos con esta palabra
-            if (currentLine.length() == 0) {
-                currentLine.append(word);
-                continue;
+        // Escribe cada línea y baja a la siguiente
+        void showLines(List<String> lines) throws IOException {
+            for (String line : lines) {
+                showText(line);
+                newLine();
             }
+        }
 
-            // Verificamos si añadir esta palabra excedería el ancho de contenido
-            String testLine = currentLine + " " + word;
-            float lineWidth = font.getStringWidth(testLine) / 1000 * 10; // 10 es un factor aproximado para la conversión
+        float getContentWidth() {
+            return contentWidth;
+        }
 
-            // Si excede el ancho disponible, mostramos la línea actual y comenzamos una nueva
-            if (lineWidth > contentWidth) {
-                contentStream.showText(currentLine.toString());
-                currentY -= leading;
-                contentStream.newLine();
-                currentLine = new StringBuilder(word);
-            } else {
-                // Si no excede, añadimos la palabra a la línea actual
-                currentLine.append(" ").append(word);
-            }
+        List<PDPage> getPages() {
+            return pages;
         }
 
-        // Mostramos la última línea si queda algo
-        if (currentLine.length() > 0) {
-            contentStream.showText(currentLine.toString());
-            currentY -= leading;
-            contentStream.newLine();
+        private void closePage() throws IOException {
+            contentStream.endText();
+            contentStream.close();
         }
 
-        return currentY;
+        @Override
+        public void close() throws IOException {
+            closePage();
+        }
+    }
+
+    // Programas del informe, la versión de la caché de páginas al consultarlos, el límite de líneas de código (0 = sin límite)
+    // y los programas cuyos comentarios no se pudieron consultar
+    private record ReportData(List<InformeProgramaDTO> programas, long cacheVersion, int maxLineas, Set<Long> sinComentarios) {
+    }
+
+    /**
+     * Avance de la generación de un informe: programas ya renderizados sobre el total
+     * (un programa con mucho código o comentarios ocupa varias páginas).
+     */
+    @FunctionalInterface
+    public interface ReportProgress {
+        void update(int paginasListas, int paginasTotales);
     }
-}
\ No newline at end of file
+}
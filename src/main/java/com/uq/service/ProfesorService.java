@@ -60,6 +60,9 @@ public class ProfesorService {
     @Inject
     ProgramaMapper programaMapper;
 
+    @Inject
+    ReportFragmentCache reportFragmentCache;
+
 
     public String login(String email, String clave) throws UserNotFoundException, InvalidCredentialsException {
         Optional<Profesor> profesorOptional = profesorRepository.findByEmail(email);
@@ -95,7 +98,7 @@ public class ProfesorService {
         if (profesor.getContrasena() != null && !profesor.getContrasena().isEmpty()) {
             existingUser.setContrasena(hashPassword(profesor.getContrasena()));
         }
-
+        reportFragmentCache.invalidateAll(); // El nombre aparece en los comentarios del informe
 
         return profesorMapper.toResponse(existingUser);
     }
@@ -118,7 +121,7 @@ public class ProfesorService {
         if (profesor.getContrasena() != null && !profesor.getContrasena().isEmpty()) {
             existingUser.setContrasena(hashPassword(profesor.getContrasena()));
         }
-
+        reportFragmentCache.invalidateAll(); // El nombre aparece en los comentarios del informe
 
         return profesorMapper.toResponse(existingUser);
     }
@@ -130,6 +133,7 @@ public class ProfesorService {
             throw new UserNotFoundException("Usuario no encontrado.");
         }
         profesorRepository.delete(existingUser);
+        reportFragmentCache.invalidateAll();
     }
 
 
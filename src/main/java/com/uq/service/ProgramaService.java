@@ -1,39 +1,39 @@
 package com.uq.service;
 
+import com.uq.dto.DiagnosticoDTO;
+import com.uq.dto.DiagnosticosResultDTO;
 import com.uq.dto.ProgramaDTO;
 import com.uq.dto.ProgramaExecutionResultDTO;
+import com.uq.exception.ExecutionRejectedException;
 import com.uq.exception.ProgramExecutionException;
 import com.uq.exception.ProgramNotFoundException;
 import com.uq.exception.UnauthorizedException;
 import com.uq.exception.UserNotFoundException;
+import com.uq.execution.CompilationDiagnostic;
+import com.uq.execution.ExecutionHandle;
+import com.uq.execution.ExecutionScheduler;
+import com.uq.execution.ProgramExecutor;
+import com.uq.execution.ResultCache;
+import com.uq.execution.SourceCheckResult;
+import com.uq.execution.SourceChecker;
 import com.uq.mapper.ProgramaMapper;
 import com.uq.model.Estudiante;
 import com.uq.model.Programa;
+import com.uq.repository.CasoPruebaRepository;
 import com.uq.repository.EstudianteRepository;
 import com.uq.repository.ProgramaRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
-import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Stream;
 
 
 @ApplicationScoped
@@ -47,12 +47,34 @@ public class ProgramaService {
     @Inject
     EstudianteRepository estudianteRepository;
 
+    @Inject
+    EjecucionService ejecucionService;
+
+    @Inject
+    CasoPruebaRepository casoPruebaRepository;
+
     @Inject
     ProgramaMapper programaMapper;
 
+    @Inject
+    ProgramExecutor programExecutor;
+
+    @Inject
+    ExecutionScheduler executionScheduler;
+
+    @Inject
+    SourceChecker sourceChecker;
+
+    @Inject
+    ResultCache resultCache;
+
+    @Inject
+    ReportFragmentCache reportFragmentCache;
+
+    @Inject
+    ProgressCounters progressCounters;
+
     private static final int VERIFICATION_CODE_VALIDITY_MINUTES = 15;
-    private static final int EXECUTION_TIMEOUT_SECONDS = 10;
-    private static final String TEMP_DIR_PREFIX = "java_exec_";
 
 
     @Transactional
@@ -68,9 +90,10 @@ public class ProgramaService {
         programa.setEstudiante(estudiante);
         programa.setResuelto(false);
         programa.setShared(false);
-
+        programa.setFechaCreacion(LocalDateTime.now());
 
         programaRepository.persist(programa);
+        progressCounters.programSaved(programa);
         LOGGER.log(Level.INFO, "Programa creado con ID {0} para estudiante {1}", new Object[]{programa.getId(), estudianteId});
 
         return programaMapper.toDTO(programa);
@@ -108,7 +131,10 @@ public class ProgramaService {
         LOGGER.log(Level.INFO, "Acceso autorizado al programa {0} para estudiante {1}", new Object[]{programaId, authenticatedEstudianteId});
 
 
-        return programaMapper.toDTO(programa);
+        ProgramaDTO dto = programaMapper.toDTO(programa);
+        // Último resultado guardado: el estudiante puede volver a ver su salida sin ejecutar de nuevo
+        dto.setUltimaEjecucion(ejecucionService.findLatest(programaId, programa.getCodigoFuente()));
+        return dto;
     }
 
     @Transactional
@@ -126,7 +152,11 @@ public class ProgramaService {
             throw new UnauthorizedException("No tienes permiso para actualizar este programa.");
         }
 
+        String codigoAnterior = existingPrograma.getCodigoFuente();
         programaMapper.updateEntityFromDto(updatedProgramaDTO, existingPrograma);
+        invalidateResultIfChanged(codigoAnterior, existingPrograma.getCodigoFuente());
+        reportFragmentCache.invalidate(programaId);
+        progressCounters.programSaved(existingPrograma); // El DTO también trae resuelto y compartido
 
         LOGGER.log(Level.INFO, "Programa actualizado (completo) con ID {0} por estudiante {1}", new Object[]{programaId, authenticatedEstudianteId});
         return programaMapper.toDTO(existingPrograma);
@@ -149,7 +179,11 @@ public class ProgramaService {
 
         if (partialProgramaDTO.getTitulo() != null) existingPrograma.setTitulo(partialProgramaDTO.getTitulo());
         if (partialProgramaDTO.getDescripcion() != null) existingPrograma.setDescripcion(partialProgramaDTO.getDescripcion());
-        if (partialProgramaDTO.getCodigoFuente() != null) existingPrograma.setCodigoFuente(partialProgramaDTO.getCodigoFuente());
+        if (partialProgramaDTO.getCodigoFuente() != null) {
+            invalidateResultIfChanged(existingPrograma.getCodigoFuente(), partialProgramaDTO.getCodigoFuente());
+            existingPrograma.setCodigoFuente(partialProgramaDTO.getCodigoFuente());
+        }
+        reportFragmentCache.invalidate(programaId);
 
         LOGGER.log(Level.INFO, "Programa parcialmente actualizado con ID {0} por estudiante {1}", new Object[]{programaId, authenticatedEstudianteId});
         return programaMapper.toDTO(existingPrograma);
@@ -171,7 +205,12 @@ public class ProgramaService {
             throw new UnauthorizedException("No tienes permiso para eliminar este programa.");
         }
 
+        ejecucionService.deleteByProgramaId(programaId);
+        casoPruebaRepository.deleteByProgramaId(programaId);
+        resultCache.invalidate(existingPrograma.getCodigoFuente());
         programaRepository.delete(existingPrograma);
+        reportFragmentCache.invalidate(programaId);
+        progressCounters.programDeleted(programaId);
         LOGGER.log(Level.INFO, "Programa eliminado con ID {0} por estudiante {1}", new Object[]{programaId, authenticatedEstudianteId});
     }
 
@@ -191,6 +230,8 @@ public class ProgramaService {
         }
 
         existingPrograma.setShared(sharedStatus);
+        reportFragmentCache.invalidate(programaId);
+        progressCounters.programSaved(existingPrograma);
 
         LOGGER.log(Level.INFO, "Estado de compartir del programa {0} actualizado a {1} por estudiante {2}", new Object[]{programaId, sharedStatus, authenticatedEstudianteId});
         return programaMapper.toDTO(existingPrograma);
@@ -198,151 +239,91 @@ public class ProgramaService {
 
     // Metodo para ejecutar un programa
     public ProgramaExecutionResultDTO executeProgram(Long programaId, Long authenticatedEstudianteId)
-            throws ProgramNotFoundException, UnauthorizedException, ProgramExecutionException {
+            throws ProgramNotFoundException, UnauthorizedException, ProgramExecutionException, ExecutionRejectedException {
 
-        Programa programa = programaRepository.findById(programaId);
+        String codigoFuente = getExecutableSource(programaId, authenticatedEstudianteId);
 
-        if (programa == null) {
-            throw new ProgramNotFoundException("Programa no encontrado con ID: " + programaId);
+        // --- Proceso de Compilación y Ejecución (con cupo del planificador) ---
+        // Un código determinista ya ejecutado se sirve desde la caché de resultados, sin pedir cupo
+        ExecutionHandle handle = programExecutor.newHandle();
+        try {
+            return resultCache.execute(codigoFuente, handle, () -> {
+                try (ExecutionScheduler.Permit permit = executionScheduler.acquire(authenticatedEstudianteId, handle)) {
+                    return programExecutor.execute(codigoFuente, handle);
+                }
+            });
+        } finally {
+            ejecucionService.recordQuietly(programaId, codigoFuente, handle);
         }
+    }
 
-        // Lógica de Autorización: Solo el dueño puede ejecutar su programa
-        if (programa.getEstudiante() == null || !programa.getEstudiante().getId().equals(authenticatedEstudianteId)) {
-            LOGGER.log(Level.WARNING, "Intento de ejecución no autorizada del programa {0} por estudiante {1}", new Object[]{programaId, authenticatedEstudianteId});
-            throw new UnauthorizedException("No tienes permiso para ejecutar este programa.");
-        }
-        LOGGER.log(Level.INFO, "Ejecución autorizada del programa {0} para estudiante {1}", new Object[]{programaId, authenticatedEstudianteId});
+    // Metodo para obtener los diagnósticos del compilador de un programa sin ejecutarlo
+    public DiagnosticosResultDTO checkProgram(Long programaId, Long authenticatedEstudianteId)
+            throws ProgramNotFoundException, UnauthorizedException, ProgramExecutionException, ExecutionRejectedException {
 
+        String codigoFuente = getExecutableSource(programaId, authenticatedEstudianteId);
+        return toDiagnosticosDTO(sourceChecker.check(authenticatedEstudianteId, codigoFuente));
+    }
+
+    // Metodo para obtener los diagnósticos de un código en edición que todavía no se ha guardado
+    public DiagnosticosResultDTO checkDraft(String codigoFuente, Long authenticatedEstudianteId)
+            throws ProgramExecutionException, ExecutionRejectedException {
 
-        String codigoFuente = programa.getCodigoFuente();
         if (codigoFuente == null || codigoFuente.trim().isEmpty()) {
-            throw new ProgramExecutionException("El código fuente del programa está vacío.");
+            throw new IllegalArgumentException("El código fuente no puede estar vacío.");
         }
+        return toDiagnosticosDTO(sourceChecker.check(authenticatedEstudianteId, codigoFuente));
+    }
 
-        // --- Proceso de Compilación y Ejecución ---
-        Path tempDir = null;
-        ProgramaExecutionResultDTO result = new ProgramaExecutionResultDTO();
-        long startTime = System.currentTimeMillis();
-
-        try {
-            tempDir = Files.createTempDirectory(TEMP_DIR_PREFIX + UUID.randomUUID().toString().substring(0, 8) + "_");
-            File sourceFile = tempDir.resolve("Main.java").toFile();
-
-            try (FileWriter writer = new FileWriter(sourceFile)) {
-                writer.write(codigoFuente);
-            }
-
-            ProcessBuilder compilePb = new ProcessBuilder("javac", sourceFile.getName());
-            compilePb.directory(tempDir.toFile());
-            Process compileProcess = compilePb.start();
-
-            String compileStderr = readProcessStream(compileProcess.getErrorStream());
-            LOGGER.log(Level.FINE, "Compilación STDERR:\n{0}", compileStderr);
-
-            boolean compilationCompleted = compileProcess.waitFor(EXECUTION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-
-            if (!compilationCompleted) {
-                compileProcess.destroyForcibly();
-                throw new ProgramExecutionException("La compilación excedió el tiempo límite de " + EXECUTION_TIMEOUT_SECONDS + " segundos.");
-            }
-
-            int compileExitCode = compileProcess.exitValue();
-            LOGGER.log(Level.INFO, "Compilación finalizada con código de salida: {0}", compileExitCode);
-
-            if (compileExitCode != 0) {
-                result.setExitCode(compileExitCode);
-                result.setStderr(compileStderr);
-                result.setErrorMessage("Error de compilación."); // Mensaje genérico para el usuario
-                throw new ProgramExecutionException("Error de compilación.", compileStderr);
-            }
-
-            ProcessBuilder runPb = new ProcessBuilder("java", "Main");
-            runPb.directory(tempDir.toFile());
-            Process runProcess = runPb.start();
-
-            StreamGobbler stdoutGobbler = new StreamGobbler(runProcess.getInputStream());
-            StreamGobbler stderrGobbler = new StreamGobbler(runProcess.getErrorStream());
-            new Thread(stdoutGobbler).start();
-            new Thread(stderrGobbler).start();
-
-            boolean executionCompleted = runProcess.waitFor(EXECUTION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-
-            if (!executionCompleted) {
-                runProcess.destroyForcibly();
-                result.setStderr("La ejecución excedió el tiempo límite de " + EXECUTION_TIMEOUT_SECONDS + " segundos.");
-                result.setExitCode(-1);
-                result.setErrorMessage("Tiempo de ejecución excedido.");
-                throw new ProgramExecutionException("Tiempo de ejecución excedido.");
-            }
-
-            int runExitCode = runProcess.exitValue();
-            LOGGER.log(Level.INFO, "Ejecución finalizada con código de salida: {0}", runExitCode);
-
-
-            result.setStdout(stdoutGobbler.getOutput());
-            result.setStderr(stderrGobbler.getOutput());
-            result.setExitCode(runExitCode);
-            result.setErrorMessage(null);
-
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Error de I/O durante la ejecución del programa.", e);
-            throw new ProgramExecutionException("Error interno al ejecutar el programa: " + e.getMessage(), e);
-        } catch (InterruptedException e) {
-            LOGGER.log(Level.SEVERE, "Hilo interrumpido durante la espera del proceso.", e);
-            Thread.currentThread().interrupt();
-            throw new ProgramExecutionException("La ejecución del programa fue interrumpida.", e);
-        } finally {
-            if (tempDir != null && Files.exists(tempDir)) {
-                try (Stream<Path> walk = Files.walk(tempDir)) {
-                    walk.sorted(Comparator.reverseOrder())
-                            .map(Path::toFile)
-                            .forEach(File::delete);
-                } catch (IOException e) {
-                    LOGGER.log(Level.WARNING, "No se pudo limpiar el directorio temporal: " + tempDir, e);
-                }
-            }
+    private static DiagnosticosResultDTO toDiagnosticosDTO(SourceCheckResult result) {
+        List<DiagnosticoDTO> diagnosticos = new ArrayList<>();
+        for (CompilationDiagnostic d : result.getDiagnostics()) {
+            DiagnosticoDTO dto = new DiagnosticoDTO();
+            dto.setSeveridad(d.getSeverity());
+            dto.setLinea(d.getLine());
+            dto.setColumna(d.getColumn());
+            dto.setMensaje(d.getMessage());
+            diagnosticos.add(dto);
         }
+        DiagnosticosResultDTO dto = new DiagnosticosResultDTO();
+        dto.setCompila(result.isSuccess());
+        dto.setDescartada(result.isSuperseded());
+        dto.setEnCache(result.isCached());
+        dto.setDurationMillis(result.getDurationMillis());
+        dto.setDiagnosticos(diagnosticos);
+        return dto;
+    }
 
-        long endTime = System.currentTimeMillis();
-        result.setDurationMillis(endTime - startTime);
-
-        return result;
+    // El resultado en caché del código anterior ya no corresponde a ningún programa actualizado
+    private void invalidateResultIfChanged(String codigoAnterior, String codigoNuevo) {
+        if (codigoAnterior != null && !codigoAnterior.equals(codigoNuevo)) {
+            resultCache.invalidate(codigoAnterior);
+        }
     }
 
-    private static class StreamGobbler implements Runnable {
-        private final InputStream is;
-        private final StringBuilder output = new StringBuilder();
+    // Verifica que el estudiante puede ejecutar el programa y retorna su código fuente
+    public String getExecutableSource(Long programaId, Long authenticatedEstudianteId)
+            throws ProgramNotFoundException, UnauthorizedException, ProgramExecutionException {
+
+        Programa programa = programaRepository.findById(programaId);
 
-        StreamGobbler(InputStream is) {
-            this.is = is;
+        if (programa == null) {
+            throw new ProgramNotFoundException("Programa no encontrado con ID: " + programaId);
         }
 
-        @Override
-        public void run() {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append(System.lineSeparator());
-                }
-            } catch (IOException e) {
-                LOGGER.log(Level.SEVERE, "Error leyendo stream de proceso.", e);
-            }
+        // Lógica de Autorización: Solo el dueño puede ejecutar su programa
+        if (programa.getEstudiante() == null || !programa.getEstudiante().getId().equals(authenticatedEstudianteId)) {
+            LOGGER.log(Level.WARNING, "Intento de ejecución no autorizada del programa {0} por estudiante {1}", new Object[]{programaId, authenticatedEstudianteId});
+            throw new UnauthorizedException("No tienes permiso para ejecutar este programa.");
         }
+        LOGGER.log(Level.INFO, "Ejecución autorizada del programa {0} para estudiante {1}", new Object[]{programaId, authenticatedEstudianteId});
 
-        public String getOutput() {
-            return output.toString();
-        }
-    }
 
-    private String readProcessStream(InputStream is) throws IOException {
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                output.append(line).append(System.lineSeparator());
-            }
+        String codigoFuente = programa.getCodigoFuente();
+        if (codigoFuente == null || codigoFuente.trim().isEmpty()) {
+            throw new ProgramExecutionException("El código fuente del programa está vacío.");
         }
-        return output.toString();
+        return codigoFuente;
     }
 
     // Metodo para marcar un programa como resuelto o no resuelto
@@ -367,6 +348,8 @@ public class ProgramaService {
 
         // 4. Actualizar el estado 'resuelto'
         existingPrograma.setResuelto(resueltoStatus);
+        reportFragmentCache.invalidate(programaId);
+        progressCounters.programSaved(existingPrograma);
 
         LOGGER.log(Level.INFO, "Estado 'resuelto' del programa {0} actualizado a {1} por estudiante {2}", new Object[]{programaId, resueltoStatus, authenticatedEstudianteId});
 
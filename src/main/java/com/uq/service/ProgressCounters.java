@@ -0,0 +1,335 @@
+package com.uq.service;
+
+import com.uq.dto.ProgresoEstudianteDTO;
+import com.uq.model.Programa;
+import com.uq.repository.ComentarioRepository;
+import com.uq.repository.ProgramaRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Totales de progreso por estudiante (programas creados, resueltos, compartidos y comentados),
+ * mantenidos en memoria para responder sin recorrer los programas.
+ * <p>
+ * ProgramaService y ComentarioService avisan cada cambio, que se aplica al confirmarse la
+ * transacción (un rollback no cuenta). Se guarda el estado de cada programa, así que un aviso
+ * repetido no cuenta dos veces. Cada {@code progress.counters.reconcile-minutes} minutos los totales se
+ * recalculan desde la base de datos para corregir cambios hechos por fuera de la aplicación o en otra
+ * instancia; los programas que cambiaron mientras se hacía esa consulta conservan su estado en memoria,
+ * que es más reciente. La primera consulta de totales espera a la primera carga.
+ */
+@ApplicationScoped
+public class ProgressCounters {
+
+    private static final Logger LOGGER = Logger.getLogger(ProgressCounters.class.getName());
+
+    @Inject
+    ProgramaRepository programaRepository;
+
+    @Inject
+    ComentarioRepository comentarioRepository;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @ConfigProperty(name = "progress.counters.reconcile-minutes", defaultValue = "15")
+    int reconcileMinutes;
+
+    // programs, students, sequence y loaded se protegen con el monitor de programs
+    private final Map<Long, ProgramState> programs = new HashMap<>();
+    private final Map<Long, Totals> students = new HashMap<>();
+    // Número del último cambio aplicado; una conciliación conserva los cambios posteriores a su inicio
+    private long sequence;
+    private boolean loaded;
+    private LocalDateTime lastReconcile;
+
+    private final Object loadLock = new Object();
+    private final AtomicLong corrections = new AtomicLong();
+    private ScheduledExecutorService reconciler;
+
+    @PostConstruct
+    void init() {
+        reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "progress-reconciler");
+            t.setDaemon(true);
+            return t;
+        });
+        reconciler.scheduleWithFixedDelay(this::reconcileQuietly, reconcileMinutes, reconcileMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        reconciler.shutdownNow();
+    }
+
+    // Totales de un estudiante; todo en cero si no tiene programas
+    public ProgresoEstudianteDTO getProgress(Long estudianteId) {
+        ensureLoaded();
+        synchronized (programs) {
+            Totals totals = students.get(estudianteId);
+            return totals == null ? new ProgresoEstudianteDTO(estudianteId, 0, 0, 0, 0, 0) : totals.toDTO(estudianteId);
+        }
+    }
+
+    // Totales de todos los estudiantes con al menos un programa, por ID
+    public List<ProgresoEstudianteDTO> listProgress() {
+        ensureLoaded();
+        synchronized (programs) {
+            List<ProgresoEstudianteDTO> result = new ArrayList<>(students.size());
+            students.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> result.add(entry.getValue().toDTO(entry.getKey())));
+            return result;
+        }
+    }
+
+    // Metodo para registrar un programa creado o modificado (estado resuelto/compartido o dueño)
+    public void programSaved(Programa programa) {
+        Long programaId = programa.getId();
+        Long estudianteId = programa.getEstudiante() != null ? programa.getEstudiante().getId() : null;
+        boolean resuelto = programa.isResuelto();
+        boolean compartido = programa.isShared();
+        afterCommit(() -> update(programaId, previous -> new ProgramState(estudianteId, resuelto, compartido,
+                previous == null ? 0 : previous.comentarios, false)));
+    }
+
+    /**
+     * Metodo para registrar un comentario nuevo en un programa. Al confirmarse se vuelve a contar los
+     * comentarios del programa en lugar de sumar uno: una conciliación que ya leyó el comentario, o un
+     * aviso repetido, no lo cuentan dos veces. Los comentarios no se borran, así que nunca se baja de lo
+     * ya contado (otro comentario confirmado después puede haberse aplicado antes que este).
+     */
+    public void commentAdded(Programa programa) {
+        Long programaId = programa.getId();
+        Long estudianteId = programa.getEstudiante() != null ? programa.getEstudiante().getId() : null;
+        boolean resuelto = programa.isResuelto();
+        boolean compartido = programa.isShared();
+        afterCommit(() -> {
+            long comentarios;
+            try {
+                comentarios = comentarioRepository.countByProgramaId(programaId);
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "No se pudieron contar los comentarios del programa " + programaId
+                        + "; se corregirá en la próxima conciliación.", e);
+                return;
+            }
+            update(programaId, previous -> new ProgramState(estudianteId, resuelto, compartido,
+                    previous == null || previous.deleted ? comentarios : Math.max(previous.comentarios, comentarios), false));
+        });
+    }
+
+    public void programDeleted(Long programaId) {
+        afterCommit(() -> update(programaId, previous -> ProgramState.DELETED));
+    }
+
+    // Un estudiante eliminado ya no tiene programas (la base de datos no permite borrarlo si los tiene)
+    public void studentDeleted(Long estudianteId) {
+        afterCommit(() -> {
+            synchronized (programs) {
+                List<Long> ids = new ArrayList<>();
+                programs.forEach((id, state) -> {
+                    if (!state.deleted && estudianteId.equals(state.estudianteId)) {
+                        ids.add(id);
+                    }
+                });
+                for (Long id : ids) {
+                    update(id, previous -> ProgramState.DELETED);
+                }
+                students.remove(estudianteId);
+            }
+        });
+    }
+
+    private void update(Long programaId, Function<ProgramState, ProgramState> change) {
+        synchronized (programs) {
+            ProgramState previous = programs.get(programaId);
+            ProgramState next = change.apply(previous).withSequence(++sequence);
+            addTo(previous, -1);
+            addTo(next, 1);
+            programs.put(programaId, next);
+        }
+    }
+
+    // Suma (sign = 1) o resta (sign = -1) el aporte de un programa a los totales de su estudiante
+    private void addTo(ProgramState state, int sign) {
+        if (state == null || state.deleted || state.estudianteId == null) {
+            return;
+        }
+        Totals totals = students.computeIfAbsent(state.estudianteId, id -> new Totals());
+        totals.add(state, sign);
+        if (totals.creados == 0) {
+            students.remove(state.estudianteId);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (transactionRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            action.run();
+            return;
+        }
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private void ensureLoaded() {
+        synchronized (programs) {
+            if (loaded) {
+                return;
+            }
+        }
+        synchronized (loadLock) {
+            synchronized (programs) {
+                if (loaded) {
+                    return;
+                }
+            }
+            reconcile();
+        }
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "No se pudieron conciliar los totales de progreso; se reintentará.", e);
+        }
+    }
+
+    /**
+     * Metodo para recalcular los totales desde la base de datos (dos consultas: programas y
+     * comentarios por programa). Se ejecuta en el hilo de conciliación o en el de la primera
+     * consulta, así que activa su propio contexto para las consultas.
+     */
+    @ActivateRequestContext
+    void reconcile() {
+        long start = System.currentTimeMillis();
+        long startSequence;
+        synchronized (programs) {
+            startSequence = sequence;
+        }
+
+        Map<Long, Long> comentarios = comentarioRepository.countAllByPrograma();
+        Map<Long, ProgramState> fresh = new HashMap<>();
+        for (Object[] row : programaRepository.listProgressRows()) {
+            Long programaId = (Long) row[0];
+            fresh.put(programaId, new ProgramState((Long) row[1], (Boolean) row[2], (Boolean) row[3],
+                    comentarios.getOrDefault(programaId, 0L), false));
+        }
+
+        synchronized (programs) {
+            // Lo que cambió durante las consultas es más reciente que lo leído
+            programs.forEach((id, live) -> {
+                if (live.sequence > startSequence) {
+                    if (live.deleted) {
+                        fresh.remove(id);
+                    } else {
+                        fresh.put(id, live);
+                    }
+                }
+            });
+            Map<Long, Totals> recalculated = new HashMap<>();
+            for (ProgramState state : fresh.values()) {
+                if (state.estudianteId != null) {
+                    recalculated.computeIfAbsent(state.estudianteId, id -> new Totals()).add(state, 1);
+                }
+            }
+            if (loaded && !recalculated.equals(students)) {
+                corrections.incrementAndGet();
+                LOGGER.log(Level.INFO, "La conciliación corrigió los totales de progreso de algunos estudiantes.");
+            }
+            programs.clear();
+            programs.putAll(fresh);
+            students.clear();
+            students.putAll(recalculated);
+            loaded = true;
+            lastReconcile = LocalDateTime.now();
+        }
+        LOGGER.log(Level.FINE, "Totales de progreso conciliados: {0} programas en {1} ms.",
+                new Object[]{fresh.size(), System.currentTimeMillis() - start});
+    }
+
+    // Conciliaciones que encontraron totales distintos a los mantenidos en memoria
+    public long getCorrections() {
+        return corrections.get();
+    }
+
+    public LocalDateTime getLastReconcile() {
+        synchronized (programs) {
+            return lastReconcile;
+        }
+    }
+
+    private record ProgramState(Long estudianteId, boolean resuelto, boolean compartido, long comentarios,
+                                boolean deleted, long sequence) {
+        static final ProgramState DELETED = new ProgramState(null, false, false, 0, true, 0);
+
+        ProgramState(Long estudianteId, boolean resuelto, boolean compartido, long comentarios, boolean deleted) {
+            this(estudianteId, resuelto, compartido, comentarios, deleted, 0);
+        }
+
+        ProgramState withSequence(long sequence) {
+            return new ProgramState(estudianteId, resuelto, compartido, comentarios, deleted, sequence);
+        }
+    }
+
+    private static final class Totals {
+        private int creados;
+        private int resueltos;
+        private int compartidos;
+        private int comentados;
+        private long comentarios;
+
+        void add(ProgramState state, int sign) {
+            creados += sign;
+            resueltos += state.resuelto ? sign : 0;
+            compartidos += state.compartido ? sign : 0;
+            comentados += state.comentarios > 0 ? sign : 0;
+            comentarios += sign * state.comentarios;
+        }
+
+        ProgresoEstudianteDTO toDTO(Long estudianteId) {
+            return new ProgresoEstudianteDTO(estudianteId, creados, resueltos, compartidos, comentados, comentarios);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Totals other && creados == other.creados && resueltos == other.resueltos
+                    && compartidos == other.compartidos && comentados == other.comentados && comentarios == other.comentarios;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(31L * creados + 17L * resueltos + 13L * compartidos + 7L * comentados + comentarios);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.uq.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Páginas ya renderizadas del informe de progreso, agrupadas por programa (uno puede ocupar varias).
+ * <p>
+ * Cada cambio que afecta la página de un programa (edición, resuelto/compartido, comentario nuevo)
+ * le asigna una versión nueva tomada de un reloj lógico; los cambios de nombres de estudiantes o
+ * profesores invalidan todas las páginas. Un informe toma {@link #snapshot()} antes de consultar
+ * los datos y solo guarda páginas si el programa no cambió desde entonces, así que nunca se guarda
+ * una página renderizada con datos anteriores a un cambio. Las versiones se actualizan al terminar
+ * la transacción que hizo el cambio, cuando los datos nuevos ya son visibles para las consultas.
+ */
+@ApplicationScoped
+public class ReportFragmentCache {
+
+    @Inject
+    TransactionSynchronizationRegistry transactionRegistry;
+
+    @ConfigProperty(name = "report.fragment-cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "report.fragment-cache.max-entries", defaultValue = "5000")
+    int maxEntries;
+
+    private final AtomicLong clock = new AtomicLong();
+    // Versión del último cambio de cada programa, y del último cambio que afecta a todos
+    private final Map<Long, Long> versions = new HashMap<>();
+    private long globalVersion;
+    // LRU por orden de acceso; versions, globalVersion y fragments se protegen con el monitor de fragments
+    private final LinkedHashMap<Long, Entry> fragments = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // Versión actual; se toma antes de consultar los datos del informe
+    public long snapshot() {
+        return clock.get();
+    }
+
+    // Retorna las páginas del programa en la variante indicada (límite de líneas) si no cambió desde que se renderizó, o null
+    public List<Fragment> get(Long programaId, int variante) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (fragments) {
+            Entry entry = fragments.get(programaId);
+            if (entry != null && entry.variante == variante && entry.version >= versionOf(programaId)) {
+                hits.incrementAndGet();
+                return entry.pages;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    // Guarda las páginas del programa renderizadas con datos consultados en la versión snapshot (reemplaza otra variante)
+    public void put(Long programaId, int variante, long snapshot, List<Fragment> pages) {
+        if (!enabled || pages == null || pages.isEmpty()) {
+            return;
+        }
+        synchronized (fragments) {
+            if (versionOf(programaId) > snapshot) {
+                return; // El programa cambió después de consultar los datos
+            }
+            fragments.put(programaId, new Entry(variante, snapshot, List.copyOf(pages)));
+            while (fragments.size() > maxEntries) {
+                fragments.remove(fragments.keySet().iterator().next());
+            }
+        }
+    }
+
+    // Invalida las páginas de un programa al terminar la transacción actual
+    public void invalidate(Long programaId) {
+        afterTransaction(() -> {
+            synchronized (fragments) {
+                versions.put(programaId, clock.incrementAndGet());
+                fragments.remove(programaId);
+            }
+        });
+    }
+
+    // Invalida todas las páginas al terminar la transacción actual (cambian datos que aparecen en varias)
+    public void invalidateAll() {
+        afterTransaction(() -> {
+            synchronized (fragments) {
+                globalVersion = clock.incrementAndGet();
+                fragments.clear();
+            }
+        });
+    }
+
+    private long versionOf(Long programaId) {
+        return Math.max(globalVersion, versions.getOrDefault(programaId, 0L));
+    }
+
+    private void afterTransaction(Runnable action) {
+        if (transactionRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            action.run();
+            return;
+        }
+        transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            // También tras un rollback: invalidar de más solo cuesta volver a renderizar
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private record Entry(int variante, long version, List<Fragment> pages) {
+    }
+
+    /**
+     * Contenido de una página ya renderizada: el flujo de contenido tal como está en el PDF y
+     * las fuentes que usa (nombre del recurso en la página → nombre de la fuente estándar).
+     */
+    public static final class Fragment {
+        private final byte[] content;
+        private final boolean compressed;
+        private final Map<String, String> fonts;
+
+        public Fragment(byte[] content, boolean compressed, Map<String, String> fonts) {
+            this.content = content;
+            this.compressed = compressed;
+            this.fonts = Map.copyOf(fonts);
+        }
+
+        public byte[] getContent() {
+            return content;
+        }
+
+        public boolean isCompressed() {
+            return compressed;
+        }
+
+        public Map<String, String> getFonts() {
+            return fonts;
+        }
+    }
+}
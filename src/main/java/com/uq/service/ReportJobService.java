@@ -0,0 +1,312 @@
+package com.uq.service;
+
+import com.uq.dto.InformeFiltroDTO;
+import com.uq.dto.InformeJobDTO;
+import com.uq.enums.JobStatus;
+import com.uq.exception.ExecutionRejectedException;
+import com.uq.exception.ReportJobNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.control.ActivateRequestContext;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Generación asíncrona del informe de progreso.
+ * <p>
+ * Cada solicitud se convierte en un trabajo que se encola en una cola acotada
+ * ({@code report.jobs.queue-capacity}) atendida por {@code report.jobs.workers} hilos. El PDF se
+ * escribe en un archivo de {@code report.jobs.dir} y se puede descargar durante
+ * {@code report.jobs.retention-minutes} minutos; después se borran el archivo y el trabajo.
+ * Las solicitudes del mismo informe (mismo filtro) mientras otro está en cola o generándose
+ * reciben ese mismo trabajo en lugar de crear uno nuevo. El informe incluye a todos los estudiantes, así que
+ * cualquier profesor puede consultar y descargar cualquier trabajo.
+ */
+@ApplicationScoped
+public class ReportJobService {
+
+    private static final Logger LOGGER = Logger.getLogger(ReportJobService.class.getName());
+
+    private static final String PROGRESS_REPORT_KEY = "progreso-estudiantes";
+    private static final String FILE_PREFIX = "informe-";
+    private static final String FILE_SUFFIX = ".pdf";
+    private static final String DEFAULT_DIR_NAME = "pfapis-informes";
+
+    @Inject
+    InformeService informeService;
+
+    @ConfigProperty(name = "report.jobs.workers", defaultValue = "1")
+    int workers;
+
+    @ConfigProperty(name = "report.jobs.queue-capacity", defaultValue = "10")
+    int queueCapacity;
+
+    @ConfigProperty(name = "report.jobs.retention-minutes", defaultValue = "60")
+    int retentionMinutes;
+
+    @ConfigProperty(name = "report.jobs.dir")
+    Optional<String> dir;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    // Trabajo en cola o en ejecución de cada informe, para agrupar solicitudes iguales
+    private final Map<String, Job> activeByKey = new ConcurrentHashMap<>();
+    private final AtomicLong completedRuns = new AtomicLong();
+    private final AtomicLong completedRunsMillis = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private Path reportDir;
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService cleaner;
+
+    @PostConstruct
+    void init() {
+        reportDir = dir.filter(d -> !d.isBlank()).map(Paths::get)
+                .orElseGet(() -> Paths.get(System.getProperty("java.io.tmpdir"), DEFAULT_DIR_NAME));
+        try {
+            Files.createDirectories(reportDir);
+            deleteLeftoverFiles();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "No se pudo preparar el directorio de informes " + reportDir, e);
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "report-job-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "report-job-cleaner");
+            t.setDaemon(true);
+            return t;
+        });
+        cleaner.scheduleWithFixedDelay(this::removeExpiredJobs, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        cleaner.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Encola la generación del informe de progreso, o retorna el trabajo que ya lo está generando.
+     *
+     * @throws IllegalArgumentException   Si el filtro no es válido.
+     * @throws ExecutionRejectedException Si la cola de informes está llena.
+     */
+    public InformeJobDTO submitProgressReport(Long profesorId, InformeFiltroDTO filtro) throws ExecutionRejectedException {
+        InformeService.validateFilter(filtro);
+        Job created = new Job(UUID.randomUUID().toString(), PROGRESS_REPORT_KEY + "|" + filtro.toKey(), filtro);
+        Job active = activeByKey.putIfAbsent(created.key, created);
+        if (active != null) {
+            coalesced.incrementAndGet();
+            LOGGER.log(Level.INFO, "Profesor {0} se une al trabajo de informe {1} en curso.", new Object[]{profesorId, active.id});
+            return active.toDTO();
+        }
+
+        jobs.put(created.id, created);
+        try {
+            executor.execute(() -> runJob(created));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(created.id);
+            activeByKey.remove(created.key, created);
+            LOGGER.warning("Cola de informes llena. Se rechaza la solicitud.");
+            throw new ExecutionRejectedException("Hay demasiados informes en espera. Intenta de nuevo más tarde.", estimateRetryAfterSeconds());
+        }
+        LOGGER.log(Level.INFO, "Trabajo de informe {0} encolado por el profesor {1}", new Object[]{created.id, profesorId});
+        return created.toDTO();
+    }
+
+    public InformeJobDTO getJob(String jobId) throws ReportJobNotFoundException {
+        return findJob(jobId).toDTO();
+    }
+
+    /**
+     * @return El archivo del informe terminado.
+     * @throws ReportJobNotFoundException Si el trabajo no existe o venció.
+     * @throws IllegalStateException      Si el informe todavía no está listo o falló.
+     */
+    public Path getReportFile(String jobId) throws ReportJobNotFoundException {
+        Job job = findJob(jobId);
+        synchronized (job) {
+            if (job.status != JobStatus.COMPLETED) {
+                throw new IllegalStateException(job.status == JobStatus.FAILED
+                        ? "La generación del informe falló: " + job.error
+                        : "El informe todavía no está listo.");
+            }
+            if (!Files.exists(job.file)) {
+                throw new ReportJobNotFoundException("El informe " + jobId + " ya no está disponible.");
+            }
+            return job.file;
+        }
+    }
+
+    private Job findJob(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new ReportJobNotFoundException("Trabajo de informe no encontrado con ID: " + jobId);
+        }
+        return job;
+    }
+
+    // Se ejecuta en un hilo del pool: sin solicitud HTTP, así que activa su propio contexto para las consultas
+    @ActivateRequestContext
+    void runJob(Job job) {
+        long start = System.currentTimeMillis();
+        synchronized (job) {
+            job.status = JobStatus.RUNNING;
+            job.fechaInicio = LocalDateTime.now();
+        }
+        Path file = null;
+        try {
+            file = Files.createTempFile(reportDir, FILE_PREFIX, FILE_SUFFIX);
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(file))) {
+                informeService.writeStudentProgressReport(job.filtro, output, job::progress);
+            }
+            job.complete(file, Files.size(file), LocalDateTime.now().plusMinutes(retentionMinutes));
+            LOGGER.log(Level.INFO, "Trabajo de informe {0} terminado en {1} ms.", new Object[]{job.id, System.currentTimeMillis() - start});
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error al generar el informe del trabajo " + job.id, e);
+            deleteQuietly(file);
+            job.fail("Error en el servidor al generar el informe PDF.", LocalDateTime.now().plusMinutes(retentionMinutes));
+        } finally {
+            activeByKey.remove(job.key, job);
+            completedRuns.incrementAndGet();
+            completedRunsMillis.addAndGet(System.currentTimeMillis() - start);
+        }
+    }
+
+    // Tiempo aproximado hasta que se libere espacio en la cola, según la duración media observada
+    private int estimateRetryAfterSeconds() {
+        long runs = completedRuns.get();
+        long averageMillis = runs == 0 ? TimeUnit.MINUTES.toMillis(1) : completedRunsMillis.get() / runs;
+        long pending = executor.getQueue().size() + executor.getActiveCount();
+        long millis = averageMillis * pending / Math.max(1, workers);
+        return (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(millis));
+    }
+
+    private void removeExpiredJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        int before = jobs.size();
+        jobs.values().removeIf(job -> {
+            if (!job.isExpired(now)) {
+                return false;
+            }
+            deleteQuietly(job.file);
+            return true;
+        });
+        int removed = before - jobs.size();
+        if (removed > 0) {
+            LOGGER.log(Level.FINE, "Se eliminaron {0} trabajos de informe vencidos.", removed);
+        }
+    }
+
+    // Los archivos de un arranque anterior ya no tienen trabajo asociado
+    private void deleteLeftoverFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(reportDir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "No se pudo borrar el informe {0}", file);
+        }
+    }
+
+    public int getQueuedJobs() {
+        return executor.getQueue().size();
+    }
+
+    public int getRunningJobs() {
+        return executor.getActiveCount();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    static class Job {
+        final String id;
+        final String key;
+        final InformeFiltroDTO filtro;
+        final LocalDateTime fechaCreacion = LocalDateTime.now();
+        JobStatus status = JobStatus.QUEUED;
+        int paginasListas;
+        int paginasTotales;
+        LocalDateTime fechaInicio;
+        LocalDateTime fechaFin;
+        LocalDateTime fechaExpiracion;
+        Path file;
+        Long tamanoBytes;
+        String error;
+
+        Job(String id, String key, InformeFiltroDTO filtro) {
+            this.id = id;
+            this.key = key;
+            this.filtro = filtro;
+        }
+
+        synchronized void progress(int listas, int totales) {
+            paginasListas = listas;
+            paginasTotales = totales;
+        }
+
+        synchronized void complete(Path file, long tamanoBytes, LocalDateTime fechaExpiracion) {
+            this.status = JobStatus.COMPLETED;
+            this.file = file;
+            this.tamanoBytes = tamanoBytes;
+            this.fechaExpiracion = fechaExpiracion;
+            this.fechaFin = LocalDateTime.now();
+        }
+
+        synchronized void fail(String error, LocalDateTime fechaExpiracion) {
+            this.status = JobStatus.FAILED;
+            this.error = error;
+            this.fechaExpiracion = fechaExpiracion;
+            this.fechaFin = LocalDateTime.now();
+        }
+
+        synchronized boolean isExpired(LocalDateTime now) {
+            return fechaExpiracion != null && fechaExpiracion.isBefore(now);
+        }
+
+        synchronized InformeJobDTO toDTO() {
+            return new InformeJobDTO(id, status, paginasListas, paginasTotales, fechaCreacion, fechaInicio,
+                    fechaFin, fechaExpiracion, tamanoBytes, error);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.uq.service;
+
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.encoding.Encoding;
+import org.apache.pdfbox.pdmodel.font.encoding.GlyphList;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Medición y partición en líneas del texto del informe PDF.
+ * <p>
+ * Los anchos de los caracteres de cada fuente se calculan una sola vez, a partir de la codificación
+ * de la fuente, y se comparten entre informes e hilos. Una línea se mide sumando los anchos de sus
+ * palabras a medida que crece, en lugar de pedirle a PDFBox el ancho de la línea completa por cada
+ * palabra. Los caracteres que la fuente no puede codificar se reemplazan por '?' (showText fallaría).
+ */
+final class TextLayout {
+
+    private static final char REPLACEMENT = '?';
+    private static final String TAB = "    ";
+    private static final Map<String, TextLayout> BY_FONT = new ConcurrentHashMap<>();
+
+    // Ancho de cada carácter en milésimas del tamaño de la fuente; NaN si la fuente no lo codifica
+    private final float[] latinWidths = new float[256];
+    private final Map<Character, Float> otherWidths = new HashMap<>();
+
+    private TextLayout(PDType1Font font) throws IOException {
+        Arrays.fill(latinWidths, Float.NaN);
+        Encoding encoding = font.getEncoding();
+        GlyphList glyphList = GlyphList.getAdobeGlyphList();
+        for (Map.Entry<Integer, String> glyph : encoding.getCodeToNameMap().entrySet()) {
+            String unicode = glyphList.toUnicode(glyph.getValue());
+            if (unicode == null || unicode.length() != 1) {
+                continue;
+            }
+            char c = unicode.charAt(0);
+            float width = font.getWidth(glyph.getKey());
+            if (c < latinWidths.length) {
+                latinWidths[c] = width;
+            } else {
+                otherWidths.put(c, width);
+            }
+        }
+    }
+
+    /**
+     * @return Las medidas de la fuente, calculadas la primera vez que se piden.
+     * Si dos hilos las piden a la vez, cada uno las calcula con su propia instancia de la fuente.
+     */
+    static TextLayout of(PDType1Font font) throws IOException {
+        TextLayout layout = BY_FONT.get(font.getName());
+        if (layout == null) {
+            layout = new TextLayout(font);
+            TextLayout previous = BY_FONT.putIfAbsent(font.getName(), layout);
+            if (previous != null) {
+                layout = previous;
+            }
+        }
+        return layout;
+    }
+
+    private float charWidth(char c) {
+        if (c < latinWidths.length) {
+            return latinWidths[c];
+        }
+        return otherWidths.getOrDefault(c, Float.NaN);
+    }
+
+    private boolean canEncode(char c) {
+        return !Float.isNaN(charWidth(c));
+    }
+
+    // Reemplaza los caracteres que la fuente no puede escribir
+    String sanitize(String text) {
+        if (text == null) {
+            return "";
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (!canEncode(text.charAt(i))) {
+                StringBuilder sanitized = new StringBuilder(text.length());
+                for (int j = 0; j < text.length(); j++) {
+                    char c = text.charAt(j);
+                    sanitized.append(canEncode(c) ? c : REPLACEMENT);
+                }
+                return sanitized.toString();
+            }
+        }
+        return text;
+    }
+
+    // Ancho del texto (ya limpio) en puntos con el tamaño de fuente indicado
+    float width(CharSequence text, float fontSize) {
+        return units(text, 0, text.length()) / 1000 * fontSize;
+    }
+
+    private float units(CharSequence text, int from, int to) {
+        float total = 0;
+        for (int i = from; i < to; i++) {
+            total += charWidth(text.charAt(i));
+        }
+        return total;
+    }
+
+    /**
+     * Parte un párrafo en líneas de a lo sumo {@code maxWidth} puntos. Los saltos de línea y espacios
+     * seguidos cuentan como un espacio; una palabra más ancha que la línea se corta.
+     */
+    List<String> wrapParagraph(String text, float fontSize, float maxWidth) {
+        List<String> lines = new ArrayList<>();
+        String clean = sanitize(text.replaceAll("\\s+", " ").trim());
+        if (clean.isEmpty()) {
+            return lines;
+        }
+        float maxUnits = maxWidth * 1000 / fontSize;
+        float spaceUnits = charWidth(' ');
+        StringBuilder line = new StringBuilder();
+        float lineUnits = 0;
+
+        for (String word : clean.split(" ")) {
+            float wordUnits = units(word, 0, word.length());
+            if (line.length() > 0 && lineUnits + spaceUnits + wordUnits <= maxUnits) {
+                line.append(' ').append(word);
+                lineUnits += spaceUnits + wordUnits;
+                continue;
+            }
+            if (line.length() > 0) {
+                lines.add(line.toString());
+                line.setLength(0);
+            }
+            if (wordUnits <= maxUnits) {
+                line.append(word);
+                lineUnits = wordUnits;
+            } else {
+                // El último trozo de la palabra queda como inicio de la línea siguiente
+                lineUnits = breakLongText(word, maxUnits, lines, line);
+            }
+        }
+        if (line.length() > 0) {
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Parte texto preformateado (código): se conservan los saltos de línea, las líneas vacías y la
+     * sangría, y las tabulaciones pasan a 4 espacios. Una línea más ancha que {@code maxWidth} se
+     * corta en su último espacio que quepa, o donde llegue si no tiene ninguno.
+     */
+    List<String> wrapPreformatted(String text, float fontSize, float maxWidth) {
+        List<String> lines = new ArrayList<>();
+        float maxUnits = maxWidth * 1000 / fontSize;
+        StringBuilder rest = new StringBuilder();
+        for (String sourceLine : text.split("\r?\n", -1)) {
+            String clean = sanitize(sourceLine.replace("\t", TAB).stripTrailing());
+            if (units(clean, 0, clean.length()) <= maxUnits) {
+                lines.add(clean);
+                continue;
+            }
+            rest.setLength(0);
+            breakLongText(clean, maxUnits, lines, rest);
+            lines.add(rest.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Añade a {@code lines} las líneas completas de {@code text}, cortando en el último espacio que
+     * quepa o en el último carácter, y deja en {@code rest} lo que sobra.
+     *
+     * @return El ancho de lo que quedó en {@code rest}, en milésimas del tamaño de la fuente.
+     */
+    private float breakLongText(String text, float maxUnits, List<String> lines, StringBuilder rest) {
+        int start = 0;
+        while (start < text.length()) {
+            float used = 0;
+            int end = start;
+            int lastSpace = -1;
+            boolean seenText = false;
+            while (end < text.length() && used + charWidth(text.charAt(end)) <= maxUnits) {
+                char c = text.charAt(end);
+                if (c == ' ' && seenText) {
+                    lastSpace = end; // Solo después de texto, para no cortar dentro de la sangría
+                } else if (c != ' ') {
+                    seenText = true;
+                }
+                used += charWidth(c);
+                end++;
+            }
+            if (end == text.length()) {
+                rest.append(text, start, end);
+                return used;
+            }
+            boolean atSpace = lastSpace > start;
+            if (atSpace) {
+                end = lastSpace;
+            } else if (end == start) {
+                end = start + 1; // Ni un carácter cabe: se escribe igual para avanzar
+            }
+            lines.add(text.substring(start, end));
+            start = atSpace ? end + 1 : end;
+        }
+        return 0;
+    }
+}
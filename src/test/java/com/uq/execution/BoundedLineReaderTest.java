@@ -0,0 +1,117 @@
+package com.uq.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Líneas, fragmentos y saltos de línea de {@link BoundedLineReader}.
+ */
+class BoundedLineReaderTest {
+
+    // Entrega un carácter por lectura, como un pipe que recibe la salida de a poco
+    private static class OneCharReader extends Reader {
+        private final String text;
+        private int position;
+
+        OneCharReader(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position >= text.length()) {
+                return -1;
+            }
+            buffer[offset] = text.charAt(position++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    void leeLineasConCualquierSaltoDeLinea() throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new StringReader("uno\ndos\r\ntres\rcuatro\n"), 100);
+
+        assertEquals("uno", reader.readLine());
+        assertEquals("dos", reader.readLine());
+        assertEquals("tres", reader.readLine());
+        assertEquals("cuatro", reader.readLine());
+        assertTrue(reader.lastLineTerminated());
+        assertNull(reader.readLine());
+    }
+
+    @Test
+    void unCrlfPartidoEntreLecturasEsUnSoloSalto() throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new OneCharReader("uno\r\n\r\ndos\r\n"), 100);
+
+        assertEquals("uno", reader.readLine());
+        // La línea vacía es real: solo se ignora el \n que sigue a cada \r
+        assertEquals("", reader.readLine());
+        assertEquals("dos", reader.readLine());
+        assertNull(reader.readLine());
+    }
+
+    @Test
+    void unaLineaLargaSeEntregaEnFragmentos() throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new StringReader("abcdefghij\nk\n"), 4);
+
+        assertEquals("abcd", reader.readLine());
+        assertFalse(reader.lastLineTerminated());
+        assertTrue(reader.lastLineAtStart());
+
+        assertEquals("efgh", reader.readLine());
+        assertFalse(reader.lastLineTerminated());
+        assertFalse(reader.lastLineAtStart());
+
+        assertEquals("ij", reader.readLine());
+        assertTrue(reader.lastLineTerminated());
+        assertFalse(reader.lastLineAtStart());
+
+        assertEquals("k", reader.readLine());
+        assertTrue(reader.lastLineAtStart());
+    }
+
+    @Test
+    void losFragmentosSeArmanAunqueLleguenDeAPoco() throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new OneCharReader("abcdef\n"), 4);
+
+        assertEquals("abcd", reader.readLine());
+        assertEquals("ef", reader.readLine());
+        assertTrue(reader.lastLineTerminated());
+    }
+
+    @Test
+    void unFragmentoDelTamanoMaximoSeguidoDeSaltoTerminaConUnaLineaVacia() throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new StringReader("abcd\n"), 4);
+
+        assertEquals("abcd", reader.readLine());
+        assertFalse(reader.lastLineTerminated());
+        // El salto pertenece a la misma línea: juntos reconstruyen "abcd\n"
+        assertEquals("", reader.readLine());
+        assertTrue(reader.lastLineTerminated());
+        assertFalse(reader.lastLineAtStart());
+    }
+
+    @Test
+    void laUltimaLineaSinSaltoNoEstaTerminada() throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new StringReader("uno\ndos"), 100);
+
+        assertEquals("uno", reader.readLine());
+        assertEquals("dos", reader.readLine());
+        assertFalse(reader.lastLineTerminated());
+        assertNull(reader.readLine());
+    }
+
+    @Test
+    void unStreamVacioNoTieneLineas() throws IOException {
+        assertNull(new BoundedLineReader(new StringReader(""), 100).readLine());
+    }
+}
@@ -0,0 +1,186 @@
+package com.uq.execution;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Claves, límites de la capa en memoria y capa en disco de {@link CompileCache}.
+ */
+class CompileCacheTest {
+
+    private CompileCache cache;
+    private Path diskDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cache = new CompileCache();
+        cache.enabled = true;
+        cache.maxEntries = 100;
+        cache.maxMemoryBytes = 1_000_000;
+        cache.diskDir = Optional.empty();
+        cache.maxDiskEntries = 100;
+        diskDir = Files.createTempDirectory("compile-cache-test");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(diskDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    // Compilación exitosa con una clase de {@code size} bytes; pesa 200 + size bytes en la caché
+    private static CompilationResult compiled(int size) {
+        return new CompilationResult(true, Map.of("Main", new byte[size]), List.of(), "");
+    }
+
+    @Test
+    void laClaveIgnoraSaltosDeLineaYEspaciosFinales() {
+        String key = cache.keyFor("Main", "class Main {\n  int x;\n}");
+
+        assertEquals(key, cache.keyFor("Main", "class Main {  \r\n  int x;\t\r\n}"));
+        assertNotEquals(key, cache.keyFor("Main", "class Main {\n int x;\n}"));
+        assertNotEquals(key, cache.keyFor("Otra", "class Main {\n  int x;\n}"));
+    }
+
+    @Test
+    void guardaYRetornaLaCompilacion() {
+        CompilationResult result = compiled(10);
+        cache.put("a", result);
+
+        assertSame(result, cache.get("a").orElseThrow());
+        assertTrue(cache.get("b").isEmpty());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(210, cache.getMemoryBytes());
+    }
+
+    @Test
+    void descartaLaEntradaMenosUsadaAlSuperarElMaximoDeEntradas() {
+        cache.maxEntries = 2;
+        cache.put("a", compiled(10));
+        cache.put("b", compiled(10));
+        cache.get("a");
+
+        cache.put("c", compiled(10));
+
+        assertTrue(cache.get("a").isPresent());
+        assertTrue(cache.get("b").isEmpty());
+        assertTrue(cache.get("c").isPresent());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(420, cache.getMemoryBytes());
+    }
+
+    @Test
+    void descartaEntradasAlSuperarElMaximoDeBytes() {
+        cache.maxMemoryBytes = 1000;
+        cache.put("a", compiled(300));
+        cache.put("b", compiled(300));
+
+        // 500 + 500 + 500 > 1000: sale la más antigua
+        cache.put("c", compiled(300));
+
+        assertEquals(2, cache.getSize());
+        assertEquals(1000, cache.getMemoryBytes());
+        assertTrue(cache.get("a").isEmpty());
+    }
+
+    @Test
+    void reemplazarUnaEntradaDescuentaSuPesoAnterior() {
+        cache.put("a", compiled(100));
+        cache.put("a", compiled(10));
+
+        assertEquals(1, cache.getSize());
+        assertEquals(210, cache.getMemoryBytes());
+    }
+
+    @Test
+    void unaEntradaMasGrandeQueLaCacheNoSeGuardaEnMemoria() {
+        cache.maxMemoryBytes = 1000;
+        cache.put("a", compiled(100));
+
+        cache.put("grande", compiled(2000));
+
+        assertTrue(cache.get("grande").isEmpty());
+        assertTrue(cache.get("a").isPresent());
+    }
+
+    @Test
+    void desactivadaNoGuardaNada() {
+        cache.enabled = false;
+        cache.put("a", compiled(10));
+
+        assertTrue(cache.get("a").isEmpty());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void laCapaEnDiscoSobreviveAUnaCacheNueva() {
+        cache.diskDir = Optional.of(diskDir.toString());
+        CompilationResult failed = new CompilationResult(false, Map.of(),
+                List.of(new CompilationDiagnostic("error", 2, 13, "illegal start of expression")), "Main.java:2: error: ñ");
+        cache.put("fallida", failed);
+        cache.put("exitosa", new CompilationResult(true, Map.of("Main", new byte[]{1, 2, 3}, "Main$Interna", new byte[]{4}), List.of(), ""));
+
+        CompileCache restarted = new CompileCache();
+        restarted.enabled = true;
+        restarted.maxEntries = 100;
+        restarted.maxMemoryBytes = 1_000_000;
+        restarted.diskDir = Optional.of(diskDir.toString());
+        restarted.maxDiskEntries = 100;
+
+        CompilationResult fromDisk = restarted.get("fallida").orElseThrow();
+        assertFalse(fromDisk.isSuccess());
+        assertEquals("Main.java:2: error: ñ", fromDisk.getStderr());
+        CompilationDiagnostic d = fromDisk.getDiagnostics().get(0);
+        assertEquals("error", d.getSeverity());
+        assertEquals(2, d.getLine());
+        assertEquals(13, d.getColumn());
+        assertEquals("illegal start of expression", d.getMessage());
+
+        CompilationResult classes = restarted.get("exitosa").orElseThrow();
+        assertArrayEquals(new byte[]{1, 2, 3}, classes.getClassBytes().get("Main"));
+        assertArrayEquals(new byte[]{4}, classes.getClassBytes().get("Main$Interna"));
+        assertEquals(2, restarted.getDiskHits());
+
+        // Leída del disco, la siguiente consulta sale de memoria
+        restarted.get("fallida");
+        assertEquals(1, restarted.getHits());
+    }
+
+    @Test
+    void unArchivoIlegibleEnDiscoCuentaComoFallo() throws IOException {
+        cache.diskDir = Optional.of(diskDir.toString());
+        Files.write(diskDir.resolve("rota.bin"), new byte[]{0, 1, 2, 3, 4});
+
+        assertTrue(cache.get("rota").isEmpty());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void elDirectorioEnDiscoSeRecortaAlSuperarElMaximo() throws IOException {
+        cache.diskDir = Optional.of(diskDir.toString());
+        cache.maxDiskEntries = 50;
+
+        // El recorte se revisa cada 100 escrituras
+        for (int i = 0; i < 100; i++) {
+            cache.put("k" + i, compiled(1));
+        }
+
+        try (Stream<Path> files = Files.list(diskDir)) {
+            assertTrue(files.filter(p -> p.toString().endsWith(".bin")).count() <= 50);
+        }
+    }
+}
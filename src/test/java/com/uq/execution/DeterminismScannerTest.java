@@ -0,0 +1,53 @@
+package com.uq.execution;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Nombres que el análisis de {@link DeterminismScanner} considera no deterministas.
+ */
+class DeterminismScannerTest {
+
+    private final JavaSourceCompiler compiler = new JavaSourceCompiler();
+
+    private String scan(String body) {
+        return DeterminismScanner.findNondeterminism(compiler, "Main", "public class Main {\n"
+                + "    public static void main(String[] args) throws Exception {\n"
+                + body + "\n    }\n}\n");
+    }
+
+    @Test
+    void unProgramaSoloConCalculosEsDeterminista() {
+        assertNull(scan("int suma = 0; for (int i = 0; i < 10; i++) { suma += i; } System.out.println(suma);"));
+    }
+
+    @Test
+    void losComentariosYLosTextosNoCuentan() {
+        assertNull(scan("// new Random()\n System.out.println(\"Scanner System.in Thread.sleep\"); /* nanoTime */"));
+    }
+
+    @Test
+    void detectaLaEntradaEstandar() {
+        assertEquals("Scanner", scan("java.util.Scanner s = null;"));
+        assertNotNull(scan("java.util.Scanner s = new java.util.Scanner(System.in);"));
+        assertEquals("in", scan("int b = System.in.read();"));
+    }
+
+    @Test
+    void detectaAzarHoraEHilos() {
+        assertEquals("Random", scan("System.out.println(new java.util.Random().nextInt());"));
+        assertEquals("currentTimeMillis", scan("System.out.println(System.currentTimeMillis());"));
+        assertEquals("Thread", scan("new Thread(() -> System.out.println(1)).start();"));
+    }
+
+    @Test
+    void detectaReferenciasAMetodos() {
+        assertEquals("nanoTime", scan("java.util.function.LongSupplier t = System::nanoTime; System.out.println(t.getAsLong());"));
+    }
+
+    @Test
+    void unErrorDeSintaxisNoEsDeterminista() {
+        assertEquals("sintaxis", scan("int x = ;"));
+    }
+}
@@ -0,0 +1,152 @@
+package com.uq.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Búfer circular, fragmentos y suscripción de {@link ExecutionOutput}.
+ */
+class ExecutionOutputTest {
+
+    private static final String NL = System.lineSeparator();
+
+    // Guarda los eventos recibidos como "secuencia:canal:línea" y "fin"
+    private static class RecordingListener implements ExecutionOutput.Listener {
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onLine(long sequence, ExecutionOutput.Channel channel, String line) {
+            events.add(sequence + ":" + channel + ":" + line);
+        }
+
+        @Override
+        public void onClose() {
+            events.add("fin");
+        }
+    }
+
+    @Test
+    void conservaLasLineasEnOrden() {
+        ExecutionOutput output = new ExecutionOutput(1000);
+        output.append(ExecutionOutput.Channel.STDOUT, "uno", true);
+        output.append(ExecutionOutput.Channel.STDOUT, "dos", true);
+        output.append(ExecutionOutput.Channel.STDERR, "error", true);
+
+        assertEquals("uno" + NL + "dos" + NL, output.getText(ExecutionOutput.Channel.STDOUT));
+        assertEquals("error" + NL, output.getText(ExecutionOutput.Channel.STDERR));
+        assertFalse(output.isTruncated());
+    }
+
+    @Test
+    void alSuperarElLimiteDescartaLasLineasMasAntiguasConUnAviso() {
+        ExecutionOutput output = new ExecutionOutput(10);
+        output.append(ExecutionOutput.Channel.STDOUT, "11111", true);
+        output.append(ExecutionOutput.Channel.STDOUT, "22222", true);
+        output.append(ExecutionOutput.Channel.STDOUT, "33333", true);
+
+        assertEquals("[... salida truncada: se omitieron 2 líneas anteriores ...]" + NL + "33333" + NL,
+                output.getText(ExecutionOutput.Channel.STDOUT));
+        assertTrue(output.isTruncated());
+        // Los bytes cuentan también lo descartado
+        assertEquals(18, output.getBytes(ExecutionOutput.Channel.STDOUT));
+        assertEquals("", output.getText(ExecutionOutput.Channel.STDERR));
+    }
+
+    @Test
+    void unaLineaMasLargaQueElLimiteSeConserva() {
+        ExecutionOutput output = new ExecutionOutput(4);
+        output.append(ExecutionOutput.Channel.STDOUT, "una línea larga", true);
+
+        assertEquals("una línea larga" + NL, output.getText(ExecutionOutput.Channel.STDOUT));
+        assertFalse(output.isTruncated());
+    }
+
+    @Test
+    void losFragmentosSeUnenSinSaltoDeLinea() {
+        ExecutionOutput output = new ExecutionOutput(1000);
+        output.append(ExecutionOutput.Channel.STDOUT, "ab", false);
+        output.append(ExecutionOutput.Channel.STDOUT, "cd", true);
+        output.append(ExecutionOutput.Channel.STDOUT, "sin salto", false);
+
+        assertEquals("abcd" + NL + "sin salto", output.getText(ExecutionOutput.Channel.STDOUT));
+        assertEquals(14, output.getBytes(ExecutionOutput.Channel.STDOUT));
+    }
+
+    @Test
+    void quitarElSaltoDeLaUltimaLineaDescuentaSuByte() {
+        ExecutionOutput output = new ExecutionOutput(1000);
+        output.append(ExecutionOutput.Channel.STDOUT, "uno", true);
+        output.append(ExecutionOutput.Channel.STDOUT, "dos", true);
+
+        output.unterminateLast(ExecutionOutput.Channel.STDOUT);
+        // Una segunda llamada no descuenta otra vez
+        output.unterminateLast(ExecutionOutput.Channel.STDOUT);
+        output.unterminateLast(ExecutionOutput.Channel.STDERR);
+
+        assertEquals("uno" + NL + "dos", output.getText(ExecutionOutput.Channel.STDOUT));
+        assertEquals(7, output.getBytes(ExecutionOutput.Channel.STDOUT));
+        assertEquals(0, output.getBytes(ExecutionOutput.Channel.STDERR));
+    }
+
+    @Test
+    void cuentaLosBytesEnUtf8() {
+        ExecutionOutput output = new ExecutionOutput(1000);
+        output.append(ExecutionOutput.Channel.STDOUT, "ñ€😀", true);
+
+        assertEquals(2 + 3 + 4 + 1, output.getBytes(ExecutionOutput.Channel.STDOUT));
+    }
+
+    @Test
+    void unTextoCompletoSeSeparaConCualquierSaltoDeLinea() {
+        ExecutionOutput output = new ExecutionOutput(1000);
+        output.appendText(ExecutionOutput.Channel.STDERR, "Main.java:1: error\r\nint x = ;\n^\r");
+
+        assertEquals("Main.java:1: error" + NL + "int x = ;" + NL + "^" + NL, output.getText(ExecutionOutput.Channel.STDERR));
+    }
+
+    @Test
+    void alSuscribirseRecibeLoRetenidoEnOrdenYLoNuevo() {
+        ExecutionOutput output = new ExecutionOutput(1000);
+        output.append(ExecutionOutput.Channel.STDOUT, "uno", true);
+        output.append(ExecutionOutput.Channel.STDERR, "error", true);
+        output.append(ExecutionOutput.Channel.STDOUT, "dos", true);
+
+        RecordingListener listener = new RecordingListener();
+        output.subscribe(listener, 1);
+        output.append(ExecutionOutput.Channel.STDOUT, "tres", true);
+        output.close();
+        output.close();
+
+        assertEquals(List.of("2:STDERR:error", "3:STDOUT:dos", "4:STDOUT:tres", "fin"), listener.events);
+    }
+
+    @Test
+    void suscribirseDespuesDeTerminarRecibeElFin() {
+        ExecutionOutput output = new ExecutionOutput(1000);
+        output.append(ExecutionOutput.Channel.STDOUT, "uno", true);
+        output.close();
+
+        RecordingListener listener = new RecordingListener();
+        output.subscribe(listener, 0);
+
+        assertEquals(List.of("1:STDOUT:uno", "fin"), listener.events);
+    }
+
+    @Test
+    void unListenerDadoDeBajaNoRecibeMas() {
+        ExecutionOutput output = new ExecutionOutput(1000);
+        RecordingListener listener = new RecordingListener();
+        output.subscribe(listener, 0);
+        output.append(ExecutionOutput.Channel.STDOUT, "uno", true);
+
+        output.unsubscribe(listener);
+        output.append(ExecutionOutput.Channel.STDOUT, "dos", true);
+        output.close();
+
+        assertEquals(List.of("1:STDOUT:uno"), listener.events);
+    }
+}
@@ -0,0 +1,245 @@
+package com.uq.execution;
+
+import com.uq.exception.ExecutionQuotaExceededException;
+import com.uq.exception.ExecutionRejectedException;
+import com.uq.exception.ProgramExecutionException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Admisión, reparto por turnos y rechazos del {@link ExecutionScheduler}.
+ */
+class ExecutionSchedulerTest {
+
+    private static ExecutionScheduler newScheduler(int maxConcurrent, int maxQueuedPerStudent, int maxQueued, int maxWaitSeconds) {
+        ExecutionScheduler scheduler = new ExecutionScheduler();
+        scheduler.maxConcurrent = maxConcurrent;
+        scheduler.maxQueuedPerStudent = maxQueuedPerStudent;
+        scheduler.maxQueued = maxQueued;
+        scheduler.maxWaitSeconds = maxWaitSeconds;
+        scheduler.init();
+        return scheduler;
+    }
+
+    private static ExecutionHandle newHandle() {
+        return new ExecutionHandle(new ExecutionOutput(10_000));
+    }
+
+    // Espera hasta que la cola tenga el tamaño indicado (los hilos se encolan en el orden en que se lanzan)
+    private static void awaitQueued(ExecutionScheduler scheduler, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (scheduler.getQueued() != expected) {
+            assertTrue(System.currentTimeMillis() < deadline, "La cola no llegó a " + expected + " ejecuciones en espera");
+            Thread.sleep(5);
+        }
+    }
+
+    // Lanza un hilo que pide un cupo, anota a su dueño al recibirlo y lo libera de inmediato
+    private static Thread startWaiter(ExecutionScheduler scheduler, Long owner, List<Long> order,
+                                      AtomicReference<Throwable> failure) {
+        Thread thread = new Thread(() -> {
+            try (ExecutionScheduler.Permit permit = scheduler.acquire(owner, newHandle())) {
+                order.add(owner);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    @Test
+    void admiteDeInmediatoHastaElMaximoDeEjecucionesSimultaneas() {
+        ExecutionScheduler scheduler = newScheduler(2, 3, 10, 5);
+
+        ExecutionScheduler.Permit first = scheduler.acquire(1L, newHandle());
+        ExecutionScheduler.Permit second = scheduler.acquire(2L, newHandle());
+
+        assertEquals(2, scheduler.getInFlight());
+        assertEquals(0, scheduler.getQueued());
+        first.close();
+        second.close();
+        // Cerrar dos veces no libera otro cupo
+        second.close();
+        assertEquals(0, scheduler.getInFlight());
+    }
+
+    @Test
+    void repartePorTurnosEntreVariosDuenos() throws Exception {
+        ExecutionScheduler scheduler = newScheduler(1, 5, 10, 10);
+        List<Long> order = Collections.synchronizedList(new ArrayList<>());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        ExecutionScheduler.Permit holder = scheduler.acquire(9L, newHandle());
+
+        // El estudiante 1 encola tres ejecuciones antes que los estudiantes 2 y 3
+        List<Thread> threads = new ArrayList<>();
+        long[] owners = {1L, 1L, 1L, 2L, 2L, 3L};
+        for (int i = 0; i < owners.length; i++) {
+            threads.add(startWaiter(scheduler, owners[i], order, failure));
+            awaitQueued(scheduler, i + 1);
+        }
+        holder.close();
+        for (Thread thread : threads) {
+            thread.join(5_000);
+        }
+
+        assertNull(failure.get());
+        assertEquals(List.of(1L, 2L, 3L, 1L, 2L, 1L), order);
+        assertEquals(0, scheduler.getInFlight());
+        assertEquals(0, scheduler.getQueued());
+    }
+
+    @Test
+    void lasColasDeProfesoresNoSeMezclanConLasDeEstudiantes() throws Exception {
+        ExecutionScheduler scheduler = newScheduler(1, 1, 10, 10);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        ExecutionScheduler.Permit holder = scheduler.acquire(9L, newHandle());
+        Thread student = startWaiter(scheduler, 1L, Collections.synchronizedList(new ArrayList<>()), failure);
+        awaitQueued(scheduler, 1);
+
+        // El estudiante 1 ya llenó su cola, pero el profesor 1 tiene la suya
+        Thread profesor = new Thread(() -> {
+            try (ExecutionScheduler.Permit permit = scheduler.acquireForProfesor(1L, newHandle())) {
+                assertNotNull(permit);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        profesor.start();
+        awaitQueued(scheduler, 2);
+        holder.close();
+        student.join(5_000);
+        profesor.join(5_000);
+
+        assertNull(failure.get());
+        assertEquals(0, scheduler.getRejectedPerStudent());
+    }
+
+    @Test
+    void rechazaConCuotaCuandoLaColaDelEstudianteEstaLlena() throws Exception {
+        ExecutionScheduler scheduler = newScheduler(1, 1, 10, 10);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        ExecutionScheduler.Permit holder = scheduler.acquire(9L, newHandle());
+        Thread waiting = startWaiter(scheduler, 1L, Collections.synchronizedList(new ArrayList<>()), failure);
+        awaitQueued(scheduler, 1);
+
+        // Se responde 429: el límite es del estudiante, no del servidor
+        ExecutionQuotaExceededException e = assertThrows(ExecutionQuotaExceededException.class,
+                () -> scheduler.acquire(1L, newHandle()));
+        // Sin ejecuciones terminadas se estima con el tiempo máximo de ejecución: 1 en espera + la suya
+        assertEquals(2 * ProgramExecutor.EXECUTION_TIMEOUT_SECONDS, e.getRetryAfterSeconds());
+        assertEquals(1, scheduler.getRejectedPerStudent());
+        assertEquals(0, scheduler.getRejectedGlobal());
+
+        holder.close();
+        waiting.join(5_000);
+        assertNull(failure.get());
+    }
+
+    @Test
+    void rechazaSinCuotaCuandoLaColaGlobalEstaLlena() throws Exception {
+        ExecutionScheduler scheduler = newScheduler(1, 3, 2, 10);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Long> order = Collections.synchronizedList(new ArrayList<>());
+        ExecutionScheduler.Permit holder = scheduler.acquire(9L, newHandle());
+        Thread first = startWaiter(scheduler, 1L, order, failure);
+        awaitQueued(scheduler, 1);
+        Thread second = startWaiter(scheduler, 2L, order, failure);
+        awaitQueued(scheduler, 2);
+
+        // Se responde 503: el servidor está saturado aunque el estudiante 3 no tenga nada en espera
+        ExecutionRejectedException e = assertThrows(ExecutionRejectedException.class,
+                () -> scheduler.acquire(3L, newHandle()));
+        assertFalse(e instanceof ExecutionQuotaExceededException);
+        assertEquals(3 * ProgramExecutor.EXECUTION_TIMEOUT_SECONDS, e.getRetryAfterSeconds());
+        assertEquals(1, scheduler.getRejectedGlobal());
+
+        holder.close();
+        first.join(5_000);
+        second.join(5_000);
+        assertNull(failure.get());
+        assertEquals(List.of(1L, 2L), order);
+    }
+
+    @Test
+    void retryAfterUsaLaDuracionMediaDeLasEjecuciones() throws Exception {
+        ExecutionScheduler scheduler = newScheduler(1, 1, 10, 10);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        // Una ejecución de unos 1,2 s fija la duración media
+        ExecutionScheduler.Permit measured = scheduler.acquire(9L, newHandle());
+        Thread.sleep(1_200);
+        measured.close();
+
+        ExecutionScheduler.Permit holder = scheduler.acquire(9L, newHandle());
+        Thread waiting = startWaiter(scheduler, 1L, Collections.synchronizedList(new ArrayList<>()), failure);
+        awaitQueued(scheduler, 1);
+        ExecutionQuotaExceededException e = assertThrows(ExecutionQuotaExceededException.class,
+                () -> scheduler.acquire(1L, newHandle()));
+
+        // 2 turnos de ~1,2 s con un solo cupo
+        assertEquals(2, e.getRetryAfterSeconds());
+        holder.close();
+        waiting.join(5_000);
+        assertNull(failure.get());
+    }
+
+    @Test
+    void laEsperaExcedidaRetiraLaEjecucionDeLaCola() {
+        ExecutionScheduler scheduler = newScheduler(1, 3, 10, 1);
+        ExecutionScheduler.Permit holder = scheduler.acquire(9L, newHandle());
+
+        assertThrows(ExecutionRejectedException.class, () -> scheduler.acquire(1L, newHandle()));
+
+        assertEquals(1, scheduler.getWaitTimeouts());
+        assertEquals(0, scheduler.getQueued());
+        holder.close();
+        assertEquals(0, scheduler.getInFlight());
+    }
+
+    @Test
+    void cancelarMientrasEsperaRetiraLaEjecucionDeLaCola() throws Exception {
+        ExecutionScheduler scheduler = newScheduler(1, 3, 10, 10);
+        ExecutionScheduler.Permit holder = scheduler.acquire(9L, newHandle());
+        ExecutionHandle handle = newHandle();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread waiting = new Thread(() -> {
+            try {
+                scheduler.acquire(1L, handle).close();
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        waiting.start();
+        awaitQueued(scheduler, 1);
+
+        handle.cancel();
+        waiting.join(5_000);
+
+        assertTrue(failure.get() instanceof ProgramExecutionException);
+        assertEquals(0, scheduler.getQueued());
+        holder.close();
+        assertEquals(0, scheduler.getInFlight());
+    }
+
+    @Test
+    void elCupoSeLiberaCuandoTerminaElTrabajoPendiente() {
+        ExecutionScheduler scheduler = newScheduler(1, 3, 10, 10);
+        ExecutionHandle handle = newHandle();
+        CompletableFuture<Void> compile = new CompletableFuture<>();
+        ExecutionScheduler.Permit permit = scheduler.acquire(1L, handle);
+
+        handle.holdPermitUntil(compile);
+        permit.close();
+        assertEquals(1, scheduler.getInFlight());
+
+        compile.complete(null);
+        assertEquals(0, scheduler.getInFlight());
+    }
+}
@@ -0,0 +1,89 @@
+package com.uq.execution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compilación en memoria de {@link JavaSourceCompiler} y el formato de sus diagnósticos.
+ */
+class JavaSourceCompilerTest {
+
+    private static final String NL = System.lineSeparator();
+
+    private final JavaSourceCompiler compiler = new JavaSourceCompiler();
+
+    @Test
+    void sinDiagnosticosElTextoEstaVacio() {
+        assertEquals("", JavaSourceCompiler.formatAsJavac("Main", "class Main {}", List.of()));
+    }
+
+    @Test
+    void formateaComoJavacConLaLineaYElMarcador() {
+        String source = "public class Main {\n    int x = ;\n}\n";
+        List<CompilationDiagnostic> diagnostics = List.of(new CompilationDiagnostic("error", 2, 13, "illegal start of expression"));
+
+        assertEquals("Main.java:2: error: illegal start of expression" + NL
+                + "    int x = ;" + NL
+                + "            ^" + NL
+                + "1 error" + NL, JavaSourceCompiler.formatAsJavac("Main", source, diagnostics));
+    }
+
+    @Test
+    void elMarcadorConservaLasTabulaciones() {
+        String source = "class Main {\n\t\tint x = ;\n}";
+        List<CompilationDiagnostic> diagnostics = List.of(new CompilationDiagnostic("error", 2, 11, "illegal start of expression"));
+
+        assertTrue(JavaSourceCompiler.formatAsJavac("Main", source, diagnostics).contains("\t\tint x = ;" + NL + "\t\t        ^" + NL));
+    }
+
+    @Test
+    void unDiagnosticoSinPosicionSoloLlevaElMensaje() {
+        List<CompilationDiagnostic> diagnostics = List.of(
+                new CompilationDiagnostic("warning", -1, -1, "aviso general"),
+                new CompilationDiagnostic("warning", -1, -1, "otro aviso"),
+                new CompilationDiagnostic("note", -1, -1, "una nota"));
+
+        assertEquals("warning: aviso general" + NL + "warning: otro aviso" + NL + "note: una nota" + NL + "2 warnings" + NL,
+                JavaSourceCompiler.formatAsJavac("Main", "class Main {}", diagnostics));
+    }
+
+    @Test
+    void cuentaErroresYAdvertenciasPorSeparado() {
+        List<CompilationDiagnostic> diagnostics = List.of(
+                new CompilationDiagnostic("error", 1, 1, "uno"),
+                new CompilationDiagnostic("error", 1, 1, "dos"),
+                new CompilationDiagnostic("warning", 1, 1, "tres"));
+
+        String text = JavaSourceCompiler.formatAsJavac("Main", "class Main {}", diagnostics);
+
+        assertTrue(text.endsWith("2 errors" + NL + "1 warning" + NL));
+    }
+
+    @Test
+    void compilaEnMemoriaTodasLasClases() {
+        CompilationResult result = compiler.compile("Main", "public class Main {\n"
+                + "    static class Interna {}\n"
+                + "    public static void main(String[] args) { System.out.println(new Interna()); }\n"
+                + "}\n"
+                + "class Auxiliar {}\n");
+
+        assertTrue(result.isSuccess());
+        assertEquals(java.util.Set.of("Main", "Main$Interna", "Auxiliar"), result.getClassBytes().keySet());
+        assertEquals("", result.getStderr());
+    }
+
+    @Test
+    void unErrorDeCompilacionTieneLaMismaSalidaQueJavac() {
+        CompilationResult result = compiler.compile("Main", "public class Main {\n    int x = ;\n}\n");
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getClassBytes().isEmpty());
+        assertEquals(1, result.getDiagnostics().size());
+        assertEquals(2, result.getDiagnostics().get(0).getLine());
+        assertTrue(result.getStderr().startsWith("Main.java:2: error: "));
+        assertTrue(result.getStderr().endsWith("1 error" + NL));
+    }
+}
@@ -0,0 +1,80 @@
+package com.uq.execution;
+
+import com.uq.dto.ProgramaExecutionResultDTO;
+import com.uq.exception.ProgramExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compilación con un proceso {@code javac} de {@link ProgramExecutor}, la ruta alternativa a la
+ * compilación en memoria.
+ */
+class ProgramExecutorTest {
+
+    private final ProgramExecutor executor = new ProgramExecutor();
+    private final JavaSourceCompiler compiler = new JavaSourceCompiler();
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("program-executor-test");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void compilaConJavacEnElDirectorioDeEjecucion() throws Exception {
+        ProgramaExecutionResultDTO result = new ProgramaExecutionResultDTO();
+
+        executor.compileWithJavacProcess(tempDir, "public class Main {\n"
+                + "    public static void main(String[] args) { System.out.println(new Auxiliar()); }\n"
+                + "}\n"
+                + "class Auxiliar {}\n", result);
+
+        assertTrue(Files.exists(tempDir.resolve("Main.class")));
+        assertTrue(Files.exists(tempDir.resolve("Auxiliar.class")));
+        assertNull(result.getErrorMessage());
+    }
+
+    @Test
+    void unErrorDeCompilacionDejaLaSalidaDeJavacEnElResultado() {
+        ProgramaExecutionResultDTO result = new ProgramaExecutionResultDTO();
+        String source = "public class Main {\n    int x = ;\n}\n";
+
+        ProgramExecutionException e = assertThrows(ProgramExecutionException.class,
+                () -> executor.compileWithJavacProcess(tempDir, source, result));
+
+        assertTrue(e.getMessage().startsWith("Error de compilación."));
+        assertEquals("Error de compilación.", result.getErrorMessage());
+        assertNotEquals(0, result.getExitCode());
+        // La compilación en memoria produce el mismo texto que el proceso javac
+        assertEquals(result.getStderr(), compiler.compile("Main", source).getStderr());
+    }
+
+    @Test
+    void escribeLasClasesCompiladasEnMemoria() throws Exception {
+        CompilationResult compilation = compiler.compile("Main", "public class Main {\n"
+                + "    static class Interna {}\n"
+                + "    public static void main(String[] args) {}\n"
+                + "}\n");
+
+        executor.writeClassFiles(tempDir, compilation.getClassBytes());
+
+        assertTrue(Files.exists(tempDir.resolve("Main.class")));
+        assertTrue(Files.exists(tempDir.resolve("Main$Interna.class")));
+    }
+}
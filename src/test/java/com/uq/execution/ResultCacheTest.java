@@ -0,0 +1,244 @@
+package com.uq.execution;
+
+import com.uq.dto.ProgramaExecutionResultDTO;
+import com.uq.enums.EstadoEjecucion;
+import com.uq.exception.ProgramExecutionException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Caché de resultados con una ejecución simulada: confirmaciones, códigos no deterministas y
+ * solicitudes simultáneas del mismo código.
+ */
+class ResultCacheTest {
+
+    private static final String DETERMINISTIC = "public class Main {\n"
+            + "    public static void main(String[] args) {\n"
+            + "        System.out.println(2 + 3);\n"
+            + "    }\n"
+            + "}\n";
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    private static ResultCache newCache(boolean enabled, int confirmRuns) {
+        ChildJvmOptions jvmOptions = new ChildJvmOptions();
+        jvmOptions.profileName = "inicio-rapido";
+        jvmOptions.cdsEnabled = false;
+        jvmOptions.cdsDir = Optional.empty();
+
+        ResultCache cache = new ResultCache();
+        cache.childJvmOptions = jvmOptions;
+        cache.enabled = enabled;
+        cache.ttlSeconds = 600;
+        cache.maxEntries = 100;
+        cache.confirmRuns = confirmRuns;
+        return cache;
+    }
+
+    private static ExecutionHandle newHandle() {
+        return new ExecutionHandle(new ExecutionOutput(10_000));
+    }
+
+    // Ejecución simulada que termina bien con la salida indicada
+    private Supplier<ProgramaExecutionResultDTO> run(ExecutionHandle handle, String stdout) {
+        return () -> {
+            runs.incrementAndGet();
+            handle.getMetrics().setEstado(EstadoEjecucion.COMPLETADA);
+            ProgramaExecutionResultDTO result = new ProgramaExecutionResultDTO();
+            result.setStdout(stdout);
+            result.setStderr("");
+            return result;
+        };
+    }
+
+    private ProgramaExecutionResultDTO execute(ResultCache cache, String source, String stdout) {
+        ExecutionHandle handle = newHandle();
+        return cache.execute(source, handle, run(handle, stdout));
+    }
+
+    @Test
+    void desactivadaSiempreEjecuta() {
+        ResultCache cache = newCache(false, 1);
+
+        execute(cache, DETERMINISTIC, "5\n");
+        ProgramaExecutionResultDTO second = execute(cache, DETERMINISTIC, "5\n");
+
+        assertEquals(2, runs.get());
+        assertFalse(second.isCached());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void sirveElResultadoSoloDespuesDeLasEjecucionesDeConfirmacion() {
+        ResultCache cache = newCache(true, 2);
+
+        assertFalse(execute(cache, DETERMINISTIC, "5\n").isCached());
+        assertFalse(execute(cache, DETERMINISTIC, "5\n").isCached());
+        ExecutionHandle handle = newHandle();
+        ProgramaExecutionResultDTO third = cache.execute(DETERMINISTIC, handle, run(handle, "otra"));
+
+        assertEquals(2, runs.get());
+        assertTrue(third.isCached());
+        assertEquals("5\n", third.getStdout());
+        // El resultado en caché también queda en la salida en vivo y en las métricas del handle
+        assertEquals("5\n", handle.getOutput().getText(ExecutionOutput.Channel.STDOUT));
+        assertEquals(EstadoEjecucion.COMPLETADA, handle.getMetrics().getEstado());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void dosSalidasDistintasMarcanElCodigoComoNoCacheable() {
+        ResultCache cache = newCache(true, 2);
+
+        execute(cache, DETERMINISTIC, "5\n");
+        execute(cache, DETERMINISTIC, "6\n");
+        ProgramaExecutionResultDTO third = execute(cache, DETERMINISTIC, "5\n");
+        ProgramaExecutionResultDTO fourth = execute(cache, DETERMINISTIC, "5\n");
+
+        assertEquals(4, runs.get());
+        assertFalse(third.isCached());
+        assertFalse(fourth.isCached());
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getBypassed());
+    }
+
+    @Test
+    void unCodigoNoDeterministaNoSeCachea() {
+        ResultCache cache = newCache(true, 1);
+        String source = "public class Main {\n"
+                + "    public static void main(String[] args) {\n"
+                + "        System.out.println(new java.util.Random().nextInt());\n"
+                + "    }\n"
+                + "}\n";
+
+        execute(cache, source, "1\n");
+        execute(cache, source, "1\n");
+
+        assertEquals(2, runs.get());
+        assertEquals(2, cache.getBypassed());
+        assertEquals(0, cache.getMisses());
+    }
+
+    // Ejecución simulada que falla dejando el estado indicado en las métricas
+    private void fail(ResultCache cache, EstadoEjecucion estado, boolean cancel) {
+        ExecutionHandle handle = newHandle();
+        assertThrows(ProgramExecutionException.class, () -> cache.execute(DETERMINISTIC, handle, () -> {
+            runs.incrementAndGet();
+            if (cancel) {
+                handle.cancel();
+            }
+            handle.getMetrics().setEstado(estado);
+            throw new ProgramExecutionException("Falló la ejecución.");
+        }));
+    }
+
+    @Test
+    void unTiempoExcedidoMarcaElCodigoComoNoCacheable() {
+        ResultCache cache = newCache(true, 1);
+
+        fail(cache, EstadoEjecucion.TIEMPO_EXCEDIDO, false);
+        ProgramaExecutionResultDTO next = execute(cache, DETERMINISTIC, "5\n");
+
+        assertEquals(2, runs.get());
+        assertFalse(next.isCached());
+        assertEquals(1, cache.getBypassed());
+    }
+
+    @Test
+    void unErrorDeCompilacionMarcaElCodigoComoNoCacheable() {
+        ResultCache cache = newCache(true, 1);
+
+        fail(cache, EstadoEjecucion.ERROR_COMPILACION, false);
+        execute(cache, DETERMINISTIC, "5\n");
+
+        assertEquals(1, cache.getBypassed());
+    }
+
+    @Test
+    void unaCancelacionOUnErrorInternoNoAfectanALosDemas() {
+        ResultCache cache = newCache(true, 1);
+
+        fail(cache, EstadoEjecucion.CANCELADA, true);
+        fail(cache, EstadoEjecucion.ERROR_INTERNO, false);
+        execute(cache, DETERMINISTIC, "5\n");
+        ProgramaExecutionResultDTO cached = execute(cache, DETERMINISTIC, "5\n");
+
+        // Las ejecuciones fallidas solo cedieron el turno: el código se sigue cacheando
+        assertTrue(cached.isCached());
+        assertEquals(3, runs.get());
+        assertEquals(0, cache.getBypassed());
+    }
+
+    @Test
+    void invalidarObligaAEjecutarDeNuevo() {
+        ResultCache cache = newCache(true, 1);
+
+        execute(cache, DETERMINISTIC, "5\n");
+        assertTrue(execute(cache, DETERMINISTIC, "5\n").isCached());
+        cache.invalidate(DETERMINISTIC);
+        ProgramaExecutionResultDTO afterInvalidate = execute(cache, DETERMINISTIC, "5\n");
+
+        assertFalse(afterInvalidate.isCached());
+        assertEquals(2, runs.get());
+        assertEquals(1, cache.getInvalidations());
+    }
+
+    @Test
+    void lasSolicitudesSimultaneasEsperanLaEjecucionEnCurso() throws Exception {
+        ResultCache cache = newCache(true, 1);
+        CountDownLatch leaderRunning = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        ExecutionHandle leaderHandle = newHandle();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread leader = new Thread(() -> {
+            try {
+                cache.execute(DETERMINISTIC, leaderHandle, () -> {
+                    leaderRunning.countDown();
+                    try {
+                        releaseLeader.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return run(leaderHandle, "5\n").get();
+                });
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        leader.start();
+        assertTrue(leaderRunning.await(5, TimeUnit.SECONDS));
+
+        AtomicReference<ProgramaExecutionResultDTO> followerResult = new AtomicReference<>();
+        Thread follower = new Thread(() -> {
+            try {
+                followerResult.set(execute(cache, DETERMINISTIC, "5\n"));
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        follower.start();
+        // Mientras el primero no termina, el segundo espera sin ejecutar
+        follower.join(300);
+        assertTrue(follower.isAlive());
+        assertEquals(0, runs.get());
+
+        releaseLeader.countDown();
+        leader.join(5_000);
+        follower.join(5_000);
+
+        assertNull(failure.get());
+        assertEquals(1, runs.get());
+        assertTrue(followerResult.get().isCached());
+        assertEquals("5\n", followerResult.get().getStdout());
+    }
+}
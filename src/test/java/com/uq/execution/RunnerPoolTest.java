@@ -0,0 +1,153 @@
+package com.uq.execution;
+
+import io.quarkus.runtime.StartupEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reutilización y reemplazo de las JVM trabajadoras del {@link RunnerPool}, con procesos reales.
+ */
+class RunnerPoolTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+    private static final String NL = System.lineSeparator();
+
+    // Imprime el pid de la JVM que lo ejecuta; con la entrada "exit" termina la JVM con código 4
+    private static final String PID_SOURCE = "public class Main {\n"
+            + "    public static void main(String[] args) throws Exception {\n"
+            + "        if (new String(System.in.readAllBytes()).equals(\"exit\")) {\n"
+            + "            System.exit(4);\n"
+            + "        }\n"
+            + "        System.out.println(ProcessHandle.current().pid());\n"
+            + "    }\n"
+            + "}\n";
+
+    private RunnerPool pool;
+    private Map<String, byte[]> pidClasses;
+
+    @BeforeEach
+    void setUp() {
+        CompilationResult compilation = new JavaSourceCompiler().compile("Main", PID_SOURCE);
+        assertTrue(compilation.isSuccess(), compilation.getStderr());
+        pidClasses = compilation.getClassBytes();
+    }
+
+    // Pool con un solo trabajador por carril, sin trabajadores de antemano
+    private void startPool(int maxRunsPerWorker) {
+        ChildJvmOptions jvmOptions = new ChildJvmOptions();
+        jvmOptions.profileName = "inicio-rapido";
+        jvmOptions.maxHeap = "256m";
+        jvmOptions.cdsEnabled = false;
+        jvmOptions.cdsDir = Optional.empty();
+
+        pool = new RunnerPool();
+        pool.childJvmOptions = jvmOptions;
+        pool.enabled = true;
+        pool.minSize = 0;
+        pool.maxSize = 1;
+        pool.maxRunsPerWorker = maxRunsPerWorker;
+        pool.idleTimeoutSeconds = 300;
+        pool.healthCheckIntervalSeconds = 300;
+        pool.trustedMinSize = 0;
+        pool.trustedMaxSize = 1;
+        pool.trustedMaxRunsPerWorker = 500;
+        pool.onStart(new StartupEvent());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private static ExecutionHandle newHandle() {
+        return new ExecutionHandle(new ExecutionOutput(10_000));
+    }
+
+    private RunResult run(String stdin) throws Exception {
+        return pool.run(pidClasses, "Main", stdin.getBytes(StandardCharsets.UTF_8), TIMEOUT_MILLIS, newHandle());
+    }
+
+    @Test
+    void reutilizaLaTrabajadoraHastaElMaximoDeEjecuciones() throws Exception {
+        startPool(2);
+        String first = run("").getStdout();
+        String second = run("").getStdout();
+        String third = run("").getStdout();
+
+        assertEquals(first, second);
+        // max-runs-per-worker = 2: la tercera ejecución ya usa otro proceso
+        assertNotEquals(first, third);
+        assertEquals(1, pool.getTotalWorkers());
+    }
+
+    @Test
+    void systemExitDescartaLaTrabajadora() throws Exception {
+        startPool(10);
+
+        String before = run("").getStdout();
+        RunResult exit = run("exit");
+        String after = run("").getStdout();
+
+        assertEquals(4, exit.getExitCode());
+        assertFalse(exit.isTimedOut());
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void tiempoExcedidoDescartaLaTrabajadora() throws Exception {
+        startPool(10);
+        CompilationResult loop = new JavaSourceCompiler().compile("Main",
+                "public class Main { public static void main(String[] args) { while (true) { } } }");
+
+        RunResult result = pool.run(loop.getClassBytes(), "Main", new byte[0], 500, newHandle());
+        String after = run("").getStdout();
+
+        assertTrue(result.isTimedOut());
+        assertEquals(-1, result.getExitCode());
+        assertFalse(after.isEmpty());
+        assertEquals(1, pool.getTotalWorkers());
+    }
+
+    @Test
+    void laSesionSigueConOtraTrabajadoraDespuesDeSystemExit() throws Exception {
+        startPool(10);
+        RunResult a;
+        RunResult exit;
+        RunResult b;
+        try (RunnerPool.Session session = pool.openSession(pidClasses, newHandle())) {
+            a = session.run("Main", new byte[0], TIMEOUT_MILLIS, new ExecutionOutput(10_000));
+            exit = session.run("Main", "exit".getBytes(StandardCharsets.UTF_8), TIMEOUT_MILLIS, new ExecutionOutput(10_000));
+            b = session.run("Main", new byte[0], TIMEOUT_MILLIS, new ExecutionOutput(10_000));
+        }
+
+        assertEquals(0, a.getExitCode());
+        assertEquals(4, exit.getExitCode());
+        assertEquals(0, b.getExitCode());
+        assertNotEquals(a.getStdout(), b.getStdout());
+    }
+
+    @Test
+    void elCarrilConfiableConservaLaTrabajadoraTrasElWatchdog() throws Exception {
+        startPool(1);
+        CompilationResult sleeper = new JavaSourceCompiler().compile("Main",
+                "public class Main { public static void main(String[] args) throws Exception { Thread.sleep(60_000); } }");
+
+        String before = pool.runTrusted(pidClasses, "Main", new byte[0], TIMEOUT_MILLIS, newHandle()).getStdout();
+        RunResult stopped = pool.runTrusted(sleeper.getClassBytes(), "Main", new byte[0], 500, newHandle());
+        String after = pool.runTrusted(pidClasses, "Main", new byte[0], TIMEOUT_MILLIS, newHandle()).getStdout();
+
+        assertTrue(stopped.isTimedOut());
+        assertEquals(before, after);
+        assertTrue(before.endsWith(NL));
+        assertEquals(1, pool.getTrustedWorkers());
+    }
+}
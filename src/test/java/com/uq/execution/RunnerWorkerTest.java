@@ -0,0 +1,212 @@
+package com.uq.execution;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Protocolo entre {@link PooledWorker} y la JVM trabajadora ({@link RunnerWorker}), con un proceso real.
+ */
+class RunnerWorkerTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+    private static final String NL = System.lineSeparator();
+
+    private final JavaSourceCompiler compiler = new JavaSourceCompiler();
+    private ExecutorService readers;
+    private PooledWorker worker;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        readers = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "test-worker-io");
+            t.setDaemon(true);
+            return t;
+        });
+        worker = PooledWorker.start(workerCommand());
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.destroy();
+        readers.shutdownNow();
+    }
+
+    // La trabajadora solo necesita sus propias clases, que están junto a las de la aplicación
+    static List<String> workerCommand() throws Exception {
+        Path classes = Path.of(RunnerWorker.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        return new ArrayList<>(List.of(JvmLauncher.javaExecutable(), "-cp", classes.toString(), RunnerWorker.class.getName()));
+    }
+
+    // Compila un Main cuyo metodo main tiene el cuerpo indicado
+    private Map<String, byte[]> compile(String body) {
+        return compileSource("public class Main {\n    public static void main(String[] args) throws Exception {\n"
+                + body + "\n    }\n}\n");
+    }
+
+    private Map<String, byte[]> compileSource(String source) {
+        CompilationResult compilation = compiler.compile("Main", source);
+        assertTrue(compilation.isSuccess(), compilation.getStderr());
+        return compilation.getClassBytes();
+    }
+
+    private RunResult run(String body, long timeoutMillis, boolean watchdog) throws Exception {
+        return worker.run(readers, compile(body), "Main", new byte[0], timeoutMillis, watchdog, new ExecutionOutput(10_000));
+    }
+
+    @Test
+    void respondeAlPing() {
+        assertTrue(worker.ping(readers, TIMEOUT_MILLIS));
+    }
+
+    @Test
+    void separaStdoutYStderrConElDelimitador() throws Exception {
+        RunResult result = run("System.out.println(\"uno\"); System.out.print(\"dos\"); System.err.println(\"error\");",
+                TIMEOUT_MILLIS, false);
+
+        assertFalse(result.isTimedOut());
+        assertEquals(0, result.getExitCode());
+        // El salto de línea que el trabajador agrega antes del delimitador no aparece: igual que con "java Main"
+        assertEquals("uno" + NL + "dos", result.getStdout());
+        assertEquals("error" + NL, result.getStderr());
+        assertTrue(worker.isReusable());
+    }
+
+    @Test
+    void unaSalidaTerminadaEnRetornoDeCarroConservaSuUltimaLinea() throws Exception {
+        RunResult result = run("System.out.print(\"uno\\r\");", TIMEOUT_MILLIS, false);
+
+        assertEquals("uno" + NL, result.getStdout());
+    }
+
+    @Test
+    void esperaLosHilosNoDaemonQueSiguenDespuesDeMain() throws Exception {
+        RunResult result = run("Thread t = new Thread(() -> {"
+                + " try { Thread.sleep(300); } catch (InterruptedException e) { }"
+                + " System.out.println(\"desde hilo\"); });"
+                + " t.start(); System.out.println(\"fin main\");", TIMEOUT_MILLIS, false);
+
+        assertEquals("fin main" + NL + "desde hilo" + NL, result.getStdout());
+        assertEquals(0, result.getExitCode());
+        assertTrue(worker.isReusable());
+    }
+
+    @Test
+    void elWatchdogTambienDetieneLosHilosQueSiguenDespuesDeMain() throws Exception {
+        RunResult result = run("new Thread(() -> {"
+                + " try { Thread.sleep(60_000); } catch (InterruptedException e) { System.out.println(\"interrumpido\"); }"
+                + " }).start();", 500, true);
+
+        assertTrue(result.isTimedOut());
+        assertEquals("interrumpido" + NL, result.getStdout());
+        assertTrue(worker.isReusable());
+    }
+
+    @Test
+    void unHiloDaemonVivoImpideReutilizarLaTrabajadora() throws Exception {
+        RunResult result = run("Thread t = new Thread(() -> {"
+                + " try { Thread.sleep(60_000); } catch (InterruptedException e) { } });"
+                + " t.setDaemon(true); t.start(); System.out.println(\"fin\");", TIMEOUT_MILLIS, false);
+
+        // Como con "java Main", un hilo daemon no retrasa el fin de la ejecución
+        assertEquals("fin" + NL, result.getStdout());
+        assertFalse(result.isTimedOut());
+        assertFalse(worker.isReusable());
+    }
+
+    @Test
+    void unaLineaParecidaAlDelimitadorNoTerminaLaEjecucion() throws Exception {
+        // Un token de otra ejecución (o inventado) no coincide con el de esta
+        RunResult result = run("System.out.println(\"00000000-0000-0000-0000-000000000000 0 1 0 0 0 0\");"
+                + " System.out.println(\"fin\");", TIMEOUT_MILLIS, false);
+
+        assertEquals("00000000-0000-0000-0000-000000000000 0 1 0 0 0 0" + NL + "fin" + NL, result.getStdout());
+        assertEquals(0, result.getExitCode());
+        assertTrue(worker.isReusable());
+    }
+
+    @Test
+    void excepcionNoCapturadaTerminaConCodigo1() throws Exception {
+        RunResult result = run("throw new IllegalStateException(\"falla\");", TIMEOUT_MILLIS, false);
+
+        assertEquals(1, result.getExitCode());
+        assertTrue(result.getStderr().startsWith("Exception in thread \"main\" java.lang.IllegalStateException: falla"),
+                result.getStderr());
+        assertTrue(worker.isReusable());
+    }
+
+    @Test
+    void systemExitTerminaLaTrabajadoraConSuCodigo() throws Exception {
+        RunResult result = run("System.out.println(\"antes\"); System.exit(3);", TIMEOUT_MILLIS, false);
+
+        assertEquals(3, result.getExitCode());
+        assertFalse(result.isTimedOut());
+        assertEquals("antes" + NL, result.getStdout());
+        assertFalse(worker.isReusable());
+    }
+
+    @Test
+    void tiempoExcedidoDestruyeLaTrabajadora() throws Exception {
+        RunResult result = run("while (true) { }", 500, false);
+
+        assertTrue(result.isTimedOut());
+        assertEquals(-1, result.getExitCode());
+        assertFalse(worker.isReusable());
+    }
+
+    @Test
+    void elWatchdogDetieneUnProgramaInterrumpibleYLaTrabajadoraSigue() throws Exception {
+        RunResult result = run("System.out.println(\"inicio\"); Thread.sleep(60_000);", 500, true);
+
+        assertTrue(result.isTimedOut());
+        assertEquals("inicio" + NL, result.getStdout());
+        assertTrue(worker.isReusable());
+
+        RunResult next = run("System.out.println(\"siguiente\");", TIMEOUT_MILLIS, true);
+        assertFalse(next.isTimedOut());
+        assertEquals("siguiente" + NL, next.getStdout());
+    }
+
+    @Test
+    void laMismaTrabajadoraEjecutaVariasVecesConClassLoadersNuevos() throws Exception {
+        Map<String, byte[]> classes = compileSource("public class Main {\n"
+                + "    static int contador;\n"
+                + "    public static void main(String[] args) {\n"
+                + "        System.out.println(ProcessHandle.current().pid() + \" \" + (++contador));\n"
+                + "    }\n"
+                + "}\n");
+        worker.load(classes);
+
+        ExecutionOutput first = new ExecutionOutput(10_000);
+        ExecutionOutput second = new ExecutionOutput(10_000);
+        worker.exec(readers, "Main", new byte[0], TIMEOUT_MILLIS, first);
+        worker.exec(readers, "Main", new byte[0], TIMEOUT_MILLIS, second);
+
+        // Mismo proceso y los campos estáticos empiezan de nuevo en cada ejecución
+        String expected = worker.pid() + " 1" + NL;
+        assertEquals(expected, first.getText(ExecutionOutput.Channel.STDOUT));
+        assertEquals(expected, second.getText(ExecutionOutput.Channel.STDOUT));
+        assertTrue(worker.isReusable());
+    }
+
+    @Test
+    void laEntradaEstandarLlegaAlPrograma() throws Exception {
+        Map<String, byte[]> classes = compile("java.util.Scanner in = new java.util.Scanner(System.in);"
+                + " System.out.println(in.nextInt() + in.nextInt());");
+
+        RunResult result = worker.run(readers, classes, "Main", "2 3".getBytes(StandardCharsets.UTF_8),
+                TIMEOUT_MILLIS, false, new ExecutionOutput(10_000));
+
+        assertEquals("5" + NL, result.getStdout());
+    }
+}
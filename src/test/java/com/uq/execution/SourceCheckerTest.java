@@ -0,0 +1,92 @@
+package com.uq.execution;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Turnos por estudiante y caché de {@link SourceChecker}.
+ */
+class SourceCheckerTest {
+
+    private static final String VALID = "public class Main { public static void main(String[] args) { System.out.println(1); } }";
+    private static final String INVALID = "public class Main { public static void main(String[] args) { int x = ; } }";
+
+    private SourceChecker checker;
+
+    @BeforeEach
+    void setUp() {
+        checker = new SourceChecker();
+        checker.threads = 2;
+        checker.maxQueued = 10;
+        checker.minIntervalMillis = 500;
+        checker.cacheEntries = 10;
+        checker.maxSourceChars = 100_000;
+    }
+
+    @AfterEach
+    void tearDown() {
+        checker.shutdown();
+    }
+
+    @Test
+    void laPrimeraSolicitudSeAnalizaDeInmediato() {
+        SourceCheckResult result = checker.check(1L, INVALID);
+
+        assertFalse(result.isSuperseded());
+        assertFalse(result.isSuccess());
+        assertTrue(result.getDiagnostics().stream().anyMatch(CompilationDiagnostic::isError));
+        assertEquals(1, checker.getAnalyzed());
+    }
+
+    @Test
+    void unaSolicitudMasRecienteDescartaLaQueEsperaSinEsperarElIntervalo() throws Exception {
+        checker.check(1L, VALID);
+
+        // Las dos esperan el turno; la segunda reemplaza a la primera
+        CompletableFuture<SourceCheckResult> first = CompletableFuture.supplyAsync(() -> checker.check(1L, INVALID));
+        Thread.sleep(100);
+        long started = System.nanoTime();
+        CompletableFuture<SourceCheckResult> second = CompletableFuture.supplyAsync(() -> checker.check(1L, INVALID + " "));
+
+        assertTrue(first.get(5, TimeUnit.SECONDS).isSuperseded());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < checker.minIntervalMillis);
+        assertFalse(second.get(5, TimeUnit.SECONDS).isSuperseded());
+        assertEquals(1, checker.getSuperseded());
+        assertEquals(2, checker.getAnalyzed());
+    }
+
+    @Test
+    void losEstudiantesNoCompartenTurno() {
+        checker.check(1L, VALID);
+        long started = System.nanoTime();
+
+        SourceCheckResult other = checker.check(2L, INVALID);
+
+        assertFalse(other.isSuperseded());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < checker.minIntervalMillis);
+    }
+
+    @Test
+    void elMismoCodigoSeTomaDeLaCache() {
+        checker.check(1L, VALID);
+        SourceCheckResult again = checker.check(2L, VALID);
+
+        assertTrue(again.isCached());
+        assertTrue(again.isSuccess());
+        assertEquals(1, checker.getAnalyzed());
+        assertEquals(1, checker.getCacheHits());
+    }
+
+    @Test
+    void rechazaUnCodigoDemasiadoGrande() {
+        checker.maxSourceChars = 10;
+
+        assertThrows(IllegalArgumentException.class, () -> checker.check(1L, VALID));
+    }
+}
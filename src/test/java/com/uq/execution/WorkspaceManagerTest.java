@@ -0,0 +1,153 @@
+package com.uq.execution;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reutilización, vaciado y barrido de los directorios de {@link WorkspaceManager}.
+ */
+class WorkspaceManagerTest {
+
+    // PID que no corresponde a ningún proceso
+    private static final String DEAD_PID = String.valueOf(Integer.MAX_VALUE);
+
+    private Path root;
+    private WorkspaceManager manager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("workspace-manager-test");
+        manager = new WorkspaceManager();
+        manager.root = Optional.of(root.toString());
+        manager.poolSize = 2;
+        manager.sweepIntervalSeconds = 3600;
+        manager.onStart(null);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        manager.shutdown();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private Path base() {
+        return root.resolve("pfapis_workspaces");
+    }
+
+    @Test
+    void preparaLosDirectoriosDelPoolAlArrancar() throws IOException {
+        assertTrue(manager.isStarted());
+        assertEquals(2, manager.getIdleWorkspaces());
+        assertEquals(2, manager.getCreated());
+
+        Path dir = manager.acquire();
+
+        assertTrue(dir.startsWith(Path.of(manager.getRoot())));
+        assertEquals(1, manager.getReused());
+        assertEquals(1, manager.getIdleWorkspaces());
+        manager.release(dir);
+    }
+
+    @Test
+    void alDevolverloSeVaciaYSeReutilizaPrimero() throws IOException {
+        Path dir = manager.acquire();
+        Files.writeString(dir.resolve("Main.java"), "class Main {}");
+        Files.createDirectories(dir.resolve("paquete/interno"));
+        Files.writeString(dir.resolve("paquete/interno/Dato.txt"), "x");
+
+        manager.release(dir);
+
+        try (Stream<Path> entries = Files.list(dir)) {
+            assertEquals(0, entries.count());
+        }
+        assertEquals(2, manager.getIdleWorkspaces());
+        assertEquals(dir, manager.acquire());
+    }
+
+    @Test
+    void conElPoolLlenoElDirectorioExtraSeRetira() throws IOException {
+        Path first = manager.acquire();
+        Path second = manager.acquire();
+        Path extra = manager.acquire();
+        assertEquals(3, manager.getCreated());
+
+        manager.release(first);
+        manager.release(second);
+        manager.release(extra);
+
+        assertEquals(2, manager.getIdleWorkspaces());
+        assertFalse(Files.exists(extra));
+        assertTrue(Files.exists(first));
+    }
+
+    @Test
+    void unDirectorioAjenoSeBorraCompleto() throws IOException {
+        Path outside = Files.createDirectory(root.resolve("ajeno"));
+        Files.writeString(outside.resolve("archivo.txt"), "x");
+
+        manager.release(outside);
+
+        assertFalse(Files.exists(outside));
+        assertEquals(2, manager.getIdleWorkspaces());
+    }
+
+    @Test
+    void elBarridoVaciaLaPapeleraYBorraInstanciasTerminadas() throws IOException {
+        Path dir = manager.acquire();
+        Files.createDirectories(dir.resolve("sub"));
+        manager.release(dir);
+
+        Path old = Files.createDirectories(base().resolve(DEAD_PID).resolve("ws_1"));
+        Files.setLastModifiedTime(base().resolve(DEAD_PID), FileTime.fromMillis(System.currentTimeMillis() - 4 * 3600 * 1000L));
+        Path recent = Files.createDirectories(base().resolve(String.valueOf(Integer.MAX_VALUE - 1)));
+        Path other = Files.createDirectories(base().resolve("otro"));
+        Files.setLastModifiedTime(other, FileTime.fromMillis(0));
+
+        manager.sweep();
+
+        try (Stream<Path> trash = Files.list(Path.of(manager.getRoot(), "papelera"))) {
+            assertEquals(0, trash.count());
+        }
+        assertFalse(Files.exists(old));
+        assertFalse(Files.exists(base().resolve(DEAD_PID)));
+        // Hace poco que se actualizó: el barrido espera a que pasen varios intervalos
+        assertTrue(Files.exists(recent));
+        // No es el directorio de una instancia
+        assertTrue(Files.exists(other));
+        assertTrue(Files.exists(Path.of(manager.getRoot())));
+    }
+
+    @Test
+    void alTerminarBorraElDirectorioDeLaInstancia() {
+        Path instance = Path.of(manager.getRoot());
+
+        manager.shutdown();
+
+        assertFalse(Files.exists(instance));
+        assertFalse(manager.isStarted());
+    }
+
+    @Test
+    void sinArrancarUsaDirectoriosTemporales() throws IOException {
+        WorkspaceManager notStarted = new WorkspaceManager();
+
+        Path dir = notStarted.acquire();
+        Files.writeString(dir.resolve("Main.java"), "class Main {}");
+        notStarted.release(dir);
+
+        assertFalse(Files.exists(dir));
+    }
+}
@@ -0,0 +1,35 @@
+package com.uq.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tokens emitidos y validados por {@link JWTUtil}. La caché es global, así que se comparan
+ * diferencias de los contadores.
+ */
+class JWTUtilTest {
+
+    @Test
+    void validaElTokenQueGeneraYLoTomaDeLaCache() {
+        String token = JWTUtil.generateToken("ana@uq.edu.co");
+        long hits = JWTUtil.getCacheHits();
+
+        Claims first = JWTUtil.validateToken(token);
+        Claims second = JWTUtil.validateToken(token);
+
+        assertEquals("ana@uq.edu.co", first.getSubject());
+        assertNotNull(first.getExpiration());
+        assertSame(first, second);
+        assertEquals(hits + 1, JWTUtil.getCacheHits());
+    }
+
+    @Test
+    void rechazaUnTokenConOtraFirma() {
+        String token = JWTUtil.generateToken("ana@uq.edu.co");
+
+        assertThrows(JwtException.class, () -> JWTUtil.validateToken(token.substring(0, token.length() - 2) + "xx"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.uq.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Caché de tokens verificados: aciertos, tokens alterados, expiración y límite de entradas.
+ * Cada prueba usa su propia caché con una clave de prueba.
+ */
+class VerifiedTokenCacheTest {
+
+    private static final SecretKey KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(Jwts.parserBuilder().setSigningKey(KEY).build(), 100);
+
+    private static String token(String email, long validMillis) {
+        return Jwts.builder()
+                .setSubject(email)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + validMillis))
+                .signWith(KEY, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static String token(String email) {
+        return token(email, 60_000);
+    }
+
+    @Test
+    void elMismoTokenSeTomaDeLaCache() {
+        String token = token("ana@uq.edu.co");
+
+        Claims first = cache.validate(token);
+        Claims second = cache.validate(token);
+
+        assertEquals("ana@uq.edu.co", first.getSubject());
+        assertSame(first, second);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void unTokenAlteradoSeVerificaCompletoYSeRechaza() {
+        String ana = token("ana@uq.edu.co");
+        String luis = token("luis@uq.edu.co");
+        cache.validate(ana);
+
+        // Cabecera y firma del token de ana con el contenido del de luis
+        String[] anaParts = ana.split("\\.");
+        String[] luisParts = luis.split("\\.");
+        String tampered = anaParts[0] + "." + luisParts[1] + "." + anaParts[2];
+
+        assertThrows(JwtException.class, () -> cache.validate(tampered));
+        assertThrows(JwtException.class, () -> cache.validate(ana + "x"));
+
+        assertEquals(0, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        // Los tokens inválidos no se guardan
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void unTokenEnCacheQueVencioLanzaExpiredJwtException() throws Exception {
+        String token = token("ana@uq.edu.co", 1_500);
+        cache.validate(token);
+        cache.validate(token);
+        assertEquals(1, cache.size());
+
+        // La expiración del token se guarda en segundos: a los 2 s ya venció
+        Thread.sleep(2_000);
+
+        assertThrows(ExpiredJwtException.class, () -> cache.validate(token));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void descartaElTokenMenosUsadoAlLlegarAlMaximo() {
+        VerifiedTokenCache small = new VerifiedTokenCache(Jwts.parserBuilder().setSigningKey(KEY).build(), 2);
+        String ana = token("ana@uq.edu.co");
+        String luis = token("luis@uq.edu.co");
+        String marta = token("marta@uq.edu.co");
+
+        small.validate(ana);
+        small.validate(luis);
+        // ana se usó después de luis: al entrar marta sale luis
+        small.validate(ana);
+        small.validate(marta);
+
+        assertEquals(2, small.size());
+        assertEquals(1, small.getEvictions());
+
+        long hits = small.getHits();
+        long misses = small.getMisses();
+        small.validate(ana);
+        assertEquals(hits + 1, small.getHits());
+        small.validate(luis);
+        assertEquals(misses + 1, small.getMisses());
+    }
+}
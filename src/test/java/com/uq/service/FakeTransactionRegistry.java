@@ -0,0 +1,85 @@
+package com.uq.service;
+
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registro de transacciones en memoria para las pruebas: {@link #begin()} abre una transacción y
+ * {@link #commit()} o {@link #rollback()} la terminan avisando a las sincronizaciones registradas.
+ */
+class FakeTransactionRegistry implements TransactionSynchronizationRegistry {
+
+    private final List<Synchronization> synchronizations = new ArrayList<>();
+    private final Map<Object, Object> resources = new HashMap<>();
+    private boolean active;
+    private boolean rollbackOnly;
+
+    void begin() {
+        active = true;
+        rollbackOnly = false;
+    }
+
+    void commit() {
+        complete(Status.STATUS_COMMITTED);
+    }
+
+    void rollback() {
+        complete(Status.STATUS_ROLLEDBACK);
+    }
+
+    private void complete(int status) {
+        List<Synchronization> registered = new ArrayList<>(synchronizations);
+        synchronizations.clear();
+        resources.clear();
+        registered.forEach(Synchronization::beforeCompletion);
+        active = false;
+        registered.forEach(sync -> sync.afterCompletion(status));
+    }
+
+    @Override
+    public Object getTransactionKey() {
+        return active ? this : null;
+    }
+
+    @Override
+    public void putResource(Object key, Object value) {
+        resources.put(key, value);
+    }
+
+    @Override
+    public Object getResource(Object key) {
+        return resources.get(key);
+    }
+
+    @Override
+    public void registerInterposedSynchronization(Synchronization sync) {
+        if (!active) {
+            throw new IllegalStateException("No hay una transacción activa.");
+        }
+        synchronizations.add(sync);
+    }
+
+    @Override
+    public int getTransactionStatus() {
+        if (!active) {
+            return Status.STATUS_NO_TRANSACTION;
+        }
+        return rollbackOnly ? Status.STATUS_MARKED_ROLLBACK : Status.STATUS_ACTIVE;
+    }
+
+    @Override
+    public void setRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    @Override
+    public boolean getRollbackOnly() {
+        return rollbackOnly;
+    }
+}
@@ -0,0 +1,90 @@
+package com.uq.service;
+
+import com.uq.dto.InformeProgramaDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Filas CSV de {@link InformeExportService}: comillas, separadores, saltos de línea y textos que
+ * una hoja de cálculo evaluaría como fórmula.
+ */
+class InformeExportServiceTest {
+
+    private static final String HEADER = "programaId,titulo,resuelto,compartido,fechaCreacion,"
+            + "estudianteId,estudianteNombre,estudianteEmail,comentarios";
+
+    private static InformeProgramaDTO programa(String titulo, String codigo) {
+        return new InformeProgramaDTO(7L, titulo, codigo, true, false, 3L, "Ana", "ana@uq.edu.co",
+                LocalDateTime.of(2025, 5, 1, 10, 30));
+    }
+
+    private static String csv(InformeProgramaDTO programa, boolean incluirCodigo, int maxLineas) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        InformeExportService.CsvRowWriter writer = new InformeExportService.CsvRowWriter(out, incluirCodigo);
+        writer.begin();
+        writer.write(programa, maxLineas, 2, Collections.emptyList());
+        writer.finish();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    // Solo la fila del programa, sin la cabecera
+    private static String row(String titulo) throws IOException {
+        String csv = csv(programa(titulo, null), false, 0);
+        return csv.substring(csv.indexOf("\r\n") + 2);
+    }
+
+    @Test
+    void unTextoSimpleVaSinComillas() throws IOException {
+        String csv = csv(programa("Suma", null), false, 0);
+
+        assertEquals(HEADER + "\r\n7,Suma,true,false,2025-05-01T10:30,3,Ana,ana@uq.edu.co,2\r\n", csv);
+    }
+
+    @Test
+    void lasComasYLasComillasVanEntreComillas() throws IOException {
+        assertTrue(row("Suma, resta").startsWith("7,\"Suma, resta\",true,"));
+        assertTrue(row("El \"mejor\" programa").startsWith("7,\"El \"\"mejor\"\" programa\",true,"));
+    }
+
+    @Test
+    void losSaltosDeLineaQuedanDentroDelCampo() throws IOException {
+        assertTrue(row("línea 1\nlínea 2").startsWith("7,\"línea 1\nlínea 2\",true,"));
+        assertTrue(row("línea 1\r\nlínea 2").startsWith("7,\"línea 1\r\nlínea 2\",true,"));
+    }
+
+    @Test
+    void unTextoQueEmpiezaComoFormulaLlevaUnaComillaSimple() throws IOException {
+        assertTrue(row("=1+1").startsWith("7,'=1+1,true,"));
+        assertTrue(row("+57 300").startsWith("7,'+57 300,true,"));
+        assertTrue(row("-2").startsWith("7,'-2,true,"));
+        assertTrue(row("@SUMA(A1)").startsWith("7,'@SUMA(A1),true,"));
+        assertTrue(row("\tHOLA").startsWith("7,'\tHOLA,true,"));
+        assertTrue(row("\rHOLA").startsWith("7,\"'\rHOLA\",true,"));
+    }
+
+    @Test
+    void unaFormulaConComasSeEscapaDespuesDeLaComillaSimple() throws IOException {
+        assertTrue(row("=HYPERLINK(\"x\",\"y\")").startsWith("7,\"'=HYPERLINK(\"\"x\"\",\"\"y\"\")\",true,"));
+    }
+
+    @Test
+    void unaFormulaEnMedioDelTextoNoCambia() throws IOException {
+        assertTrue(row("a=b").startsWith("7,a=b,true,"));
+        assertTrue(row("").startsWith("7,,true,"));
+    }
+
+    @Test
+    void elCodigoFuenteSeRecortaYSeEscapa() throws IOException {
+        String csv = csv(programa("Suma", "int a = 1;\nint b = 2;\nint c = 3;"), true, 2);
+
+        assertTrue(csv.startsWith(HEADER + ",codigoFuente\r\n"));
+        assertTrue(csv.endsWith(",2,\"int a = 1;\nint b = 2;\n// ... (1 líneas omitidas)\"\r\n"));
+    }
+}
@@ -0,0 +1,240 @@
+package com.uq.service;
+
+import com.uq.dto.ProgresoEstudianteDTO;
+import com.uq.model.Estudiante;
+import com.uq.model.Programa;
+import com.uq.repository.ComentarioRepository;
+import com.uq.repository.ProgramaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Totales de {@link ProgressCounters} con repositorios simulados: avisos de cambios,
+ * transacciones y conciliación con la base de datos.
+ */
+class ProgressCountersTest {
+
+    private StubProgramaRepository programas;
+    private StubComentarioRepository comentarios;
+    private FakeTransactionRegistry transactions;
+    private ProgressCounters counters;
+
+    // Filas de listProgressRows; duringQuery simula cambios que llegan mientras se consulta
+    static class StubProgramaRepository extends ProgramaRepository {
+        final List<Object[]> rows = new ArrayList<>();
+        Runnable duringQuery;
+
+        @Override
+        public List<Object[]> listProgressRows() {
+            if (duringQuery != null) {
+                Runnable action = duringQuery;
+                duringQuery = null;
+                action.run();
+            }
+            return new ArrayList<>(rows);
+        }
+    }
+
+    static class StubComentarioRepository extends ComentarioRepository {
+        final Map<Long, Long> counts = new HashMap<>();
+
+        @Override
+        public Map<Long, Long> countAllByPrograma() {
+            return new HashMap<>(counts);
+        }
+
+        @Override
+        public long countByProgramaId(Long programaId) {
+            return counts.getOrDefault(programaId, 0L);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        programas = new StubProgramaRepository();
+        comentarios = new StubComentarioRepository();
+        transactions = new FakeTransactionRegistry();
+        counters = new ProgressCounters();
+        counters.programaRepository = programas;
+        counters.comentarioRepository = comentarios;
+        counters.transactionRegistry = transactions;
+
+        // Estudiante 1: programa 10 resuelto con 2 comentarios y programa 11 compartido; estudiante 2: programa 20
+        programas.rows.add(new Object[]{10L, 1L, true, false});
+        programas.rows.add(new Object[]{11L, 1L, false, true});
+        programas.rows.add(new Object[]{20L, 2L, false, false});
+        comentarios.counts.put(10L, 2L);
+    }
+
+    private static Programa programa(Long id, Long estudianteId, boolean resuelto, boolean compartido) {
+        Estudiante estudiante = new Estudiante();
+        estudiante.setId(estudianteId);
+        Programa programa = new Programa();
+        programa.setId(id);
+        programa.setEstudiante(estudiante);
+        programa.setResuelto(resuelto);
+        programa.setShared(compartido);
+        return programa;
+    }
+
+    private static void assertTotals(ProgresoEstudianteDTO progreso, int creados, int resueltos, int compartidos,
+                                     int comentados, long comentariosRecibidos) {
+        assertEquals(creados, progreso.getProgramasCreados());
+        assertEquals(resueltos, progreso.getProgramasResueltos());
+        assertEquals(compartidos, progreso.getProgramasCompartidos());
+        assertEquals(comentados, progreso.getProgramasComentados());
+        assertEquals(comentariosRecibidos, progreso.getComentariosRecibidos());
+    }
+
+    @Test
+    void laPrimeraConsultaCargaLosTotalesDesdeLaBaseDeDatos() {
+        assertTotals(counters.getProgress(1L), 2, 1, 1, 1, 2);
+        assertTotals(counters.getProgress(2L), 1, 0, 0, 0, 0);
+        assertTotals(counters.getProgress(3L), 0, 0, 0, 0, 0);
+        assertEquals(List.of(1L, 2L), counters.listProgress().stream().map(ProgresoEstudianteDTO::getEstudianteId).toList());
+    }
+
+    @Test
+    void unAvisoRepetidoNoCuentaDosVeces() {
+        counters.getProgress(1L);
+
+        counters.programSaved(programa(11L, 1L, true, true));
+        counters.programSaved(programa(11L, 1L, true, true));
+        counters.programSaved(programa(12L, 1L, false, false));
+        counters.programSaved(programa(12L, 1L, false, false));
+
+        assertTotals(counters.getProgress(1L), 3, 2, 1, 1, 2);
+    }
+
+    @Test
+    void unComentarioNuevoCuentaAlPrograma() {
+        counters.getProgress(1L);
+
+        comentarios.counts.put(11L, 1L);
+        counters.commentAdded(programa(11L, 1L, false, true));
+        comentarios.counts.put(10L, 3L);
+        counters.commentAdded(programa(10L, 1L, true, false));
+
+        assertTotals(counters.getProgress(1L), 2, 1, 1, 2, 4);
+    }
+
+    @Test
+    void unComentarioAvisadoDosVecesCuentaUnaVez() {
+        counters.getProgress(1L);
+
+        comentarios.counts.put(10L, 3L);
+        counters.commentAdded(programa(10L, 1L, true, false));
+        counters.commentAdded(programa(10L, 1L, true, false));
+
+        assertTotals(counters.getProgress(1L), 2, 1, 1, 1, 3);
+    }
+
+    @Test
+    void unConteoAtrasadoNoBajaLosComentarios() {
+        counters.getProgress(1L);
+
+        comentarios.counts.put(10L, 4L);
+        counters.commentAdded(programa(10L, 1L, true, false));
+        // El aviso de un comentario anterior llega después, con un conteo que aún no veía el último
+        comentarios.counts.put(10L, 3L);
+        counters.commentAdded(programa(10L, 1L, true, false));
+
+        assertTotals(counters.getProgress(1L), 2, 1, 1, 1, 4);
+    }
+
+    @Test
+    void unaConciliacionQueYaLeyoElComentarioNoLoCuentaDosVeces() {
+        counters.getProgress(1L);
+
+        transactions.begin();
+        counters.commentAdded(programa(11L, 1L, false, true));
+        // El comentario ya está confirmado en la base de datos cuando concilia, antes del aviso
+        comentarios.counts.put(11L, 1L);
+        counters.reconcile();
+        transactions.commit();
+
+        assertTotals(counters.getProgress(1L), 2, 1, 1, 2, 3);
+    }
+
+    @Test
+    void losCambiosSeAplicanSoloAlConfirmarLaTransaccion() {
+        counters.getProgress(1L);
+
+        transactions.begin();
+        counters.programSaved(programa(12L, 1L, true, false));
+        assertTotals(counters.getProgress(1L), 2, 1, 1, 1, 2);
+        transactions.rollback();
+        assertTotals(counters.getProgress(1L), 2, 1, 1, 1, 2);
+
+        transactions.begin();
+        counters.programSaved(programa(12L, 1L, true, false));
+        transactions.commit();
+        assertTotals(counters.getProgress(1L), 3, 2, 1, 1, 2);
+    }
+
+    @Test
+    void programaEliminadoDejaDeContar() {
+        counters.getProgress(1L);
+
+        counters.programDeleted(10L);
+        counters.programDeleted(20L);
+        // Un aviso repetido no resta otra vez
+        counters.programDeleted(10L);
+
+        assertTotals(counters.getProgress(1L), 1, 0, 1, 0, 0);
+        assertTotals(counters.getProgress(2L), 0, 0, 0, 0, 0);
+        assertEquals(List.of(1L), counters.listProgress().stream().map(ProgresoEstudianteDTO::getEstudianteId).toList());
+    }
+
+    @Test
+    void estudianteEliminadoPierdeTodosSusProgramas() {
+        counters.getProgress(1L);
+
+        counters.studentDeleted(1L);
+
+        assertTotals(counters.getProgress(1L), 0, 0, 0, 0, 0);
+        assertTotals(counters.getProgress(2L), 1, 0, 0, 0, 0);
+        // Un comentario tardío sobre un programa ya eliminado vuelve a contarlo con los comentarios de la base de datos
+        comentarios.counts.put(10L, 3L);
+        counters.commentAdded(programa(10L, 1L, true, false));
+        assertTotals(counters.getProgress(1L), 1, 1, 0, 1, 3);
+    }
+
+    @Test
+    void laConciliacionConservaLosCambiosHechosDuranteLaConsulta() {
+        counters.getProgress(1L);
+
+        // Mientras se consulta: se crea el programa 12 y se elimina el 20, que la consulta todavía lee
+        programas.duringQuery = () -> {
+            counters.programSaved(programa(12L, 1L, true, true));
+            counters.programDeleted(20L);
+        };
+        counters.reconcile();
+
+        assertTotals(counters.getProgress(1L), 3, 2, 2, 1, 2);
+        assertTotals(counters.getProgress(2L), 0, 0, 0, 0, 0);
+        assertEquals(0, counters.getCorrections());
+    }
+
+    @Test
+    void laConciliacionCorrigeCambiosHechosPorFuera() {
+        counters.getProgress(1L);
+
+        // Otra instancia resolvió el programa 20 y agregó un comentario al 11
+        programas.rows.set(2, new Object[]{20L, 2L, true, false});
+        comentarios.counts.put(11L, 1L);
+        counters.reconcile();
+
+        assertTotals(counters.getProgress(1L), 2, 1, 1, 2, 3);
+        assertTotals(counters.getProgress(2L), 1, 1, 0, 0, 0);
+        assertEquals(1, counters.getCorrections());
+        assertNotNull(counters.getLastReconcile());
+    }
+}
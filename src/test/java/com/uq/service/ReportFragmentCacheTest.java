@@ -0,0 +1,140 @@
+package com.uq.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Versiones e invalidación de las páginas guardadas por {@link ReportFragmentCache}.
+ */
+class ReportFragmentCacheTest {
+
+    private static final int VARIANTE = 0;
+
+    private FakeTransactionRegistry transactions;
+    private ReportFragmentCache cache;
+
+    @BeforeEach
+    void setUp() {
+        transactions = new FakeTransactionRegistry();
+        cache = new ReportFragmentCache();
+        cache.transactionRegistry = transactions;
+        cache.enabled = true;
+        cache.maxEntries = 100;
+    }
+
+    private static List<ReportFragmentCache.Fragment> pages(String text) {
+        return List.of(new ReportFragmentCache.Fragment(text.getBytes(), false, Map.of("F1", "Helvetica")));
+    }
+
+    private static String text(List<ReportFragmentCache.Fragment> pages) {
+        return new String(pages.get(0).getContent());
+    }
+
+    @Test
+    void retornaLasPaginasGuardadasDeLaMismaVariante() {
+        cache.put(1L, VARIANTE, cache.snapshot(), pages("programa 1"));
+
+        assertEquals("programa 1", text(cache.get(1L, VARIANTE)));
+        // Otra variante (otro límite de líneas) no sirve
+        assertNull(cache.get(1L, 20));
+        assertNull(cache.get(2L, VARIANTE));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void noGuardaPaginasSiElProgramaCambioDespuesDelSnapshot() {
+        long snapshot = cache.snapshot();
+        // El programa cambia mientras el informe consulta y renderiza
+        cache.invalidate(1L);
+        cache.put(1L, VARIANTE, snapshot, pages("datos viejos"));
+
+        assertNull(cache.get(1L, VARIANTE));
+
+        cache.put(1L, VARIANTE, cache.snapshot(), pages("datos nuevos"));
+        assertEquals("datos nuevos", text(cache.get(1L, VARIANTE)));
+    }
+
+    @Test
+    void invalidarDespuesDeGuardarDescartaLasPaginas() {
+        cache.put(1L, VARIANTE, cache.snapshot(), pages("programa 1"));
+        cache.put(2L, VARIANTE, cache.snapshot(), pages("programa 2"));
+
+        cache.invalidate(1L);
+
+        assertNull(cache.get(1L, VARIANTE));
+        assertEquals("programa 2", text(cache.get(2L, VARIANTE)));
+    }
+
+    @Test
+    void invalidarTodoDescartaTodasLasPaginasYLosSnapshotsAnteriores() {
+        long snapshot = cache.snapshot();
+        cache.put(1L, VARIANTE, snapshot, pages("programa 1"));
+        cache.put(2L, VARIANTE, snapshot, pages("programa 2"));
+
+        cache.invalidateAll();
+        cache.put(3L, VARIANTE, snapshot, pages("programa 3"));
+
+        assertNull(cache.get(1L, VARIANTE));
+        assertNull(cache.get(2L, VARIANTE));
+        assertNull(cache.get(3L, VARIANTE));
+    }
+
+    @Test
+    void laInvalidacionSeAplicaAlConfirmarLaTransaccion() {
+        cache.put(1L, VARIANTE, cache.snapshot(), pages("programa 1"));
+
+        transactions.begin();
+        cache.invalidate(1L);
+        // Los datos nuevos aún no son visibles: lo guardado sigue sirviendo
+        assertNotNull(cache.get(1L, VARIANTE));
+        long duringTransaction = cache.snapshot();
+        transactions.commit();
+
+        assertNull(cache.get(1L, VARIANTE));
+        // Un informe que consultó antes de confirmar pudo leer los datos anteriores
+        cache.put(1L, VARIANTE, duringTransaction, pages("datos viejos"));
+        assertNull(cache.get(1L, VARIANTE));
+    }
+
+    @Test
+    void unRollbackTambienInvalida() {
+        cache.put(1L, VARIANTE, cache.snapshot(), pages("programa 1"));
+        cache.put(2L, VARIANTE, cache.snapshot(), pages("programa 2"));
+
+        transactions.begin();
+        cache.invalidate(1L);
+        cache.invalidateAll();
+        transactions.rollback();
+
+        assertNull(cache.get(1L, VARIANTE));
+        assertNull(cache.get(2L, VARIANTE));
+    }
+
+    @Test
+    void descartaLasPaginasMenosUsadasAlSuperarElMaximo() {
+        cache.maxEntries = 2;
+        cache.put(1L, VARIANTE, cache.snapshot(), pages("programa 1"));
+        cache.put(2L, VARIANTE, cache.snapshot(), pages("programa 2"));
+        cache.get(1L, VARIANTE);
+
+        cache.put(3L, VARIANTE, cache.snapshot(), pages("programa 3"));
+
+        assertNotNull(cache.get(1L, VARIANTE));
+        assertNull(cache.get(2L, VARIANTE));
+        assertNotNull(cache.get(3L, VARIANTE));
+    }
+
+    @Test
+    void desactivadaNoGuardaNada() {
+        cache.enabled = false;
+        cache.put(1L, VARIANTE, cache.snapshot(), pages("programa 1"));
+
+        assertNull(cache.get(1L, VARIANTE));
+    }
+}
@@ -0,0 +1,78 @@
+package com.uq.service;
+
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts.FontName;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Partición en líneas de {@link TextLayout}. Se usa Courier, donde todos los caracteres miden 600
+ * milésimas: con tamaño 10 y 60 puntos de ancho caben exactamente 10 caracteres por línea.
+ */
+class TextLayoutTest {
+
+    private static final float SIZE = 10;
+    private static final float WIDTH = 60;
+
+    private static TextLayout layout;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        layout = TextLayout.of(new PDType1Font(FontName.COURIER));
+    }
+
+    @Test
+    void elParrafoSeParteEnPalabrasQueCaben() {
+        assertEquals(List.of("uno dos", "tres", "cuatro"), layout.wrapParagraph("uno dos tres cuatro", SIZE, WIDTH));
+    }
+
+    @Test
+    void unaLineaDelAnchoExactoNoSeParte() {
+        assertEquals(List.of("abcde fghi"), layout.wrapParagraph("abcde fghi", SIZE, WIDTH));
+    }
+
+    @Test
+    void losEspaciosYSaltosSeguidosCuentanComoUnEspacio() {
+        assertEquals(List.of("uno dos", "tres"), layout.wrapParagraph("  uno\n\n  dos\t tres  ", SIZE, WIDTH));
+    }
+
+    @Test
+    void unParrafoVacioNoTieneLineas() {
+        assertTrue(layout.wrapParagraph(" \n\t ", SIZE, WIDTH).isEmpty());
+    }
+
+    @Test
+    void unaPalabraMasAnchaQueLaLineaSeCortaYElRestoSigueEnLaLineaSiguiente() {
+        List<String> lines = layout.wrapParagraph("abcdefghijklmnopqrstuvwxy z", SIZE, WIDTH);
+
+        assertEquals(List.of("abcdefghij", "klmnopqrst", "uvwxy z"), lines);
+        for (String line : lines) {
+            assertTrue(layout.width(line, SIZE) <= WIDTH);
+        }
+    }
+
+    @Test
+    void losCaracteresQueLaFuenteNoCodificaSeReemplazan() {
+        assertEquals(List.of("año a?b"), layout.wrapParagraph("año a→b", SIZE, WIDTH));
+    }
+
+    @Test
+    void elTextoPreformateadoConservaLineasVaciasYSangria() {
+        assertEquals(List.of("int a;", "", "    int b;"), layout.wrapPreformatted("int a;\r\n\n\tint b;   ", SIZE, WIDTH));
+    }
+
+    @Test
+    void unaLineaDeCodigoLargaSeCortaEnSuUltimoEspacioSinCortarLaSangria() {
+        assertEquals(List.of("    foo", "bar baz"), layout.wrapPreformatted("    foo bar baz", SIZE, WIDTH));
+    }
+
+    @Test
+    void unaLineaDeCodigoSinEspaciosSeCortaDondeLlega() {
+        assertEquals(List.of("abcdefghij", "klmno"), layout.wrapPreformatted("abcdefghijklmno", SIZE, WIDTH));
+    }
+}
@@ -13,7 +13,9 @@ import io.restassured.response.ValidatableResponse;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static io.restassured.RestAssured.baseURI;
 import static io.restassured.RestAssured.given;
@@ -44,6 +46,9 @@ public class StepDefinitions {
 
     private Long createdEstudianteId;
 
+    // Valores tomados de respuestas anteriores del escenario; reemplazan {nombre} en las URLs
+    private final Map<String, String> recordedValues = new HashMap<>();
+
 
     @Given("la API está disponible")
     public void la_api_esta_disponible() {
@@ -231,6 +236,41 @@ public class StepDefinitions {
         }
     }
 
+    @Given("el estudiante {string} tiene un programa con el siguiente código:")
+    public void el_estudiante_tiene_un_programa(String estudianteId, String codigoFuente) {
+        if (this.jwtToken == null) {
+            throw new RuntimeException("Se requiere autenticación para crear el programa. El token JWT es null.");
+        }
+
+        Response createResponse = given()
+                .header("Authorization", "Bearer " + this.jwtToken)
+                .header("Content-Type", "application/json")
+                .body(Map.of("titulo", "Programa de prueba", "descripcion", "Programa creado por el escenario", "codigoFuente", codigoFuente))
+                .when()
+                .post("/estudiantes/" + estudianteId + "/programas");
+
+        createResponse.then().statusCode(201);
+
+        recordedValues.put("programaId", createResponse.jsonPath().getString("id"));
+        System.out.println("DEBUG: Creado programa con ID: " + recordedValues.get("programaId"));
+    }
+
+    @And("recuerdo el campo {string} de la respuesta como {string}")
+    public void recuerdo_el_campo_de_la_respuesta(String fieldName, String name) {
+        String value = this.response.jsonPath().getString(fieldName);
+        assertNotNull(value, "La respuesta no contiene el campo " + fieldName);
+        recordedValues.put(name, value);
+    }
+
+    // Reemplaza {nombre} en la URL por los valores recordados del escenario
+    private String resolve(String endpoint) {
+        String url = endpoint;
+        for (Map.Entry<String, String> entry : recordedValues.entrySet()) {
+            url = url.replace("{" + entry.getKey() + "}", entry.getValue());
+        }
+        return url;
+    }
+
     @When("envío una solicitud POST a {string} con el siguiente cuerpo:")
     public void envio_solicitud_post_con_cuerpo(String endpoint, String body) {
         var requestSpec = given().header("Content-Type", "application/json").body(body);
@@ -239,7 +279,19 @@ public class StepDefinitions {
             requestSpec = requestSpec.header("Authorization", "Bearer " + this.jwtToken);
         }
 
-        this.response = requestSpec.when().post(endpoint);
+        this.response = requestSpec.when().post(resolve(endpoint));
+        this.validatableResponse = this.response.then();
+    }
+
+    @When("envío una solicitud POST a {string}")
+    public void envio_solicitud_post_sin_cuerpo(String endpoint) {
+        var requestSpec = given();
+
+        if (this.jwtToken != null) {
+            requestSpec = requestSpec.header("Authorization", "Bearer " + this.jwtToken);
+        }
+
+        this.response = requestSpec.when().post(resolve(endpoint));
         this.validatableResponse = this.response.then();
     }
 
@@ -253,6 +305,7 @@ public class StepDefinitions {
 
     @When("envío una solicitud GET a {string}")
     public void envio_solicitud_get(String endpoint) {
+        endpoint = resolve(endpoint);
         if (this.jwtToken == null) {
             System.out.println("DEBUG: Enviando GET sin token a: " + endpoint);
             this.response = given().when().get(endpoint);
@@ -385,8 +438,8 @@ public class StepDefinitions {
             // Si la URL contiene {id} pero no tenemos estudiante creado, lanzar error
             throw new RuntimeException("No hay un usuario creado para enviar la solicitud DELETE con reemplazo de ID.");
         } else {
-            // Si la URL no contiene {id}, usar tal como está
-            url = endpoint;
+            // Si la URL no contiene {id}, usar tal como está (con los valores recordados)
+            url = resolve(endpoint);
             System.out.println("DEBUG: Usando URL directa sin reemplazo: " + url);
         }
 
@@ -63,4 +63,180 @@ Feature: Gestión de Estudiantes
     And no existe un programa con id "4"
     When envío una solicitud DELETE a "/estudiantes/programas/4"
     Then la respuesta debe tener el código 404
-    And la respuesta JSON contiene el campo "error"
\ No newline at end of file
+    And la respuesta JSON contiene el campo "error"
+
+  Scenario: Encolar la ejecución de un programa propio y consultarla
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    And existe un estudiante con id "1"
+    And el estudiante "1" tiene un programa con el siguiente código:
+      """
+      public class Main { public static void main(String[] args) { System.out.println("hola"); } }
+      """
+    When envío una solicitud POST a "/estudiantes/programas/{programaId}/ejecuciones"
+    Then la respuesta debe tener el código 202
+    And la respuesta JSON contiene el campo "jobId"
+    And la respuesta JSON contiene el campo "status"
+    And recuerdo el campo "jobId" de la respuesta como "jobId"
+    When envío una solicitud GET a "/estudiantes/ejecuciones/{jobId}"
+    Then la respuesta debe tener el código 200
+    And la respuesta JSON contiene el campo "programaId"
+
+  Scenario: Cancelar una ejecución asíncrona propia
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    And existe un estudiante con id "1"
+    And el estudiante "1" tiene un programa con el siguiente código:
+      """
+      public class Main { public static void main(String[] args) throws Exception { Thread.sleep(5000); } }
+      """
+    When envío una solicitud POST a "/estudiantes/programas/{programaId}/ejecuciones"
+    Then la respuesta debe tener el código 202
+    And recuerdo el campo "jobId" de la respuesta como "jobId"
+    When envío una solicitud DELETE a "/estudiantes/ejecuciones/{jobId}"
+    Then la respuesta debe tener el código 200
+    And la respuesta JSON contiene el campo "jobId"
+
+  Scenario: Encolar la ejecución de un programa que no existe
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    And no existe un programa con id "999999"
+    When envío una solicitud POST a "/estudiantes/programas/999999/ejecuciones"
+    Then la respuesta debe tener el código 404
+    And la respuesta JSON contiene el campo "error"
+
+  Scenario: Consultar una ejecución asíncrona que no existe
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    When envío una solicitud GET a "/estudiantes/ejecuciones/no-existe"
+    Then la respuesta debe tener el código 404
+    And la respuesta JSON contiene el campo "error"
+
+  Scenario: Cancelar una ejecución asíncrona que no existe
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    When envío una solicitud DELETE a "/estudiantes/ejecuciones/no-existe"
+    Then la respuesta debe tener el código 404
+    And la respuesta JSON contiene el campo "error"
+
+  Scenario: Seguir la salida en vivo de una ejecución propia
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    And existe un estudiante con id "1"
+    And el estudiante "1" tiene un programa con el siguiente código:
+      """
+      public class Main { public static void main(String[] args) { System.out.println("hola"); } }
+      """
+    When envío una solicitud POST a "/estudiantes/programas/{programaId}/ejecuciones"
+    Then la respuesta debe tener el código 202
+    And recuerdo el campo "jobId" de la respuesta como "jobId"
+    When envío una solicitud GET a "/estudiantes/ejecuciones/{jobId}/salida"
+    Then la respuesta debe tener el código 200
+    And el header "Content-Type" contiene "text/event-stream"
+
+  Scenario: Seguir la salida de una ejecución asíncrona que no existe
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    When envío una solicitud GET a "/estudiantes/ejecuciones/no-existe/salida"
+    Then la respuesta debe tener el código 404
+
+  Scenario: Evaluar un programa propio con un caso de prueba
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    And existe un estudiante con id "1"
+    And el estudiante "1" tiene un programa con el siguiente código:
+      """
+      public class Main { public static void main(String[] args) { System.out.println(new java.util.Scanner(System.in).nextLine().toUpperCase()); } }
+      """
+    And estoy autenticado como profesor con email "anrumo232@gmail.com" y contraseña "1234"
+    When envío una solicitud POST a "/profesores/programas/{programaId}/casos" con el siguiente cuerpo:
+      """
+      {
+        "nombre": "Mayúsculas",
+        "entrada": "hola",
+        "salidaEsperada": "HOLA"
+      }
+      """
+    Then la respuesta debe tener el código 201
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    When envío una solicitud POST a "/estudiantes/programas/{programaId}/evaluar"
+    Then la respuesta debe tener el código 200
+    And la respuesta JSON contiene el campo "totalCasos" con valor 1
+    And la respuesta JSON contiene el campo "aprobados" con valor 1
+
+  Scenario: Evaluar un programa que no existe
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    And no existe un programa con id "999999"
+    When envío una solicitud POST a "/estudiantes/programas/999999/evaluar"
+    Then la respuesta debe tener el código 404
+    And la respuesta JSON contiene el campo "error"
+
+  Scenario: Ejecutar un ejemplo compartido
+    Given estoy autenticado como profesor con email "anrumo232@gmail.com" y contraseña "1234"
+    When envío una solicitud POST a "/profesores/ejemplos" con el siguiente cuerpo:
+      """
+      {
+        "titulo": "Hola mundo",
+        "descripcion": "Imprime un saludo",
+        "codigoFuente": "public class Main { public static void main(String[] args) { System.out.println(\"hola\"); } }",
+        "tema": "BASICOS",
+        "shared": true
+      }
+      """
+    Then la respuesta debe tener el código 201
+    And recuerdo el campo "id" de la respuesta como "ejemploId"
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    When envío una solicitud POST a "/estudiantes/ejemplos/{ejemploId}/ejecutar"
+    Then la respuesta debe tener el código 200
+    And la respuesta JSON contiene el campo "exitCode" con valor 0
+    And la respuesta JSON contiene el campo "stdout"
+
+  Scenario: Ejecutar un ejemplo que no existe
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    When envío una solicitud POST a "/estudiantes/ejemplos/999999/ejecutar"
+    Then la respuesta debe tener el código 404
+    And la respuesta JSON contiene el campo "error"
+
+  Scenario: Diagnósticos de un borrador que compila
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    When envío una solicitud POST a "/estudiantes/diagnosticos" con el siguiente cuerpo:
+      """
+      {
+        "codigoFuente": "public class Main { public static void main(String[] args) { System.out.println(1); } }"
+      }
+      """
+    Then la respuesta debe tener el código 200
+    And la respuesta JSON contiene el campo "compila"
+    And la respuesta JSON contiene el campo "diagnosticos"
+
+  Scenario: Diagnósticos de un borrador con un error de compilación
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    When envío una solicitud POST a "/estudiantes/diagnosticos" con el siguiente cuerpo:
+      """
+      {
+        "codigoFuente": "public class Main { public static void main(String[] args) { int x = ; } }"
+      }
+      """
+    Then la respuesta debe tener el código 200
+    And la respuesta JSON contiene el campo "diagnosticos"
+    And la respuesta JSON contiene el campo "diagnosticos[0].linea"
+
+  Scenario: Diagnósticos de un borrador vacío
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    When envío una solicitud POST a "/estudiantes/diagnosticos" con el siguiente cuerpo:
+      """
+      {
+        "codigoFuente": ""
+      }
+      """
+    Then la respuesta debe tener el código 400
+
+  Scenario: Diagnósticos de un programa propio
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    And existe un estudiante con id "1"
+    And el estudiante "1" tiene un programa con el siguiente código:
+      """
+      public class Main { public static void main(String[] args) { System.out.println(x); } }
+      """
+    When envío una solicitud POST a "/estudiantes/programas/{programaId}/diagnosticos"
+    Then la respuesta debe tener el código 200
+    And la respuesta JSON contiene el campo "diagnosticos[0].mensaje"
+
+  Scenario: Diagnósticos de un programa que no existe
+    Given estoy autenticado como estudiante con email "isabellacardozo11@gmail.com" y contraseña "123"
+    And no existe un programa con id "999999"
+    When envío una solicitud POST a "/estudiantes/programas/999999/diagnosticos"
+    Then la respuesta debe tener el código 404
+    And la respuesta JSON contiene el campo "error"